@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.linecorp.bot.client.exception.GeneralLineMessagingException;
+
+/**
+ * Blocking blob transfers used by the default methods of {@link LineBlobClient}.
+ *
+ * <p>{@link IOException}s while copying are thrown as {@link GeneralLineMessagingException} wrapped in
+ * {@link CompletionException}, so they fail the future of the calling stage.
+ */
+final class BlobContents {
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Copy the content into the file, replacing it. The content is closed.
+     */
+    static long copy(final MessageContentResponse content, final Path file) {
+        try (MessageContentResponse closing = content;
+             FileChannel channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            return transfer(closing, channel);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Copy the content into the channel. The content is closed but the channel is not.
+     */
+    static long copy(final MessageContentResponse content, final WritableByteChannel channel) {
+        try (MessageContentResponse closing = content) {
+            return transfer(closing, channel);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Read exactly {@code length} bytes from the stream. The stream is not closed.
+     */
+    static byte[] read(final InputStream in, final long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported content length: " + length);
+        }
+        final byte[] content = new byte[(int) length];
+        int read = 0;
+        while (read < content.length) {
+            final int n = in.read(content, read, content.length - read);
+            if (n < 0) {
+                throw new IOException("Expected " + length + " bytes but the content ended after " + read
+                                      + " bytes");
+            }
+            read += n;
+        }
+        return content;
+    }
+
+    static <T> CompletableFuture<T> failedFuture(final IOException e) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(new GeneralLineMessagingException(e.getMessage(), null, e));
+        return future;
+    }
+
+    private static long transfer(final MessageContentResponse content, final WritableByteChannel channel)
+            throws IOException {
+        final ReadableByteChannel source = Channels.newChannel(content.getStream());
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long transferred = 0;
+        while (source.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                transferred += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        final long expected = content.getLength();
+        if (expected >= 0 && transferred != expected) {
+            throw new IOException("Content-Length is " + expected + " but received " + transferred
+                                  + " bytes");
+        }
+        return transferred;
+    }
+
+    private static CompletionException failure(final IOException e) {
+        return new CompletionException(new GeneralLineMessagingException(e.getMessage(), null, e));
+    }
+
+    private BlobContents() {
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.Collections.emptyList;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import com.linecorp.bot.client.exception.GeneralLineMessagingException;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Retry engine of Messaging API calls carrying a retry key.
+ *
+ * <p>Retries are scheduled on a {@link ScheduledExecutorService}; no thread is blocked while waiting.
+ *
+ * @see RetryPolicy
+ */
+@Slf4j
+final class BotApiRetrier {
+    private static final ExceptionConverter EXCEPTION_CONVERTER = new ExceptionConverter();
+
+    private final RetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+    private final ScheduledExecutorService scheduler;
+
+    BotApiRetrier(final RetryPolicy retryPolicy, final ScheduledExecutorService scheduler) {
+        this.retryPolicy = retryPolicy;
+        this.retryBudget = new RetryBudget(retryPolicy);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Create a retrier with the same policy and scheduler, and a retry budget of its own.
+     */
+    BotApiRetrier withNewBudget() {
+        return new BotApiRetrier(retryPolicy, scheduler);
+    }
+
+    /**
+     * Send the call, and retry it if needed.
+     *
+     * @param dispatcher enqueues each attempt, e.g. {@code Call::enqueue}.
+     */
+    RetryingCallbackAdaptor execute(
+            final Call<BotApiResponseBody> call,
+            final BiConsumer<Call<BotApiResponseBody>, Callback<BotApiResponseBody>> dispatcher) {
+        final RetryingCallbackAdaptor completableFuture = new RetryingCallbackAdaptor(dispatcher);
+        dispatcher.accept(call, completableFuture);
+        return completableFuture;
+    }
+
+    static boolean isRetryable(final int code) {
+        return code == 429 || code >= 500;
+    }
+
+    /**
+     * Delay requested by the {@literal Retry-After} header in milliseconds, or {@code -1} if absent.
+     */
+    static long retryAfterMillis(final Response<?> response, final long nowMillis) {
+        final String retryAfter = response.headers().get("Retry-After");
+        if (retryAfter == null) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            final Date date = response.headers().getDate("Retry-After");
+            return date != null ? Math.max(0, date.getTime() - nowMillis) : -1;
+        }
+    }
+
+    long backoffMillis(final int retry) {
+        return backoffMillis(retryPolicy, retry);
+    }
+
+    /**
+     * Exponential backoff with jitter before the {@code retry}-th retry, starting from 1.
+     */
+    static long backoffMillis(final RetryPolicy retryPolicy, final int retry) {
+        final double backoff = Math.min(
+                retryPolicy.getMaxBackoffMillis(),
+                retryPolicy.getInitialBackoffMillis()
+                * Math.pow(retryPolicy.getBackoffMultiplier(), retry - 1));
+        return (long) (backoff * (1 - retryPolicy.getJitter() * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * Completes with the first conclusive response. Every attempt is a {@link Call#clone()} of the first one,
+     * so the same retry key is sent each time.
+     */
+    final class RetryingCallbackAdaptor extends CompletableFuture<BotApiResponse>
+            implements Callback<BotApiResponseBody> {
+        private final BiConsumer<Call<BotApiResponseBody>, Callback<BotApiResponseBody>> dispatcher;
+        private volatile int attempts = 1;
+
+        RetryingCallbackAdaptor(
+                final BiConsumer<Call<BotApiResponseBody>, Callback<BotApiResponseBody>> dispatcher) {
+            this.dispatcher = dispatcher;
+        }
+
+        /**
+         * Number of attempts made so far, including the first one.
+         */
+        int getAttempts() {
+            return attempts;
+        }
+
+        @Override
+        public void onResponse(final Call<BotApiResponseBody> call,
+                               final Response<BotApiResponseBody> response) {
+            final String requestId = response.headers().get("x-line-request-id");
+            if (response.isSuccessful()) {
+                retryBudget.onSuccess();
+                complete(response.body().withRequestId(requestId));
+            } else if (response.code() == 409 && attempts > 1) {
+                // The request with this retry key was already accepted by a previous attempt. A 409 for the
+                // first attempt means the key was used by another request, so it is a conflict.
+                retryBudget.onSuccess();
+                final String acceptedRequestId = response.headers().get("x-line-accepted-request-id");
+                complete(new BotApiResponse(acceptedRequestId != null ? acceptedRequestId : requestId,
+                                            "", emptyList()));
+            } else if (isRetryable(response.code())) {
+                retryOrFail(call, retryAfterMillis(response, System.currentTimeMillis()),
+                            EXCEPTION_CONVERTER.apply(response));
+            } else {
+                completeExceptionally(EXCEPTION_CONVERTER.apply(response));
+            }
+        }
+
+        @Override
+        public void onFailure(final Call<BotApiResponseBody> call, final Throwable t) {
+            final GeneralLineMessagingException exception =
+                    new GeneralLineMessagingException(t.getMessage(), null, t);
+            if (t instanceof IOException && !call.isCanceled()) {
+                retryOrFail(call, -1, exception);
+            } else {
+                completeExceptionally(exception);
+            }
+        }
+
+        private void retryOrFail(final Call<BotApiResponseBody> call, final long retryAfterMillis,
+                                 final Exception exception) {
+            if (isDone()
+                || attempts >= retryPolicy.getMaxAttempts()
+                || retryAfterMillis > retryPolicy.getMaxRetryAfterMillis()
+                || !retryBudget.tryRetry()) {
+                completeExceptionally(exception);
+                return;
+            }
+            final long delayMillis = retryAfterMillis >= 0 ? retryAfterMillis : backoffMillis(attempts);
+            attempts++;
+            log.debug("Retrying {} in {}ms (attempt {}): {}",
+                      call.request().url(), delayMillis, attempts, exception.getMessage());
+            try {
+                scheduler.schedule(() -> {
+                    if (!isDone()) {
+                        dispatcher.accept(call.clone(), this);
+                    }
+                }, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.warn("Can't retry {}: {}", call.request().url(), e.getMessage());
+                attempts--;
+                completeExceptionally(exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.LeaveEvent;
+import com.linecorp.bot.model.event.MemberLeftEvent;
+import com.linecorp.bot.model.event.UnfollowEvent;
+import com.linecorp.bot.model.event.source.Source;
+import com.linecorp.bot.model.profile.UserProfileResponse;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.experimental.Delegate;
+
+/**
+ * {@link LineMessagingClient} caching user profiles.
+ *
+ * <p>Profiles of {@link #getProfile(String)}, {@link #getGroupMemberProfile(String, String)} and
+ * {@link #getRoomMemberProfile(String, String)} are cached for
+ * {@link CachingLineMessagingClientBuilder#ttl(Duration) ttl} after they are fetched, up to
+ * {@link CachingLineMessagingClientBuilder#maximumSize(int) maximumSize} profiles. Concurrent requests of a
+ * profile which is not cached share one API call. Failures are not cached. Other methods are delegated as
+ * they are.
+ *
+ * <pre>{@code
+ * CachingLineMessagingClient client =
+ *         CachingLineMessagingClient.builder(LineMessagingClient.builder(channelToken).build())
+ *                                   .ttl(Duration.ofMinutes(30))
+ *                                   .build();
+ * }</pre>
+ *
+ * <p>Pass webhook events to {@link #invalidate(Event)} to drop profiles of users who unfollowed or left.
+ */
+public final class CachingLineMessagingClient implements LineMessagingClient {
+    @Delegate(excludes = CachedMethods.class)
+    private final LineMessagingClient delegate;
+
+    private final Map<Key, CachedProfile> entries;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+
+    private long hitCount;
+    private long coalescedCount;
+    private long missCount;
+    private long evictionCount;
+
+    CachingLineMessagingClient(final LineMessagingClient delegate, final int maximumSize,
+                               final Duration ttl, final LongSupplier ticker) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        entries = new LinkedHashMap<Key, CachedProfile>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, CachedProfile> eldest) {
+                if (size() <= maximumSize) {
+                    return false;
+                }
+                evictionCount++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Create a new {@link CachingLineMessagingClientBuilder} decorating the client.
+     */
+    public static CachingLineMessagingClientBuilder builder(@NonNull LineMessagingClient delegate) {
+        return new CachingLineMessagingClientBuilder(delegate);
+    }
+
+    @Override
+    public CompletableFuture<UserProfileResponse> getProfile(final String userId) {
+        return get(new Key(null, userId), () -> delegate.getProfile(userId));
+    }
+
+    @Override
+    public CompletableFuture<UserProfileResponse> getGroupMemberProfile(final String groupId,
+                                                                        final String userId) {
+        return get(new Key(groupId, userId), () -> delegate.getGroupMemberProfile(groupId, userId));
+    }
+
+    @Override
+    public CompletableFuture<UserProfileResponse> getRoomMemberProfile(final String roomId,
+                                                                       final String userId) {
+        return get(new Key(roomId, userId), () -> delegate.getRoomMemberProfile(roomId, userId));
+    }
+
+    /**
+     * Drop profiles which the event makes stale.
+     *
+     * <ul>
+     * <li>{@link UnfollowEvent}: the profile of the user.</li>
+     * <li>{@link MemberLeftEvent}: the member profiles of the users in the group or room.</li>
+     * <li>{@link LeaveEvent}: all member profiles of the group or room.</li>
+     * </ul>
+     */
+    public void invalidate(final Event event) {
+        final Source source = event.getSource();
+        if (source == null) {
+            return;
+        }
+        if (event instanceof UnfollowEvent) {
+            remove(null, source.getUserId());
+        } else if (event instanceof MemberLeftEvent) {
+            final MemberLeftEvent.LeftMembers left = ((MemberLeftEvent) event).getLeft();
+            if (left != null && left.getMembers() != null) {
+                left.getMembers().forEach(member -> remove(source.getSenderId(), member.getUserId()));
+            }
+        } else if (event instanceof LeaveEvent) {
+            synchronized (this) {
+                entries.keySet().removeIf(key -> Objects.equals(key.getContainerId(), source.getSenderId()));
+            }
+        }
+    }
+
+    /**
+     * Drop all profiles of the user, including member profiles.
+     */
+    public synchronized void invalidate(final String userId) {
+        entries.keySet().removeIf(key -> Objects.equals(key.getUserId(), userId));
+    }
+
+    /**
+     * Drop all profiles.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Current statistics of the profile cache.
+     */
+    public synchronized ProfileCacheStats getProfileCacheStats() {
+        return ProfileCacheStats.builder()
+                                .hitCount(hitCount)
+                                .coalescedCount(coalescedCount)
+                                .missCount(missCount)
+                                .evictionCount(evictionCount)
+                                .size(entries.size())
+                                .build();
+    }
+
+    private synchronized void remove(final String containerId, final String userId) {
+        entries.remove(new Key(containerId, userId));
+    }
+
+    private CompletableFuture<UserProfileResponse> get(
+            final Key key, final Supplier<CompletableFuture<UserProfileResponse>> loader) {
+        final CachedProfile entry;
+        synchronized (this) {
+            final CachedProfile cached = entries.get(key);
+            if (cached != null) {
+                if (!cached.future.isDone()) {
+                    coalescedCount++;
+                    return copy(cached.future);
+                }
+                if (cached.expiresAtNanos - ticker.getAsLong() > 0) {
+                    hitCount++;
+                    return copy(cached.future);
+                }
+            }
+            missCount++;
+            entry = new CachedProfile();
+            entries.put(key, entry);
+        }
+
+        CompletableFuture<UserProfileResponse> response;
+        try {
+            response = loader.get();
+        } catch (RuntimeException e) {
+            response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+        }
+        response.whenComplete((profile, error) -> {
+            if (error != null) {
+                synchronized (this) {
+                    entries.remove(key, entry);
+                }
+                entry.future.completeExceptionally(error);
+            } else {
+                entry.expiresAtNanos = ticker.getAsLong() + ttlNanos;
+                entry.future.complete(profile);
+            }
+        });
+        return copy(entry.future);
+    }
+
+    /**
+     * Callers get their own future, so that completing it doesn't affect others.
+     */
+    private static <T> CompletableFuture<T> copy(final CompletableFuture<T> future) {
+        return future.thenApply(Function.identity());
+    }
+
+    /**
+     * {@code containerId} is the group or room ID of a member profile, or {@code null} for a profile of a
+     * friend.
+     */
+    @Value
+    private static class Key {
+        String containerId;
+        String userId;
+    }
+
+    private static final class CachedProfile {
+        final CompletableFuture<UserProfileResponse> future = new CompletableFuture<>();
+        /**
+         * Set before {@link #future} completes, so it's valid once the future is done.
+         */
+        volatile long expiresAtNanos;
+    }
+
+    /**
+     * Methods implemented by this class instead of {@link Delegate}.
+     */
+    private interface CachedMethods {
+        CompletableFuture<UserProfileResponse> getProfile(String userId);
+
+        CompletableFuture<UserProfileResponse> getGroupMemberProfile(String groupId, String userId);
+
+        CompletableFuture<UserProfileResponse> getRoomMemberProfile(String roomId, String userId);
+    }
+}
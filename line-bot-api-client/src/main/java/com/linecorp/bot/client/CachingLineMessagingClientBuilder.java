@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.time.Duration;
+
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+@ToString
+@Accessors(fluent = true)
+public class CachingLineMessagingClientBuilder {
+    private final LineMessagingClient delegate;
+
+    /**
+     * Use {@link CachingLineMessagingClient#builder} to create instance.
+     */
+    CachingLineMessagingClientBuilder(final LineMessagingClient delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Maximum number of cached profiles. The least recently used one is evicted beyond it.
+     *
+     * <p>Default {@value LineClientConstants#DEFAULT_PROFILE_CACHE_MAXIMUM_SIZE}.
+     */
+    @Setter
+    private int maximumSize = LineClientConstants.DEFAULT_PROFILE_CACHE_MAXIMUM_SIZE;
+
+    /**
+     * How long a profile is cached after it's fetched.
+     *
+     * <p>Default 10 minutes.
+     */
+    @Setter
+    @NonNull
+    private Duration ttl = Duration.ofMillis(LineClientConstants.DEFAULT_PROFILE_CACHE_TTL_MILLIS);
+
+    /**
+     * Creates a new {@link CachingLineMessagingClient}.
+     */
+    public CachingLineMessagingClient build() {
+        return new CachingLineMessagingClient(delegate, maximumSize, ttl, System::nanoTime);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * {@link Call} of one channel on a Retrofit service shared by many channels.
+ *
+ * <p>Retrofit creates the underlying HTTP call synchronously in {@link #enqueue(Callback)},
+ * {@link #execute()} and {@link #request()}. The channel is bound to the current thread meanwhile, and the
+ * {@link #callFactory(OkHttpClient) call factory} tags the request with it for {@link HeaderInterceptor}.
+ * So all channels share one Retrofit instance, its parsed service methods and one {@link OkHttpClient}.
+ */
+final class ChannelCall<T> implements Call<T> {
+    private static final ThreadLocal<ChannelTokenSupplier> CURRENT = new ThreadLocal<>();
+
+    private final Call<T> delegate;
+    private final ChannelTokenSupplier channelTokenSupplier;
+
+    ChannelCall(final Call<T> delegate, final ChannelTokenSupplier channelTokenSupplier) {
+        this.delegate = delegate;
+        this.channelTokenSupplier = channelTokenSupplier;
+    }
+
+    /**
+     * Call factory of the shared Retrofit instance, tagging requests with the channel of the current call.
+     */
+    static okhttp3.Call.Factory callFactory(final OkHttpClient okHttpClient) {
+        return request -> {
+            final ChannelTokenSupplier channel = CURRENT.get();
+            return okHttpClient.newCall(
+                    channel != null ? request.newBuilder().tag(ChannelTokenSupplier.class, channel).build()
+                                    : request);
+        };
+    }
+
+    /**
+     * Bind a shared Retrofit service to the channel.
+     */
+    @SuppressWarnings("unchecked")
+    static <S> S bind(final Class<S> serviceInterface, final S service,
+                      final ChannelTokenSupplier channelTokenSupplier) {
+        return (S) Proxy.newProxyInstance(
+                serviceInterface.getClassLoader(), new Class<?>[] { serviceInterface },
+                (proxy, method, args) -> {
+                    final Object result;
+                    try {
+                        result = method.invoke(service, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    return result instanceof Call ? new ChannelCall<>((Call<?>) result, channelTokenSupplier)
+                                                  : result;
+                });
+    }
+
+    @Override
+    public Response<T> execute() throws IOException {
+        final ChannelTokenSupplier previous = CURRENT.get();
+        CURRENT.set(channelTokenSupplier);
+        try {
+            return delegate.execute();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    public void enqueue(final Callback<T> callback) {
+        withChannel(() -> {
+            delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(final Call<T> call, final Response<T> response) {
+                    callback.onResponse(ChannelCall.this, response);
+                }
+
+                @Override
+                public void onFailure(final Call<T> call, final Throwable t) {
+                    callback.onFailure(ChannelCall.this, t);
+                }
+            });
+            return null;
+        });
+    }
+
+    @Override
+    public Request request() {
+        return withChannel(delegate::request);
+    }
+
+    private <R> R withChannel(final Supplier<R> action) {
+        final ChannelTokenSupplier previous = CURRENT.get();
+        CURRENT.set(channelTokenSupplier);
+        try {
+            return action.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return delegate.isExecuted();
+    }
+
+    @Override
+    public void cancel() {
+        delegate.cancel();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return delegate.isCanceled();
+    }
+
+    @Override
+    public Call<T> clone() {
+        return new ChannelCall<>(delegate.clone(), channelTokenSupplier);
+    }
+
+    @Override
+    public Timeout timeout() {
+        return delegate.timeout();
+    }
+}
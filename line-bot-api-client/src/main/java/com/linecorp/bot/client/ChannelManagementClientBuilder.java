@@ -34,6 +34,9 @@ import retrofit2.Retrofit;
 public class ChannelManagementClientBuilder {
     private URI apiEndPoint = LineClientConstants.DEFAULT_API_END_POINT;
     private ChannelTokenSupplier channelTokenSupplier;
+    private LineTransport transport;
+    private WireLogLevel wireLogLevel = WireLogLevel.BODY;
+    private long wireLogMaxBodyBytes = LineClientConstants.DEFAULT_WIRE_LOG_MAX_BODY_BYTES;
 
     /**
      * Create a new {@link ChannelManagementClientBuilder} with specified {@link ChannelTokenSupplier}.
@@ -47,11 +50,12 @@ public class ChannelManagementClientBuilder {
      * Build a new {@link ChannelManagementSyncClient}.
      */
     public ChannelManagementSyncClient build() {
-        final Builder okHttpClientBuilder = new Builder();
+        final Builder okHttpClientBuilder = transport != null ? transport.newOkHttpClientBuilder()
+                                                              : new Builder();
 
         okHttpClientBuilder
                 .addInterceptor(buildAuthenticationInterceptor(channelTokenSupplier))
-                .addInterceptor(buildLoggingInterceptor());
+                .addInterceptor(buildLoggingInterceptor(wireLogLevel, wireLogMaxBodyBytes, true));
 
         final OkHttpClient okHttpClient = okHttpClientBuilder.build();
 
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+/**
+ * Group of Messaging API endpoints sharing one rate limit.
+ *
+ * @see EndpointRateLimiter
+ * @see <a href="https://developers.line.biz/en/reference/messaging-api/#rate-limits">Rate limits</a>
+ */
+public enum EndpointFamily {
+    /**
+     * {@link LineMessagingClient#replyMessage}.
+     */
+    REPLY,
+
+    /**
+     * {@link LineMessagingClient#pushMessage}.
+     */
+    PUSH,
+
+    /**
+     * {@link LineMessagingClient#multicast}.
+     */
+    MULTICAST,
+
+    /**
+     * {@link LineMessagingClient#narrowcast}.
+     */
+    NARROWCAST,
+
+    /**
+     * {@link LineMessagingClient#broadcast}.
+     */
+    BROADCAST,
+
+    /**
+     * User, group member and room member profiles.
+     */
+    PROFILE,
+
+    /**
+     * Rich menu creation, deletion and linking.
+     */
+    RICH_MENU,
+
+    /**
+     * All other endpoints.
+     */
+    OTHER,
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Limit of one {@link EndpointFamily}.
+ *
+ * <pre>{@code
+ * EndpointLimit.builder()
+ *              .permitsPerSecond(200)
+ *              .maxInFlight(50)
+ *              .build();
+ * }</pre>
+ */
+@Value
+@Builder
+public class EndpointLimit {
+    /**
+     * Sustained number of requests started per second. Zero or less disables rate limiting.
+     */
+    double permitsPerSecond;
+
+    /**
+     * Number of requests which can be started at once after idle time.
+     *
+     * <p>Defaults to {@link #getPermitsPerSecond()} rounded up when zero or less.
+     */
+    int burst;
+
+    /**
+     * Maximum number of requests in flight.
+     */
+    @Builder.Default
+    int maxInFlight = Integer.MAX_VALUE;
+
+    /**
+     * Maximum number of requests waiting for a permit. Used only with {@link OverflowPolicy#QUEUE}.
+     */
+    @Builder.Default
+    int maxQueued = Integer.MAX_VALUE;
+
+    /**
+     * Behavior when no permit is available.
+     */
+    @Builder.Default
+    OverflowPolicy overflowPolicy = OverflowPolicy.QUEUE;
+
+    public enum OverflowPolicy {
+        /**
+         * Wait for a permit, up to {@link #getMaxQueued()} requests; reject beyond that.
+         */
+        QUEUE,
+
+        /**
+         * Reject immediately.
+         */
+        FAIL_FAST,
+    }
+}
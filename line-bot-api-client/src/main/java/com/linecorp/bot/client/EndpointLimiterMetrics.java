@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Snapshot of the state of one {@link EndpointFamily} in {@link EndpointRateLimiter}.
+ */
+@Value
+@Builder
+public class EndpointLimiterMetrics {
+    EndpointFamily family;
+
+    /**
+     * Permits available right now.
+     */
+    double availablePermits;
+
+    /**
+     * Requests sent and not completed yet.
+     */
+    int inFlight;
+
+    /**
+     * Requests waiting for a permit.
+     */
+    int queued;
+
+    /**
+     * Total number of requests sent.
+     */
+    long admitted;
+
+    /**
+     * Total number of requests rejected by the overflow policy.
+     */
+    long rejected;
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import com.linecorp.bot.client.EndpointLimit.OverflowPolicy;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Client side rate limiter and concurrency governor per {@link EndpointFamily}.
+ *
+ * <p>Each configured family has a token bucket and an in-flight cap. Calls beyond the limit wait in a queue
+ * or are rejected immediately, according to {@link EndpointLimit#getOverflowPolicy()}. No thread is blocked
+ * while waiting. Rejected calls complete exceptionally with
+ * {@link com.linecorp.bot.client.exception.GeneralLineMessagingException} caused by
+ * {@link RejectedExecutionException}.
+ *
+ * <p>Families without a limit are not governed at all.
+ *
+ * <pre>{@code
+ * EndpointRateLimiter rateLimiter =
+ *         EndpointRateLimiter.builder()
+ *                            .limit(EndpointFamily.PUSH,
+ *                                   EndpointLimit.builder().permitsPerSecond(2000).build())
+ *                            .limit(EndpointFamily.MULTICAST,
+ *                                   EndpointLimit.builder().permitsPerSecond(200).build())
+ *                            .build();
+ *
+ * LineMessagingClient client = LineMessagingClient.builder(channelToken)
+ *                                                 .rateLimiter(rateLimiter)
+ *                                                 .build();
+ * }</pre>
+ *
+ * @see #metrics()
+ */
+public final class EndpointRateLimiter {
+    private final Map<EndpointFamily, Lane> lanes;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier ticker;
+
+    EndpointRateLimiter(final Map<EndpointFamily, EndpointLimit> limits,
+                        final ScheduledExecutorService scheduler,
+                        final LongSupplier ticker) {
+        this.scheduler = scheduler;
+        this.ticker = ticker;
+        this.lanes = new EnumMap<>(EndpointFamily.class);
+        limits.forEach((family, limit) -> lanes.put(family, new Lane(family, limit)));
+    }
+
+    /**
+     * Create a new {@link EndpointRateLimiterBuilder}.
+     */
+    public static EndpointRateLimiterBuilder builder() {
+        return new EndpointRateLimiterBuilder();
+    }
+
+    /**
+     * Current state of the given family. Returns {@code null} if the family has no limit.
+     */
+    public EndpointLimiterMetrics metrics(final EndpointFamily family) {
+        final Lane lane = lanes.get(family);
+        return lane != null ? lane.metrics() : null;
+    }
+
+    /**
+     * Current state of all limited families.
+     */
+    public Map<EndpointFamily, EndpointLimiterMetrics> metrics() {
+        final Map<EndpointFamily, EndpointLimiterMetrics> metrics = new EnumMap<>(EndpointFamily.class);
+        lanes.forEach((family, lane) -> metrics.put(family, lane.metrics()));
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Enqueue the call when a permit of the family is available.
+     */
+    <T> void enqueue(final EndpointFamily family, final Call<T> call, final Callback<T> callback) {
+        final Lane lane = lanes.get(family);
+        if (lane == null) {
+            call.enqueue(callback);
+            return;
+        }
+        lane.submit(new Task(() -> call.enqueue(new ReleasingCallback<>(lane, callback)),
+                             t -> callback.onFailure(call, t)));
+    }
+
+    /**
+     * A call waiting for a permit and how to fail it if it can't be sent.
+     */
+    private static final class Task {
+        private final Runnable run;
+        private final Consumer<Throwable> failure;
+
+        Task(final Runnable run, final Consumer<Throwable> failure) {
+            this.run = run;
+            this.failure = failure;
+        }
+    }
+
+    private final class Lane {
+        private final EndpointFamily family;
+        private final EndpointLimit limit;
+        private final double permitsPerNano;
+        private final double maxPermits;
+        private final Deque<Task> queue = new ArrayDeque<>();
+
+        private double permits;
+        private long lastRefillNanos;
+        private int inFlight;
+        private boolean drainScheduled;
+        private long admitted;
+        private long rejected;
+
+        Lane(final EndpointFamily family, final EndpointLimit limit) {
+            this.family = family;
+            this.limit = limit;
+            permitsPerNano = limit.getPermitsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+            maxPermits = limit.getBurst() > 0 ? limit.getBurst()
+                                              : Math.max(1, Math.ceil(limit.getPermitsPerSecond()));
+            permits = maxPermits;
+            lastRefillNanos = ticker.getAsLong();
+        }
+
+        void submit(final Task task) {
+            final List<Task> unschedulable;
+            synchronized (this) {
+                if (queue.isEmpty() && tryAcquire()) {
+                    unschedulable = null;
+                } else if (limit.getOverflowPolicy() == OverflowPolicy.FAIL_FAST
+                           || queue.size() >= limit.getMaxQueued()) {
+                    rejected++;
+                    unschedulable = Collections.singletonList(task);
+                } else {
+                    queue.add(task);
+                    unschedulable = scheduleDrainIfNeeded();
+                }
+            }
+            if (unschedulable == null) {
+                if (!tryRun(task)) {
+                    drain();
+                }
+            } else {
+                reject(unschedulable);
+            }
+        }
+
+        void release() {
+            synchronized (this) {
+                inFlight--;
+            }
+            drain();
+        }
+
+        /**
+         * Run the queued tasks that have a permit. A task that throws gives its permit back, so drain again
+         * instead of releasing it recursively.
+         */
+        void drain() {
+            boolean released = true;
+            while (released) {
+                final List<Task> tasks = new ArrayList<>();
+                final List<Task> unschedulable;
+                synchronized (this) {
+                    while (!queue.isEmpty() && tryAcquire()) {
+                        tasks.add(queue.poll());
+                    }
+                    unschedulable = scheduleDrainIfNeeded();
+                }
+                reject(unschedulable);
+                released = false;
+                for (Task task : tasks) {
+                    released |= !tryRun(task);
+                }
+            }
+        }
+
+        /**
+         * Run a task holding a permit. If it throws, the permit is given back without draining and the task
+         * fails. Returns {@code false} in that case.
+         */
+        private boolean tryRun(final Task task) {
+            try {
+                task.run.run();
+                return true;
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    inFlight--;
+                }
+                task.failure.accept(e);
+                return false;
+            }
+        }
+
+        private void reject(final List<Task> tasks) {
+            tasks.forEach(task -> task.failure.accept(new RejectedExecutionException(
+                    "Client side rate limit exceeded: " + family)));
+        }
+
+        private void scheduledDrain() {
+            synchronized (this) {
+                drainScheduled = false;
+            }
+            drain();
+        }
+
+        private boolean tryAcquire() {
+            if (inFlight >= limit.getMaxInFlight()) {
+                return false;
+            }
+            if (permitsPerNano > 0) {
+                refill();
+                if (permits < 1) {
+                    return false;
+                }
+                permits -= 1;
+            }
+            inFlight++;
+            admitted++;
+            return true;
+        }
+
+        private void refill() {
+            final long now = ticker.getAsLong();
+            permits = Math.min(maxPermits, permits + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+        }
+
+        /**
+         * Wake up when the next permit is available. Completion of an in-flight call wakes up by itself.
+         * If the scheduler rejects the wake up and nothing is in flight, nothing would ever drain the queue,
+         * so the queued tasks are removed and returned to be rejected outside the lock.
+         */
+        private List<Task> scheduleDrainIfNeeded() {
+            if (drainScheduled || queue.isEmpty() || inFlight >= limit.getMaxInFlight()
+                || permitsPerNano <= 0) {
+                return Collections.emptyList();
+            }
+            final long delayNanos = (long) Math.ceil((1 - permits) / permitsPerNano);
+            try {
+                scheduler.schedule(this::scheduledDrain, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+                drainScheduled = true;
+                return Collections.emptyList();
+            } catch (RejectedExecutionException e) {
+                if (inFlight > 0) {
+                    return Collections.emptyList();
+                }
+                final List<Task> unschedulable = new ArrayList<>(queue);
+                queue.clear();
+                rejected += unschedulable.size();
+                return unschedulable;
+            }
+        }
+
+        synchronized EndpointLimiterMetrics metrics() {
+            if (permitsPerNano > 0) {
+                refill();
+            }
+            return EndpointLimiterMetrics.builder()
+                                         .family(family)
+                                         .availablePermits(permitsPerNano > 0 ? permits
+                                                                              : Double.POSITIVE_INFINITY)
+                                         .inFlight(inFlight)
+                                         .queued(queue.size())
+                                         .admitted(admitted)
+                                         .rejected(rejected)
+                                         .build();
+        }
+    }
+
+    private static final class ReleasingCallback<T> implements Callback<T> {
+        private final Lane lane;
+        private final Callback<T> delegate;
+
+        ReleasingCallback(final Lane lane, final Callback<T> delegate) {
+            this.lane = lane;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onResponse(final Call<T> call, final Response<T> response) {
+            lane.release();
+            delegate.onResponse(call, response);
+        }
+
+        @Override
+        public void onFailure(final Call<T> call, final Throwable t) {
+            lane.release();
+            delegate.onFailure(call, t);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.experimental.PackagePrivate;
+
+@ToString
+@Accessors(fluent = true)
+public class EndpointRateLimiterBuilder {
+    /**
+     * Use {@link EndpointRateLimiter#builder()} to create instance.
+     */
+    @PackagePrivate
+    EndpointRateLimiterBuilder() {
+    }
+
+    private final Map<EndpointFamily, EndpointLimit> limits = new EnumMap<>(EndpointFamily.class);
+
+    /**
+     * Scheduler waking up queued calls when permits become available.
+     *
+     * <p>A daemon thread shared by all clients is used in case of {@code null} (default).
+     */
+    @Setter
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Set the limit of the family. Families without a limit are not governed.
+     */
+    public EndpointRateLimiterBuilder limit(@NonNull EndpointFamily family, @NonNull EndpointLimit limit) {
+        limits.put(family, limit);
+        return this;
+    }
+
+    /**
+     * Creates a new {@link EndpointRateLimiter}.
+     */
+    public EndpointRateLimiter build() {
+        return new EndpointRateLimiter(
+                limits,
+                scheduler != null ? scheduler : DefaultScheduler.INSTANCE,
+                System::nanoTime);
+    }
+}
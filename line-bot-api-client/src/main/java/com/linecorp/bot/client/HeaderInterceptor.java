@@ -17,6 +17,7 @@
 package com.linecorp.bot.client;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import lombok.AllArgsConstructor;
 import okhttp3.Interceptor;
@@ -27,11 +28,37 @@ import okhttp3.Response;
 class HeaderInterceptor implements Interceptor {
     private static final String USER_AGENT =
             "line-botsdk-java/" + HeaderInterceptor.class.getPackage().getImplementationVersion();
+    /**
+     * Supplier of all requests, or {@code null} to use the supplier tagged to each request.
+     */
     private final ChannelTokenSupplier channelTokenSupplier;
 
+    /**
+     * Authenticate each request by the {@link ChannelTokenSupplier} tagged to it.
+     *
+     * @see ChannelCall
+     */
+    static HeaderInterceptor forRequestTag() {
+        return forChannelTokenSupplier(null);
+    }
+
     @Override
     public Response intercept(Chain chain) throws IOException {
-        final String channelToken = channelTokenSupplier.get();
+        final ChannelTokenSupplier supplier = channelTokenSupplier != null
+                                              ? channelTokenSupplier
+                                              : chain.request().tag(ChannelTokenSupplier.class);
+        if (supplier == null) {
+            // Runtime exceptions are not reported to the callback of an asynchronous call.
+            throw new IOException("No channel token supplier is tagged to the request");
+        }
+        final String channelToken;
+        try {
+            channelToken = supplier.get();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to get channel access token", e);
+        }
         Request request = chain.request().newBuilder()
                                .addHeader("Authorization", "Bearer " + channelToken)
                                .addHeader("User-Agent", USER_AGENT)
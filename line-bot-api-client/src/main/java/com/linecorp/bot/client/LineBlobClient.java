@@ -16,6 +16,13 @@
 
 package com.linecorp.bot.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 
 import com.linecorp.bot.model.response.BotApiResponse;
@@ -31,6 +38,39 @@ public interface LineBlobClient {
      */
     CompletableFuture<MessageContentResponse> getMessageContent(String messageId);
 
+    /**
+     * Download image, video, audio and file data sent from users to the file.
+     *
+     * <p>The body is transferred to the file as it arrives, so the content is never held in memory.
+     * If the file already exists, the download resumes from its end by a {@code Range} request;
+     * delete the file beforehand to download from the beginning.
+     *
+     * <p>The default implementation copies {@link #getMessageContent(String)} into the file, replacing it
+     * instead of resuming.
+     *
+     * @return Future completed with the size of the file. Completes exceptionally if the number of received
+     *         bytes differs from {@code Content-Length}.
+     * @see #getMessageContent(String)
+     */
+    default CompletableFuture<Long> downloadMessageContent(String messageId, Path file) {
+        return getMessageContent(messageId).thenApply(content -> BlobContents.copy(content, file));
+    }
+
+    /**
+     * Download image, video, audio and file data sent from users to the channel.
+     *
+     * <p>The body is transferred to the channel as it arrives. The channel is not closed.
+     *
+     * <p>The default implementation copies {@link #getMessageContent(String)} into the channel.
+     *
+     * @return Future completed with the number of bytes written. Completes exceptionally if it differs from
+     *         {@code Content-Length}.
+     * @see #getMessageContent(String)
+     */
+    default CompletableFuture<Long> downloadMessageContent(String messageId, WritableByteChannel channel) {
+        return getMessageContent(messageId).thenApply(content -> BlobContents.copy(content, channel));
+    }
+
     /**
      * Download rich menu image.
      *
@@ -46,6 +86,65 @@ public interface LineBlobClient {
     CompletableFuture<BotApiResponse> setRichMenuImage(
             String richMenuId, String contentType, byte[] content);
 
+    /**
+     * Set RichMenu image from the file.
+     *
+     * <p>The file is streamed to the server without loading it into memory.
+     *
+     * <p>The default implementation reads the file and sends it by
+     * {@link #setRichMenuImage(String, String, byte[])}.
+     *
+     * @see #setRichMenuImage(String, String, byte[])
+     */
+    default CompletableFuture<BotApiResponse> setRichMenuImage(
+            String richMenuId, String contentType, Path image) {
+        final byte[] content;
+        try {
+            content = Files.readAllBytes(image);
+        } catch (IOException e) {
+            return BlobContents.failedFuture(e);
+        }
+        return setRichMenuImage(richMenuId, contentType, content);
+    }
+
+    /**
+     * Set RichMenu image from the stream.
+     *
+     * <p>Exactly {@code contentLength} bytes are streamed to the server. The stream is read once and not
+     * closed; keep it open until the returned future completes.
+     *
+     * <p>The default implementation reads the content before sending it by
+     * {@link #setRichMenuImage(String, String, byte[])}.
+     *
+     * @see #setRichMenuImage(String, String, byte[])
+     */
+    default CompletableFuture<BotApiResponse> setRichMenuImage(
+            String richMenuId, String contentType, InputStream content, long contentLength) {
+        final byte[] bytes;
+        try {
+            bytes = BlobContents.read(content, contentLength);
+        } catch (IOException e) {
+            return BlobContents.failedFuture(e);
+        }
+        return setRichMenuImage(richMenuId, contentType, bytes);
+    }
+
+    /**
+     * Set RichMenu image from the channel.
+     *
+     * <p>Exactly {@code contentLength} bytes are streamed to the server. The channel is read once and not
+     * closed; keep it open until the returned future completes.
+     *
+     * <p>The default implementation reads the content before sending it by
+     * {@link #setRichMenuImage(String, String, byte[])}.
+     *
+     * @see #setRichMenuImage(String, String, byte[])
+     */
+    default CompletableFuture<BotApiResponse> setRichMenuImage(
+            String richMenuId, String contentType, ReadableByteChannel content, long contentLength) {
+        return setRichMenuImage(richMenuId, contentType, Channels.newInputStream(content), contentLength);
+    }
+
     static LineBlobClientBuilder builder(String channelToken) {
         return builder(FixedChannelTokenSupplier.of(channelToken));
     }
@@ -23,9 +23,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
@@ -37,8 +34,6 @@ import lombok.experimental.Accessors;
 import lombok.experimental.PackagePrivate;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
-import okhttp3.logging.HttpLoggingInterceptor.Level;
 import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
 
@@ -124,6 +119,33 @@ public class LineBlobClientBuilder {
     @Setter
     private boolean addAuthenticationHeader = true;
 
+    /**
+     * Level of wire logging to the {@code com.linecorp.bot.client.wire} logger.
+     *
+     * <p>Default value = {@link WireLogLevel#BODY}.
+     */
+    @Setter
+    private WireLogLevel wireLogLevel = WireLogLevel.BODY;
+
+    /**
+     * Maximum size of a request or response body written to the wire log.
+     *
+     * <p>Default value = {@value LineClientConstants#DEFAULT_WIRE_LOG_MAX_BODY_BYTES} bytes.
+     */
+    @Setter
+    private long wireLogMaxBodyBytes = LineClientConstants.DEFAULT_WIRE_LOG_MAX_BODY_BYTES;
+
+    /**
+     * Shared transport of this client.
+     *
+     * <p>Clients built with the same {@link LineTransport} share one connection pool and dispatcher.
+     * A dedicated connection pool and dispatcher are used in case of {@code null} (default).
+     *
+     * <p>Ignored when a custom {@link OkHttpClient.Builder} is specified.
+     */
+    @Setter
+    private LineTransport transport;
+
     private OkHttpClient.Builder okHttpClientBuilder;
 
     /**
@@ -174,7 +196,8 @@ public class LineBlobClientBuilder {
      */
     <T> T buildRetrofitIface(URI apiEndPoint, Class<T> retrofitIFace) {
         if (okHttpClientBuilder == null) {
-            okHttpClientBuilder = new OkHttpClient.Builder();
+            okHttpClientBuilder = transport != null ? transport.newOkHttpClientBuilder()
+                                                    : new OkHttpClient.Builder();
         }
 
         // Add interceptors.
@@ -184,7 +207,8 @@ public class LineBlobClientBuilder {
         if (additionalInterceptors != null) {
             additionalInterceptors.forEach(okHttpClientBuilder::addInterceptor);
         }
-        okHttpClientBuilder.addInterceptor(buildLoggingInterceptor());
+        okHttpClientBuilder.addInterceptor(
+                buildLoggingInterceptor(wireLogLevel, wireLogMaxBodyBytes, false));
 
         // Set timeout.
         okHttpClientBuilder
@@ -210,11 +234,9 @@ public class LineBlobClientBuilder {
         return HeaderInterceptor.forChannelTokenSupplier(channelTokenSupplier);
     }
 
-    static Interceptor buildLoggingInterceptor() {
-        final Logger slf4jLogger = LoggerFactory.getLogger("com.linecorp.bot.client.wire");
-
-        return new HttpLoggingInterceptor(slf4jLogger::info)
-                .setLevel(Level.BODY);
+    static Interceptor buildLoggingInterceptor(WireLogLevel wireLogLevel, long wireLogMaxBodyBytes,
+                                               boolean bodyLoggable) {
+        return WireLoggingInterceptor.of(wireLogLevel, wireLogMaxBodyBytes, bodyLoggable);
     }
 
     static Retrofit.Builder createDefaultRetrofitBuilder() {
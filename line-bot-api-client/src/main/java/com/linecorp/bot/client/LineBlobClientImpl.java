@@ -16,6 +16,16 @@
 
 package com.linecorp.bot.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.CompletableFuture;
 
 import com.linecorp.bot.client.exception.GeneralLineMessagingException;
@@ -25,12 +35,20 @@ import lombok.AllArgsConstructor;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
 @AllArgsConstructor
 class LineBlobClientImpl implements LineBlobClient {
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+    private static final int TRANSFER_BUFFER_SIZE = 8192;
+
     private final LineBlobService retrofitImpl;
 
     @Override
@@ -38,6 +56,40 @@ class LineBlobClientImpl implements LineBlobClient {
         return toMessageContentResponseFuture(retrofitImpl.getMessageContent(messageId));
     }
 
+    @Override
+    public CompletableFuture<Long> downloadMessageContent(final String messageId, final Path file) {
+        final long offset;
+        try {
+            offset = Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            final CompletableFuture<Long> future = new CompletableFuture<>();
+            future.completeExceptionally(new GeneralLineMessagingException(e.getMessage(), null, e));
+            return future;
+        }
+
+        final DownloadCallbackAdaptor future = new DownloadCallbackAdaptor(offset, (source, position) -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE)) {
+                if (position == 0) {
+                    channel.truncate(0);
+                }
+                return transferTo(source, channel, position);
+            }
+        });
+        retrofitImpl.getMessageContent(messageId, offset > 0 ? "bytes=" + offset + '-' : null)
+                    .enqueue(future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Long> downloadMessageContent(final String messageId,
+                                                          final WritableByteChannel channel) {
+        final DownloadCallbackAdaptor future =
+                new DownloadCallbackAdaptor(0, (source, position) -> transferTo(source, channel));
+        retrofitImpl.getMessageContent(messageId, null).enqueue(future);
+        return future;
+    }
+
     @Override
     public CompletableFuture<MessageContentResponse> getRichMenuImage(final String richMenuId) {
         return toMessageContentResponseFuture(retrofitImpl.getRichMenuImage(richMenuId));
@@ -51,6 +103,31 @@ class LineBlobClientImpl implements LineBlobClient {
                 retrofitImpl.uploadRichMenuImage(richMenuId, requestBody));
     }
 
+    @Override
+    public CompletableFuture<BotApiResponse> setRichMenuImage(
+            final String richMenuId, final String contentType, final Path image) {
+        final RequestBody requestBody = RequestBody.create(MediaType.parse(contentType), image.toFile());
+        return LineMessagingClientImpl.toBotApiFuture(
+                retrofitImpl.uploadRichMenuImage(richMenuId, requestBody));
+    }
+
+    @Override
+    public CompletableFuture<BotApiResponse> setRichMenuImage(
+            final String richMenuId, final String contentType, final InputStream content,
+            final long contentLength) {
+        final RequestBody requestBody =
+                new OneShotRequestBody(MediaType.parse(contentType), contentLength, Okio.source(content));
+        return LineMessagingClientImpl.toBotApiFuture(
+                retrofitImpl.uploadRichMenuImage(richMenuId, requestBody));
+    }
+
+    @Override
+    public CompletableFuture<BotApiResponse> setRichMenuImage(
+            final String richMenuId, final String contentType, final ReadableByteChannel content,
+            final long contentLength) {
+        return setRichMenuImage(richMenuId, contentType, Channels.newInputStream(content), contentLength);
+    }
+
     private static CompletableFuture<MessageContentResponse> toMessageContentResponseFuture(
             final Call<ResponseBody> callToWrap) {
         final ResponseBodyCallbackAdaptor future = new ResponseBodyCallbackAdaptor();
@@ -58,6 +135,33 @@ class LineBlobClientImpl implements LineBlobClient {
         return future;
     }
 
+    /**
+     * Let the file channel pull from the source; the JDK moves the bytes through a cached direct buffer.
+     */
+    private static long transferTo(final ReadableByteChannel source, final FileChannel file,
+                                   final long position) throws IOException {
+        long transferred = 0;
+        long n;
+        while ((n = file.transferFrom(source, position + transferred, TRANSFER_CHUNK_SIZE)) > 0) {
+            transferred += n;
+        }
+        return transferred;
+    }
+
+    private static long transferTo(final ReadableByteChannel source, final WritableByteChannel channel)
+            throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(TRANSFER_BUFFER_SIZE);
+        long transferred = 0;
+        while (source.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                transferred += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        return transferred;
+    }
+
     static class ResponseBodyCallbackAdaptor
             extends CompletableFuture<MessageContentResponse>
             implements Callback<ResponseBody> {
@@ -94,4 +198,117 @@ class LineBlobClientImpl implements LineBlobClient {
                     .build();
         }
     }
+
+    /**
+     * Request body written straight from the source, which can't be replayed. OkHttp doesn't retry it.
+     */
+    static class OneShotRequestBody extends RequestBody {
+        private final MediaType contentType;
+        private final long contentLength;
+        private final Source source;
+
+        OneShotRequestBody(final MediaType contentType, final long contentLength, final Source source) {
+            this.contentType = contentType;
+            this.contentLength = contentLength;
+            this.source = source;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(final BufferedSink sink) throws IOException {
+            // Throws EOFException if the source is shorter than contentLength.
+            sink.write(source, contentLength);
+        }
+    }
+
+    @FunctionalInterface
+    interface ContentSink {
+        /**
+         * Write all bytes of the source at the position, and returns the number of bytes written.
+         */
+        long transfer(ReadableByteChannel source, long position) throws IOException;
+    }
+
+    /**
+     * Streams the response body to {@link ContentSink} on the callback thread, then completes with the size
+     * of the content.
+     */
+    static class DownloadCallbackAdaptor extends CompletableFuture<Long> implements Callback<ResponseBody> {
+        private final long offset;
+        private final ContentSink sink;
+
+        DownloadCallbackAdaptor(final long offset, final ContentSink sink) {
+            this.offset = offset;
+            this.sink = sink;
+        }
+
+        @Override
+        public void onResponse(final Call<ResponseBody> call, final Response<ResponseBody> response) {
+            if (response.code() == HTTP_RANGE_NOT_SATISFIABLE && offset > 0) {
+                completeNothingToResume(response);
+                return;
+            }
+            if (!response.isSuccessful()) {
+                completeExceptionally(LineMessagingClientImpl.EXCEPTION_CONVERTER.apply(response));
+                return;
+            }
+
+            // The server may ignore Range and send whole content with 200.
+            final long position = response.code() == HTTP_PARTIAL_CONTENT ? offset : 0;
+            try (ResponseBody body = response.body()) {
+                if (position > 0) {
+                    checkContentRange(response.headers().get("Content-Range"), position);
+                }
+                final long transferred = sink.transfer(body.source(), position);
+                final long expected = body.contentLength();
+                if (expected >= 0 && transferred != expected) {
+                    throw new IOException("Content-Length is " + expected + " but received " + transferred
+                                          + " bytes");
+                }
+                complete(position + transferred);
+            } catch (IOException | RuntimeException e) {
+                completeExceptionally(new GeneralLineMessagingException(e.getMessage(), null, e));
+            }
+        }
+
+        @Override
+        public void onFailure(final Call<ResponseBody> call, final Throwable t) {
+            completeExceptionally(
+                    new GeneralLineMessagingException(t.getMessage(), null, t));
+        }
+
+        /**
+         * The file has been downloaded completely if the whole size in {@code Content-Range} equals to it.
+         */
+        private void completeNothingToResume(final Response<ResponseBody> response) {
+            final String contentRange = response.headers().get("Content-Range");
+            if (("bytes */" + offset).equals(contentRange)) {
+                complete(offset);
+                return;
+            }
+            completeExceptionally(LineMessagingClientImpl.EXCEPTION_CONVERTER.apply(response));
+        }
+
+        private static void checkContentRange(final String contentRange, final long position)
+                throws IOException {
+            if (contentRange == null || !contentRange.startsWith("bytes " + position + '-')) {
+                throw new IOException("Unexpected Content-Range: " + contentRange + " for resuming from "
+                                      + position);
+            }
+        }
+    }
 }
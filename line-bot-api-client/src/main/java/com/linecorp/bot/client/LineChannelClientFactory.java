@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import lombok.NonNull;
+
+/**
+ * Factory of {@link LineMessagingClient} views of many channels, for serving many bots from one process.
+ *
+ * <p>All views share one HTTP client, one set of interceptors and one Retrofit service; a view holds only
+ * its {@link ChannelTokenSupplier}. So memory and thread count don't grow with the number of channels.
+ *
+ * <pre>{@code
+ * LineChannelClientFactory factory = LineChannelClientFactory.builder()
+ *                                                            .transport(transport)
+ *                                                            .buildChannelClientFactory();
+ *
+ * LineMessagingClient client = factory.forChannel(FixedChannelTokenSupplier.of(channelToken));
+ * }</pre>
+ */
+public final class LineChannelClientFactory {
+    private final LineMessagingService service;
+    private final LineBlobService blobService;
+    private final BotApiRetrier multicastAllRetrier;
+    private final int multicastAllConcurrency;
+
+    LineChannelClientFactory(final LineMessagingService service,
+                             final LineBlobService blobService,
+                             final BotApiRetrier multicastAllRetrier,
+                             final int multicastAllConcurrency) {
+        this.service = service;
+        this.blobService = blobService;
+        this.multicastAllRetrier = multicastAllRetrier;
+        this.multicastAllConcurrency = multicastAllConcurrency;
+    }
+
+    /**
+     * Create a new {@link LineMessagingClientBuilder} to configure the shared client.
+     *
+     * @see LineMessagingClientBuilder#buildChannelClientFactory()
+     */
+    public static LineMessagingClientBuilder builder() {
+        return new LineMessagingClientBuilder();
+    }
+
+    /**
+     * Create a client of the channel.
+     */
+    public LineMessagingClient forChannel(@NonNull ChannelTokenSupplier channelTokenSupplier) {
+        return forChannel(channelTokenSupplier, null);
+    }
+
+    /**
+     * Create a client of the channel governed by the rate limiter.
+     *
+     * <p>Rate limits of the Messaging API apply per channel, so don't share a rate limiter between channels.
+     * For the same reason each client gets its own retry budget.
+     */
+    public LineMessagingClient forChannel(@NonNull ChannelTokenSupplier channelTokenSupplier,
+                                          EndpointRateLimiter rateLimiter) {
+        return new LineMessagingClientImpl(
+                ChannelCall.bind(LineMessagingService.class, service, channelTokenSupplier),
+                new LineBlobClientImpl(
+                        ChannelCall.bind(LineBlobService.class, blobService, channelTokenSupplier)),
+                rateLimiter,
+                multicastAllRetrier.withNewBudget(),
+                multicastAllConcurrency);
+    }
+}
@@ -28,4 +28,15 @@ public enum LineClientConstants {
     public static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
     public static final long DEFAULT_READ_TIMEOUT_MILLIS = 10_000;
     public static final long DEFAULT_WRITE_TIMEOUT_MILLIS = 10_000;
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 10;
+    public static final long DEFAULT_KEEP_ALIVE_DURATION_MILLIS = 300_000;
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 20;
+    public static final long DEFAULT_WIRE_LOG_MAX_BODY_BYTES = 16_384;
+    public static final int MAX_MULTICAST_RECIPIENTS = 500;
+    public static final int DEFAULT_MULTICAST_ALL_CONCURRENCY = 8;
+    public static final int MAX_RICH_MENU_BULK_USERS = 500;
+    public static final int DEFAULT_RICH_MENU_BULK_CONCURRENCY = 8;
+    public static final int DEFAULT_PROFILE_CACHE_MAXIMUM_SIZE = 10_000;
+    public static final long DEFAULT_PROFILE_CACHE_TTL_MILLIS = 600_000;
 }
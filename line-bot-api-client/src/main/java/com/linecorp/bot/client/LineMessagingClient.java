@@ -16,8 +16,12 @@
 
 package com.linecorp.bot.client;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import com.linecorp.bot.model.Broadcast;
 import com.linecorp.bot.model.Multicast;
@@ -28,6 +32,7 @@ import com.linecorp.bot.model.event.source.GroupSource;
 import com.linecorp.bot.model.event.source.RoomSource;
 import com.linecorp.bot.model.group.GroupMemberCountResponse;
 import com.linecorp.bot.model.group.GroupSummaryResponse;
+import com.linecorp.bot.model.message.Message;
 import com.linecorp.bot.model.profile.MembersIdsResponse;
 import com.linecorp.bot.model.profile.UserProfileResponse;
 import com.linecorp.bot.model.request.SetWebhookEndpointRequest;
@@ -77,6 +82,20 @@ public interface LineMessagingClient {
      */
     CompletableFuture<BotApiResponse> pushMessage(PushMessage pushMessage);
 
+    /**
+     * Send prepared messages to a user. Only the recipient is serialized on each call.
+     *
+     * <p>The default implementation sends {@link PreparedMessages#getMessages()} by
+     * {@link #pushMessage(PushMessage)}, serializing them again.
+     *
+     * @see #pushMessage(PushMessage)
+     * @see PreparedMessages
+     */
+    default CompletableFuture<BotApiResponse> pushMessage(String to, PreparedMessages messages,
+                                                          boolean notificationDisabled) {
+        return pushMessage(new PushMessage(to, messages.getMessages(), notificationDisabled));
+    }
+
     /**
      * Send messages to multiple users at any time. <strong>IDs of groups or rooms cannot be used.</strong>
      *
@@ -91,6 +110,67 @@ public interface LineMessagingClient {
      */
     CompletableFuture<BotApiResponse> multicast(Multicast multicast);
 
+    /**
+     * Send prepared messages to multiple users. Only the recipients are serialized on each call.
+     *
+     * <p>The default implementation sends {@link PreparedMessages#getMessages()} by
+     * {@link #multicast(Multicast)}, serializing them again.
+     *
+     * @see #multicast(Multicast)
+     * @see PreparedMessages
+     */
+    default CompletableFuture<BotApiResponse> multicast(Set<String> to, PreparedMessages messages,
+                                                        boolean notificationDisabled) {
+        return multicast(new Multicast(to, messages.getMessages(), notificationDisabled));
+    }
+
+    /**
+     * Send messages to any number of users, splitting them into multicast requests of
+     * {@value LineClientConstants#MAX_MULTICAST_RECIPIENTS} recipients.
+     *
+     * <p>Recipients are consumed lazily. Chunks are sent in parallel up to
+     * {@link LineMessagingClientBuilder#multicastAllConcurrency(int)}, each with its own retry key, and are
+     * retried according to {@link LineMessagingClientBuilder#multicastAllRetryPolicy(RetryPolicy)}.
+     * The returned future never completes exceptionally because of a failed chunk; see
+     * {@link MulticastAllResult#getFailed()}.
+     *
+     * <p>The default implementation sends chunks one at a time by
+     * {@link #multicast(Set, PreparedMessages, boolean)}, without retries.
+     *
+     * @see #multicast(Multicast)
+     */
+    default CompletableFuture<MulticastAllResult> multicastAll(Iterator<String> to, PreparedMessages messages,
+                                                               boolean notificationDisabled) {
+        return new MulticastAllSender(chunk -> multicast(chunk, messages, notificationDisabled), to, 1).start();
+    }
+
+    /**
+     * Send messages to any number of users.
+     *
+     * @see #multicastAll(Iterator, PreparedMessages, boolean)
+     */
+    default CompletableFuture<MulticastAllResult> multicastAll(Collection<String> to, List<Message> messages) {
+        return multicastAll(to.iterator(), PreparedMessages.of(messages), false);
+    }
+
+    /**
+     * Send messages to any number of users.
+     *
+     * <p>The stream is closed when the returned future completes.
+     *
+     * @see #multicastAll(Iterator, PreparedMessages, boolean)
+     */
+    default CompletableFuture<MulticastAllResult> multicastAll(Stream<String> to, List<Message> messages) {
+        final CompletableFuture<MulticastAllResult> result;
+        try {
+            result = multicastAll(to.iterator(), PreparedMessages.of(messages), false);
+        } catch (RuntimeException e) {
+            to.close();
+            throw e;
+        }
+        return result.whenComplete((r, e) -> to.close());
+    }
+
     /**
      * Sends push messages to multiple users at any time.
      * Note: LINE@ accounts cannot call this API endpoint. Please migrate it to a LINE official account.
@@ -99,6 +179,20 @@ public interface LineMessagingClient {
      */
     CompletableFuture<BotApiResponse> broadcast(Broadcast broadcast);
 
+    /**
+     * Send prepared messages to all friends.
+     *
+     * <p>The default implementation sends {@link PreparedMessages#getMessages()} by
+     * {@link #broadcast(Broadcast)}, serializing them again.
+     *
+     * @see #broadcast(Broadcast)
+     * @see PreparedMessages
+     */
+    default CompletableFuture<BotApiResponse> broadcast(PreparedMessages messages,
+                                                        boolean notificationDisabled) {
+        return broadcast(new Broadcast(messages.getMessages(), notificationDisabled));
+    }
+
     /**
      * Sends a push message to multiple users. You can specify recipients using attributes (such as age, gender,
      * OS, and region) or by retargeting (audiences). Messages cannot be sent to groups or rooms.
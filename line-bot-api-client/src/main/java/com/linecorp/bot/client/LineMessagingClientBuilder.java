@@ -21,11 +21,9 @@ import static java.util.Objects.requireNonNull;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
@@ -37,8 +35,6 @@ import lombok.experimental.Accessors;
 import lombok.experimental.PackagePrivate;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
-import okhttp3.logging.HttpLoggingInterceptor.Level;
 import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
 
@@ -135,6 +131,69 @@ public class LineMessagingClientBuilder {
     @Setter
     private boolean addAuthenticationHeader = true;
 
+    /**
+     * Level of wire logging to the {@code com.linecorp.bot.client.wire} logger.
+     *
+     * <p>Default value = {@link WireLogLevel#BODY}.
+     */
+    @Setter
+    private WireLogLevel wireLogLevel = WireLogLevel.BODY;
+
+    /**
+     * Maximum size of a request or response body written to the wire log.
+     *
+     * <p>Default value = {@value LineClientConstants#DEFAULT_WIRE_LOG_MAX_BODY_BYTES} bytes.
+     */
+    @Setter
+    private long wireLogMaxBodyBytes = LineClientConstants.DEFAULT_WIRE_LOG_MAX_BODY_BYTES;
+
+    /**
+     * Client side rate limiter of this client.
+     *
+     * <p>Calls are not governed in case of {@code null} (default).
+     *
+     * @see EndpointRateLimiter
+     */
+    @Setter
+    private EndpointRateLimiter rateLimiter;
+
+    /**
+     * Maximum number of chunks of {@link LineMessagingClient#multicastAll} sent in parallel.
+     *
+     * <p>Default value = {@value LineClientConstants#DEFAULT_MULTICAST_ALL_CONCURRENCY}.
+     * The {@link EndpointFamily#MULTICAST} limit of {@link #rateLimiter(EndpointRateLimiter)} applies as well.
+     */
+    @Setter
+    private int multicastAllConcurrency = LineClientConstants.DEFAULT_MULTICAST_ALL_CONCURRENCY;
+
+    /**
+     * Retry policy of chunks of {@link LineMessagingClient#multicastAll}.
+     *
+     * <p>Default value = {@code RetryPolicy.builder().build()}. Use {@link RetryPolicy#NO_RETRY} to disable.
+     */
+    @Setter
+    @NonNull
+    private RetryPolicy multicastAllRetryPolicy = RetryPolicy.builder().build();
+
+    /**
+     * Scheduler of retries.
+     *
+     * <p>A daemon thread shared by all clients is used in case of {@code null} (default).
+     */
+    @Setter
+    private ScheduledExecutorService retryScheduler;
+
+    /**
+     * Shared transport of this client.
+     *
+     * <p>Clients built with the same {@link LineTransport} share one connection pool and dispatcher.
+     * A dedicated connection pool and dispatcher are used in case of {@code null} (default).
+     *
+     * <p>Ignored when a custom {@link OkHttpClient.Builder} is specified.
+     */
+    @Setter
+    private LineTransport transport;
+
     private OkHttpClient.Builder okHttpClientBuilder;
 
     /**
@@ -182,33 +241,56 @@ public class LineMessagingClientBuilder {
 
     /**
      * Creates a new {@link LineMessagingService}.
+     *
+     * @param bodyLoggable {@code false} to never write request and response bodies to the wire log.
+     */
+    <T> T buildRetrofitIface(URI apiEndPoint, Class<T> retrofitIFace, boolean bodyLoggable) {
+        return buildRetrofitIface(apiEndPoint, retrofitIFace, bodyLoggable, false);
+    }
+
+    /**
+     * Creates a new {@link LineMessagingService}.
+     *
+     * @param channelPerCall {@code true} to authenticate each call by its channel.
+     * @see ChannelCall
      */
-    <T> T buildRetrofitIface(URI apiEndPoint, Class<T> retrofitIFace) {
+    private <T> T buildRetrofitIface(URI apiEndPoint, Class<T> retrofitIFace, boolean bodyLoggable,
+                                     boolean channelPerCall) {
         if (okHttpClientBuilder == null) {
-            okHttpClientBuilder = new OkHttpClient.Builder();
+            okHttpClientBuilder = transport != null ? transport.newOkHttpClientBuilder()
+                                                    : new OkHttpClient.Builder();
         }
 
+        // Work on a copy because this method is called once per service interface.
+        final OkHttpClient.Builder clientBuilder = okHttpClientBuilder.build().newBuilder();
+
         // Add interceptors.
         if (addAuthenticationHeader) {
-            okHttpClientBuilder.addInterceptor(buildAuthenticationInterceptor(channelTokenSupplier));
+            clientBuilder.addInterceptor(channelPerCall ? HeaderInterceptor.forRequestTag()
+                                                        : buildAuthenticationInterceptor(channelTokenSupplier));
         }
         if (additionalInterceptors != null) {
-            additionalInterceptors.forEach(okHttpClientBuilder::addInterceptor);
+            additionalInterceptors.forEach(clientBuilder::addInterceptor);
         }
-        okHttpClientBuilder.addInterceptor(buildLoggingInterceptor());
+        clientBuilder.addInterceptor(
+                buildLoggingInterceptor(wireLogLevel, wireLogMaxBodyBytes, bodyLoggable));
 
         // Set timeout.
-        okHttpClientBuilder
+        clientBuilder
                 .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
                 .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
                 .writeTimeout(writeTimeout, TimeUnit.MILLISECONDS);
 
-        final OkHttpClient okHttpClient = okHttpClientBuilder.build();
+        final OkHttpClient okHttpClient = clientBuilder.build();
 
         if (retrofitBuilder == null) {
             retrofitBuilder = createDefaultRetrofitBuilder();
         }
-        retrofitBuilder.client(okHttpClient);
+        if (channelPerCall) {
+            retrofitBuilder.callFactory(ChannelCall.callFactory(okHttpClient));
+        } else {
+            retrofitBuilder.client(okHttpClient);
+        }
         retrofitBuilder.baseUrl(apiEndPoint.toString());
 
         final Retrofit retrofit = retrofitBuilder.build();
@@ -221,11 +303,9 @@ public class LineMessagingClientBuilder {
         return HeaderInterceptor.forChannelTokenSupplier(channelTokenSupplier);
     }
 
-    static Interceptor buildLoggingInterceptor() {
-        final Logger slf4jLogger = LoggerFactory.getLogger("com.linecorp.bot.client.wire");
-
-        return new HttpLoggingInterceptor(slf4jLogger::info)
-                .setLevel(Level.BODY);
+    static Interceptor buildLoggingInterceptor(WireLogLevel wireLogLevel, long wireLogMaxBodyBytes,
+                                               boolean bodyLoggable) {
+        return WireLoggingInterceptor.of(wireLogLevel, wireLogMaxBodyBytes, bodyLoggable);
     }
 
     static Retrofit.Builder createDefaultRetrofitBuilder() {
@@ -238,8 +318,27 @@ public class LineMessagingClientBuilder {
      */
     public LineMessagingClient build() {
         return new LineMessagingClientImpl(
-                buildRetrofitIface(apiEndPoint, LineMessagingService.class),
-                buildBlobClient());
+                buildRetrofitIface(apiEndPoint, LineMessagingService.class, true),
+                buildBlobClient(),
+                rateLimiter,
+                new BotApiRetrier(multicastAllRetryPolicy,
+                                  retryScheduler != null ? retryScheduler : DefaultScheduler.INSTANCE),
+                multicastAllConcurrency);
+    }
+
+    /**
+     * Creates a new {@link LineChannelClientFactory} with the settings of this builder.
+     *
+     * <p>{@link #channelTokenSupplier(ChannelTokenSupplier)} and {@link #rateLimiter(EndpointRateLimiter)}
+     * are ignored; they are given per channel.
+     */
+    public LineChannelClientFactory buildChannelClientFactory() {
+        return new LineChannelClientFactory(
+                buildRetrofitIface(apiEndPoint, LineMessagingService.class, true, true),
+                buildRetrofitIface(blobEndPoint, LineBlobService.class, false, true),
+                new BotApiRetrier(multicastAllRetryPolicy,
+                                  retryScheduler != null ? retryScheduler : DefaultScheduler.INSTANCE),
+                multicastAllConcurrency);
     }
 
     /**
@@ -248,6 +347,7 @@ public class LineMessagingClientBuilder {
     private LineBlobClient buildBlobClient() {
         return new LineBlobClientImpl(buildRetrofitIface(
                 blobEndPoint,
-                LineBlobService.class));
+                LineBlobService.class,
+                false));
     }
 }
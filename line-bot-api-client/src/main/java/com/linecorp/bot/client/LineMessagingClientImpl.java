@@ -18,7 +18,10 @@ package com.linecorp.bot.client;
 
 import static java.util.Collections.emptyList;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 import com.linecorp.bot.client.exception.GeneralLineMessagingException;
@@ -55,7 +58,6 @@ import com.linecorp.bot.model.richmenu.RichMenuListResponse;
 import com.linecorp.bot.model.richmenu.RichMenuResponse;
 import com.linecorp.bot.model.room.RoomMemberCountResponse;
 
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -65,7 +67,6 @@ import retrofit2.Response;
  * Proxy implementation of {@link LineMessagingClient} to hind internal implementation.
  */
 @Slf4j
-@AllArgsConstructor
 public class LineMessagingClientImpl implements LineMessagingClient {
     static final ExceptionConverter EXCEPTION_CONVERTER = new ExceptionConverter();
     private static final String ORG_TYPE_GROUP = "group"; // TODO Enum
@@ -77,29 +78,95 @@ public class LineMessagingClientImpl implements LineMessagingClient {
 
     private final LineBlobClient blobDelegationTarget;
 
+    /**
+     * Rate limiter of this client. {@code null} if calls are not governed.
+     */
+    private final EndpointRateLimiter rateLimiter;
+
+    private final BotApiRetrier multicastAllRetrier;
+
+    private final int multicastAllConcurrency;
+
+    public LineMessagingClientImpl(final LineMessagingService retrofitImpl,
+                                   final LineBlobClient blobDelegationTarget) {
+        this(retrofitImpl, blobDelegationTarget, null,
+             new BotApiRetrier(RetryPolicy.builder().build(), DefaultScheduler.INSTANCE),
+             LineClientConstants.DEFAULT_MULTICAST_ALL_CONCURRENCY);
+    }
+
+    LineMessagingClientImpl(final LineMessagingService retrofitImpl,
+                            final LineBlobClient blobDelegationTarget,
+                            final EndpointRateLimiter rateLimiter,
+                            final BotApiRetrier multicastAllRetrier,
+                            final int multicastAllConcurrency) {
+        this.retrofitImpl = retrofitImpl;
+        this.blobDelegationTarget = blobDelegationTarget;
+        this.rateLimiter = rateLimiter;
+        this.multicastAllRetrier = multicastAllRetrier;
+        this.multicastAllConcurrency = multicastAllConcurrency;
+    }
+
     @Override
     public CompletableFuture<BotApiResponse> replyMessage(final ReplyMessage replyMessage) {
-        return toBotApiResponseFuture(retrofitImpl.replyMessage(replyMessage));
+        return enqueueBotApiResponse(EndpointFamily.REPLY, retrofitImpl.replyMessage(replyMessage));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> pushMessage(final PushMessage pushMessage) {
-        return toBotApiResponseFuture(retrofitImpl.pushMessage(null, pushMessage));
+        return enqueueBotApiResponse(EndpointFamily.PUSH, retrofitImpl.pushMessage(null, pushMessage));
+    }
+
+    @Override
+    public CompletableFuture<BotApiResponse> pushMessage(final String to, final PreparedMessages messages,
+                                                         final boolean notificationDisabled) {
+        return enqueueBotApiResponse(
+                EndpointFamily.PUSH,
+                retrofitImpl.pushMessage(null, PreparedRequestBodies.push(to, messages, notificationDisabled)));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> multicast(final Multicast multicast) {
-        return toBotApiResponseFuture(retrofitImpl.multicast(null, multicast));
+        return enqueueBotApiResponse(EndpointFamily.MULTICAST, retrofitImpl.multicast(null, multicast));
+    }
+
+    @Override
+    public CompletableFuture<BotApiResponse> multicast(final Set<String> to, final PreparedMessages messages,
+                                                       final boolean notificationDisabled) {
+        return enqueueBotApiResponse(
+                EndpointFamily.MULTICAST,
+                retrofitImpl.multicast(null,
+                                       PreparedRequestBodies.multicast(to, messages, notificationDisabled)));
+    }
+
+    @Override
+    public CompletableFuture<MulticastAllResult> multicastAll(final Iterator<String> to,
+                                                              final PreparedMessages messages,
+                                                              final boolean notificationDisabled) {
+        return new MulticastAllSender(
+                chunk -> multicastAllRetrier.execute(
+                        retrofitImpl.multicast(UUID.randomUUID().toString(),
+                                               PreparedRequestBodies.multicast(chunk, messages,
+                                                                               notificationDisabled)),
+                        (call, callback) -> dispatch(EndpointFamily.MULTICAST, call, callback)),
+                to, multicastAllConcurrency).start();
     }
 
     @Override
     public CompletableFuture<BotApiResponse> broadcast(Broadcast broadcast) {
-        return toBotApiResponseFuture(retrofitImpl.broadcast(null, broadcast));
+        return enqueueBotApiResponse(EndpointFamily.BROADCAST, retrofitImpl.broadcast(null, broadcast));
+    }
+
+    @Override
+    public CompletableFuture<BotApiResponse> broadcast(final PreparedMessages messages,
+                                                       final boolean notificationDisabled) {
+        return enqueueBotApiResponse(
+                EndpointFamily.BROADCAST,
+                retrofitImpl.broadcast(null, PreparedRequestBodies.broadcast(messages, notificationDisabled)));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> narrowcast(Narrowcast narrowcast) {
-        return toBotApiResponseFuture(retrofitImpl.narrowcast(null, narrowcast));
+        return enqueueBotApiResponse(EndpointFamily.NARROWCAST, retrofitImpl.narrowcast(null, narrowcast));
     }
 
     /**
@@ -107,215 +174,241 @@ public class LineMessagingClientImpl implements LineMessagingClient {
      */
     @Override
     public CompletableFuture<NarrowcastProgressResponse> getNarrowcastProgress(String requestId) {
-        return toFuture(retrofitImpl.getNarrowcastProgress(requestId));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getNarrowcastProgress(requestId));
     }
 
     @Override
     public CompletableFuture<MessageQuotaResponse> getMessageQuota() {
-        return toFuture(retrofitImpl.getMessageQuota());
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getMessageQuota());
     }
 
     @Override
     public CompletableFuture<QuotaConsumptionResponse> getMessageQuotaConsumption() {
-        return toFuture(retrofitImpl.getMessageQuotaConsumption());
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getMessageQuotaConsumption());
     }
 
     @Override
     public CompletableFuture<NumberOfMessagesResponse> getNumberOfSentReplyMessages(String date) {
-        return toFuture(retrofitImpl.getNumberOfSentReplyMessages(date));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getNumberOfSentReplyMessages(date));
     }
 
     @Override
     public CompletableFuture<NumberOfMessagesResponse> getNumberOfSentPushMessages(String date) {
-        return toFuture(retrofitImpl.getNumberOfSentPushMessages(date));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getNumberOfSentPushMessages(date));
     }
 
     @Override
     public CompletableFuture<NumberOfMessagesResponse> getNumberOfSentMulticastMessages(String date) {
-        return toFuture(retrofitImpl.getNumberOfSentMulticastMessages(date));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getNumberOfSentMulticastMessages(date));
     }
 
     @Override
     public CompletableFuture<NumberOfMessagesResponse> getNumberOfSentBroadcastMessages(String date) {
-        return toFuture(retrofitImpl.getNumberOfSentBroadcastMessages(date));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getNumberOfSentBroadcastMessages(date));
     }
 
     @Override
     public CompletableFuture<UserProfileResponse> getProfile(final String userId) {
-        return toFuture(retrofitImpl.getProfile(userId));
+        return enqueue(EndpointFamily.PROFILE, retrofitImpl.getProfile(userId));
     }
 
     @Override
     public CompletableFuture<UserProfileResponse> getGroupMemberProfile(
             final String groupId, final String userId) {
-        return toFuture(retrofitImpl.getMemberProfile(ORG_TYPE_GROUP, groupId, userId));
+        return enqueue(EndpointFamily.PROFILE,
+                       retrofitImpl.getMemberProfile(ORG_TYPE_GROUP, groupId, userId));
     }
 
     @Override
     public CompletableFuture<UserProfileResponse> getRoomMemberProfile(
             final String roomId, final String userId) {
-        return toFuture(retrofitImpl.getMemberProfile(ORG_TYPE_ROOM, roomId, userId));
+        return enqueue(EndpointFamily.PROFILE,
+                       retrofitImpl.getMemberProfile(ORG_TYPE_ROOM, roomId, userId));
     }
 
     @Override
     public CompletableFuture<MembersIdsResponse> getGroupMembersIds(
             final String groupId, final String start) {
-        return toFuture(retrofitImpl.getMembersIds(ORG_TYPE_GROUP, groupId, start));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getMembersIds(ORG_TYPE_GROUP, groupId, start));
     }
 
     @Override
     public CompletableFuture<MembersIdsResponse> getRoomMembersIds(
             final String roomId, final String start) {
-        return toFuture(retrofitImpl.getMembersIds(ORG_TYPE_ROOM, roomId, start));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getMembersIds(ORG_TYPE_ROOM, roomId, start));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> leaveGroup(final String groupId) {
-        return toBotApiResponseFuture(retrofitImpl.leaveGroup(groupId));
+        return enqueueBotApiResponse(EndpointFamily.OTHER, retrofitImpl.leaveGroup(groupId));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> leaveRoom(final String roomId) {
-        return toBotApiResponseFuture(retrofitImpl.leaveRoom(roomId));
+        return enqueueBotApiResponse(EndpointFamily.OTHER, retrofitImpl.leaveRoom(roomId));
     }
 
     @Override
     public CompletableFuture<GroupSummaryResponse> getGroupSummary(final String groupId) {
-        return toFuture(retrofitImpl.getGroupSummary(groupId));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getGroupSummary(groupId));
     }
 
     @Override
     public CompletableFuture<GroupMemberCountResponse> getGroupMemberCount(String groupId) {
-        return toFuture(retrofitImpl.getGroupMemberCount(groupId));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getGroupMemberCount(groupId));
     }
 
     @Override
     public CompletableFuture<RoomMemberCountResponse> getRoomMemberCount(String roomId) {
-        return toFuture(retrofitImpl.getRoomMemberCount(roomId));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getRoomMemberCount(roomId));
     }
 
     @Override
     public CompletableFuture<RichMenuResponse> getRichMenu(final String richMenuId) {
-        return toFuture(retrofitImpl.getRichMenu(richMenuId));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getRichMenu(richMenuId));
     }
 
     @Override
     public CompletableFuture<RichMenuIdResponse> createRichMenu(final RichMenu richMenu) {
-        return toFuture(retrofitImpl.createRichMenu(richMenu));
+        return enqueue(EndpointFamily.RICH_MENU, retrofitImpl.createRichMenu(richMenu));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> deleteRichMenu(final String richMenuId) {
-        return toBotApiFuture(retrofitImpl.deleteRichMenu(richMenuId));
+        return enqueueBotApi(EndpointFamily.RICH_MENU, retrofitImpl.deleteRichMenu(richMenuId));
     }
 
     @Override
     public CompletableFuture<RichMenuIdResponse> getRichMenuIdOfUser(final String userId) {
-        return toFuture(retrofitImpl.getRichMenuIdOfUser(userId));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getRichMenuIdOfUser(userId));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> linkRichMenuIdToUser(
             final String userId, final String richMenuId) {
-        return toBotApiFuture(retrofitImpl.linkRichMenuToUser(userId, richMenuId));
+        return enqueueBotApi(EndpointFamily.RICH_MENU, retrofitImpl.linkRichMenuToUser(userId, richMenuId));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> linkRichMenuIdToUsers(List<String> userIds, String richMenuId) {
-        return toBotApiFuture(retrofitImpl.linkRichMenuToUsers(RichMenuBulkLinkRequest.builder()
-                                                                                      .richMenuId(richMenuId)
-                                                                                      .userIds(userIds)
-                                                                                      .build()));
+        return enqueueBotApi(EndpointFamily.RICH_MENU,
+                             retrofitImpl.linkRichMenuToUsers(RichMenuBulkLinkRequest.builder()
+                                                                                     .richMenuId(richMenuId)
+                                                                                     .userIds(userIds)
+                                                                                     .build()));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> unlinkRichMenuIdFromUser(final String userId) {
-        return toBotApiFuture(retrofitImpl.unlinkRichMenuIdFromUser(userId));
+        return enqueueBotApi(EndpointFamily.RICH_MENU, retrofitImpl.unlinkRichMenuIdFromUser(userId));
     }
 
     @Override
     public CompletableFuture<BotApiResponse> unlinkRichMenuIdFromUsers(List<String> userIds) {
-        return toBotApiFuture(retrofitImpl.unlinkRichMenuIdFromUsers(RichMenuBulkUnlinkRequest.builder()
-                                                                                              .userIds(userIds)
-                                                                                              .build()));
+        return enqueueBotApi(EndpointFamily.RICH_MENU,
+                             retrofitImpl.unlinkRichMenuIdFromUsers(RichMenuBulkUnlinkRequest.builder()
+                                                                                             .userIds(userIds)
+                                                                                             .build()));
     }
 
     @Override
     public CompletableFuture<RichMenuListResponse> getRichMenuList() {
-        return toFuture(retrofitImpl.getRichMenuList());
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getRichMenuList());
     }
 
     @Override
     public CompletableFuture<BotApiResponse> setDefaultRichMenu(final String richMenuId) {
-        return toBotApiFuture(retrofitImpl.setDefaultRichMenu(richMenuId));
+        return enqueueBotApi(EndpointFamily.OTHER, retrofitImpl.setDefaultRichMenu(richMenuId));
     }
 
     @Override
     public CompletableFuture<RichMenuIdResponse> getDefaultRichMenuId() {
-        return toFuture(retrofitImpl.getDefaultRichMenuId());
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getDefaultRichMenuId());
     }
 
     @Override
     public CompletableFuture<BotApiResponse> cancelDefaultRichMenu() {
-        return toBotApiFuture(retrofitImpl.cancelDefaultRichMenu());
+        return enqueueBotApi(EndpointFamily.OTHER, retrofitImpl.cancelDefaultRichMenu());
     }
 
     @Override
     public CompletableFuture<IssueLinkTokenResponse> issueLinkToken(String userId) {
-        return toFuture(retrofitImpl.issueLinkToken(userId));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.issueLinkToken(userId));
     }
 
     @Override
     public CompletableFuture<GetFriendsDemographicsResponse> getFriendsDemographics() {
-        return toFuture(retrofitImpl.getFriendsDemographics());
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getFriendsDemographics());
     }
 
     @Override
     public CompletableFuture<GetNumberOfMessageDeliveriesResponse> getNumberOfMessageDeliveries(String date) {
-        return toFuture(retrofitImpl.getNumberOfMessageDeliveries(date));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getNumberOfMessageDeliveries(date));
     }
 
     @Override
     public CompletableFuture<GetNumberOfFollowersResponse> getNumberOfFollowers(String date) {
-        return toFuture(retrofitImpl.getNumberOfFollowers(date));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getNumberOfFollowers(date));
     }
 
     @Override
     public CompletableFuture<GetMessageEventResponse> getMessageEvent(String requestId) {
-        return toFuture(retrofitImpl.getMessageEvent(requestId));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getMessageEvent(requestId));
     }
 
     @Override
     public CompletableFuture<BotInfoResponse> getBotInfo() {
-        return toFuture(retrofitImpl.getBotInfo());
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getBotInfo());
     }
 
     @Override
     public CompletableFuture<GetWebhookEndpointResponse> getWebhookEndpoint() {
-        return toFuture(retrofitImpl.getWebhookEndpoint());
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.getWebhookEndpoint());
     }
 
     @Override
     public CompletableFuture<SetWebhookEndpointResponse> setWebhookEndpoint(SetWebhookEndpointRequest request) {
-        return toFuture(retrofitImpl.setWebhookEndpoint(request));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.setWebhookEndpoint(request));
     }
 
     @Override
     public CompletableFuture<TestWebhookEndpointResponse> testWebhookEndpoint(
             TestWebhookEndpointRequest request) {
-        return toFuture(retrofitImpl.testWebhookEndpoint(request));
+        return enqueue(EndpointFamily.OTHER, retrofitImpl.testWebhookEndpoint(request));
     }
 
-    // TODO: Extract this method.
-    static <T> CompletableFuture<T> toFuture(Call<T> callToWrap) {
+    private <T> CompletableFuture<T> enqueue(final EndpointFamily family, final Call<T> callToWrap) {
         final CallbackAdaptor<T> completableFuture = new CallbackAdaptor<>();
-        callToWrap.enqueue(completableFuture);
+        dispatch(family, callToWrap, completableFuture);
         return completableFuture;
     }
 
-    private static CompletableFuture<BotApiResponse> toBotApiResponseFuture(
-            final Call<BotApiResponseBody> callToWrap) {
+    private CompletableFuture<BotApiResponse> enqueueBotApiResponse(
+            final EndpointFamily family, final Call<BotApiResponseBody> callToWrap) {
         final BotApiCallbackAdaptor completableFuture = new BotApiCallbackAdaptor();
+        dispatch(family, callToWrap, completableFuture);
+        return completableFuture;
+    }
+
+    private CompletableFuture<BotApiResponse> enqueueBotApi(
+            final EndpointFamily family, final Call<Void> callToWrap) {
+        final VoidToBotApiCallbackAdaptor completableFuture = new VoidToBotApiCallbackAdaptor();
+        dispatch(family, callToWrap, completableFuture);
+        return completableFuture;
+    }
+
+    private <T> void dispatch(final EndpointFamily family, final Call<T> callToWrap,
+                              final Callback<T> callback) {
+        if (rateLimiter == null) {
+            callToWrap.enqueue(callback);
+        } else {
+            rateLimiter.enqueue(family, callToWrap, callback);
+        }
+    }
+
+    // TODO: Extract this method.
+    static <T> CompletableFuture<T> toFuture(Call<T> callToWrap) {
+        final CallbackAdaptor<T> completableFuture = new CallbackAdaptor<>();
         callToWrap.enqueue(completableFuture);
         return completableFuture;
     }
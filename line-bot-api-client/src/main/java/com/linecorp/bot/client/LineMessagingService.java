@@ -50,6 +50,7 @@ import com.linecorp.bot.model.richmenu.RichMenuListResponse;
 import com.linecorp.bot.model.richmenu.RichMenuResponse;
 import com.linecorp.bot.model.room.RoomMemberCountResponse;
 
+import okhttp3.RequestBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
@@ -82,6 +83,15 @@ interface LineMessagingService {
     Call<BotApiResponseBody> pushMessage(@Header("X-Line-Retry-Key") String retryKey,
                                          @Body PushMessage pushMessage);
 
+    /**
+     * Method for Retrofit. The body is a serialized {@link PushMessage}.
+     *
+     * @see LineMessagingClient#pushMessage(String, PreparedMessages, boolean)
+     */
+    @POST("v2/bot/message/push")
+    Call<BotApiResponseBody> pushMessage(@Header("X-Line-Retry-Key") String retryKey,
+                                         @Body RequestBody pushMessage);
+
     /**
      * Method for Retrofit.
      *
@@ -91,6 +101,15 @@ interface LineMessagingService {
     Call<BotApiResponseBody> multicast(@Header("X-Line-Retry-Key") String retryKey,
                                        @Body Multicast multicast);
 
+    /**
+     * Method for Retrofit. The body is a serialized {@link Multicast}.
+     *
+     * @see LineMessagingClient#multicast(java.util.Set, PreparedMessages, boolean)
+     */
+    @POST("v2/bot/message/multicast")
+    Call<BotApiResponseBody> multicast(@Header("X-Line-Retry-Key") String retryKey,
+                                       @Body RequestBody multicast);
+
     /**
      * Sends push messages to multiple users at any time.
      */
@@ -98,6 +117,15 @@ interface LineMessagingService {
     Call<BotApiResponseBody> broadcast(@Header("X-Line-Retry-Key") String retryKey,
                                        @Body Broadcast broadcast);
 
+    /**
+     * Method for Retrofit. The body is a serialized {@link Broadcast}.
+     *
+     * @see LineMessagingClient#broadcast(PreparedMessages, boolean)
+     */
+    @POST("v2/bot/message/broadcast")
+    Call<BotApiResponseBody> broadcast(@Header("X-Line-Retry-Key") String retryKey,
+                                       @Body RequestBody broadcast);
+
     /**
      * Sends a push message to multiple users. You can specify recipients using attributes (such as age, gender,
      * OS, and region) or by retargeting (audiences). Messages cannot be sent to groups or rooms.
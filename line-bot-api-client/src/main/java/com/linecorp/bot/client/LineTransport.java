@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.io.Closeable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Shared HTTP transport runtime of LINE API clients.
+ *
+ * <p>All clients built with the same {@link LineTransport} share one {@link ConnectionPool}
+ * and one {@link Dispatcher}, i.e. warm connections to the API servers and a bounded number
+ * of concurrent requests and threads.
+ *
+ * <pre>{@code
+ * LineTransport transport = LineTransport.builder().maxRequestsPerHost(20).build();
+ *
+ * LineMessagingClient client = LineMessagingClient.builder(channelToken)
+ *                                                 .transport(transport)
+ *                                                 .build();
+ * LineBlobClient blobClient = LineBlobClient.builder(channelToken)
+ *                                           .transport(transport)
+ *                                           .build();
+ * }</pre>
+ *
+ * @see LineTransportBuilder
+ */
+@ToString
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class LineTransport implements Closeable {
+    private final OkHttpClient baseClient;
+
+    /**
+     * Create a new {@link LineTransportBuilder}.
+     */
+    public static LineTransportBuilder builder() {
+        return new LineTransportBuilder();
+    }
+
+    /**
+     * Create a new {@link LineTransport} with default settings.
+     */
+    public static LineTransport create() {
+        return builder().build();
+    }
+
+    /**
+     * Create a new {@link OkHttpClient.Builder} which shares the connection pool and dispatcher
+     * of this transport.
+     *
+     * <p>Interceptors and timeouts added to the returned builder don't affect other clients.
+     */
+    public OkHttpClient.Builder newOkHttpClientBuilder() {
+        return baseClient.newBuilder();
+    }
+
+    /**
+     * Connection pool shared by all clients of this transport.
+     */
+    public ConnectionPool connectionPool() {
+        return baseClient.connectionPool();
+    }
+
+    /**
+     * Dispatcher shared by all clients of this transport.
+     */
+    public Dispatcher dispatcher() {
+        return baseClient.dispatcher();
+    }
+
+    /**
+     * Shutdown dispatcher threads and evict all pooled connections.
+     *
+     * <p>Clients built with this transport can't be used after close.
+     */
+    @Override
+    public void close() {
+        baseClient.dispatcher().executorService().shutdown();
+        baseClient.connectionPool().evictAll();
+    }
+}
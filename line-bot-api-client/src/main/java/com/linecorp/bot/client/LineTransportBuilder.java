@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.experimental.PackagePrivate;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+@ToString
+@Accessors(fluent = true)
+public class LineTransportBuilder {
+    /**
+     * Use {@link LineTransport#builder()} to create instance.
+     */
+    @PackagePrivate
+    LineTransportBuilder() {
+    }
+
+    /**
+     * Maximum number of idle connections kept in the pool.
+     *
+     * <p>Default value = {@value LineClientConstants#DEFAULT_MAX_IDLE_CONNECTIONS}.
+     */
+    @Setter
+    private int maxIdleConnections = LineClientConstants.DEFAULT_MAX_IDLE_CONNECTIONS;
+
+    /**
+     * Time to keep an idle connection alive in the pool.
+     *
+     * <p>Default value = {@value LineClientConstants#DEFAULT_KEEP_ALIVE_DURATION_MILLIS}ms.
+     */
+    @Setter
+    private long keepAliveDuration = LineClientConstants.DEFAULT_KEEP_ALIVE_DURATION_MILLIS;
+
+    /**
+     * Maximum number of requests executing concurrently over all hosts.
+     *
+     * <p>Default value = {@value LineClientConstants#DEFAULT_MAX_REQUESTS}.
+     */
+    @Setter
+    private int maxRequests = LineClientConstants.DEFAULT_MAX_REQUESTS;
+
+    /**
+     * Maximum number of requests executing concurrently per host.
+     *
+     * <p>Default value = {@value LineClientConstants#DEFAULT_MAX_REQUESTS_PER_HOST}.
+     */
+    @Setter
+    private int maxRequestsPerHost = LineClientConstants.DEFAULT_MAX_REQUESTS_PER_HOST;
+
+    /**
+     * Executor running asynchronous calls.
+     *
+     * <p>OkHttp's default executor is used in case of {@code null} (default).
+     */
+    @Setter
+    private ExecutorService executorService;
+
+    /**
+     * Creates a new {@link LineTransport}.
+     */
+    public LineTransport build() {
+        final Dispatcher dispatcher = executorService != null ? new Dispatcher(executorService)
+                                                              : new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        final ConnectionPool connectionPool =
+                new ConnectionPool(maxIdleConnections, keepAliveDuration, TimeUnit.MILLISECONDS);
+
+        final OkHttpClient baseClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .build();
+
+        return new LineTransport(baseClient);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.linecorp.bot.client.exception.NotFoundException;
+import com.linecorp.bot.model.profile.MembersIdsResponse;
+import com.linecorp.bot.model.profile.UserProfileResponse;
+
+import lombok.NonNull;
+
+/**
+ * User IDs of all members of a group or room, following {@link MembersIdsResponse#getNext()}.
+ *
+ * <p>The first page is requested on creation. Each following page is requested when iteration moves on to
+ * the previous one, so at most one page is fetched ahead, and it is usually ready by the time the current
+ * page is consumed. {@link #hasNext()} blocks only when it isn't. Failed requests are thrown as
+ * {@link CompletionException}.
+ *
+ * <pre>{@code
+ * MemberIdsIterator.ofGroup(client, groupId)
+ *                  .stream()
+ *                  .forEach(userId -> ...);
+ *
+ * Iterator<UserProfileResponse> profiles = MemberIdsIterator.ofGroup(client, groupId).profiles(8);
+ * }</pre>
+ *
+ * <p>Instances are not thread safe.
+ */
+public final class MemberIdsIterator implements Iterator<String> {
+    private final Function<String, CompletableFuture<MembersIdsResponse>> pageFetcher;
+    private final Function<String, CompletableFuture<UserProfileResponse>> profileFetcher;
+    private Iterator<String> page = Collections.emptyIterator();
+    private CompletableFuture<MembersIdsResponse> nextPage;
+
+    MemberIdsIterator(final Function<String, CompletableFuture<MembersIdsResponse>> pageFetcher,
+                      final Function<String, CompletableFuture<UserProfileResponse>> profileFetcher) {
+        this.pageFetcher = pageFetcher;
+        this.profileFetcher = profileFetcher;
+        nextPage = pageFetcher.apply(null);
+    }
+
+    /**
+     * Members of the group.
+     *
+     * @see LineMessagingClient#getGroupMembersIds(String, String)
+     */
+    public static MemberIdsIterator ofGroup(@NonNull LineMessagingClient client, @NonNull String groupId) {
+        return new MemberIdsIterator(start -> client.getGroupMembersIds(groupId, start),
+                                     userId -> client.getGroupMemberProfile(groupId, userId));
+    }
+
+    /**
+     * Members of the room.
+     *
+     * @see LineMessagingClient#getRoomMembersIds(String, String)
+     */
+    public static MemberIdsIterator ofRoom(@NonNull LineMessagingClient client, @NonNull String roomId) {
+        return new MemberIdsIterator(start -> client.getRoomMembersIds(roomId, start),
+                                     userId -> client.getRoomMemberProfile(roomId, userId));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext()) {
+            if (nextPage == null) {
+                return false;
+            }
+            final MembersIdsResponse response = nextPage.join();
+            // Fetch one page ahead while this one is consumed.
+            nextPage = response.getNext().map(pageFetcher).orElse(null);
+            page = response.getMemberIds().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+
+    /**
+     * Remaining user IDs as a sequential {@link Stream}.
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Profiles of the remaining members, in order of their IDs.
+     *
+     * <p>Up to {@code concurrency} profiles are requested ahead of consumption. Members who left in the
+     * meantime ({@literal 404 Not Found}) are skipped. This iterator must not be used afterwards.
+     */
+    public Iterator<UserProfileResponse> profiles(final int concurrency) {
+        return new ProfileIterator(Math.max(1, concurrency));
+    }
+
+    private final class ProfileIterator implements Iterator<UserProfileResponse> {
+        private final int concurrency;
+        private final Deque<CompletableFuture<UserProfileResponse>> window = new ArrayDeque<>();
+        private UserProfileResponse nextProfile;
+
+        ProfileIterator(final int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextProfile == null) {
+                while (window.size() < concurrency && MemberIdsIterator.this.hasNext()) {
+                    window.add(profileFetcher.apply(MemberIdsIterator.this.next()));
+                }
+                if (window.isEmpty()) {
+                    return false;
+                }
+                nextProfile = joinUnlessNotFound(window.poll());
+            }
+            return true;
+        }
+
+        @Override
+        public UserProfileResponse next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final UserProfileResponse profile = nextProfile;
+            nextProfile = null;
+            return profile;
+        }
+
+        private UserProfileResponse joinUnlessNotFound(final CompletableFuture<UserProfileResponse> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof NotFoundException) {
+                    return null;
+                }
+                throw e;
+            }
+        }
+    }
+}
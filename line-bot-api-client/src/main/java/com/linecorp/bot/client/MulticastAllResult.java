@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import lombok.Value;
+
+/**
+ * Aggregate result of {@link LineMessagingClient#multicastAll}.
+ */
+@Value
+public class MulticastAllResult {
+    /**
+     * Chunks delivered, in order of {@link MulticastChunkResult#getIndex()}.
+     */
+    List<MulticastChunkResult> succeeded;
+
+    /**
+     * Chunks given up, in order of {@link MulticastChunkResult#getIndex()}.
+     */
+    List<MulticastChunkResult> failed;
+
+    /**
+     * Chunks sent more than once, whether succeeded or not.
+     */
+    public List<MulticastChunkResult> getRetried() {
+        return Stream.concat(succeeded.stream(), failed.stream())
+                     .filter(chunk -> chunk.getAttempts() > 1)
+                     .sorted(Comparator.comparingInt(MulticastChunkResult::getIndex))
+                     .collect(toList());
+    }
+
+    /**
+     * Number of recipients of the failed chunks.
+     */
+    public int getFailedRecipientCount() {
+        return failed.stream().mapToInt(chunk -> chunk.getTo().size()).sum();
+    }
+}
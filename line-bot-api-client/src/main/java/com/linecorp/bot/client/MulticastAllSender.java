@@ -0,0 +1,171 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import com.linecorp.bot.client.BotApiRetrier.RetryingCallbackAdaptor;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+/**
+ * Sends one {@link LineMessagingClient#multicastAll} request.
+ *
+ * <p>Recipients are pulled from the iterator lazily, {@value LineClientConstants#MAX_MULTICAST_RECIPIENTS}
+ * at a time, and each chunk is sent by {@code chunkSender}. At most {@code concurrency} chunks are in
+ * flight; a new chunk is sent when one completes. If {@code chunkSender} returns a
+ * {@link RetryingCallbackAdaptor}, its attempts are reported in {@link MulticastChunkResult#getAttempts()}.
+ */
+final class MulticastAllSender {
+    private final Function<Set<String>, CompletableFuture<BotApiResponse>> chunkSender;
+    private final Iterator<String> to;
+    private final int concurrency;
+
+    private final CompletableFuture<MulticastAllResult> result = new CompletableFuture<>();
+    private final List<MulticastChunkResult> chunkResults = new ArrayList<>();
+    private int nextIndex;
+    private int inFlight;
+    private int pendingSends;
+    private boolean sending;
+
+    MulticastAllSender(final Function<Set<String>, CompletableFuture<BotApiResponse>> chunkSender,
+                       final Iterator<String> to,
+                       final int concurrency) {
+        this.chunkSender = chunkSender;
+        this.to = to;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    CompletableFuture<MulticastAllResult> start() {
+        send(concurrency);
+        return result;
+    }
+
+    /**
+     * Send the given number of chunks. Attempts may complete on the calling thread, e.g. rejected by
+     * {@link EndpointRateLimiter}, so chunks requested while sending are sent by the loop of the outermost
+     * call instead of recursion.
+     */
+    private void send(final int chunks) {
+        synchronized (this) {
+            pendingSends += chunks;
+            if (sending) {
+                return;
+            }
+            sending = true;
+        }
+        while (true) {
+            synchronized (this) {
+                if (pendingSends == 0) {
+                    sending = false;
+                    return;
+                }
+                pendingSends--;
+            }
+            if (!sendNext()) {
+                synchronized (this) {
+                    // No recipients remain.
+                    pendingSends = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Send the next chunk. Returns {@code false} if no recipients remain.
+     */
+    private boolean sendNext() {
+        final int index;
+        final Set<String> chunk;
+        synchronized (this) {
+            if (result.isDone()) {
+                return false;
+            }
+            try {
+                chunk = nextChunk();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return false;
+            }
+            if (chunk.isEmpty()) {
+                completeIfFinished();
+                return false;
+            }
+            index = nextIndex++;
+            inFlight++;
+        }
+
+        final CompletableFuture<BotApiResponse> attempt;
+        try {
+            attempt = chunkSender.apply(chunk);
+        } catch (RuntimeException e) {
+            onChunkDone(index, chunk, 0, null, e);
+            return true;
+        }
+        attempt.whenComplete((response, error) -> onChunkDone(index, chunk, attempts(attempt), response,
+                                                              error));
+        return true;
+    }
+
+    private static int attempts(final CompletableFuture<BotApiResponse> attempt) {
+        if (attempt instanceof RetryingCallbackAdaptor) {
+            return ((RetryingCallbackAdaptor) attempt).getAttempts();
+        }
+        return 1;
+    }
+
+    private void onChunkDone(final int index, final Set<String> chunk, final int attempts,
+                             final BotApiResponse response, final Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+        synchronized (this) {
+            chunkResults.add(new MulticastChunkResult(index, unmodifiableSet(chunk), attempts,
+                                                      response, cause));
+            inFlight--;
+        }
+        send(1);
+    }
+
+    private Set<String> nextChunk() {
+        final Set<String> chunk = new LinkedHashSet<>();
+        while (chunk.size() < LineClientConstants.MAX_MULTICAST_RECIPIENTS && to.hasNext()) {
+            chunk.add(to.next());
+        }
+        return chunk;
+    }
+
+    private void completeIfFinished() {
+        if (inFlight > 0) {
+            return;
+        }
+        chunkResults.sort(Comparator.comparingInt(MulticastChunkResult::getIndex));
+        final List<MulticastChunkResult> succeeded = new ArrayList<>();
+        final List<MulticastChunkResult> failed = new ArrayList<>();
+        chunkResults.forEach(chunk -> (chunk.isSucceeded() ? succeeded : failed).add(chunk));
+        result.complete(new MulticastAllResult(unmodifiableList(succeeded), unmodifiableList(failed)));
+    }
+}
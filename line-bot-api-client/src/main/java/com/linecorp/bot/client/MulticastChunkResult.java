@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.Set;
+
+import com.linecorp.bot.model.response.BotApiResponse;
+
+import lombok.Value;
+
+/**
+ * Result of one chunk of {@link LineMessagingClient#multicastAll}.
+ */
+@Value
+public class MulticastChunkResult {
+    /**
+     * Position of the chunk, starting from 0.
+     */
+    int index;
+
+    /**
+     * Recipients of the chunk.
+     */
+    Set<String> to;
+
+    /**
+     * Number of requests sent for the chunk, including retries.
+     */
+    int attempts;
+
+    /**
+     * Response of the chunk. {@code null} if failed.
+     */
+    BotApiResponse response;
+
+    /**
+     * Cause of the failure. {@code null} if succeeded.
+     */
+    Throwable error;
+
+    public boolean isSucceeded() {
+        return error == null;
+    }
+}
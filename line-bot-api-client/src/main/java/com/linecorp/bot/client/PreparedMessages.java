@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import com.linecorp.bot.model.message.Message;
+import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Messages serialized once to UTF-8 JSON, to be sent many times.
+ *
+ * <p>Sending the same content to many recipients with
+ * {@link LineMessagingClient#pushMessage(com.linecorp.bot.model.PushMessage)} serializes the messages on every
+ * call. A {@link PreparedMessages} is serialized when created, and each send only serializes the recipients.
+ *
+ * <pre>{@code
+ * PreparedMessages messages = PreparedMessages.of(flexMessage);
+ * for (String userId : userIds) {
+ *     client.pushMessage(userId, messages, false);
+ * }
+ * }</pre>
+ */
+@Getter
+@ToString(of = "messages")
+@EqualsAndHashCode(of = "messages")
+public final class PreparedMessages {
+    private static final ObjectWriter MESSAGES_WRITER =
+            ModelObjectMapper.createNewObjectMapper().writerFor(new TypeReference<List<Message>>() {});
+
+    /**
+     * Messages as given.
+     */
+    private final List<Message> messages;
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] json;
+
+    private PreparedMessages(final List<Message> messages, final byte[] json) {
+        this.messages = messages;
+        this.json = json;
+    }
+
+    /**
+     * Serialize the messages.
+     *
+     * @throws IllegalArgumentException if the messages cannot be serialized.
+     */
+    public static PreparedMessages of(final List<Message> messages) {
+        final List<Message> copy = Collections.unmodifiableList(new ArrayList<>(messages));
+        try {
+            return new PreparedMessages(copy, MESSAGES_WRITER.writeValueAsBytes(copy));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize messages", e);
+        }
+    }
+
+    /**
+     * Serialize the messages.
+     *
+     * @throws IllegalArgumentException if the messages cannot be serialized.
+     */
+    public static PreparedMessages of(final Message... messages) {
+        return of(Arrays.asList(messages));
+    }
+
+    /**
+     * Size of the serialized messages in bytes.
+     */
+    public int getSerializedSize() {
+        return json.length;
+    }
+
+    /**
+     * Serialized JSON array. Must not be modified.
+     */
+    byte[] json() {
+        return json;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.Collection;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+/**
+ * Request bodies of send message endpoints built around {@link PreparedMessages}.
+ *
+ * <p>The bodies are identical to serialized {@link com.linecorp.bot.model.PushMessage},
+ * {@link com.linecorp.bot.model.Multicast} and {@link com.linecorp.bot.model.Broadcast}.
+ */
+final class PreparedRequestBodies {
+    private static final ObjectMapper OBJECT_MAPPER = ModelObjectMapper.createNewObjectMapper();
+    private static final MediaType APPLICATION_JSON = MediaType.get("application/json; charset=utf-8");
+
+    private PreparedRequestBodies() {
+    }
+
+    static RequestBody push(final String to, final PreparedMessages messages,
+                            final boolean notificationDisabled) {
+        return build(to, messages, notificationDisabled);
+    }
+
+    static RequestBody multicast(final Collection<String> to, final PreparedMessages messages,
+                                 final boolean notificationDisabled) {
+        return build(to, messages, notificationDisabled);
+    }
+
+    static RequestBody broadcast(final PreparedMessages messages, final boolean notificationDisabled) {
+        return build(null, messages, notificationDisabled);
+    }
+
+    private static RequestBody build(final Object to, final PreparedMessages messages,
+                                     final boolean notificationDisabled) {
+        final Buffer buffer = new Buffer();
+        buffer.writeUtf8("{");
+        if (to != null) {
+            buffer.writeUtf8("\"to\":");
+            try {
+                buffer.write(OBJECT_MAPPER.writeValueAsBytes(to));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Failed to serialize recipients", e);
+            }
+            buffer.writeUtf8(",");
+        }
+        buffer.writeUtf8("\"messages\":");
+        buffer.write(messages.json());
+        buffer.writeUtf8(",\"notificationDisabled\":");
+        buffer.writeUtf8(Boolean.toString(notificationDisabled));
+        buffer.writeUtf8("}");
+        return RequestBody.create(APPLICATION_JSON, buffer.readByteArray());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Snapshot of the profile cache of {@link CachingLineMessagingClient}.
+ */
+@Value
+@Builder
+public class ProfileCacheStats {
+    /**
+     * Requests served from a cached profile.
+     */
+    long hitCount;
+
+    /**
+     * Requests which joined a request in flight for the same profile instead of calling the API.
+     */
+    long coalescedCount;
+
+    /**
+     * Requests which called the API.
+     */
+    long missCount;
+
+    /**
+     * Profiles evicted to keep the maximum size.
+     */
+    long evictionCount;
+
+    /**
+     * Number of cached profiles, including ones in flight and expired ones not evicted yet.
+     */
+    int size;
+
+    /**
+     * Ratio of requests which didn't call the API. {@code 1.0} if there are no requests yet.
+     */
+    public double getHitRate() {
+        final long requests = hitCount + coalescedCount + missCount;
+        return requests == 0 ? 1.0 : (double) (hitCount + coalescedCount) / requests;
+    }
+}
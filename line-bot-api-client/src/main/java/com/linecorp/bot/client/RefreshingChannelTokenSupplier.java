@@ -0,0 +1,283 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.linecorp.bot.model.oauth.IssueChannelAccessTokenRequest;
+import com.linecorp.bot.model.oauth.IssueChannelAccessTokenResponse;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link ChannelTokenSupplier} which issues short-lived channel access tokens and refreshes them in the
+ * background before they expire.
+ *
+ * <p>{@link #get()} returns the cached token without locking. It waits only when no valid token is
+ * available, i.e. for the first token or after refreshing failed until the token expired, and at most
+ * {@link RefreshingChannelTokenSupplierBuilder#issueTimeout(Duration)}. Concurrent
+ * refreshes are de-duplicated into one request. Replaced tokens are revoked after a grace period if a
+ * revoker is given, and the current token is revoked by {@link #close()}.
+ *
+ * <pre>{@code
+ * RefreshingChannelTokenSupplier channelTokenSupplier =
+ *         RefreshingChannelTokenSupplier.builder(lineOAuthClient,
+ *                                                IssueChannelAccessTokenRequest.builder()
+ *                                                                              .clientId(channelId)
+ *                                                                              .clientSecret(channelSecret)
+ *                                                                              .build())
+ *                                       .build();
+ *
+ * LineMessagingClient client = LineMessagingClient.builder(channelTokenSupplier).build();
+ * }</pre>
+ */
+@Slf4j
+public final class RefreshingChannelTokenSupplier implements ChannelTokenSupplier, AutoCloseable {
+    private final Supplier<CompletableFuture<IssueChannelAccessTokenResponse>> issuer;
+    private final Function<String, CompletableFuture<Void>> revoker;
+    private final long refreshMarginNanos;
+    private final long retryIntervalNanos;
+    private final long revokeDelayNanos;
+    private final long issueTimeoutNanos;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier ticker;
+
+    private final AtomicReference<CompletableFuture<Token>> inFlight = new AtomicReference<>();
+    private volatile Token current;
+    private volatile ScheduledFuture<?> scheduledRefresh;
+    private volatile boolean closed;
+
+    RefreshingChannelTokenSupplier(final Supplier<CompletableFuture<IssueChannelAccessTokenResponse>> issuer,
+                                   final Function<String, CompletableFuture<Void>> revoker,
+                                   final Duration refreshMargin,
+                                   final Duration retryInterval,
+                                   final Duration revokeDelay,
+                                   final Duration issueTimeout,
+                                   final ScheduledExecutorService scheduler,
+                                   final LongSupplier ticker) {
+        this.issuer = issuer;
+        this.revoker = revoker;
+        this.refreshMarginNanos = refreshMargin.toNanos();
+        this.retryIntervalNanos = retryInterval.toNanos();
+        this.revokeDelayNanos = revokeDelay.toNanos();
+        this.issueTimeoutNanos = issueTimeout.toNanos();
+        this.scheduler = scheduler;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Create a new {@link RefreshingChannelTokenSupplierBuilder} issuing tokens by
+     * {@link LineOAuthClient#issueChannelToken(IssueChannelAccessTokenRequest)} and revoking them by
+     * {@link LineOAuthClient#revokeChannelToken(String)}.
+     */
+    public static RefreshingChannelTokenSupplierBuilder builder(
+            @NonNull LineOAuthClient lineOAuthClient, @NonNull IssueChannelAccessTokenRequest request) {
+        return new RefreshingChannelTokenSupplierBuilder(() -> lineOAuthClient.issueChannelToken(request))
+                .revoker(lineOAuthClient::revokeChannelToken);
+    }
+
+    /**
+     * Create a new {@link RefreshingChannelTokenSupplierBuilder} issuing tokens by the given function.
+     *
+     * <p>Use this to issue tokens by {@link LineOAuthClient#issueChannelTokenByJWT(String)}. The issuer is
+     * called for each refresh, so it can sign a new JWT every time.
+     *
+     * <pre>{@code
+     * RefreshingChannelTokenSupplier.builder(() -> lineOAuthClient.issueChannelTokenByJWT(createJwt()))
+     *                               .revoker(token -> lineOAuthClient.revokeChannelTokenByJWT(
+     *                                       channelId, channelSecret, token))
+     *                               .build();
+     * }</pre>
+     */
+    public static RefreshingChannelTokenSupplierBuilder builder(
+            @NonNull Supplier<CompletableFuture<IssueChannelAccessTokenResponse>> issuer) {
+        return new RefreshingChannelTokenSupplierBuilder(issuer);
+    }
+
+    /**
+     * Returns the current token, waiting for a new one if it has expired.
+     *
+     * @throws IllegalStateException if issuing a token failed.
+     * @throws UncheckedIOException caused by {@link InterruptedIOException} if no token was issued within
+     *         the issue timeout, or the thread was interrupted.
+     */
+    @Override
+    public String get() {
+        final Token token = current;
+        if (token != null && ticker.getAsLong() - token.expiresAtNanos < 0) {
+            return token.value;
+        }
+        try {
+            return refresh().get(issueTimeoutNanos, TimeUnit.NANOSECONDS).value;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to issue channel access token", e.getCause());
+        } catch (TimeoutException e) {
+            throw new UncheckedIOException(new InterruptedIOException(
+                    "Timed out waiting for channel access token"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException(
+                    "Interrupted while waiting for channel access token"));
+        }
+    }
+
+    /**
+     * Issue a new token now unless an issuance is already in flight.
+     */
+    public CompletableFuture<String> refreshNow() {
+        return refresh().thenApply(token -> token.value);
+    }
+
+    /**
+     * Stop refreshing and revoke the current token if a revoker is given.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        final ScheduledFuture<?> scheduled = scheduledRefresh;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        final Token token = current;
+        current = null;
+        if (token != null) {
+            revoke(token.value);
+        }
+    }
+
+    CompletableFuture<Token> refresh() {
+        while (true) {
+            final CompletableFuture<Token> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            final CompletableFuture<Token> promise = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, promise)) {
+                issue().whenComplete((response, throwable) -> onIssued(promise, response, throwable));
+                return promise;
+            }
+        }
+    }
+
+    private CompletableFuture<IssueChannelAccessTokenResponse> issue() {
+        final CompletableFuture<IssueChannelAccessTokenResponse> failed = new CompletableFuture<>();
+        try {
+            final CompletableFuture<IssueChannelAccessTokenResponse> issued = issuer.get();
+            if (issued != null) {
+                return issued;
+            }
+            failed.completeExceptionally(new NullPointerException("issuer returned null"));
+        } catch (RuntimeException e) {
+            failed.completeExceptionally(e);
+        }
+        return failed;
+    }
+
+    /**
+     * Completes the promise and clears {@link #inFlight} whatever happens, so that later calls can issue
+     * again.
+     */
+    private void onIssued(final CompletableFuture<Token> promise,
+                          final IssueChannelAccessTokenResponse response,
+                          final Throwable throwable) {
+        Throwable cause = throwable;
+        if (cause == null) {
+            try {
+                onIssued(promise, response);
+                return;
+            } catch (RuntimeException e) {
+                cause = e;
+            }
+        }
+        log.warn("Failed to issue channel access token. Retrying in {}ms",
+                 TimeUnit.NANOSECONDS.toMillis(retryIntervalNanos), cause);
+        inFlight.compareAndSet(promise, null);
+        promise.completeExceptionally(cause);
+        try {
+            schedule(retryIntervalNanos);
+        } catch (RuntimeException e) {
+            log.warn("Failed to schedule refreshing channel access token", e);
+        }
+    }
+
+    private void onIssued(final CompletableFuture<Token> promise,
+                          final IssueChannelAccessTokenResponse response) {
+        final long lifetimeNanos = TimeUnit.SECONDS.toNanos(response.getExpiresInSecs());
+        final Token token = new Token(response.getAccessToken(), ticker.getAsLong() + lifetimeNanos);
+        final Token replaced = current;
+        current = token;
+        inFlight.compareAndSet(promise, null);
+        log.debug("Issued channel access token. keyId = {}, expiresIn = {}s",
+                  response.getKeyId(), response.getExpiresInSecs());
+        schedule(Math.max(lifetimeNanos - refreshMarginNanos, lifetimeNanos / 2));
+        promise.complete(token);
+
+        if (replaced != null && revoker != null) {
+            scheduler.schedule(() -> revoke(replaced.value), revokeDelayNanos, TimeUnit.NANOSECONDS);
+        }
+        if (closed) {
+            close();
+        }
+    }
+
+    private void schedule(final long delayNanos) {
+        if (closed) {
+            return;
+        }
+        final ScheduledFuture<?> previous = scheduledRefresh;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        scheduledRefresh = scheduler.schedule(() -> {
+            refresh();
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void revoke(final String token) {
+        if (revoker == null) {
+            return;
+        }
+        revoker.apply(token).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                log.warn("Failed to revoke channel access token", throwable);
+            }
+        });
+    }
+
+    static final class Token {
+        final String value;
+        final long expiresAtNanos;
+
+        Token(final String value, final long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
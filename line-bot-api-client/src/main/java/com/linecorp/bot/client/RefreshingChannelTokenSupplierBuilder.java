@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.linecorp.bot.model.oauth.IssueChannelAccessTokenResponse;
+
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+@ToString
+@Accessors(fluent = true)
+public class RefreshingChannelTokenSupplierBuilder {
+    private final Supplier<CompletableFuture<IssueChannelAccessTokenResponse>> issuer;
+
+    /**
+     * Use {@link RefreshingChannelTokenSupplier#builder} to create instance.
+     */
+    RefreshingChannelTokenSupplierBuilder(
+            final Supplier<CompletableFuture<IssueChannelAccessTokenResponse>> issuer) {
+        this.issuer = issuer;
+    }
+
+    /**
+     * Revokes replaced tokens. Tokens are not revoked in case of {@code null}.
+     */
+    @Setter
+    private Function<String, CompletableFuture<Void>> revoker;
+
+    /**
+     * How long before expiry a token is refreshed. At most half of the lifetime of the token is used.
+     *
+     * <p>Default 1 hour.
+     */
+    @Setter
+    @NonNull
+    private Duration refreshMargin = Duration.ofHours(1);
+
+    /**
+     * Interval to retry after issuing a token failed.
+     *
+     * <p>Default 10 seconds.
+     */
+    @Setter
+    @NonNull
+    private Duration retryInterval = Duration.ofSeconds(10);
+
+    /**
+     * How long a replaced token is kept valid, for requests which already read it.
+     *
+     * <p>Default 1 minute.
+     */
+    @Setter
+    @NonNull
+    private Duration revokeDelay = Duration.ofMinutes(1);
+
+    /**
+     * How long {@link RefreshingChannelTokenSupplier#get()} waits for a token to be issued.
+     *
+     * <p>Default 30 seconds.
+     */
+    @Setter
+    @NonNull
+    private Duration issueTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Scheduler of background refreshes.
+     *
+     * <p>A daemon thread shared by all clients is used in case of {@code null} (default).
+     */
+    @Setter
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a new {@link RefreshingChannelTokenSupplier} and starts issuing the first token.
+     */
+    public RefreshingChannelTokenSupplier build() {
+        final RefreshingChannelTokenSupplier supplier = new RefreshingChannelTokenSupplier(
+                issuer,
+                revoker,
+                refreshMargin,
+                retryInterval,
+                revokeDelay,
+                issueTimeout,
+                scheduler != null ? scheduler : DefaultScheduler.INSTANCE,
+                System::nanoTime);
+        supplier.refresh();
+        return supplier;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+/**
+ * Token based retry throttling shared by all requests of one client.
+ *
+ * @see RetryPolicy#getRetryBudgetMaxTokens()
+ */
+final class RetryBudget {
+    private final double maxTokens;
+    private final double tokenRatio;
+    private double tokens;
+
+    RetryBudget(final RetryPolicy retryPolicy) {
+        maxTokens = retryPolicy.getRetryBudgetMaxTokens();
+        tokenRatio = retryPolicy.getRetryBudgetTokenRatio();
+        tokens = maxTokens;
+    }
+
+    synchronized void onSuccess() {
+        tokens = Math.min(maxTokens, tokens + tokenRatio);
+    }
+
+    /**
+     * Record a retryable failure. Returns {@code true} if a retry is allowed.
+     */
+    synchronized boolean tryRetry() {
+        tokens = Math.max(0, tokens - 1);
+        return tokens > maxTokens / 2;
+    }
+}
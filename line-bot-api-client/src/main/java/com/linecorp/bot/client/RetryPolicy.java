@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Retry policy of {@link RetryableLineMessagingClient}.
+ *
+ * <p>Requests failed by network errors, {@literal 429 Too Many Requests} or {@literal 5xx} responses are
+ * retried with the same retry key after an exponential backoff with jitter, or after the delay given by the
+ * {@literal Retry-After} header. {@literal 409 Conflict} means the request with the retry key was already
+ * accepted, and completes successfully.
+ *
+ * <pre>{@code
+ * RetryPolicy.builder()
+ *            .maxAttempts(5)
+ *            .initialBackoffMillis(1000)
+ *            .build();
+ * }</pre>
+ */
+@Value
+@Builder
+public class RetryPolicy {
+    /**
+     * Policy which never retries.
+     */
+    public static final RetryPolicy NO_RETRY = RetryPolicy.builder().maxAttempts(1).build();
+
+    /**
+     * Maximum number of attempts including the first one.
+     */
+    @Builder.Default
+    int maxAttempts = 3;
+
+    /**
+     * Backoff before the first retry.
+     */
+    @Builder.Default
+    long initialBackoffMillis = 500;
+
+    /**
+     * Upper bound of the backoff.
+     */
+    @Builder.Default
+    long maxBackoffMillis = 30_000;
+
+    /**
+     * Factor applied to the backoff after each retry.
+     */
+    @Builder.Default
+    double backoffMultiplier = 2.0;
+
+    /**
+     * Fraction of the backoff randomly subtracted to spread retries of concurrent requests.
+     * Between {@code 0} (no jitter) and {@code 1}.
+     */
+    @Builder.Default
+    double jitter = 0.2;
+
+    /**
+     * Give up instead of waiting when {@literal Retry-After} asks to wait longer than this.
+     */
+    @Builder.Default
+    long maxRetryAfterMillis = 60_000;
+
+    /**
+     * Size of the retry budget shared by all requests of one client, or of one channel of a
+     * {@link LineChannelClientFactory}.
+     *
+     * <p>Each retryable failure consumes one token and each success refills
+     * {@link #getRetryBudgetTokenRatio()} tokens. Retries stop while less than half of the tokens remain,
+     * so that an outage does not multiply the load by {@link #getMaxAttempts()}.
+     */
+    @Builder.Default
+    int retryBudgetMaxTokens = 10;
+
+    /**
+     * Tokens refilled to the retry budget by each success.
+     */
+    @Builder.Default
+    double retryBudgetTokenRatio = 0.1;
+}
@@ -18,29 +18,39 @@ package com.linecorp.bot.client;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 
-import com.linecorp.bot.client.exception.GeneralLineMessagingException;
 import com.linecorp.bot.model.Broadcast;
 import com.linecorp.bot.model.Multicast;
 import com.linecorp.bot.model.Narrowcast;
 import com.linecorp.bot.model.PushMessage;
 import com.linecorp.bot.model.response.BotApiResponse;
 
-import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 /**
  * Proxy implementation of {@link RetryableLineMessagingClient} to hind internal implementation.
+ *
+ * <p>Retries are scheduled on a {@link ScheduledExecutorService}; no thread is blocked while waiting.
  */
-@Slf4j
-@AllArgsConstructor
 public class RetryableLineMessagingClientImpl implements RetryableLineMessagingClient {
-    static final ExceptionConverter EXCEPTION_CONVERTER = new ExceptionConverter();
-
     private final LineMessagingService retrofitImpl;
+    private final BotApiRetrier retrier;
+
+    /**
+     * Create a client which never retries. Use {@link RetryableLineMessagingClient#builder(String)} to
+     * configure a {@link RetryPolicy}.
+     */
+    public RetryableLineMessagingClientImpl(final LineMessagingService retrofitImpl) {
+        this(retrofitImpl, RetryPolicy.NO_RETRY, DefaultScheduler.INSTANCE);
+    }
+
+    RetryableLineMessagingClientImpl(final LineMessagingService retrofitImpl,
+                                     final RetryPolicy retryPolicy,
+                                     final ScheduledExecutorService scheduler) {
+        this.retrofitImpl = retrofitImpl;
+        this.retrier = new BotApiRetrier(retryPolicy, scheduler);
+    }
 
     @Override
     public CompletableFuture<BotApiResponse> pushMessage(final UUID retryKey, final PushMessage pushMessage) {
@@ -62,30 +72,8 @@ public class RetryableLineMessagingClientImpl implements RetryableLineMessagingC
         return toBotApiResponseFuture(retrofitImpl.narrowcast(retryKey.toString(), narrowcast));
     }
 
-    private static CompletableFuture<BotApiResponse> toBotApiResponseFuture(
+    private CompletableFuture<BotApiResponse> toBotApiResponseFuture(
             final Call<BotApiResponseBody> callToWrap) {
-        final BotApiCallbackAdaptor completableFuture = new BotApiCallbackAdaptor();
-        callToWrap.enqueue(completableFuture);
-        return completableFuture;
-    }
-
-    static class BotApiCallbackAdaptor extends CompletableFuture<BotApiResponse>
-            implements Callback<BotApiResponseBody> {
-        @Override
-        public void onResponse(final Call<BotApiResponseBody> call,
-                               final Response<BotApiResponseBody> response) {
-            if (response.isSuccessful()) {
-                final String requestId = response.headers().get("x-line-request-id");
-                complete(response.body().withRequestId(requestId));
-            } else {
-                completeExceptionally(EXCEPTION_CONVERTER.apply(response));
-            }
-        }
-
-        @Override
-        public void onFailure(final Call<BotApiResponseBody> call, final Throwable t) {
-            completeExceptionally(
-                    new GeneralLineMessagingException(t.getMessage(), null, t));
-        }
+        return retrier.execute(callToWrap, Call::enqueue);
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Rich menu to be linked to one user by {@link RichMenuBulkLinker}.
+ */
+@Value
+public class RichMenuAssignment {
+    String userId;
+
+    /**
+     * Rich menu ID to link, or {@code null} to unlink the user's rich menu.
+     */
+    String richMenuId;
+
+    /**
+     * Link the rich menu to the user.
+     */
+    public static RichMenuAssignment link(@NonNull String userId, @NonNull String richMenuId) {
+        return new RichMenuAssignment(userId, richMenuId);
+    }
+
+    /**
+     * Unlink the rich menu from the user.
+     */
+    public static RichMenuAssignment unlink(@NonNull String userId) {
+        return new RichMenuAssignment(userId, null);
+    }
+}
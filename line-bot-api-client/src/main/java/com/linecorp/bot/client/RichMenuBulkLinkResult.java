@@ -0,0 +1,51 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Aggregate result of {@link RichMenuBulkLinker#link}.
+ */
+@Value
+public class RichMenuBulkLinkResult {
+    /**
+     * Chunks applied, in order of {@link RichMenuChunkResult#getIndex()}.
+     */
+    List<RichMenuChunkResult> succeeded;
+
+    /**
+     * Chunks given up, in order of {@link RichMenuChunkResult#getIndex()}.
+     */
+    List<RichMenuChunkResult> failed;
+
+    /**
+     * Number of users of the succeeded chunks.
+     */
+    public int getSucceededUserCount() {
+        return succeeded.stream().mapToInt(chunk -> chunk.getUserIds().size()).sum();
+    }
+
+    /**
+     * Number of users of the failed chunks.
+     */
+    public int getFailedUserCount() {
+        return failed.stream().mapToInt(chunk -> chunk.getUserIds().size()).sum();
+    }
+}
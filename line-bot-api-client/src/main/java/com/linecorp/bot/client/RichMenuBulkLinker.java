@@ -0,0 +1,282 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.linecorp.bot.client.exception.GeneralLineMessagingException;
+import com.linecorp.bot.client.exception.LineServerException;
+import com.linecorp.bot.client.exception.TooManyRequestsException;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies many rich menu assignments by {@link LineMessagingClient#linkRichMenuIdToUsers(List, String)} and
+ * {@link LineMessagingClient#unlinkRichMenuIdFromUsers(List)}.
+ *
+ * <p>Assignments are pulled from the iterator lazily and grouped by rich menu into chunks of
+ * {@value LineClientConstants#MAX_RICH_MENU_BULK_USERS} users; the remainders are sent after the iterator
+ * is exhausted. At most {@link RichMenuBulkLinkerBuilder#concurrency(int) concurrency} chunks are in flight,
+ * and a new chunk is sent when one completes. Requests go through the given client, so they are governed by
+ * its {@link EndpointRateLimiter} under {@link EndpointFamily#RICH_MENU}.
+ *
+ * <pre>{@code
+ * RichMenuBulkLinker linker =
+ *         RichMenuBulkLinker.builder(lineMessagingClient)
+ *                           .chunkListener(chunk -> log.info("{} users done", chunk.getUserIds().size()))
+ *                           .build();
+ *
+ * RichMenuBulkLinkResult result =
+ *         linker.link(users.stream().map(user -> RichMenuAssignment.link(user.getId(), menuOf(user))))
+ *               .join();
+ * }</pre>
+ *
+ * <p>Chunks are applied in any order, so a user should be assigned only once per call.
+ */
+@Slf4j
+public final class RichMenuBulkLinker {
+    private final LineMessagingClient lineMessagingClient;
+    private final int concurrency;
+    private final RetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+    private final Consumer<RichMenuChunkResult> chunkListener;
+    private final ScheduledExecutorService scheduler;
+
+    RichMenuBulkLinker(final LineMessagingClient lineMessagingClient,
+                       final int concurrency,
+                       final RetryPolicy retryPolicy,
+                       final Consumer<RichMenuChunkResult> chunkListener,
+                       final ScheduledExecutorService scheduler) {
+        this.lineMessagingClient = lineMessagingClient;
+        this.concurrency = Math.max(1, concurrency);
+        this.retryPolicy = retryPolicy;
+        this.retryBudget = new RetryBudget(retryPolicy);
+        this.chunkListener = chunkListener;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Create a new {@link RichMenuBulkLinkerBuilder}.
+     */
+    public static RichMenuBulkLinkerBuilder builder(@NonNull LineMessagingClient lineMessagingClient) {
+        return new RichMenuBulkLinkerBuilder(lineMessagingClient);
+    }
+
+    /**
+     * Apply all assignments.
+     *
+     * @return Future completed when all chunks are applied or given up. Completes exceptionally only if the
+     *         iterator throws.
+     */
+    public CompletableFuture<RichMenuBulkLinkResult> link(@NonNull Iterator<RichMenuAssignment> assignments) {
+        return new Job(assignments).start();
+    }
+
+    /**
+     * Apply all assignments.
+     *
+     * @see #link(Iterator)
+     */
+    public CompletableFuture<RichMenuBulkLinkResult> link(@NonNull Stream<RichMenuAssignment> assignments) {
+        return link(assignments.iterator());
+    }
+
+    static boolean isRetryable(final Throwable error) {
+        return error instanceof TooManyRequestsException
+               || error instanceof LineServerException
+               || error instanceof GeneralLineMessagingException && error.getCause() instanceof IOException;
+    }
+
+    private final class Job {
+        private final Iterator<RichMenuAssignment> assignments;
+        /**
+         * Users waiting for their chunk to fill up, by rich menu ID. {@code null} key for unlinking.
+         */
+        private final Map<String, List<String>> pending = new LinkedHashMap<>();
+
+        private final CompletableFuture<RichMenuBulkLinkResult> result = new CompletableFuture<>();
+        private final List<RichMenuChunkResult> chunkResults = new ArrayList<>();
+        private int nextIndex;
+        private int inFlight;
+        private int pendingSends;
+        private boolean sending;
+
+        Job(final Iterator<RichMenuAssignment> assignments) {
+            this.assignments = assignments;
+        }
+
+        CompletableFuture<RichMenuBulkLinkResult> start() {
+            sendChunks(concurrency);
+            return result;
+        }
+
+        /**
+         * Send the given number of chunks. Requests may complete on the calling thread, so chunks requested
+         * while sending are sent by the loop of the outermost call instead of recursion.
+         */
+        private void sendChunks(final int chunks) {
+            synchronized (this) {
+                pendingSends += chunks;
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            while (true) {
+                synchronized (this) {
+                    if (pendingSends == 0) {
+                        sending = false;
+                        return;
+                    }
+                    pendingSends--;
+                }
+                if (!sendNext()) {
+                    synchronized (this) {
+                        // No assignments remain.
+                        pendingSends = 0;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Send the next chunk. Returns {@code false} if no assignments remain.
+         */
+        private boolean sendNext() {
+            final int index;
+            final Entry<String, List<String>> chunk;
+            synchronized (this) {
+                if (result.isDone()) {
+                    return false;
+                }
+                try {
+                    chunk = nextChunk();
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return false;
+                }
+                if (chunk == null) {
+                    completeIfFinished();
+                    return false;
+                }
+                index = nextIndex++;
+                inFlight++;
+            }
+
+            send(index, chunk.getKey(), unmodifiableList(chunk.getValue()), 1);
+            return true;
+        }
+
+        /**
+         * Returns the first full chunk, or a partial one once the iterator is exhausted. {@code null} if
+         * nothing remains.
+         */
+        private Entry<String, List<String>> nextChunk() {
+            while (assignments.hasNext()) {
+                final RichMenuAssignment assignment = assignments.next();
+                final String richMenuId = assignment.getRichMenuId();
+                final List<String> userIds = pending.computeIfAbsent(richMenuId, key -> new ArrayList<>());
+                userIds.add(assignment.getUserId());
+                if (userIds.size() >= LineClientConstants.MAX_RICH_MENU_BULK_USERS) {
+                    pending.remove(richMenuId);
+                    return new SimpleImmutableEntry<>(richMenuId, userIds);
+                }
+            }
+            final Iterator<Entry<String, List<String>>> remainders = pending.entrySet().iterator();
+            if (!remainders.hasNext()) {
+                return null;
+            }
+            final Entry<String, List<String>> remainder = remainders.next();
+            remainders.remove();
+            return new SimpleImmutableEntry<>(remainder.getKey(), remainder.getValue());
+        }
+
+        private void send(final int index, final String richMenuId, final List<String> userIds,
+                          final int attempt) {
+            CompletableFuture<BotApiResponse> future;
+            try {
+                future = richMenuId != null ? lineMessagingClient.linkRichMenuIdToUsers(userIds, richMenuId)
+                                            : lineMessagingClient.unlinkRichMenuIdFromUsers(userIds);
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            future.whenComplete((response, error) -> {
+                final Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (cause == null) {
+                    retryBudget.onSuccess();
+                } else if (attempt < retryPolicy.getMaxAttempts() && isRetryable(cause)
+                           && retryBudget.tryRetry()) {
+                    final long delayMillis = BotApiRetrier.backoffMillis(retryPolicy, attempt);
+                    log.debug("Retrying chunk {} of rich menu {} in {}ms (attempt {}): {}",
+                              index, richMenuId, delayMillis, attempt + 1, cause.getMessage());
+                    try {
+                        scheduler.schedule(() -> send(index, richMenuId, userIds, attempt + 1),
+                                           delayMillis, TimeUnit.MILLISECONDS);
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        log.warn("Can't retry chunk {} of rich menu {}: {}", index, richMenuId, e.getMessage());
+                    }
+                }
+                onChunkDone(new RichMenuChunkResult(index, richMenuId, userIds, attempt, response, cause));
+            });
+        }
+
+        private void onChunkDone(final RichMenuChunkResult chunkResult) {
+            try {
+                chunkListener.accept(chunkResult);
+            } catch (RuntimeException e) {
+                log.warn("Chunk listener threw an exception", e);
+            }
+            synchronized (this) {
+                chunkResults.add(chunkResult);
+                inFlight--;
+            }
+            sendChunks(1);
+        }
+
+        private void completeIfFinished() {
+            if (inFlight > 0) {
+                return;
+            }
+            chunkResults.sort(Comparator.comparingInt(RichMenuChunkResult::getIndex));
+            final List<RichMenuChunkResult> succeeded = new ArrayList<>();
+            final List<RichMenuChunkResult> failed = new ArrayList<>();
+            chunkResults.forEach(chunk -> (chunk.isSucceeded() ? succeeded : failed).add(chunk));
+            result.complete(new RichMenuBulkLinkResult(unmodifiableList(succeeded), unmodifiableList(failed)));
+        }
+    }
+}
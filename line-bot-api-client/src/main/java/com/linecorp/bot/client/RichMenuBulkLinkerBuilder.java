@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+@ToString
+@Accessors(fluent = true)
+public class RichMenuBulkLinkerBuilder {
+    private final LineMessagingClient lineMessagingClient;
+
+    /**
+     * Use {@link RichMenuBulkLinker#builder} to create instance.
+     */
+    RichMenuBulkLinkerBuilder(final LineMessagingClient lineMessagingClient) {
+        this.lineMessagingClient = lineMessagingClient;
+    }
+
+    /**
+     * Maximum number of chunks in flight.
+     *
+     * <p>Default {@value LineClientConstants#DEFAULT_RICH_MENU_BULK_CONCURRENCY}.
+     */
+    @Setter
+    private int concurrency = LineClientConstants.DEFAULT_RICH_MENU_BULK_CONCURRENCY;
+
+    /**
+     * Retry policy of chunks failed by {@literal 429 Too Many Requests}, {@literal 5xx} or network errors.
+     * {@literal Retry-After} is not available here, so the backoff of the policy is always used.
+     */
+    @Setter
+    @NonNull
+    private RetryPolicy retryPolicy = RetryPolicy.builder().build();
+
+    /**
+     * Called with each chunk when it's applied or given up, e.g. to report progress.
+     * May be called from several threads at once.
+     */
+    @Setter
+    private Consumer<RichMenuChunkResult> chunkListener;
+
+    /**
+     * Scheduler of retries.
+     *
+     * <p>A daemon thread shared by all clients is used in case of {@code null} (default).
+     */
+    @Setter
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a new {@link RichMenuBulkLinker}.
+     */
+    public RichMenuBulkLinker build() {
+        return new RichMenuBulkLinker(
+                lineMessagingClient,
+                concurrency,
+                retryPolicy,
+                chunkListener != null ? chunkListener : chunk -> { },
+                scheduler != null ? scheduler : DefaultScheduler.INSTANCE);
+    }
+}
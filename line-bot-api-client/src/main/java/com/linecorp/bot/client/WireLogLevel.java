@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+/**
+ * Level of HTTP wire logging written to the {@code com.linecorp.bot.client.wire} logger at INFO level.
+ *
+ * <p>Nothing is formatted or buffered when INFO is disabled for the logger, regardless of the level.
+ */
+public enum WireLogLevel {
+    /**
+     * No logs.
+     */
+    NONE,
+
+    /**
+     * Request and response lines.
+     */
+    BASIC,
+
+    /**
+     * Request and response lines and their headers.
+     */
+    HEADERS,
+
+    /**
+     * Request and response lines, their headers and textual bodies up to the configured size.
+     *
+     * <p>Bodies of blob endpoints and {@code @Streaming} responses are never logged.
+     */
+    BODY,
+}
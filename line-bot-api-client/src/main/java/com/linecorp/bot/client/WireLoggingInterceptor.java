@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.ToString;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Invocation;
+import retrofit2.http.Streaming;
+
+/**
+ * HTTP wire logger which never buffers a body unless it's actually logged.
+ *
+ * <p>Unlike {@code HttpLoggingInterceptor}, this checks the logger level before touching the request,
+ * logs at most {@link #maxBodyBytes} of textual bodies, skips bodies of {@link Streaming} responses
+ * and masks the {@code Authorization} header and the credentials of OAuth form requests.
+ */
+@ToString
+@AllArgsConstructor(staticName = "of")
+class WireLoggingInterceptor implements Interceptor {
+    private static final Logger log = LoggerFactory.getLogger("com.linecorp.bot.client.wire");
+    private static final String MASK = "****";
+    private static final Set<String> SECRET_FORM_FIELDS =
+            new HashSet<>(Arrays.asList("client_secret", "client_assertion", "access_token"));
+
+    @NonNull
+    private final WireLogLevel level;
+
+    private final long maxBodyBytes;
+
+    /**
+     * {@code false} for blob endpoints, whose bodies are never logged.
+     */
+    private final boolean bodyLoggable;
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final Request request = chain.request();
+        if (level == WireLogLevel.NONE || !log.isInfoEnabled()) {
+            return chain.proceed(request);
+        }
+
+        final boolean logHeaders = level != WireLogLevel.BASIC;
+        final boolean logBody = level == WireLogLevel.BODY && bodyLoggable && !isStreaming(request);
+
+        logRequest(request, logHeaders, logBody);
+
+        final long startNs = System.nanoTime();
+        final Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            log.info("<-- HTTP FAILED: {}", e.toString());
+            throw e;
+        }
+        final long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+
+        logResponse(response, tookMs, logHeaders, logBody);
+        return response;
+    }
+
+    private void logRequest(final Request request, final boolean logHeaders, final boolean logBody)
+            throws IOException {
+        final RequestBody body = request.body();
+        if (!logHeaders) {
+            log.info("--> {} {}{}", request.method(), request.url(), bodySize(body));
+            return;
+        }
+
+        log.info("--> {} {}", request.method(), request.url());
+        if (body != null && body.contentType() != null) {
+            log.info("Content-Type: {}", body.contentType());
+        }
+        logHeaders(request.headers());
+
+        if (body == null) {
+            log.info("--> END {}", request.method());
+        } else if (!logBody || !isPlainText(body.contentType())
+                   || body.contentLength() < 0 || body.contentLength() > maxBodyBytes) {
+            log.info("--> END {} ({}-byte body omitted)", request.method(), body.contentLength());
+        } else {
+            final Buffer buffer = new Buffer();
+            body.writeTo(buffer);
+            log.info("");
+            final String content = buffer.readString(UTF_8);
+            log.info(isForm(body.contentType()) ? redactForm(content) : content);
+            log.info("--> END {} ({}-byte body)", request.method(), body.contentLength());
+        }
+    }
+
+    private void logResponse(final Response response, final long tookMs,
+                             final boolean logHeaders, final boolean logBody) throws IOException {
+        final ResponseBody body = response.body();
+        log.info("<-- {} {} {} ({}ms)", response.code(), response.message(), response.request().url(), tookMs);
+        if (!logHeaders) {
+            return;
+        }
+
+        logHeaders(response.headers());
+
+        if (body == null) {
+            log.info("<-- END HTTP");
+        } else if (!logBody || !isPlainText(body.contentType())) {
+            log.info("<-- END HTTP ({}-byte body omitted)", body.contentLength());
+        } else {
+            // peekBody() buffers at most maxBodyBytes and leaves the original body untouched.
+            final ResponseBody peeked = response.peekBody(maxBodyBytes);
+            log.info("");
+            log.info(peeked.string());
+            if (body.contentLength() > maxBodyBytes || body.contentLength() < 0) {
+                log.info("<-- END HTTP (body truncated to {} bytes)", maxBodyBytes);
+            } else {
+                log.info("<-- END HTTP ({}-byte body)", body.contentLength());
+            }
+        }
+    }
+
+    private static void logHeaders(final Headers headers) {
+        for (int i = 0; i < headers.size(); i++) {
+            final String name = headers.name(i);
+            final String value = "Authorization".equalsIgnoreCase(name) ? MASK : headers.value(i);
+            log.info("{}: {}", name, value);
+        }
+    }
+
+    private static String bodySize(final RequestBody body) throws IOException {
+        return body == null ? "" : " (" + body.contentLength() + "-byte body)";
+    }
+
+    private static boolean isStreaming(final Request request) {
+        final Invocation invocation = request.tag(Invocation.class);
+        return invocation != null && invocation.method().isAnnotationPresent(Streaming.class);
+    }
+
+    private static boolean isPlainText(final MediaType contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        return "text".equals(contentType.type())
+               || contentType.subtype().contains("json")
+               || isForm(contentType);
+    }
+
+    private static boolean isForm(final MediaType contentType) {
+        return contentType != null && "x-www-form-urlencoded".equals(contentType.subtype());
+    }
+
+    /**
+     * Mask the values of {@link #SECRET_FORM_FIELDS}, e.g. {@code client_secret} of OAuth requests.
+     */
+    static String redactForm(final String form) {
+        final StringBuilder redacted = new StringBuilder(form.length());
+        final String[] fields = form.split("&", -1);
+        for (int i = 0; i < fields.length; i++) {
+            final String field = fields[i];
+            if (i > 0) {
+                redacted.append('&');
+            }
+            final int separator = field.indexOf('=');
+            if (separator >= 0 && SECRET_FORM_FIELDS.contains(field.substring(0, separator))) {
+                redacted.append(field, 0, separator + 1).append(MASK);
+            } else {
+                redacted.append(field);
+            }
+        }
+        return redacted.toString();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import com.linecorp.bot.client.exception.LineServerException;
+import com.linecorp.bot.model.event.UnfollowEvent;
+import com.linecorp.bot.model.event.source.UserSource;
+import com.linecorp.bot.model.profile.UserProfileResponse;
+
+public class CachingLineMessagingClientTest {
+    private static final UserProfileResponse PROFILE =
+            UserProfileResponse.builder().userId("U1").displayName("name").build();
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private LineMessagingClient delegate;
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private CachingLineMessagingClient target;
+
+    @Before
+    public void setUp() {
+        target = new CachingLineMessagingClient(delegate, 2, Duration.ofMinutes(1), ticker::get);
+    }
+
+    @Test
+    public void cacheHitTest() {
+        when(delegate.getProfile("U1")).thenReturn(CompletableFuture.completedFuture(PROFILE));
+
+        // Do
+        target.getProfile("U1").join();
+        final UserProfileResponse profile = target.getProfile("U1").join();
+
+        // Verify
+        assertThat(profile).isEqualTo(PROFILE);
+        verify(delegate, times(1)).getProfile("U1");
+        assertThat(target.getProfileCacheStats())
+                .returns(1L, ProfileCacheStats::getHitCount)
+                .returns(1L, ProfileCacheStats::getMissCount);
+    }
+
+    @Test
+    public void coalesceTest() {
+        final CompletableFuture<UserProfileResponse> inFlight = new CompletableFuture<>();
+        when(delegate.getGroupMemberProfile("G", "U1")).thenReturn(inFlight);
+
+        // Do
+        final CompletableFuture<UserProfileResponse> first = target.getGroupMemberProfile("G", "U1");
+        final CompletableFuture<UserProfileResponse> second = target.getGroupMemberProfile("G", "U1");
+        inFlight.complete(PROFILE);
+
+        // Verify
+        assertThat(first.join()).isEqualTo(PROFILE);
+        assertThat(second.join()).isEqualTo(PROFILE);
+        verify(delegate, times(1)).getGroupMemberProfile("G", "U1");
+        assertThat(target.getProfileCacheStats().getCoalescedCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void coalesceWithNegativeTickerTest() {
+        // System.nanoTime() may be negative.
+        ticker.set(-TimeUnit.DAYS.toNanos(1));
+        final CompletableFuture<UserProfileResponse> inFlight = new CompletableFuture<>();
+        when(delegate.getProfile("U1")).thenReturn(inFlight);
+
+        // Do
+        target.getProfile("U1");
+        final CompletableFuture<UserProfileResponse> second = target.getProfile("U1");
+        inFlight.complete(PROFILE);
+
+        // Verify
+        assertThat(second.join()).isEqualTo(PROFILE);
+        verify(delegate, times(1)).getProfile("U1");
+    }
+
+    @Test
+    public void ttlTest() {
+        when(delegate.getProfile("U1")).thenReturn(CompletableFuture.completedFuture(PROFILE));
+        target.getProfile("U1").join();
+
+        // Do
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        target.getProfile("U1").join();
+
+        // Verify
+        verify(delegate, times(2)).getProfile("U1");
+    }
+
+    @Test
+    public void failureNotCachedTest() {
+        final CompletableFuture<UserProfileResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new LineServerException("Internal Server Error", null));
+        when(delegate.getProfile("U1")).thenReturn(failed, CompletableFuture.completedFuture(PROFILE));
+
+        // Do
+        assertThat(target.getProfile("U1")).isCompletedExceptionally();
+        final UserProfileResponse profile = target.getProfile("U1").join();
+
+        // Verify
+        assertThat(profile).isEqualTo(PROFILE);
+        verify(delegate, times(2)).getProfile("U1");
+    }
+
+    @Test
+    public void maximumSizeTest() {
+        when(delegate.getProfile("U1")).thenReturn(CompletableFuture.completedFuture(PROFILE));
+        when(delegate.getProfile("U2")).thenReturn(CompletableFuture.completedFuture(PROFILE));
+        when(delegate.getProfile("U3")).thenReturn(CompletableFuture.completedFuture(PROFILE));
+
+        // Do: U2 is the least recently used one when U3 is added.
+        target.getProfile("U1").join();
+        target.getProfile("U2").join();
+        target.getProfile("U1").join();
+        target.getProfile("U3").join();
+        target.getProfile("U1").join();
+        target.getProfile("U2").join();
+
+        // Verify
+        verify(delegate, times(1)).getProfile("U1");
+        verify(delegate, times(2)).getProfile("U2");
+        assertThat(target.getProfileCacheStats())
+                .returns(2, ProfileCacheStats::getSize)
+                .returns(2L, ProfileCacheStats::getEvictionCount);
+    }
+
+    @Test
+    public void invalidateByUnfollowEventTest() {
+        when(delegate.getProfile("U1")).thenReturn(CompletableFuture.completedFuture(PROFILE));
+        target.getProfile("U1").join();
+
+        // Do
+        target.invalidate(UnfollowEvent.builder()
+                                       .source(UserSource.builder().userId("U1").build())
+                                       .build());
+        target.getProfile("U1").join();
+
+        // Verify
+        verify(delegate, times(2)).getProfile("U1");
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import com.linecorp.bot.client.EndpointLimit.OverflowPolicy;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+public class EndpointRateLimiterTest {
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private Callback<String> callback;
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Test
+    public void unlimitedFamilyTest() {
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder().maxInFlight(1).build());
+        final Call<String> call1 = mockCall();
+        final Call<String> call2 = mockCall();
+
+        // Do
+        target.enqueue(EndpointFamily.OTHER, call1, callback);
+        target.enqueue(EndpointFamily.OTHER, call2, callback);
+
+        // Verify
+        verify(call1).enqueue(callback);
+        verify(call2).enqueue(callback);
+        assertThat(target.metrics(EndpointFamily.OTHER)).isNull();
+    }
+
+    @Test
+    public void maxInFlightQueueTest() {
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder().maxInFlight(1).build());
+        final Call<String> call1 = mockCall();
+        final Call<String> call2 = mockCall();
+
+        // Do
+        target.enqueue(EndpointFamily.PUSH, call1, callback);
+        target.enqueue(EndpointFamily.PUSH, call2, callback);
+
+        // Verify
+        final Callback<String> callback1 = captureCallback(call1);
+        verify(call2, never()).enqueue(any());
+        assertThat(target.metrics(EndpointFamily.PUSH))
+                .returns(1, EndpointLimiterMetrics::getInFlight)
+                .returns(1, EndpointLimiterMetrics::getQueued);
+
+        // Do complete 1st call
+        final Response<String> response = Response.success("OK");
+        callback1.onResponse(call1, response);
+
+        // Verify
+        verify(callback).onResponse(call1, response);
+        captureCallback(call2);
+        assertThat(target.metrics(EndpointFamily.PUSH))
+                .returns(1, EndpointLimiterMetrics::getInFlight)
+                .returns(0, EndpointLimiterMetrics::getQueued)
+                .returns(2L, EndpointLimiterMetrics::getAdmitted);
+    }
+
+    @Test
+    public void failFastTest() {
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder()
+                                                                       .maxInFlight(1)
+                                                                       .overflowPolicy(OverflowPolicy.FAIL_FAST)
+                                                                       .build());
+        final Call<String> call1 = mockCall();
+        final Call<String> call2 = mockCall();
+
+        // Do
+        target.enqueue(EndpointFamily.PUSH, call1, callback);
+        target.enqueue(EndpointFamily.PUSH, call2, callback);
+
+        // Verify
+        verify(call2, never()).enqueue(any());
+        verify(callback).onFailure(eq(call2), any(RejectedExecutionException.class));
+        assertThat(target.metrics(EndpointFamily.PUSH).getRejected()).isEqualTo(1L);
+    }
+
+    @Test
+    public void maxQueuedTest() {
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder()
+                                                                       .maxInFlight(1)
+                                                                       .maxQueued(1)
+                                                                       .build());
+
+        // Do
+        target.enqueue(EndpointFamily.PUSH, mockCall(), callback);
+        target.enqueue(EndpointFamily.PUSH, mockCall(), callback);
+        final Call<String> call3 = mockCall();
+        target.enqueue(EndpointFamily.PUSH, call3, callback);
+
+        // Verify
+        verify(callback).onFailure(eq(call3), any(RejectedExecutionException.class));
+        assertThat(target.metrics(EndpointFamily.PUSH))
+                .returns(1, EndpointLimiterMetrics::getQueued)
+                .returns(1L, EndpointLimiterMetrics::getRejected);
+    }
+
+    @Test
+    public void tokenBucketTest() {
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder()
+                                                                       .permitsPerSecond(10)
+                                                                       .burst(1)
+                                                                       .build());
+        final Call<String> call1 = mockCall();
+        final Call<String> call2 = mockCall();
+
+        // Do
+        target.enqueue(EndpointFamily.MULTICAST, call1, callback);
+        target.enqueue(EndpointFamily.MULTICAST, call2, callback);
+
+        // Verify: 2nd call waits 100ms for next permit.
+        captureCallback(call1);
+        verify(call2, never()).enqueue(any());
+        final ArgumentCaptor<Runnable> drain = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(drain.capture(), eq(TimeUnit.MILLISECONDS.toNanos(100)),
+                                   eq(TimeUnit.NANOSECONDS));
+
+        // Do: time passes
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        drain.getValue().run();
+
+        // Verify
+        captureCallback(call2);
+        assertThat(target.metrics(EndpointFamily.MULTICAST).getAvailablePermits()).isLessThan(1);
+    }
+
+    @Test
+    public void rateLimitOnlyDoesNotScheduleWhenPermitAvailableTest() {
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder()
+                                                                       .permitsPerSecond(10)
+                                                                       .build());
+
+        // Do
+        for (int i = 0; i < 10; i++) {
+            target.enqueue(EndpointFamily.MULTICAST, mockCall(), callback);
+        }
+
+        // Verify
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+        assertThat(target.metrics(EndpointFamily.MULTICAST).getAdmitted()).isEqualTo(10L);
+    }
+
+    @Test
+    public void throwingCallReleasesPermitTest() {
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder().maxInFlight(1).build());
+        final Call<String> call1 = mockCall();
+        final Call<String> call2 = mockCall();
+        final Call<String> call3 = mockCall();
+        final IllegalStateException error = new IllegalStateException("Already executed.");
+        doThrow(error).when(call2).enqueue(any());
+
+        // Do
+        target.enqueue(EndpointFamily.PUSH, call1, callback);
+        target.enqueue(EndpointFamily.PUSH, call2, callback);
+        target.enqueue(EndpointFamily.PUSH, call3, callback);
+        final Response<String> response = Response.success("OK");
+        captureCallback(call1).onResponse(call1, response);
+
+        // Verify: 2nd call fails and its permit goes to the 3rd call.
+        verify(callback).onFailure(call2, error);
+        captureCallback(call3);
+        assertThat(target.metrics(EndpointFamily.PUSH))
+                .returns(1, EndpointLimiterMetrics::getInFlight)
+                .returns(0, EndpointLimiterMetrics::getQueued);
+    }
+
+    @Test
+    public void throwingCallOnSubmitReleasesPermitTest() {
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder().maxInFlight(1).build());
+        final Call<String> call = mockCall();
+        final IllegalStateException error = new IllegalStateException("Already executed.");
+        doThrow(error).when(call).enqueue(any());
+
+        // Do
+        target.enqueue(EndpointFamily.PUSH, call, callback);
+
+        // Verify
+        verify(callback).onFailure(call, error);
+        assertThat(target.metrics(EndpointFamily.PUSH).getInFlight()).isZero();
+    }
+
+    @Test
+    public void rejectedDrainFailsQueuedCallsTest() {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any()))
+                .thenThrow(new RejectedExecutionException("shut down"));
+        final EndpointRateLimiter target = newRateLimiter(EndpointLimit.builder()
+                                                                       .permitsPerSecond(10)
+                                                                       .burst(1)
+                                                                       .build());
+        final Call<String> call1 = mockCall();
+        final Call<String> call2 = mockCall();
+
+        // Do
+        target.enqueue(EndpointFamily.MULTICAST, call1, callback);
+        target.enqueue(EndpointFamily.MULTICAST, call2, callback);
+
+        // Verify: 2nd call still waits for the completion of the 1st one.
+        verify(callback, never()).onFailure(any(), any());
+
+        // Do
+        final Response<String> response = Response.success("OK");
+        captureCallback(call1).onResponse(call1, response);
+
+        // Verify
+        verify(call2, never()).enqueue(any());
+        verify(callback).onFailure(eq(call2), any(RejectedExecutionException.class));
+        assertThat(target.metrics(EndpointFamily.MULTICAST))
+                .returns(0, EndpointLimiterMetrics::getQueued)
+                .returns(1L, EndpointLimiterMetrics::getRejected);
+    }
+
+    private EndpointRateLimiter newRateLimiter(EndpointLimit limit) {
+        final Map<EndpointFamily, EndpointLimit> limits = new EnumMap<>(EndpointFamily.class);
+        limits.put(EndpointFamily.PUSH, limit);
+        limits.put(EndpointFamily.MULTICAST, limit);
+        return new EndpointRateLimiter(limits, scheduler, ticker::get);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Call<String> mockCall() {
+        return mock(Call.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Callback<String> captureCallback(Call<String> call) {
+        final ArgumentCaptor<Callback<String>> captor = ArgumentCaptor.forClass(Callback.class);
+        verify(call).enqueue(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -16,32 +16,46 @@
 
 package com.linecorp.bot.client;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.only;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
 
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.Timeout;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.stubbing.OngoingStubbing;
 
+import com.linecorp.bot.client.exception.GeneralLineMessagingException;
 import com.linecorp.bot.model.response.BotApiResponse;
 
 import okhttp3.Headers;
 import okhttp3.MediaType;
+import okhttp3.Protocol;
 import okhttp3.Request;
+import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.Buffer;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -60,6 +74,9 @@ public class LineBlobClientImplTest {
     @Rule
     public final Timeout timeoutRule = Timeout.seconds(5);
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Mock
     private LineBlobService retrofitMock;
 
@@ -80,6 +97,69 @@ public class LineBlobClientImplTest {
         assertThat(contentResponse.getMimeType()).isEqualTo("image/jpeg");
     }
 
+    @Test
+    public void downloadMessageContentToChannelTest() throws Exception {
+        whenCall(retrofitMock.getMessageContent(any(), any()),
+                 ResponseBody.create(MediaType.parse("video/mp4"), "content".getBytes(US_ASCII)));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Do
+        final long size = target.downloadMessageContent("ID", Channels.newChannel(outputStream)).get();
+
+        // Verify
+        verify(retrofitMock, only()).getMessageContent("ID", null);
+        assertThat(size).isEqualTo(7);
+        assertThat(outputStream.toString("US-ASCII")).isEqualTo("content");
+    }
+
+    @Test
+    public void downloadMessageContentResumeTest() throws Exception {
+        final Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, "cont".getBytes(US_ASCII));
+        final okhttp3.Response rawResponse = rawResponse(206).header("Content-Range", "bytes 4-6/7").build();
+        whenResponse(retrofitMock.getMessageContent(any(), any()),
+                     Response.success(ResponseBody.create(MediaType.parse("video/mp4"),
+                                                          "ent".getBytes(US_ASCII)),
+                                      rawResponse));
+
+        // Do
+        final long size = target.downloadMessageContent("ID", file).get();
+
+        // Verify
+        verify(retrofitMock, only()).getMessageContent("ID", "bytes=4-");
+        assertThat(size).isEqualTo(7);
+        assertThat(new String(Files.readAllBytes(file), US_ASCII)).isEqualTo("content");
+    }
+
+    @Test
+    public void downloadMessageContentAlreadyCompleteTest() throws Exception {
+        final Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, "content".getBytes(US_ASCII));
+        final okhttp3.Response rawResponse = rawResponse(416).header("Content-Range", "bytes */7").build();
+        whenResponse(retrofitMock.getMessageContent(any(), any()),
+                     Response.error(ResponseBody.create(null, ZERO_BYTES), rawResponse));
+
+        // Do
+        final long size = target.downloadMessageContent("ID", file).get();
+
+        // Verify
+        assertThat(size).isEqualTo(7);
+        assertThat(new String(Files.readAllBytes(file), US_ASCII)).isEqualTo("content");
+    }
+
+    @Test
+    public void downloadMessageContentLengthMismatchTest() throws Exception {
+        final Buffer truncated = new Buffer().writeUtf8("cont");
+        whenCall(retrofitMock.getMessageContent(any(), any()),
+                 ResponseBody.create(MediaType.parse("video/mp4"), 7, truncated));
+
+        // Do
+        assertThatThrownBy(() -> target.downloadMessageContent("ID", temporaryFolder.newFile().toPath()).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(GeneralLineMessagingException.class)
+                .hasMessageContaining("Content-Length is 7 but received 4 bytes");
+    }
+
     @Test
     public void getRichMenuImageTest() throws Exception {
         whenCall(retrofitMock.getRichMenuImage(any()),
@@ -109,14 +189,72 @@ public class LineBlobClientImplTest {
 
     }
 
+    @Test
+    public void uploadRichMenuImageFromFileTest() throws Exception {
+        whenCall(retrofitMock.uploadRichMenuImage(any(), any()),
+                 null);
+        final Path image = temporaryFolder.newFile().toPath();
+        Files.write(image, "image".getBytes(US_ASCII));
+
+        // Do
+        target.setRichMenuImage("ID", "image/png", image).get();
+
+        // Verify
+        final RequestBody requestBody = captureUploadedBody();
+        assertThat(requestBody.contentLength()).isEqualTo(5);
+        assertThat(requestBody.contentType()).isEqualTo(MediaType.get("image/png"));
+        assertThat(readBody(requestBody)).isEqualTo("image");
+    }
+
+    @Test
+    public void uploadRichMenuImageFromStreamTest() throws Exception {
+        whenCall(retrofitMock.uploadRichMenuImage(any(), any()),
+                 null);
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream("image+trailer".getBytes(US_ASCII));
+
+        // Do
+        target.setRichMenuImage("ID", "image/png", Channels.newChannel(inputStream), 5).get();
+
+        // Verify
+        final RequestBody requestBody = captureUploadedBody();
+        assertThat(requestBody.isOneShot()).isTrue();
+        assertThat(requestBody.contentLength()).isEqualTo(5);
+        assertThat(readBody(requestBody)).isEqualTo("image");
+    }
+
     // Utility methods
 
+    private RequestBody captureUploadedBody() {
+        final ArgumentCaptor<RequestBody> captor = ArgumentCaptor.forClass(RequestBody.class);
+        verify(retrofitMock).uploadRichMenuImage(eq("ID"), captor.capture());
+        return captor.getValue();
+    }
+
+    private static String readBody(RequestBody requestBody) throws IOException {
+        final Buffer buffer = new Buffer();
+        requestBody.writeTo(buffer);
+        return buffer.readUtf8();
+    }
+
     private static <T> void whenCall(Call<T> call, T value) {
+        final Headers headers = Headers.of(singletonMap("x-line-request-id", REQUEST_ID_FIXTURE));
+        whenResponse(call, Response.success(value, headers));
+    }
+
+    private static <T> void whenResponse(Call<T> call, Response<T> response) {
         final OngoingStubbing<Call<T>> callOngoingStubbing = when(call);
-        callOngoingStubbing.thenReturn(enqueue(value));
+        callOngoingStubbing.thenReturn(enqueue(response));
+    }
+
+    private static okhttp3.Response.Builder rawResponse(int code) {
+        return new okhttp3.Response.Builder()
+                .request(new Request.Builder().url("https://api-data.line.me/").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("Status " + code);
     }
 
-    private static <T> Call<T> enqueue(T value) {
+    private static <T> Call<T> enqueue(Response<T> response) {
         return new Call<T>() {
             @Override
             public Response<T> execute() throws IOException {
@@ -125,8 +263,7 @@ public class LineBlobClientImplTest {
 
             @Override
             public void enqueue(Callback<T> callback) {
-                final Headers headers = Headers.of(singletonMap("x-line-request-id", REQUEST_ID_FIXTURE));
-                callback.onResponse(this, Response.success(value, headers));
+                callback.onResponse(this, response);
             }
 
             @Override
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.linecorp.bot.client.exception.GeneralLineMessagingException;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+public class LineBlobClientTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    abstract static class DefaultMethodsClient implements LineBlobClient {
+    }
+
+    @Test
+    public void downloadMessageContentToFileDefaultMethodTest() throws Exception {
+        final LineBlobClient client = mock(DefaultMethodsClient.class, CALLS_REAL_METHODS);
+        doReturn(completedFuture(content("content", 7))).when(client).getMessageContent("messageId");
+        final Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, "previous content".getBytes(US_ASCII));
+
+        // Do
+        final Long length = client.downloadMessageContent("messageId", file).join();
+
+        // Verify
+        assertThat(length).isEqualTo(7);
+        assertThat(file).hasContent("content");
+    }
+
+    @Test
+    public void downloadMessageContentToChannelDefaultMethodTest() {
+        final LineBlobClient client = mock(DefaultMethodsClient.class, CALLS_REAL_METHODS);
+        doReturn(completedFuture(content("content", 7)), completedFuture(content("content", 8)))
+                .when(client).getMessageContent("messageId");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Do
+        final Long length = client.downloadMessageContent("messageId", Channels.newChannel(out)).join();
+
+        // Verify
+        assertThat(length).isEqualTo(7);
+        assertThat(out.toByteArray()).isEqualTo("content".getBytes(US_ASCII));
+        assertThatThrownBy(() -> client.downloadMessageContent("messageId", Channels.newChannel(out)).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(GeneralLineMessagingException.class)
+                .hasMessageContaining("Content-Length is 8 but received 7 bytes");
+    }
+
+    @Test
+    public void setRichMenuImageDefaultMethodsTest() throws Exception {
+        final LineBlobClient client = mock(DefaultMethodsClient.class, CALLS_REAL_METHODS);
+        final byte[] image = "image".getBytes(US_ASCII);
+        final CompletableFuture<BotApiResponse> response = completedFuture(null);
+        doReturn(response).when(client).setRichMenuImage("richMenuId", "image/png", image);
+        final Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, image);
+
+        // Do, Verify
+        assertThat(client.setRichMenuImage("richMenuId", "image/png", file)).isSameAs(response);
+        assertThat(client.setRichMenuImage("richMenuId", "image/png",
+                                           new ByteArrayInputStream("image and more".getBytes(US_ASCII)), 5))
+                .isSameAs(response);
+        assertThat(client.setRichMenuImage("richMenuId", "image/png",
+                                           Channels.newChannel(new ByteArrayInputStream(image)), 5))
+                .isSameAs(response);
+        verify(client, times(3)).setRichMenuImage("richMenuId", "image/png", image);
+        assertThatThrownBy(() -> client.setRichMenuImage("richMenuId", "image/png",
+                                                         new ByteArrayInputStream(image), 6).join())
+                .hasCauseInstanceOf(GeneralLineMessagingException.class);
+    }
+
+    private static MessageContentResponse content(final String content, final long length) {
+        return MessageContentResponse.builder()
+                                     .stream(new ByteArrayInputStream(content.getBytes(US_ASCII)))
+                                     .length(length)
+                                     .build();
+    }
+}
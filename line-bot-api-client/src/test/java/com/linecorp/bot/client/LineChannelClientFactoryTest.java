@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.message.TextMessage;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+public class LineChannelClientFactoryTest {
+    private MockWebServer mockWebServer;
+    private LineChannelClientFactory target;
+
+    @Before
+    public void setUp() {
+        mockWebServer = new MockWebServer();
+        final URI endPoint = URI.create("http://localhost:" + mockWebServer.getPort());
+        target = LineChannelClientFactory.builder()
+                                         .apiEndPoint(endPoint)
+                                         .blobEndPoint(endPoint)
+                                         .buildChannelClientFactory();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void channelTokenPerClientTest() throws Exception {
+        final LineMessagingClient channel1 = target.forChannel(FixedChannelTokenSupplier.of("token1"));
+        final LineMessagingClient channel2 = target.forChannel(FixedChannelTokenSupplier.of("token2"));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+
+        // Do
+        channel1.pushMessage(new PushMessage("USER_ID", new TextMessage("text"))).get();
+        channel2.getProfile("USER_ID").get();
+        channel1.getProfile("USER_ID").get();
+
+        // Verify
+        assertThat(mockWebServer.takeRequest().getHeader("Authorization")).isEqualTo("Bearer token1");
+        assertThat(mockWebServer.takeRequest().getHeader("Authorization")).isEqualTo("Bearer token2");
+        assertThat(mockWebServer.takeRequest().getHeader("Authorization")).isEqualTo("Bearer token1");
+    }
+
+    @Test
+    public void channelTokenIsReadPerRequestTest() throws Exception {
+        final String[] token = { "token1" };
+        final LineMessagingClient client = target.forChannel(() -> token[0]);
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+
+        // Do
+        client.getProfile("USER_ID").get();
+        token[0] = "token2";
+        client.getProfile("USER_ID").get();
+
+        // Verify
+        assertThat(mockWebServer.takeRequest().getHeader("Authorization")).isEqualTo("Bearer token1");
+        assertThat(mockWebServer.takeRequest().getHeader("Authorization")).isEqualTo("Bearer token2");
+    }
+}
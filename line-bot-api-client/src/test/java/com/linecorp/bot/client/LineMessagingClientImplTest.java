@@ -24,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,16 +32,23 @@ import java.io.IOException;
 import java.net.URI;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.Timeout;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.stubbing.OngoingStubbing;
 
+import com.linecorp.bot.client.exception.GeneralLineMessagingException;
 import com.linecorp.bot.model.Broadcast;
 import com.linecorp.bot.model.Multicast;
 import com.linecorp.bot.model.Narrowcast;
@@ -53,6 +61,7 @@ import com.linecorp.bot.model.narrowcast.Filter;
 import com.linecorp.bot.model.narrowcast.Limit;
 import com.linecorp.bot.model.narrowcast.filter.GenderDemographicFilter;
 import com.linecorp.bot.model.narrowcast.filter.GenderDemographicFilter.Gender;
+import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
 import com.linecorp.bot.model.profile.MembersIdsResponse;
 import com.linecorp.bot.model.profile.UserProfileResponse;
 import com.linecorp.bot.model.request.SetWebhookEndpointRequest;
@@ -81,6 +90,8 @@ import com.linecorp.bot.model.room.RoomMemberCountResponse;
 
 import okhttp3.Headers;
 import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -102,9 +113,15 @@ public class LineMessagingClientImplTest {
     @Mock
     private LineMessagingService retrofitMock;
 
-    @InjectMocks
     private LineMessagingClientImpl target;
 
+    @Before
+    public void setUp() {
+        target = new LineMessagingClientImpl(retrofitMock, null, null,
+                                             new BotApiRetrier(RetryPolicy.NO_RETRY, DefaultScheduler.INSTANCE),
+                                             2);
+    }
+
     @Test
     public void replyMessageTest() throws Exception {
         whenCall(retrofitMock.replyMessage(any()),
@@ -150,6 +167,90 @@ public class LineMessagingClientImplTest {
         assertThat(botApiResponse).isEqualTo(BOT_API_SUCCESS_RESPONSE);
     }
 
+    @Test
+    public void multicastAllTest() throws Exception {
+        when(retrofitMock.multicast(any(String.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> enqueue(BOT_API_SUCCESS_RESPONSE_BODY));
+        final List<String> to = IntStream.range(0, 1001).mapToObj(i -> "U" + i).collect(Collectors.toList());
+
+        // Do
+        final MulticastAllResult result =
+                target.multicastAll(to.stream(), singletonList(new TextMessage("text"))).get();
+
+        // Verify
+        final ArgumentCaptor<String> retryKeys = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<RequestBody> bodies = ArgumentCaptor.forClass(RequestBody.class);
+        verify(retrofitMock, times(3)).multicast(retryKeys.capture(), bodies.capture());
+        assertThat(retryKeys.getAllValues()).doesNotHaveDuplicates();
+        final Multicast first = readMulticast(bodies.getAllValues().get(0));
+        assertThat(first.getTo()).containsExactlyInAnyOrderElementsOf(to.subList(0, 500));
+        assertThat(first.getMessages()).containsExactly(new TextMessage("text"));
+        assertThat(first.isNotificationDisabled()).isFalse();
+        assertThat(readMulticast(bodies.getAllValues().get(2)).getTo()).containsExactly("U1000");
+
+        assertThat(result.getSucceeded())
+                .extracting(MulticastChunkResult::getIndex)
+                .containsExactly(0, 1, 2);
+        assertThat(result.getSucceeded().get(2).getResponse()).isEqualTo(BOT_API_SUCCESS_RESPONSE);
+        assertThat(result.getFailed()).isEmpty();
+        assertThat(result.getRetried()).isEmpty();
+    }
+
+    @Test
+    public void multicastAllFailedChunkTest() throws Exception {
+        when(retrofitMock.multicast(any(String.class), any(RequestBody.class)))
+                .thenReturn(failure(new IOException("connection reset")))
+                .thenReturn(enqueue(BOT_API_SUCCESS_RESPONSE_BODY));
+        final List<String> to = IntStream.range(0, 600).mapToObj(i -> "U" + i).collect(Collectors.toList());
+
+        // Do
+        final MulticastAllResult result =
+                target.multicastAll(to, singletonList(new TextMessage("text"))).get();
+
+        // Verify
+        assertThat(result.getFailed()).extracting(MulticastChunkResult::getIndex).containsExactly(0);
+        assertThat(result.getFailed().get(0).getError()).isInstanceOf(GeneralLineMessagingException.class);
+        assertThat(result.getFailedRecipientCount()).isEqualTo(500);
+        assertThat(result.getSucceeded()).extracting(MulticastChunkResult::getIndex).containsExactly(1);
+    }
+
+    @Test
+    public void multicastAllSynchronousFailureTest() throws Exception {
+        when(retrofitMock.multicast(any(String.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> failure(new IOException("rejected")));
+        final int chunks = 1000;
+        final Iterator<String> to = IntStream.range(0, chunks * LineClientConstants.MAX_MULTICAST_RECIPIENTS)
+                                             .mapToObj(i -> "U" + i)
+                                             .iterator();
+        final CompletableFuture<MulticastAllResult> result = new CompletableFuture<>();
+
+        // Do: every attempt completes while sending; a small stack overflows if chunks are sent recursively
+        final Thread thread = new Thread(null, () -> {
+            try {
+                target.multicastAll(to, PreparedMessages.of(singletonList(new TextMessage("text"))), false)
+                      .whenComplete((r, e) -> result.complete(r));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, "small-stack", 256 * 1024);
+        thread.start();
+
+        // Verify
+        assertThat(result.get().getFailed()).hasSize(chunks);
+        assertThat(result.get().getSucceeded()).isEmpty();
+    }
+
+    @Test
+    public void multicastAllEmptyTest() throws Exception {
+        // Do
+        final MulticastAllResult result =
+                target.multicastAll(emptyList(), singletonList(new TextMessage("text"))).get();
+
+        // Verify
+        assertThat(result.getSucceeded()).isEmpty();
+        assertThat(result.getFailed()).isEmpty();
+    }
+
     @Test
     public void broadcast() {
         whenCall(retrofitMock.broadcast(isNull(), any(Broadcast.class)),
@@ -724,6 +825,56 @@ public class LineMessagingClientImplTest {
         callOngoingStubbing.thenReturn(enqueue(value));
     }
 
+    private static Multicast readMulticast(RequestBody body) throws IOException {
+        final Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return ModelObjectMapper.createNewObjectMapper().readValue(buffer.readByteArray(), Multicast.class);
+    }
+
+    private static <T> Call<T> failure(IOException e) {
+        return new Call<T>() {
+            @Override
+            public Response<T> execute() throws IOException {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void enqueue(Callback<T> callback) {
+                callback.onFailure(this, e);
+            }
+
+            @Override
+            public boolean isExecuted() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void cancel() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean isCanceled() {
+                return false;
+            }
+
+            @Override
+            public Call<T> clone() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Request request() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public okio.Timeout timeout() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
     private static <T> Call<T> enqueue(T value) {
         return new Call<T>() {
             @Override
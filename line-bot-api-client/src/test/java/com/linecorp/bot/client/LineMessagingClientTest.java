@@ -16,9 +16,28 @@
 
 package com.linecorp.bot.client;
 
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -27,7 +46,12 @@ import org.slf4j.bridge.SLF4JBridgeHandler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.linecorp.bot.model.Broadcast;
+import com.linecorp.bot.model.Multicast;
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.message.TextMessage;
 import com.linecorp.bot.model.profile.UserProfileResponse;
+import com.linecorp.bot.model.response.BotApiResponse;
 
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -39,6 +63,9 @@ public class LineMessagingClientTest {
         SLF4JBridgeHandler.install();
     }
 
+    abstract static class DefaultMethodsClient implements LineMessagingClient {
+    }
+
     private MockWebServer mockWebServer;
     private LineMessagingClient target;
 
@@ -85,4 +112,64 @@ public class LineMessagingClientTest {
                 .isEqualTo("/CanContainsRelative/v2/bot/profile/USER_TOKEN");
         assertThat(actualResponse).isEqualTo(profileResponseMock);
     }
+
+    @Test
+    public void preparedMessagesDefaultMethodsTest() {
+        final LineMessagingClient client = mock(DefaultMethodsClient.class, CALLS_REAL_METHODS);
+        final TextMessage message = new TextMessage("hello");
+        final PreparedMessages messages = PreparedMessages.of(message);
+
+        // Do
+        client.pushMessage("U0", messages, true);
+        client.multicast(singleton("U0"), messages, true);
+        client.broadcast(messages, true);
+
+        // Verify
+        verify(client).pushMessage(new PushMessage("U0", message, true));
+        verify(client).multicast(new Multicast(singleton("U0"), message, true));
+        verify(client).broadcast(new Broadcast(message, true));
+    }
+
+    @Test
+    public void multicastAllDefaultMethodTest() {
+        final LineMessagingClient client = mock(DefaultMethodsClient.class, CALLS_REAL_METHODS);
+        final PreparedMessages messages = PreparedMessages.of(new TextMessage("hello"));
+        final BotApiResponse ok = new BotApiResponse("requestId", "", null);
+        final RuntimeException error = new RuntimeException("failed");
+        final CompletableFuture<BotApiResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(error);
+        doReturn(completedFuture(ok), failed).when(client).multicast(anySet(), eq(messages), eq(true));
+        final List<String> to = IntStream.range(0, 501).mapToObj(i -> "U" + i).collect(toList());
+
+        // Do
+        final MulticastAllResult result = client.multicastAll(to.iterator(), messages, true).join();
+
+        // Verify
+        verify(client).multicast(new LinkedHashSet<>(to.subList(0, 500)), messages, true);
+        verify(client).multicast(singleton("U500"), messages, true);
+        assertThat(result.getSucceeded()).extracting(MulticastChunkResult::getResponse).containsExactly(ok);
+        assertThat(result.getFailed()).extracting(MulticastChunkResult::getError).containsExactly(error);
+        assertThat(result.getFailedRecipientCount()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void multicastAllClosesStreamTest() {
+        final LineMessagingClient client = mock(DefaultMethodsClient.class, CALLS_REAL_METHODS);
+        final CompletableFuture<MulticastAllResult> future = new CompletableFuture<>();
+        doReturn(future).when(client).multicastAll(any(Iterator.class), any(PreparedMessages.class),
+                                                   anyBoolean());
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        // Do
+        final CompletableFuture<MulticastAllResult> result =
+                client.multicastAll(Stream.of("U0").onClose(() -> closed.set(true)),
+                                    singletonList(new TextMessage("hello")));
+
+        // Verify
+        assertThat(closed).isFalse();
+        future.complete(null);
+        assertThat(result).isDone();
+        assertThat(closed).isTrue();
+    }
 }
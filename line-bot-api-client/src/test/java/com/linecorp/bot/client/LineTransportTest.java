@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class LineTransportTest {
+    private MockWebServer mockWebServer;
+    private LineTransport transport;
+
+    @Before
+    public void setUp() {
+        mockWebServer = new MockWebServer();
+        transport = LineTransport.builder()
+                                 .maxRequests(32)
+                                 .maxRequestsPerHost(8)
+                                 .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        transport.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void builderSettingsTest() {
+        assertThat(transport.dispatcher().getMaxRequests()).isEqualTo(32);
+        assertThat(transport.dispatcher().getMaxRequestsPerHost()).isEqualTo(8);
+
+        final OkHttpClient client = transport.newOkHttpClientBuilder().build();
+        assertThat(client.dispatcher()).isSameAs(transport.dispatcher());
+        assertThat(client.connectionPool()).isSameAs(transport.connectionPool());
+    }
+
+    @Test
+    public void clientsShareConnectionTest() throws Exception {
+        final URI endPoint = URI.create("http://localhost:" + mockWebServer.getPort());
+        final LineMessagingClient messagingClient =
+                LineMessagingClient.builder("token")
+                                   .apiEndPoint(endPoint)
+                                   .transport(transport)
+                                   .build();
+        final ManageAudienceClient manageAudienceClient =
+                ManageAudienceClient.builder()
+                                    .channelToken("token")
+                                    .apiEndPoint(endPoint)
+                                    .transport(transport)
+                                    .build();
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+
+        // Do
+        messagingClient.getProfile("USER_ID").get();
+        manageAudienceClient.getAudienceGroups(1L, null, null, null, null, null).get();
+
+        // Verify
+        final RecordedRequest first = mockWebServer.takeRequest();
+        final RecordedRequest second = mockWebServer.takeRequest();
+        assertThat(first.getSequenceNumber()).isEqualTo(0);
+        assertThat(second.getSequenceNumber()).isEqualTo(1);
+        assertThat(transport.connectionPool().connectionCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import com.linecorp.bot.client.exception.NotFoundException;
+import com.linecorp.bot.client.exception.UnauthorizedException;
+import com.linecorp.bot.model.profile.MembersIdsResponse;
+import com.linecorp.bot.model.profile.UserProfileResponse;
+
+public class MemberIdsIteratorTest {
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private LineMessagingClient lineMessagingClient;
+
+    @Test
+    public void prefetchTest() {
+        final CompletableFuture<MembersIdsResponse> secondPage = new CompletableFuture<>();
+        when(lineMessagingClient.getGroupMembersIds("G", null))
+                .thenReturn(page("page2", "U1", "U2"));
+        when(lineMessagingClient.getGroupMembersIds("G", "page2"))
+                .thenReturn(secondPage);
+
+        // Do
+        final MemberIdsIterator target = MemberIdsIterator.ofGroup(lineMessagingClient, "G");
+
+        // Verify: 2nd page is requested before 1st page is consumed.
+        assertThat(target.next()).isEqualTo("U1");
+        verify(lineMessagingClient).getGroupMembersIds("G", "page2");
+
+        // Do
+        secondPage.complete(new MembersIdsResponse(singletonList("U3"), null));
+
+        // Verify
+        final List<String> rest = new ArrayList<>();
+        target.forEachRemaining(rest::add);
+        assertThat(rest).containsExactly("U2", "U3");
+        verify(lineMessagingClient, times(2)).getGroupMembersIds(eq("G"), any());
+    }
+
+    @Test
+    public void failureTest() {
+        final CompletableFuture<MembersIdsResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new UnauthorizedException("Unauthorized", null));
+        when(lineMessagingClient.getRoomMembersIds("R", null))
+                .thenReturn(failed);
+
+        // Do
+        final MemberIdsIterator target = MemberIdsIterator.ofRoom(lineMessagingClient, "R");
+
+        // Verify
+        assertThatThrownBy(target::hasNext)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    public void profilesTest() {
+        when(lineMessagingClient.getGroupMembersIds(eq("G"), isNull()))
+                .thenReturn(page(null, "U1", "U2", "U3", "U4"));
+        final CompletableFuture<UserProfileResponse> profile1 = new CompletableFuture<>();
+        final CompletableFuture<UserProfileResponse> left = new CompletableFuture<>();
+        left.completeExceptionally(new NotFoundException("Not found", null));
+        when(lineMessagingClient.getGroupMemberProfile(eq("G"), anyString()))
+                .thenReturn(profile1, left, profile("U3"), profile("U4"));
+
+        // Do
+        final Iterator<UserProfileResponse> target =
+                MemberIdsIterator.ofGroup(lineMessagingClient, "G").profiles(2);
+        profile1.complete(UserProfileResponse.builder().userId("U1").build());
+
+        // Verify: requests are limited to the concurrency until consumed.
+        assertThat(target.next().getUserId()).isEqualTo("U1");
+        verify(lineMessagingClient, never()).getGroupMemberProfile("G", "U4");
+
+        // Do
+        final List<String> rest = new ArrayList<>();
+        target.forEachRemaining(profile -> rest.add(profile.getUserId()));
+
+        // Verify: U2 left the group.
+        assertThat(rest).containsExactly("U3", "U4");
+    }
+
+    private static CompletableFuture<MembersIdsResponse> page(String next, String... memberIds) {
+        return CompletableFuture.completedFuture(new MembersIdsResponse(asList(memberIds), next));
+    }
+
+    private static CompletableFuture<UserProfileResponse> profile(String userId) {
+        return CompletableFuture.completedFuture(UserProfileResponse.builder().userId(userId).build());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.bot.model.profile.UserProfileResponse;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+public class NativeImageConfigTest {
+    private static final String CONFIG_DIR = "META-INF/native-image/com.linecorp.bot/";
+
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setUp() {
+        mockWebServer = new MockWebServer();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void retrofitServicesAreRegisteredTest() throws Exception {
+        final Set<String> proxies = new TreeSet<>();
+        for (JsonNode proxy : readConfig("line-bot-api-client/proxy-config.json")) {
+            proxy.get("interfaces").forEach(name -> proxies.add(name.asText()));
+        }
+        final Set<String> reflected = namesOf(readConfig("line-bot-api-client/reflect-config.json"));
+
+        // Do
+        final Set<String> services = retrofitServices();
+
+        // Verify
+        assertThat(services).isNotEmpty();
+        assertThat(proxies).isEqualTo(services);
+        assertThat(reflected).containsAll(services)
+                             .contains(BotApiResponseBody.class.getName());
+    }
+
+    @Test
+    public void modelOfMockServerResponseIsRegisteredTest() throws Exception {
+        final Set<String> reflected = namesOf(readConfig("line-bot-model/reflect-config.json"));
+        mockWebServer.enqueue(new MockResponse().setBody("{\"displayName\":\"name\",\"userId\":\"USER_ID\"}"));
+        final LineMessagingClient client =
+                LineMessagingClient.builder("token")
+                                   .apiEndPoint(URI.create("http://localhost:" + mockWebServer.getPort()))
+                                   .build();
+
+        // Do
+        final UserProfileResponse profile = client.getProfile("USER_ID").get();
+
+        // Verify
+        assertThat(profile.getDisplayName()).isEqualTo("name");
+        assertThat(reflected).contains(UserProfileResponse.class.getName(),
+                                       UserProfileResponse.class.getName() + "$UserProfileResponseBuilder");
+    }
+
+    private static JsonNode readConfig(final String path) throws Exception {
+        try (InputStream in = NativeImageConfigTest.class.getClassLoader()
+                                                         .getResourceAsStream(CONFIG_DIR + path)) {
+            assertThat(in).as(path).isNotNull();
+            return new ObjectMapper().readTree(in);
+        }
+    }
+
+    private static Set<String> namesOf(final JsonNode config) {
+        final Set<String> names = new TreeSet<>();
+        config.forEach(entry -> names.add(entry.get("name").asText()));
+        return names;
+    }
+
+    /**
+     * Interfaces in the main output of this module with HTTP method annotations of Retrofit.
+     */
+    private static Set<String> retrofitServices() throws Exception {
+        final Path root = Paths.get(LineMessagingService.class.getProtectionDomain().getCodeSource()
+                                                              .getLocation().toURI());
+        final Set<String> services = new TreeSet<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                final String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (!path.endsWith(".class")) {
+                    continue;
+                }
+                final String name = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+                final Class<?> clazz = Class.forName(name, false, NativeImageConfigTest.class.getClassLoader());
+                if (clazz.isInterface() && isRetrofitService(clazz)) {
+                    services.add(clazz.getName());
+                }
+            }
+        }
+        return services;
+    }
+
+    private static boolean isRetrofitService(final Class<?> clazz) {
+        for (Method method : clazz.getDeclaredMethods()) {
+            for (Annotation annotation : method.getAnnotations()) {
+                if (annotation.annotationType().getName().startsWith("retrofit2.http.")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
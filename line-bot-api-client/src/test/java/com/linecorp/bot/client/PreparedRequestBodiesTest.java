@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.bot.model.Broadcast;
+import com.linecorp.bot.model.Multicast;
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.message.Message;
+import com.linecorp.bot.model.message.StickerMessage;
+import com.linecorp.bot.model.message.TextMessage;
+import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
+
+import okhttp3.RequestBody;
+import okio.Buffer;
+
+public class PreparedRequestBodiesTest {
+    private static final ObjectMapper OBJECT_MAPPER = ModelObjectMapper.createNewObjectMapper();
+    private static final List<Message> MESSAGES =
+            asList(new TextMessage("hello \"world\""), new StickerMessage("1", "2"));
+
+    @Test
+    public void pushTest() throws Exception {
+        // Do
+        final RequestBody body = PreparedRequestBodies.push("Ué", PreparedMessages.of(MESSAGES), true);
+
+        // Verify
+        assertThat(readTree(body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree(new PushMessage("Ué", MESSAGES, true)));
+        assertThat(body.contentType().toString()).isEqualTo("application/json; charset=utf-8");
+    }
+
+    @Test
+    public void multicastTest() throws Exception {
+        final LinkedHashSet<String> to = new LinkedHashSet<>(asList("U1", "U2"));
+
+        // Do
+        final RequestBody body = PreparedRequestBodies.multicast(to, PreparedMessages.of(MESSAGES), false);
+
+        // Verify
+        assertThat(readTree(body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree(new Multicast(to, MESSAGES, false)));
+    }
+
+    @Test
+    public void broadcastTest() throws Exception {
+        // Do
+        final RequestBody body = PreparedRequestBodies.broadcast(PreparedMessages.of(MESSAGES), false);
+
+        // Verify
+        assertThat(readTree(body))
+                .isEqualTo(OBJECT_MAPPER.valueToTree(new Broadcast(MESSAGES, false)));
+    }
+
+    @Test
+    public void preparedMessagesTest() {
+        final PreparedMessages prepared = PreparedMessages.of(new TextMessage("text"));
+
+        assertThat(prepared.getMessages()).containsExactly(new TextMessage("text"));
+        assertThat(prepared.getSerializedSize()).isEqualTo(prepared.json().length);
+        assertThat(prepared).isEqualTo(PreparedMessages.of(singletonList(new TextMessage("text"))));
+    }
+
+    private static JsonNode readTree(RequestBody body) throws IOException {
+        final Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return OBJECT_MAPPER.readTree(buffer.readByteArray());
+    }
+}
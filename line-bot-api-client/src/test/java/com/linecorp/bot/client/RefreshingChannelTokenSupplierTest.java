@@ -0,0 +1,221 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import com.linecorp.bot.model.oauth.IssueChannelAccessTokenResponse;
+
+public class RefreshingChannelTokenSupplierTest {
+    private static final long LIFETIME_SECS = 3600;
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private Function<String, CompletableFuture<Void>> revoker;
+
+    private final AtomicLong ticker = new AtomicLong();
+    private final List<CompletableFuture<IssueChannelAccessTokenResponse>> issued =
+            new CopyOnWriteArrayList<>();
+
+    private RefreshingChannelTokenSupplier target;
+
+    @Before
+    public void setUp() {
+        when(revoker.apply(any())).thenReturn(completedFuture(null));
+        target = new RefreshingChannelTokenSupplier(() -> {
+            final CompletableFuture<IssueChannelAccessTokenResponse> future = new CompletableFuture<>();
+            issued.add(future);
+            return future;
+        }, revoker, Duration.ofMinutes(10), Duration.ofSeconds(10), Duration.ofMinutes(1),
+           Duration.ofMillis(100), scheduler, ticker::get);
+    }
+
+    @Test
+    public void singleFlightTest() {
+        // Do
+        final CompletableFuture<String> first = target.refreshNow();
+        final CompletableFuture<String> second = target.refreshNow();
+
+        // Verify
+        assertThat(issued).hasSize(1);
+
+        // Do
+        issued.get(0).complete(response("token1"));
+
+        // Verify
+        assertThat(first).isCompletedWithValue("token1");
+        assertThat(second).isCompletedWithValue("token1");
+        assertThat(target.get()).isEqualTo("token1");
+        assertThat(issued).hasSize(1);
+    }
+
+    @Test
+    public void backgroundRefreshTest() {
+        target.refreshNow();
+        issued.get(0).complete(response("token1"));
+
+        // Verify: refresh 10 minutes before expiry.
+        final Runnable refresh = captureScheduled(TimeUnit.MINUTES.toNanos(50));
+
+        // Do
+        refresh.run();
+        issued.get(1).complete(response("token2"));
+
+        // Verify
+        assertThat(target.get()).isEqualTo("token2");
+        verify(revoker, never()).apply(any());
+        captureScheduled(TimeUnit.MINUTES.toNanos(1)).run();
+        verify(revoker).apply("token1");
+    }
+
+    @Test
+    public void expiredTokenTest() {
+        target.refreshNow();
+        issued.get(0).complete(response("token1"));
+
+        // Do
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(LIFETIME_SECS));
+        final CompletableFuture<String> token = CompletableFuture.supplyAsync(target::get);
+        while (issued.size() < 2) {
+            Thread.yield();
+        }
+        issued.get(1).complete(response("token2"));
+
+        // Verify
+        assertThat(token.join()).isEqualTo("token2");
+    }
+
+    @Test
+    public void failureTest() {
+        target.refreshNow();
+
+        // Do
+        issued.get(0).completeExceptionally(new IllegalStateException("failure"));
+
+        // Verify
+        captureScheduled(TimeUnit.SECONDS.toNanos(10));
+        assertThat(issued).hasSize(1);
+        final CompletableFuture<IssueChannelAccessTokenResponse> retry = new CompletableFuture<>();
+        retry.completeExceptionally(new IllegalStateException("failure"));
+        assertThatThrownBy(() -> new RefreshingChannelTokenSupplier(
+                () -> retry, null, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ofSeconds(1),
+                scheduler, ticker::get).get())
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("failure");
+    }
+
+    @Test
+    public void issueTimeoutTest() {
+        // Do, Verify
+        assertThatThrownBy(() -> target.get())
+                .isInstanceOf(UncheckedIOException.class)
+                .hasCauseInstanceOf(InterruptedIOException.class);
+
+        // Verify: the issuance keeps running, and completes the token.
+        issued.get(0).complete(response("token1"));
+        assertThat(target.get()).isEqualTo("token1");
+        assertThat(issued).hasSize(1);
+    }
+
+    @Test
+    public void issuerReturnsNullTest() {
+        final RefreshingChannelTokenSupplier target = new RefreshingChannelTokenSupplier(
+                () -> null, null, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ofSeconds(1),
+                scheduler, ticker::get);
+
+        // Do
+        final CompletableFuture<String> first = target.refreshNow();
+        final CompletableFuture<String> second = target.refreshNow();
+
+        // Verify: each refresh calls the issuer again.
+        assertThat(first).hasFailedWithThrowableThat().isInstanceOf(NullPointerException.class);
+        assertThat(second).isNotSameAs(first).isCompletedExceptionally();
+    }
+
+    @Test
+    public void invalidResponseTest() {
+        final CompletableFuture<String> first = target.refreshNow();
+
+        // Do
+        issued.get(0).complete(null);
+
+        // Verify
+        assertThat(first).isCompletedExceptionally();
+        captureScheduled(TimeUnit.SECONDS.toNanos(10));
+        target.refreshNow();
+        assertThat(issued).hasSize(2);
+    }
+
+    @Test
+    public void closeTest() {
+        target.refreshNow();
+        issued.get(0).complete(response("token1"));
+
+        // Do
+        target.close();
+
+        // Verify
+        verify(revoker).apply("token1");
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private Runnable captureScheduled(long delayNanos) {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), eq(delayNanos), eq(TimeUnit.NANOSECONDS));
+        return captor.getValue();
+    }
+
+    private static IssueChannelAccessTokenResponse response(String accessToken) {
+        return IssueChannelAccessTokenResponse.builder()
+                                              .accessToken(accessToken)
+                                              .expiresInSecs((int) LIFETIME_SECS)
+                                              .build();
+    }
+}
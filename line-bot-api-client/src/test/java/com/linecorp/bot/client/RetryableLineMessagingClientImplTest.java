@@ -22,22 +22,38 @@ import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.Timeout;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.stubbing.OngoingStubbing;
 
+import com.linecorp.bot.client.exception.BadRequestException;
+import com.linecorp.bot.client.exception.ConflictException;
+import com.linecorp.bot.client.exception.GeneralLineMessagingException;
+import com.linecorp.bot.client.exception.LineServerException;
 import com.linecorp.bot.model.Broadcast;
 import com.linecorp.bot.model.Multicast;
 import com.linecorp.bot.model.Narrowcast;
@@ -49,7 +65,9 @@ import com.linecorp.bot.model.narrowcast.filter.GenderDemographicFilter.Gender;
 import com.linecorp.bot.model.response.BotApiResponse;
 
 import okhttp3.Headers;
+import okhttp3.MediaType;
 import okhttp3.Request;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -70,9 +88,19 @@ public class RetryableLineMessagingClientImplTest {
     @Mock
     private LineMessagingService retrofitMock;
 
-    @InjectMocks
+    @Mock
+    private ScheduledExecutorService scheduler;
+
     private RetryableLineMessagingClientImpl target;
 
+    @Before
+    public void setUp() {
+        target = new RetryableLineMessagingClientImpl(
+                retrofitMock,
+                RetryPolicy.builder().jitter(0).build(),
+                scheduler);
+    }
+
     @Test
     public void pushMessageTest() throws Exception {
         UUID retryKey = UUID.randomUUID();
@@ -136,6 +164,265 @@ public class RetryableLineMessagingClientImplTest {
         assertThat(botApiResponse).isEqualTo(BOT_API_SUCCESS_RESPONSE);
     }
 
+    @Test
+    public void retryServerErrorWithSameRetryKeyTest() throws Exception {
+        final UUID retryKey = UUID.randomUUID();
+        final ScriptedCall call = new ScriptedCall(
+                errorResponse(500, Headers.of()),
+                Response.success(BOT_API_SUCCESS_RESPONSE_BODY,
+                                 Headers.of("x-line-request-id", REQUEST_ID_FIXTURE)));
+        when(retrofitMock.pushMessage(any(String.class), any(PushMessage.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.pushMessage(retryKey, new PushMessage("TO", new TextMessage("text")));
+
+        // Verify: 1st retry after initial backoff.
+        assertThat(future).isNotDone();
+        runScheduled(500);
+        assertThat(future.get()).isEqualTo(BOT_API_SUCCESS_RESPONSE);
+        assertThat(call.enqueued).isEqualTo(2);
+        verify(retrofitMock, only()).pushMessage(eq(retryKey.toString()), any(PushMessage.class));
+    }
+
+    @Test
+    public void retryAfterTest() throws Exception {
+        final ScriptedCall call = new ScriptedCall(
+                errorResponse(429, Headers.of("Retry-After", "3")),
+                Response.success(BOT_API_SUCCESS_RESPONSE_BODY,
+                                 Headers.of("x-line-request-id", REQUEST_ID_FIXTURE)));
+        when(retrofitMock.multicast(any(String.class), any(Multicast.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.multicast(UUID.randomUUID(), new Multicast(singleton("TO"), new TextMessage("text")));
+
+        // Verify
+        runScheduled(3000);
+        assertThat(future.get()).isEqualTo(BOT_API_SUCCESS_RESPONSE);
+    }
+
+    @Test
+    public void exponentialBackoffUntilMaxAttemptsTest() throws Exception {
+        final ScriptedCall call = new ScriptedCall(
+                errorResponse(503, Headers.of()),
+                errorResponse(500, Headers.of()),
+                errorResponse(500, Headers.of()));
+        when(retrofitMock.broadcast(any(String.class), any(Broadcast.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.broadcast(UUID.randomUUID(),
+                                 new Broadcast(singletonList(new TextMessage("text")), true));
+        runScheduled(500);
+        runScheduled(1000);
+
+        // Verify
+        assertThat(future).hasFailedWithThrowableThat().isInstanceOf(LineServerException.class);
+        assertThat(call.enqueued).isEqualTo(3);
+    }
+
+    @Test
+    public void retryNetworkFailureTest() throws Exception {
+        final ScriptedCall call = new ScriptedCall(
+                new IOException("connection reset"),
+                Response.success(BOT_API_SUCCESS_RESPONSE_BODY,
+                                 Headers.of("x-line-request-id", REQUEST_ID_FIXTURE)));
+        when(retrofitMock.pushMessage(any(String.class), any(PushMessage.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.pushMessage(UUID.randomUUID(), new PushMessage("TO", new TextMessage("text")));
+        runScheduled(500);
+
+        // Verify
+        assertThat(future.get()).isEqualTo(BOT_API_SUCCESS_RESPONSE);
+    }
+
+    @Test
+    public void conflictOnRetryIsSuccessTest() throws Exception {
+        final ScriptedCall call = new ScriptedCall(
+                new IOException("connection reset"),
+                errorResponse(409, Headers.of("x-line-request-id", "SECOND",
+                                              "x-line-accepted-request-id", "FIRST")));
+        when(retrofitMock.pushMessage(any(String.class), any(PushMessage.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.pushMessage(UUID.randomUUID(), new PushMessage("TO", new TextMessage("text")));
+        runScheduled(500);
+
+        // Verify
+        assertThat(future.get().getRequestId()).isEqualTo("FIRST");
+    }
+
+    @Test
+    public void conflictOnFirstAttemptIsFailureTest() {
+        final ScriptedCall call = new ScriptedCall(
+                errorResponse(409, Headers.of("x-line-request-id", "SECOND",
+                                              "x-line-accepted-request-id", "FIRST")));
+        when(retrofitMock.pushMessage(any(String.class), any(PushMessage.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.pushMessage(UUID.randomUUID(), new PushMessage("TO", new TextMessage("text")));
+
+        // Verify
+        assertThat(future).hasFailedWithThrowableThat().isInstanceOf(ConflictException.class);
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void clientErrorIsNotRetriedTest() {
+        final ScriptedCall call = new ScriptedCall(errorResponse(400, Headers.of()));
+        when(retrofitMock.pushMessage(any(String.class), any(PushMessage.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.pushMessage(UUID.randomUUID(), new PushMessage("TO", new TextMessage("text")));
+
+        // Verify
+        assertThat(future).hasFailedWithThrowableThat().isInstanceOf(BadRequestException.class);
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void retryBudgetTest() {
+        target = new RetryableLineMessagingClientImpl(
+                retrofitMock,
+                RetryPolicy.builder().retryBudgetMaxTokens(2).build(),
+                scheduler);
+        when(retrofitMock.pushMessage(any(String.class), any(PushMessage.class)))
+                .thenAnswer(invocation -> new ScriptedCall(new IOException("down")));
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.pushMessage(UUID.randomUUID(), new PushMessage("TO", new TextMessage("text")));
+
+        // Verify: budget of 2 tokens is exhausted by the first failure.
+        assertThat(future).hasFailedWithThrowableThat().isInstanceOf(GeneralLineMessagingException.class);
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void rejectedRetryFailsTest() {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any()))
+                .thenThrow(new RejectedExecutionException("shut down"));
+        final ScriptedCall call = new ScriptedCall(errorResponse(500, Headers.of()));
+        when(retrofitMock.pushMessage(any(String.class), any(PushMessage.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.pushMessage(UUID.randomUUID(), new PushMessage("TO", new TextMessage("text")));
+
+        // Verify
+        assertThat(future).hasFailedWithThrowableThat().isInstanceOf(LineServerException.class);
+        assertThat(call.enqueued).isEqualTo(1);
+    }
+
+    @Test
+    public void publicConstructorDoesNotRetryTest() {
+        target = new RetryableLineMessagingClientImpl(retrofitMock);
+        final ScriptedCall call = new ScriptedCall(errorResponse(500, Headers.of()));
+        when(retrofitMock.pushMessage(any(String.class), any(PushMessage.class))).thenReturn(call);
+
+        // Do
+        final CompletableFuture<BotApiResponse> future =
+                target.pushMessage(UUID.randomUUID(), new PushMessage("TO", new TextMessage("text")));
+
+        // Verify
+        assertThat(future).hasFailedWithThrowableThat().isInstanceOf(LineServerException.class);
+        assertThat(call.enqueued).isEqualTo(1);
+    }
+
+    @Test
+    public void retryAfterMillisTest() {
+        assertThat(BotApiRetrier.retryAfterMillis(
+                errorResponse(429, Headers.of("Retry-After", "Wed, 21 Oct 2015 07:28:10 GMT")),
+                1445412480000L))
+                .isEqualTo(10_000L);
+        assertThat(BotApiRetrier.retryAfterMillis(
+                errorResponse(429, Headers.of()), 0L))
+                .isEqualTo(-1L);
+    }
+
+    private void runScheduled(long delayMillis) {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).schedule(captor.capture(), eq(delayMillis), eq(TimeUnit.MILLISECONDS));
+        captor.getValue().run();
+    }
+
+    private static Response<BotApiResponseBody> errorResponse(int code, Headers headers) {
+        final ResponseBody body = ResponseBody.create(
+                MediaType.get("application/json"), "{\"message\":\"error\"}");
+        return Response.error(body, new okhttp3.Response.Builder()
+                .code(code)
+                .message("error")
+                .protocol(okhttp3.Protocol.HTTP_1_1)
+                .headers(headers)
+                .request(new Request.Builder().url("https://api.line.me/v2/bot/message/push").build())
+                .build());
+    }
+
+    /**
+     * Call returning scripted results, one for each attempt. {@link #clone()} returns itself to count attempts.
+     */
+    private static final class ScriptedCall implements Call<BotApiResponseBody> {
+        private final Deque<Object> results;
+        private int enqueued;
+
+        ScriptedCall(Object... results) {
+            this.results = new ArrayDeque<>(Arrays.asList(results));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void enqueue(Callback<BotApiResponseBody> callback) {
+            enqueued++;
+            final Object result = results.poll();
+            if (result instanceof Throwable) {
+                callback.onFailure(this, (Throwable) result);
+            } else {
+                callback.onResponse(this, (Response<BotApiResponseBody>) result);
+            }
+        }
+
+        @Override
+        public Call<BotApiResponseBody> clone() {
+            return this;
+        }
+
+        @Override
+        public Request request() {
+            return new Request.Builder().url("https://api.line.me/v2/bot/message/push").build();
+        }
+
+        @Override
+        public Response<BotApiResponseBody> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return enqueued > 0;
+        }
+
+        @Override
+        public void cancel() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public okio.Timeout timeout() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private static <T> void whenCall(Call<T> call, T value) {
         final OngoingStubbing<Call<T>> callOngoingStubbing = when(call);
         callOngoingStubbing.thenReturn(enqueue(value));
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import com.linecorp.bot.client.exception.BadRequestException;
+import com.linecorp.bot.client.exception.LineServerException;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+public class RichMenuBulkLinkerTest {
+    private static final BotApiResponse OK = new BotApiResponse("requestId", "", null);
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private LineMessagingClient lineMessagingClient;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Test
+    public void groupByRichMenuTest() {
+        when(lineMessagingClient.linkRichMenuIdToUsers(anyList(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(OK));
+        when(lineMessagingClient.unlinkRichMenuIdFromUsers(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(OK));
+        final List<RichMenuChunkResult> reported = new ArrayList<>();
+        final RichMenuBulkLinker target = RichMenuBulkLinker.builder(lineMessagingClient)
+                                                            .concurrency(2)
+                                                            .chunkListener(reported::add)
+                                                            .build();
+
+        // Do
+        final RichMenuBulkLinkResult result = target.link(Stream.concat(
+                IntStream.range(0, 1001).mapToObj(i -> RichMenuAssignment.link("A" + i, "menuA")),
+                Stream.of(RichMenuAssignment.link("B0", "menuB"),
+                          RichMenuAssignment.unlink("C0"),
+                          RichMenuAssignment.link("B1", "menuB")))).join();
+
+        // Verify
+        assertThat(result.getSucceeded())
+                .extracting(RichMenuChunkResult::getRichMenuId)
+                .containsExactly("menuA", "menuA", "menuA", "menuB", null);
+        assertThat(result.getSucceeded())
+                .extracting(chunk -> chunk.getUserIds().size())
+                .containsExactly(500, 500, 1, 2, 1);
+        assertThat(result.getSucceededUserCount()).isEqualTo(1004);
+        assertThat(result.getFailed()).isEmpty();
+        assertThat(reported).hasSize(5);
+        verify(lineMessagingClient, times(3)).linkRichMenuIdToUsers(anyList(), eq("menuA"));
+        verify(lineMessagingClient).unlinkRichMenuIdFromUsers(Stream.of("C0").collect(toList()));
+    }
+
+    @Test
+    public void retryTest() {
+        final CompletableFuture<BotApiResponse> serverError = new CompletableFuture<>();
+        serverError.completeExceptionally(new LineServerException("Internal Server Error", null));
+        when(lineMessagingClient.linkRichMenuIdToUsers(anyList(), anyString()))
+                .thenReturn(serverError, CompletableFuture.completedFuture(OK));
+        final RichMenuBulkLinker target = RichMenuBulkLinker.builder(lineMessagingClient)
+                                                            .scheduler(scheduler)
+                                                            .build();
+
+        // Do
+        final CompletableFuture<RichMenuBulkLinkResult> result =
+                target.link(Stream.of(RichMenuAssignment.link("U0", "menu")));
+
+        // Verify
+        assertThat(result).isNotDone();
+        final ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(retry.capture(), anyLong(), any());
+
+        // Do
+        retry.getValue().run();
+
+        // Verify
+        assertThat(result.join().getSucceeded())
+                .extracting(RichMenuChunkResult::getAttempts)
+                .containsExactly(2);
+    }
+
+    @Test
+    public void notRetryableTest() {
+        final CompletableFuture<BotApiResponse> badRequest = new CompletableFuture<>();
+        badRequest.completeExceptionally(new BadRequestException("Bad Request", null));
+        when(lineMessagingClient.linkRichMenuIdToUsers(anyList(), anyString()))
+                .thenReturn(badRequest);
+        final RichMenuBulkLinker target = RichMenuBulkLinker.builder(lineMessagingClient)
+                                                            .scheduler(scheduler)
+                                                            .build();
+
+        // Do
+        final RichMenuBulkLinkResult result =
+                target.link(Stream.of(RichMenuAssignment.link("U0", "menu"),
+                                      RichMenuAssignment.link("U1", "menu"))).join();
+
+        // Verify
+        assertThat(result.getFailed()).hasSize(1);
+        assertThat(result.getFailed().get(0).getError()).isInstanceOf(BadRequestException.class);
+        assertThat(result.getFailedUserCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void concurrencyTest() {
+        final CompletableFuture<BotApiResponse> first = new CompletableFuture<>();
+        when(lineMessagingClient.linkRichMenuIdToUsers(anyList(), anyString()))
+                .thenReturn(first, CompletableFuture.completedFuture(OK));
+        final RichMenuBulkLinker target = RichMenuBulkLinker.builder(lineMessagingClient)
+                                                            .concurrency(1)
+                                                            .build();
+
+        // Do
+        final CompletableFuture<RichMenuBulkLinkResult> result =
+                target.link(Stream.of(RichMenuAssignment.link("U0", "menuA"),
+                                      RichMenuAssignment.link("U1", "menuB")));
+
+        // Verify
+        verify(lineMessagingClient, times(1)).linkRichMenuIdToUsers(anyList(), anyString());
+
+        // Do
+        first.complete(OK);
+
+        // Verify
+        verify(lineMessagingClient, times(2)).linkRichMenuIdToUsers(anyList(), anyString());
+        assertThat(result.join().getSucceeded()).hasSize(2);
+    }
+
+    @Test
+    public void synchronousCompletionTest() throws Exception {
+        when(lineMessagingClient.linkRichMenuIdToUsers(anyList(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(OK));
+        final int chunks = 1000;
+        final RichMenuBulkLinker target = RichMenuBulkLinker.builder(lineMessagingClient).build();
+        final CompletableFuture<RichMenuBulkLinkResult> result = new CompletableFuture<>();
+
+        // Do: a small stack overflows if chunks are sent recursively
+        final Thread thread = new Thread(null, () -> {
+            try {
+                target.link(IntStream.range(0, chunks * LineClientConstants.MAX_RICH_MENU_BULK_USERS)
+                                     .mapToObj(i -> RichMenuAssignment.link("U" + i, "menu")))
+                      .whenComplete((r, e) -> result.complete(r));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, "small-stack", 256 * 1024);
+        thread.start();
+
+        // Verify
+        assertThat(result.get(10, TimeUnit.SECONDS).getSucceeded()).hasSize(chunks);
+    }
+
+    @Test
+    public void clientThrowsTest() {
+        when(lineMessagingClient.linkRichMenuIdToUsers(anyList(), anyString()))
+                .thenThrow(new IllegalStateException("closed"));
+        final RichMenuBulkLinker target = RichMenuBulkLinker.builder(lineMessagingClient)
+                                                            .scheduler(scheduler)
+                                                            .build();
+
+        // Do
+        final RichMenuBulkLinkResult result =
+                target.link(Stream.of(RichMenuAssignment.link("U0", "menu"))).join();
+
+        // Verify
+        assertThat(result.getFailed()).hasSize(1);
+        assertThat(result.getFailed().get(0).getError()).isInstanceOf(IllegalStateException.class);
+    }
+}
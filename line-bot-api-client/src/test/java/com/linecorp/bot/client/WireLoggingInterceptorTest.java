@@ -0,0 +1,208 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Invocation;
+
+public class WireLoggingInterceptorTest {
+    private static final MediaType JSON = MediaType.parse("application/json; charset=UTF-8");
+
+    private final Logger wireLogger = (Logger) LoggerFactory.getLogger("com.linecorp.bot.client.wire");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private MockWebServer mockWebServer;
+    private Level originalLevel;
+
+    @Before
+    public void setUp() {
+        mockWebServer = new MockWebServer();
+        originalLevel = wireLogger.getLevel();
+        wireLogger.setLevel(Level.INFO);
+        wireLogger.addAppender(appender);
+        appender.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        wireLogger.detachAppender(appender);
+        wireLogger.setLevel(originalLevel);
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void bodyLevelTest() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                                .setBody("{\"displayName\":\"name\"}"));
+
+        // Do
+        execute(WireLoggingInterceptor.of(WireLogLevel.BODY, 1024, true),
+                newRequest().header("Authorization", "Bearer SECRET")
+                            .post(RequestBody.create(JSON, "{\"to\":\"USER_ID\"}"))
+                            .build());
+
+        // Verify
+        assertThat(messages())
+                .contains("{\"to\":\"USER_ID\"}", "{\"displayName\":\"name\"}")
+                .doesNotContain("Authorization: Bearer SECRET")
+                .contains("Authorization: ****");
+    }
+
+    @Test
+    public void oauthCredentialsAreMaskedTest() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                                .setBody("{}"));
+
+        // Do
+        execute(WireLoggingInterceptor.of(WireLogLevel.BODY, 1024, true),
+                newRequest().post(RequestBody.create(
+                        MediaType.parse("application/x-www-form-urlencoded"),
+                        "grant_type=client_credentials&client_id=1234&client_secret=SECRET"))
+                            .build());
+
+        // Verify
+        assertThat(messages())
+                .contains("grant_type=client_credentials&client_id=1234&client_secret=****");
+    }
+
+    @Test
+    public void redactFormTest() {
+        assertThat(WireLoggingInterceptor.redactForm("client_assertion=JWT&access_token=TOKEN&x=&y"))
+                .isEqualTo("client_assertion=****&access_token=****&x=&y");
+        assertThat(WireLoggingInterceptor.redactForm("")).isEmpty();
+        assertThat(WireLoggingInterceptor.redactForm("&client_secret=SECRET"))
+                .isEqualTo("&client_secret=****");
+    }
+
+    @Test
+    public void bodyIsTruncatedTest() throws Exception {
+        final String largeBody = "\"" + Strings.repeat("x", 100) + "\"";
+        mockWebServer.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                                .setBody(largeBody));
+
+        // Do
+        final Response response = execute(WireLoggingInterceptor.of(WireLogLevel.BODY, 10, true),
+                                          newRequest().build());
+
+        // Verify
+        assertThat(messages())
+                .contains(largeBody.substring(0, 10), "<-- END HTTP (body truncated to 10 bytes)");
+        assertThat(response.body().string()).isEqualTo(largeBody);
+    }
+
+    @Test
+    public void headersLevelTest() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                                .setBody("{}"));
+
+        // Do
+        execute(WireLoggingInterceptor.of(WireLogLevel.HEADERS, 1024, true), newRequest().build());
+
+        // Verify
+        assertThat(messages())
+                .anyMatch(message -> message.startsWith("Content-Type: application/json"))
+                .doesNotContain("{}");
+    }
+
+    @Test
+    public void blobBodyIsNotLoggedTest() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                                .setBody("{}"));
+
+        // Do
+        execute(WireLoggingInterceptor.of(WireLogLevel.BODY, 1024, false), newRequest().build());
+
+        // Verify
+        assertThat(messages()).doesNotContain("{}");
+    }
+
+    @Test
+    public void streamingBodyIsNotLoggedTest() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeader("Content-Type", "text/plain")
+                                                .setBody("CONTENT"));
+        final Invocation invocation = Invocation.of(
+                LineBlobService.class.getMethod("getMessageContent", String.class),
+                singletonList("MESSAGE_ID"));
+
+        // Do
+        execute(WireLoggingInterceptor.of(WireLogLevel.BODY, 1024, true),
+                newRequest().tag(Invocation.class, invocation).build());
+
+        // Verify
+        assertThat(messages()).isNotEmpty().doesNotContain("CONTENT");
+    }
+
+    @Test
+    public void disabledLoggerTest() throws Exception {
+        wireLogger.setLevel(Level.WARN);
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+
+        // Do
+        execute(WireLoggingInterceptor.of(WireLogLevel.BODY, 1024, true), newRequest().build());
+
+        // Verify
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    public void noneLevelTest() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{}"));
+
+        // Do
+        execute(WireLoggingInterceptor.of(WireLogLevel.NONE, 1024, true), newRequest().build());
+
+        // Verify
+        assertThat(appender.list).isEmpty();
+    }
+
+    private Request.Builder newRequest() {
+        return new Request.Builder().url(mockWebServer.url("/v2/bot/profile/USER_ID"));
+    }
+
+    private static Response execute(WireLoggingInterceptor interceptor, Request request) throws Exception {
+        final OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+        return client.newCall(request).execute();
+    }
+
+    private List<String> messages() {
+        return appender.list.stream()
+                            .map(ILoggingEvent::getFormattedMessage)
+                            .collect(toList());
+    }
+}
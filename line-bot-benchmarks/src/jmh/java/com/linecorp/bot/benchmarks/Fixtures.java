@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.benchmarks;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Test fixtures of {@code line-bot-model} shared by benchmarks.
+ */
+public final class Fixtures {
+    /**
+     * Webhook payloads under {@code callback/}, one for each event type.
+     */
+    public static final List<String> CALLBACKS = unmodifiableList(asList(
+            "account_link", "beacon", "file", "follow", "image", "join", "leave", "line-things-link",
+            "location", "member_joined", "member_left", "postback", "sticker", "text-emojis", "text-group",
+            "text-mention", "text-user", "unfollow", "unsend", "video-play-complete", "video"));
+
+    /**
+     * Flex containers under {@code flex/reconstruction/}.
+     */
+    public static final List<String> FLEX_CONTAINERS = unmodifiableList(asList(
+            "Apparel", "Hotel", "JustifyContent", "LinearGradient", "LocalSearch", "Menu", "RealEstate",
+            "Receipt", "Restaurant", "Shopping", "Social", "TODOapp", "Ticket", "Transit"));
+
+    private Fixtures() {
+    }
+
+    public static byte[] read(final String resource) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Resource not found: " + resource);
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
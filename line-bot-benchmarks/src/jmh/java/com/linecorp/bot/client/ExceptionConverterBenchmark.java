@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.linecorp.bot.benchmarks.Fixtures;
+import com.linecorp.bot.client.exception.LineMessagingException;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+/**
+ * {@link ExceptionConverter} on error responses of the Messaging API.
+ */
+@State(Scope.Benchmark)
+public class ExceptionConverterBenchmark {
+    private static final MediaType APPLICATION_JSON = MediaType.get("application/json");
+
+    @Param({ "400", "429", "500" })
+    public int statusCode;
+
+    @Param({ "error_with_detail", "error401" })
+    public String errorBody;
+
+    private ExceptionConverter converter;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        converter = new ExceptionConverter();
+        body = Fixtures.read("error/" + errorBody + ".json");
+    }
+
+    @Benchmark
+    public LineMessagingException apply() {
+        // The body is consumed by the converter, so a new response is needed for each invocation.
+        return converter.apply(Response.error(statusCode, ResponseBody.create(APPLICATION_JSON, body)));
+    }
+}
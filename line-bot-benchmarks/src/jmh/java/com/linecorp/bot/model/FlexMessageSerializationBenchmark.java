@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.bot.benchmarks.Fixtures;
+import com.linecorp.bot.model.message.FlexMessage;
+import com.linecorp.bot.model.message.flex.container.Bubble;
+import com.linecorp.bot.model.message.flex.container.Carousel;
+import com.linecorp.bot.model.message.flex.container.FlexContainer;
+import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
+
+/**
+ * {@link ModelObjectMapper} serialization of a push message carrying a {@link Carousel} of real world bubbles,
+ * and deserialization of the {@link FlexMessage}.
+ */
+@State(Scope.Benchmark)
+public class FlexMessageSerializationBenchmark {
+    /**
+     * Number of bubbles in the carousel. 12 is the maximum allowed by the Messaging API.
+     */
+    @Param({ "1", "4", "12" })
+    public int bubbles;
+
+    private ObjectMapper objectMapper;
+    private PushMessage pushMessage;
+    private byte[] flexMessageJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = ModelObjectMapper.createNewObjectMapper();
+
+        final List<Bubble> source = new ArrayList<>();
+        for (String name : Fixtures.FLEX_CONTAINERS) {
+            final FlexContainer container = objectMapper.readValue(
+                    Fixtures.read("flex/reconstruction/" + name + ".json"), FlexContainer.class);
+            if (container instanceof Bubble) {
+                source.add((Bubble) container);
+            } else {
+                source.addAll(((Carousel) container).getContents());
+            }
+        }
+
+        final List<Bubble> contents = new ArrayList<>();
+        for (int i = 0; i < bubbles; i++) {
+            contents.add(source.get(i % source.size()));
+        }
+        final FlexMessage flexMessage =
+                new FlexMessage("alt text", Carousel.builder().contents(contents).build());
+        pushMessage = new PushMessage("U206d25c2ea6bd87c17655609a1c37cb8", flexMessage);
+        flexMessageJson = objectMapper.writeValueAsBytes(flexMessage);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(pushMessage);
+    }
+
+    @Benchmark
+    public FlexMessage deserialize() throws IOException {
+        return objectMapper.readValue(flexMessageJson, FlexMessage.class);
+    }
+}
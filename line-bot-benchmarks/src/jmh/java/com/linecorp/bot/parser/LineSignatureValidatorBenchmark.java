@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link LineSignatureValidator#validateSignature(byte[], String)} across body sizes, with heap and direct
+ * buffers.
+ */
+@State(Scope.Benchmark)
+public class LineSignatureValidatorBenchmark {
+    @Param({ "256", "4096", "65536", "1048576" })
+    public int bodySize;
+
+    private LineSignatureValidator validator;
+    private byte[] body;
+    private ByteBuffer directBody;
+    private String signature;
+
+    @Setup
+    public void setUp() {
+        validator = new LineSignatureValidator("SECRET".getBytes(StandardCharsets.UTF_8));
+        body = new byte[bodySize];
+        new Random(0).nextBytes(body);
+        directBody = ByteBuffer.allocateDirect(bodySize);
+        directBody.put(body).flip();
+        signature = Base64.getEncoder().encodeToString(validator.generateSignature(body));
+    }
+
+    @Benchmark
+    public boolean validateSignature() {
+        return validator.validateSignature(body, signature);
+    }
+
+    @Benchmark
+    public boolean validateSignatureDirectBuffer() {
+        return validator.validateSignature(directBody, signature);
+    }
+}
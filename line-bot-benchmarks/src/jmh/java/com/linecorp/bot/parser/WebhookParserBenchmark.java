@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import static java.util.Collections.singletonList;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.linecorp.bot.benchmarks.Fixtures;
+import com.linecorp.bot.model.event.CallbackRequest;
+import com.linecorp.bot.model.objectmapper.ModelDeserializers;
+import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
+
+/**
+ * {@link WebhookParser#handle(String, byte[])} including signature validation, and its streaming variant.
+ * Binding alone is measured with the generated {@link ModelDeserializers} used by the parser, and with the
+ * reflective Jackson deserializers.
+ */
+@State(Scope.Benchmark)
+public class WebhookParserBenchmark {
+    private static final byte[] CHANNEL_SECRET = "SECRET".getBytes(StandardCharsets.UTF_8);
+    private static final ObjectReader REFLECTIVE_READER =
+            ModelObjectMapper.createNewObjectMapper().readerFor(CallbackRequest.class);
+    private static final ObjectReader GENERATED_READER =
+            ModelObjectMapper.createNewObjectMapper()
+                             .registerModule(ModelDeserializers.module())
+                             .readerFor(CallbackRequest.class);
+
+    /**
+     * Fixture name under {@code callback/}, or {@code mixed} for all event types in one payload.
+     */
+    @Param({ "mixed", "text-user", "image", "follow", "postback", "beacon", "member_joined", "unsend" })
+    public String events;
+
+    /**
+     * Number of times the events are repeated in the payload.
+     */
+    @Param({ "1", "20" })
+    public int repeat;
+
+    private WebhookParser parser;
+    private byte[] payload;
+    private String signature;
+
+    @Setup
+    public void setUp() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<JsonNode> source = new ArrayList<>();
+        for (String name : "mixed".equals(events) ? Fixtures.CALLBACKS : singletonList(events)) {
+            mapper.readTree(Fixtures.read("callback/" + name + ".json")).get("events").forEach(source::add);
+        }
+
+        final ObjectNode request = mapper.createObjectNode();
+        request.put("destination", "Uab012345678901234567890123456789");
+        final ArrayNode array = request.putArray("events");
+        for (int i = 0; i < repeat; i++) {
+            array.addAll(source);
+        }
+        payload = mapper.writeValueAsBytes(request);
+
+        final LineSignatureValidator validator = new LineSignatureValidator(CHANNEL_SECRET);
+        signature = Base64.getEncoder().encodeToString(validator.generateSignature(payload));
+        parser = new WebhookParser(validator);
+    }
+
+    @Benchmark
+    public CallbackRequest handle() throws Exception {
+        return parser.handle(signature, payload);
+    }
+
+    @Benchmark
+    public CallbackRequest handleStream() throws Exception {
+        return parser.handle(signature, new ByteArrayInputStream(payload));
+    }
+
+    @Benchmark
+    public CallbackRequest bindGenerated() throws IOException {
+        return GENERATED_READER.readValue(payload);
+    }
+
+    @Benchmark
+    public CallbackRequest bindReflective() throws IOException {
+        return REFLECTIVE_READER.readValue(payload);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.support;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.linecorp.bot.benchmarks.Fixtures;
+import com.linecorp.bot.model.event.BeaconEvent;
+import com.linecorp.bot.model.event.CallbackRequest;
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.FollowEvent;
+import com.linecorp.bot.model.event.JoinEvent;
+import com.linecorp.bot.model.event.LeaveEvent;
+import com.linecorp.bot.model.event.MemberJoinedEvent;
+import com.linecorp.bot.model.event.MemberLeftEvent;
+import com.linecorp.bot.model.event.MessageEvent;
+import com.linecorp.bot.model.event.PostbackEvent;
+import com.linecorp.bot.model.event.UnfollowEvent;
+import com.linecorp.bot.model.event.UnsendEvent;
+import com.linecorp.bot.model.event.message.AudioMessageContent;
+import com.linecorp.bot.model.event.message.FileMessageContent;
+import com.linecorp.bot.model.event.message.ImageMessageContent;
+import com.linecorp.bot.model.event.message.LocationMessageContent;
+import com.linecorp.bot.model.event.message.MessageContent;
+import com.linecorp.bot.model.event.message.StickerMessageContent;
+import com.linecorp.bot.model.event.message.TextMessageContent;
+import com.linecorp.bot.model.event.message.VideoMessageContent;
+import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
+import com.linecorp.bot.spring.boot.annotation.EventMapping;
+import com.linecorp.bot.spring.boot.annotation.LineMessageHandler;
+
+/**
+ * {@link LineMessageHandlerSupport#dispatch(Event)} with a typical set of handler methods.
+ *
+ * <p>Handler methods are scanned in priority order, so events matched by a late handler cost more.
+ */
+@State(Scope.Benchmark)
+public class LineMessageHandlerSupportBenchmark {
+    /**
+     * Fixture name under {@code callback/}.
+     */
+    @Param({ "text-user", "sticker", "follow", "unsend", "account_link" })
+    public String event;
+
+    private AnnotationConfigApplicationContext applicationContext;
+    private LineMessageHandlerSupport handlerSupport;
+    private Event target;
+
+    @Setup
+    public void setUp() throws IOException {
+        applicationContext = new AnnotationConfigApplicationContext();
+        applicationContext.register(Handlers.class);
+        handlerSupport = new LineMessageHandlerSupport(null, applicationContext);
+        applicationContext.refresh();
+
+        final byte[] json = Fixtures.read("callback/" + event + ".json");
+        target = ModelObjectMapper.createNewObjectMapper()
+                                  .readValue(json, CallbackRequest.class)
+                                  .getEvents().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public void dispatch() {
+        handlerSupport.dispatch(target);
+    }
+
+    @LineMessageHandler
+    public static class Handlers {
+        private final Blackhole blackhole = new Blackhole(
+                "Today's password is swordfish. I understand instantiating Blackholes directly is dangerous.");
+
+        @EventMapping
+        public void text(MessageEvent<TextMessageContent> event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void sticker(MessageEvent<StickerMessageContent> event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void image(MessageEvent<ImageMessageContent> event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void video(MessageEvent<VideoMessageContent> event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void audio(MessageEvent<AudioMessageContent> event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void file(MessageEvent<FileMessageContent> event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void location(MessageEvent<LocationMessageContent> event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void message(MessageEvent<MessageContent> event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void follow(FollowEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void unfollow(UnfollowEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void join(JoinEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void leave(LeaveEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void memberJoined(MemberJoinedEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void memberLeft(MemberLeftEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void postback(PostbackEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void beacon(BeaconEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void unsend(UnsendEvent event) {
+            blackhole.consume(event);
+        }
+
+        @EventMapping
+        public void fallback(Event event) {
+            blackhole.consume(event);
+        }
+    }
+}
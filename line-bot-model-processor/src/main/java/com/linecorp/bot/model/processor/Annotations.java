@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model.processor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+
+/**
+ * Reads Jackson annotations from source elements by name.
+ */
+final class Annotations {
+    static final String JSON_SUB_TYPES = "com.fasterxml.jackson.annotation.JsonSubTypes";
+    private static final String JSON_TYPE_NAME = "com.fasterxml.jackson.annotation.JsonTypeName";
+
+    /**
+     * Subtypes of a type annotated with {@code @JsonSubTypes} by type ID.
+     */
+    static Map<String, DeclaredType> subtypesOf(final Elements elements, final TypeElement baseType) {
+        final Map<String, DeclaredType> subtypes = new LinkedHashMap<>();
+        for (AnnotationValue value : listOf(valueOf(findAnnotation(baseType, JSON_SUB_TYPES), "value"))) {
+            final AnnotationMirror subtype = (AnnotationMirror) value.getValue();
+            final DeclaredType type = (DeclaredType) valueOf(subtype, "value");
+            final Object name = valueOf(subtype, "name");
+            final String typeId = name != null && !name.toString().isEmpty() ? name.toString()
+                                                                             : typeNameOf(elements, type);
+            subtypes.put(typeId, type);
+        }
+        return subtypes;
+    }
+
+    /**
+     * Same as Jackson: {@code @JsonTypeName}, or the class name without the package.
+     */
+    private static String typeNameOf(final Elements elements, final DeclaredType type) {
+        final AnnotationMirror typeName = findAnnotation(type.asElement(), JSON_TYPE_NAME);
+        if (typeName != null) {
+            return (String) valueOf(typeName, "value");
+        }
+        final String binaryName = elements.getBinaryName((TypeElement) type.asElement()).toString();
+        return binaryName.substring(binaryName.lastIndexOf('.') + 1);
+    }
+
+    static String nameOf(final DeclaredType type) {
+        return ((TypeElement) type.asElement()).getQualifiedName().toString();
+    }
+
+    static AnnotationMirror findAnnotation(final Element element, final String annotationType) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            final TypeMirror type = annotation.getAnnotationType();
+            if (nameOf((DeclaredType) type).equals(annotationType)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of the annotation attribute if given explicitly, otherwise {@code null}.
+     */
+    static Object valueOf(final AnnotationMirror annotation, final String attribute) {
+        if (annotation == null) {
+            return null;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<? extends AnnotationValue> listOf(final Object value) {
+        if (value instanceof List) {
+            return (List<? extends AnnotationValue>) value;
+        }
+        return Collections.emptyList();
+    }
+
+    private Annotations() {
+    }
+}
@@ -0,0 +1,657 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model.processor;
+
+import static com.linecorp.bot.model.processor.Annotations.findAnnotation;
+import static com.linecorp.bot.model.processor.Annotations.valueOf;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates {@code com.linecorp.bot.model.objectmapper.ModelDeserializers}, streaming readers of the
+ * webhook event model.
+ *
+ * <p>Readers are generated for {@code CallbackRequest} and every model type reachable from its properties:
+ * classes bound through a Lombok builder or a {@code @JsonCreator} constructor, enums, and types annotated
+ * with {@code @JsonSubTypes}, whose subtype is chosen by a switch on the type ID. Values of other types are
+ * read by the deserializers of the Jackson context, as are tokens the readers don't handle themselves.
+ */
+@SupportedAnnotationTypes(ModelDeserializersProcessor.JSON_DESERIALIZE)
+public class ModelDeserializersProcessor extends AbstractProcessor {
+    static final String JSON_DESERIALIZE = "com.fasterxml.jackson.databind.annotation.JsonDeserialize";
+    private static final String JSON_TYPE_INFO = "com.fasterxml.jackson.annotation.JsonTypeInfo";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+    private static final String JSON_CREATOR = "com.fasterxml.jackson.annotation.JsonCreator";
+    private static final String MODEL_PACKAGE = "com.linecorp.bot.model.";
+    private static final String ROOT_TYPE = "com.linecorp.bot.model.event.CallbackRequest";
+    private static final String GENERATED_PACKAGE = "com.linecorp.bot.model.objectmapper";
+    private static final String GENERATED_CLASS = "ModelDeserializers";
+
+    /**
+     * Model types by qualified name, {@code null} if a reachable type can't be read by a generated reader.
+     */
+    private final Map<String, Model> models = new LinkedHashMap<>();
+    private final Set<String> subtypes = new HashSet<>();
+    private final Map<String, String> deserializers = new LinkedHashMap<>();
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (generated) {
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement
+                && ((TypeElement) element).getQualifiedName().contentEquals(ROOT_TYPE)) {
+                generated = true;
+                discover((TypeElement) element);
+                try {
+                    generate();
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Kind.ERROR,
+                                                             "Can't generate " + GENERATED_CLASS + ": " + e);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void discover(final TypeElement rootType) {
+        final Deque<TypeElement> pending = new ArrayDeque<>();
+        pending.add(rootType);
+        while (!pending.isEmpty()) {
+            final TypeElement type = pending.poll();
+            final String name = type.getQualifiedName().toString();
+            if (models.containsKey(name)) {
+                continue;
+            }
+            final Model model = name.startsWith(MODEL_PACKAGE) ? modelOf(type) : null;
+            models.put(name, model);
+            if (model == null) {
+                continue;
+            }
+            for (Property property : model.properties) {
+                addTypes(pending, property.type);
+            }
+            if (model.kind == ModelKind.POLYMORPHIC) {
+                model.subtypes.values().forEach(subtype -> subtypes.add(subtype.getQualifiedName().toString()));
+                subtypes.add(model.defaultImpl.getQualifiedName().toString());
+                pending.addAll(model.subtypes.values());
+                pending.add(model.defaultImpl);
+            }
+        }
+        final Set<String> methods = new HashSet<>();
+        for (Model model : models.values()) {
+            if (model != null) {
+                String method = "read" + model.type.getQualifiedName().toString()
+                                                   .substring(packageOf(model.type).length() + 1)
+                                                   .replace(".", "");
+                while (!methods.add(method)) {
+                    method += '_';
+                }
+                model.method = method;
+            }
+        }
+    }
+
+    private void addTypes(final Deque<TypeElement> pending, final TypeMirror type) {
+        final TypeMirror erased = types().erasure(type);
+        if (erased.getKind() == TypeKind.DECLARED) {
+            pending.add((TypeElement) ((DeclaredType) erased).asElement());
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            ((DeclaredType) type).getTypeArguments().forEach(argument -> addTypes(pending, argument));
+        }
+    }
+
+    private Model modelOf(final TypeElement type) {
+        if (type.getKind() == ElementKind.ENUM) {
+            final Model model = new Model(type, ModelKind.ENUM);
+            for (VariableElement constant : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (constant.getKind() == ElementKind.ENUM_CONSTANT) {
+                    final String name = constant.getSimpleName().toString();
+                    model.constants.put(jsonNameOf(constant, name), name);
+                }
+            }
+            return model;
+        }
+        if (findAnnotation(type, Annotations.JSON_SUB_TYPES) != null) {
+            return polymorphicModelOf(type);
+        }
+        return classModelOf(type);
+    }
+
+    /**
+     * Supports {@code @JsonTypeInfo(use = NAME, include = PROPERTY)} with a {@code defaultImpl} whose
+     * subtypes are all read by generated readers.
+     */
+    private Model polymorphicModelOf(final TypeElement type) {
+        final AnnotationMirror typeInfo = findAnnotation(type, JSON_TYPE_INFO);
+        final Object include = valueOf(typeInfo, "include");
+        final Object defaultImpl = valueOf(typeInfo, "defaultImpl");
+        if (typeInfo == null || !"NAME".equals(String.valueOf(valueOf(typeInfo, "use")))
+            || include != null && !"PROPERTY".equals(include.toString())
+            || !(defaultImpl instanceof DeclaredType)) {
+            return null;
+        }
+        final Model model = new Model(type, ModelKind.POLYMORPHIC);
+        final Object property = valueOf(typeInfo, "property");
+        model.typeProperty = property != null && !property.toString().isEmpty() ? property.toString()
+                                                                                 : "@type";
+        model.visible = Boolean.TRUE.equals(valueOf(typeInfo, "visible"));
+        model.defaultImpl = (TypeElement) ((DeclaredType) defaultImpl).asElement();
+        Annotations.subtypesOf(processingEnv.getElementUtils(), type).forEach(
+                (typeId, subtype) -> model.subtypes.put(typeId, (TypeElement) subtype.asElement()));
+        if (!isClassModel(model.defaultImpl)
+            || !model.subtypes.values().stream().allMatch(this::isClassModel)) {
+            return null;
+        }
+        return model;
+    }
+
+    private boolean isClassModel(final TypeElement type) {
+        return type.getQualifiedName().toString().startsWith(MODEL_PACKAGE) && classModelOf(type) != null;
+    }
+
+    private Model classModelOf(final TypeElement type) {
+        final Object builder = valueOf(findAnnotation(type, JSON_DESERIALIZE), "builder");
+        if (builder instanceof DeclaredType) {
+            final TypeElement builderType = (TypeElement) ((DeclaredType) builder).asElement();
+            final Model model = new Model(type, ModelKind.BUILDER);
+            model.builder = types().erasure(builderType.asType()).toString();
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC)
+                    || field.getModifiers().contains(Modifier.TRANSIENT)
+                    || findAnnotation(field, JSON_IGNORE) != null) {
+                    continue;
+                }
+                final String name = field.getSimpleName().toString();
+                DeclaredType deserializer = deserializerOf(field);
+                if (deserializer == null) {
+                    deserializer = builderDeserializerOf(builderType, name);
+                }
+                model.properties.add(new Property(jsonNameOf(field, name), name, field.asType(),
+                                                  deserializer));
+            }
+            return model;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (findAnnotation(constructor, JSON_CREATOR) != null
+                && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                final Model model = new Model(type, ModelKind.CREATOR);
+                for (VariableElement parameter : constructor.getParameters()) {
+                    final String name = jsonNameOf(parameter, null);
+                    if (name == null) {
+                        return null;
+                    }
+                    model.properties.add(new Property(name, "v" + model.properties.size(), parameter.asType(),
+                                                      deserializerOf(parameter)));
+                }
+                return model;
+            }
+        }
+        return null;
+    }
+
+    private static String jsonNameOf(final Element element, final String defaultName) {
+        final Object name = valueOf(findAnnotation(element, JSON_PROPERTY), "value");
+        return name != null && !name.toString().isEmpty() ? name.toString() : defaultName;
+    }
+
+    private static DeclaredType deserializerOf(final Element element) {
+        final Object using = valueOf(findAnnotation(element, JSON_DESERIALIZE), "using");
+        return using instanceof DeclaredType ? (DeclaredType) using : null;
+    }
+
+    /**
+     * Jackson reads annotations of builder methods from the interfaces of the builder as well.
+     */
+    private DeclaredType builderDeserializerOf(final TypeElement builderType, final String name) {
+        for (ExecutableElement method : ElementFilter.methodsIn(builderType.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(name) && deserializerOf(method) != null) {
+                return deserializerOf(method);
+            }
+        }
+        for (TypeMirror superinterface : builderType.getInterfaces()) {
+            final DeclaredType deserializer =
+                    builderDeserializerOf((TypeElement) ((DeclaredType) superinterface).asElement(), name);
+            if (deserializer != null) {
+                return deserializer;
+            }
+        }
+        return null;
+    }
+
+    private String packageOf(final TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+
+    /**
+     * A model read by a generated reader, not read through the base type if it's a subtype.
+     */
+    private Model readableModelOf(final TypeMirror type) {
+        final TypeMirror erased = types().erasure(type);
+        if (erased.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        final String name = erased.toString();
+        return subtypes.contains(name) ? null : models.get(name);
+    }
+
+    private void generate() throws IOException {
+        final StringWriter methods = new StringWriter();
+        try (PrintWriter out = new PrintWriter(methods)) {
+            for (Model model : models.values()) {
+                if (model != null) {
+                    generateReader(out, model);
+                }
+            }
+        }
+
+        final String qualifiedName = GENERATED_PACKAGE + '.' + GENERATED_CLASS;
+        final Element[] originatingElements =
+                models.values().stream()
+                      .filter(model -> model != null)
+                      .map(model -> model.type)
+                      .toArray(Element[]::new);
+        final JavaFileObject file =
+                processingEnv.getFiler().createSourceFile(qualifiedName, originatingElements);
+        try (Writer writer = file.openWriter();
+             PrintWriter out = new PrintWriter(writer)) {
+            out.println("package " + GENERATED_PACKAGE + ';');
+            out.println();
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.readBoolean;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.readDouble;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.readInstant;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.readInt;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.readList;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.readLong;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.readString;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.startBuffer;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.typed;");
+            out.println("import static " + GENERATED_PACKAGE + ".ModelReaderSupport.untyped;");
+            out.println();
+            out.println("import java.io.IOException;");
+            out.println();
+            out.println("import com.fasterxml.jackson.core.JsonParser;");
+            out.println("import com.fasterxml.jackson.core.JsonToken;");
+            out.println("import com.fasterxml.jackson.core.type.TypeReference;");
+            out.println("import com.fasterxml.jackson.databind.DeserializationContext;");
+            out.println("import com.fasterxml.jackson.databind.DeserializationFeature;");
+            out.println("import com.fasterxml.jackson.databind.Module;");
+            out.println("import com.fasterxml.jackson.databind.module.SimpleModule;");
+            out.println("import com.fasterxml.jackson.databind.util.TokenBuffer;");
+            out.println();
+            out.println("import " + GENERATED_PACKAGE + ".ModelReaderSupport.Deserializer;");
+            out.println();
+            out.println("/**");
+            out.println(" * Streaming readers of the webhook event model.");
+            out.println(" *");
+            out.println(" * <p>Generated from the Jackson annotations of the model at compile time. Do not");
+            out.println(" * edit. Subtypes are chosen by a switch on the type ID, and properties are bound");
+            out.println(" * through the builders without reflection.");
+            out.println(" */");
+            out.println("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })");
+            out.println("public final class " + GENERATED_CLASS + " {");
+            for (Entry<String, String> deserializer : deserializers.entrySet()) {
+                out.println("    private static final " + deserializer.getKey() + ' ' + deserializer.getValue()
+                            + " = new " + deserializer.getKey() + "();");
+            }
+            if (!deserializers.isEmpty()) {
+                out.println();
+            }
+            out.println("    private " + GENERATED_CLASS + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    /**");
+            out.println("     * Module registering the readers as deserializers. Subtypes of polymorphic");
+            out.println("     * types are read by the readers of their base types.");
+            out.println("     */");
+            out.println("    public static Module module() {");
+            out.println("        final SimpleModule module = new SimpleModule(\"" + GENERATED_CLASS + "\");");
+            for (Model model : models.values()) {
+                if (model != null && model.kind != ModelKind.ENUM
+                    && !subtypes.contains(model.type.getQualifiedName().toString())) {
+                    final String type = types().erasure(model.type.asType()).toString();
+                    out.println("        module.addDeserializer(" + type + ".class,");
+                    out.println("                               new Deserializer<" + type + ">(" + type
+                                + ".class, " + GENERATED_CLASS + "::" + model.method + "));");
+                }
+            }
+            out.println("        return module;");
+            out.println("    }");
+            out.print(methods);
+            out.println("}");
+        }
+    }
+
+    private void generateReader(final PrintWriter out, final Model model) {
+        final String type = types().erasure(model.type.asType()).toString();
+        out.println();
+        switch (model.kind) {
+            case ENUM:
+                out.println("    private static " + type + ' ' + model.method
+                            + "(JsonParser p, DeserializationContext ctxt) throws IOException {");
+                out.println("        if (p.getCurrentToken() == JsonToken.VALUE_STRING");
+                out.println("            && !ctxt.isEnabled("
+                            + "DeserializationFeature.READ_ENUMS_USING_TO_STRING)) {");
+                out.println("            switch (p.getText()) {");
+                model.constants.forEach((name, constant) -> {
+                    out.println("                case \"" + name + "\":");
+                    out.println("                    return " + type + '.' + constant + ';');
+                });
+                out.println("            }");
+                out.println("        }");
+                out.println("        return ctxt.readValue(p, " + type + ".class);");
+                out.println("    }");
+                return;
+            case POLYMORPHIC:
+                generatePolymorphicReader(out, model, type);
+                return;
+            default:
+                if (!subtypes.contains(model.type.getQualifiedName().toString())) {
+                    out.println("    private static " + type + ' ' + model.method
+                                + "(JsonParser p, DeserializationContext ctxt) throws IOException {");
+                    out.println("        if (p.getCurrentToken() != JsonToken.START_OBJECT) {");
+                    out.println("            return (" + type + ") ctxt.handleUnexpectedToken(" + type
+                                + ".class, p);");
+                    out.println("        }");
+                    out.println("        return " + model.method + "Fields(p, ctxt);");
+                    out.println("    }");
+                    out.println();
+                }
+                generateFieldsReader(out, model, type);
+        }
+    }
+
+    private void generatePolymorphicReader(final PrintWriter out, final Model model, final String type) {
+        out.println("    private static " + type + ' ' + model.method
+                    + "(JsonParser p, DeserializationContext ctxt) throws IOException {");
+        out.println("        if (p.getCurrentToken() != JsonToken.START_OBJECT) {");
+        out.println("            return (" + type + ") ctxt.handleUnexpectedToken(" + type + ".class, p);");
+        out.println("        }");
+        out.println("        TokenBuffer buffer = null;");
+        out.println("        while (p.nextToken() == JsonToken.FIELD_NAME) {");
+        out.println("            final String name = p.getCurrentName();");
+        out.println("            p.nextToken();");
+        out.println("            final String typeId = \"" + model.typeProperty
+                    + "\".equals(name) ? p.getValueAsString() : null;");
+        out.println("            if (typeId != null) {");
+        out.println("                switch (typeId) {");
+        model.subtypes.forEach((typeId, subtype) -> {
+            out.println("                    case \"" + typeId + "\":");
+            out.println("                        return " + typedRead(model, subtype) + ';');
+        });
+        out.println("                    default:");
+        out.println("                        return " + typedRead(model, model.defaultImpl) + ';');
+        out.println("                }");
+        out.println("            }");
+        out.println("            if (buffer == null) {");
+        out.println("                buffer = startBuffer(p, ctxt);");
+        out.println("            }");
+        out.println("            buffer.writeFieldName(name);");
+        out.println("            buffer.copyCurrentStructure(p);");
+        out.println("        }");
+        out.println("        // No type ID.");
+        out.println("        return " + models.get(model.defaultImpl.getQualifiedName().toString()).method
+                    + "Fields(untyped(p, ctxt, buffer), ctxt);");
+        out.println("    }");
+    }
+
+    /**
+     * Reads the rest of the object as the subtype, following the fields buffered before the type ID. Like
+     * Jackson, the type ID is given to the subtype only if the type info is visible.
+     */
+    private String typedRead(final Model model, final TypeElement subtype) {
+        final Model subtypeModel = models.get(subtype.getQualifiedName().toString());
+        final boolean visible = model.visible && subtypeModel.properties.stream().anyMatch(
+                property -> property.name.equals(model.typeProperty));
+        return subtypeModel.method + "Fields(typed(p, ctxt, buffer, "
+               + (visible ? '"' + model.typeProperty + "\", typeId" : "null, null") + "), ctxt)";
+    }
+
+    private void generateFieldsReader(final PrintWriter out, final Model model, final String type) {
+        out.println("    private static " + type + ' ' + model.method
+                    + "Fields(JsonParser p, DeserializationContext ctxt) throws IOException {");
+        if (model.kind == ModelKind.BUILDER) {
+            out.println("        final " + model.builder + " builder = " + type + ".builder();");
+        } else {
+            for (Property property : model.properties) {
+                out.println("        " + property.type + ' ' + property.target + " = "
+                            + (property.type.getKind().isPrimitive() ? defaultValueOf(property.type) : "null")
+                            + ';');
+            }
+        }
+        out.println("        while (p.nextToken() == JsonToken.FIELD_NAME) {");
+        out.println("            final String name = p.getCurrentName();");
+        out.println("            final JsonToken token = p.nextToken();");
+        out.println("            switch (name) {");
+        for (Property property : model.properties) {
+            final String value = valueExpression(property);
+            out.println("                case \"" + property.name + "\":");
+            if (model.kind == ModelKind.BUILDER) {
+                out.println("                    builder." + property.target + '(' + value + ");");
+            } else {
+                out.println("                    " + property.target + " = " + value + ';');
+            }
+            out.println("                    break;");
+        }
+        out.println("                default:");
+        out.println("                    ctxt.handleUnknownProperty(p, null, " + type + ".class, name);");
+        out.println("            }");
+        out.println("        }");
+        if (model.kind == ModelKind.BUILDER) {
+            out.println("        return builder.build();");
+        } else {
+            final StringBuilder arguments = new StringBuilder();
+            for (Property property : model.properties) {
+                arguments.append(arguments.length() == 0 ? "" : ", ").append(property.target);
+            }
+            out.println("        try {");
+            out.println("            return new " + type + '(' + arguments + ");");
+            out.println("        } catch (RuntimeException e) {");
+            out.println("            return (" + type + ") ctxt.handleInstantiationProblem(" + type
+                        + ".class, null, e);");
+            out.println("        }");
+        }
+        out.println("    }");
+    }
+
+    private static String defaultValueOf(final TypeMirror type) {
+        return type.getKind() == TypeKind.BOOLEAN ? "false" : "0";
+    }
+
+    /**
+     * Reads the value of the property at the current token. Like Jackson, {@code null} of a primitive is left
+     * to the deserializer of the context.
+     */
+    private String valueExpression(final Property property) {
+        if (property.deserializer != null) {
+            final String deserializer = deserializerField(property.deserializer);
+            return "token == JsonToken.VALUE_NULL ? " + deserializer + ".getNullValue(ctxt) : " + deserializer
+                   + ".deserialize(p, ctxt)";
+        }
+        if (property.type.getKind().isPrimitive()) {
+            return readExpression(property.type);
+        }
+        return "token == JsonToken.VALUE_NULL ? null : " + readExpression(property.type);
+    }
+
+    private String deserializerField(final DeclaredType deserializer) {
+        final String name = types().erasure(deserializer).toString();
+        return deserializers.computeIfAbsent(
+                name, key -> deserializer.asElement().getSimpleName().toString()
+                                         .replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase());
+    }
+
+    /**
+     * Reads a value at the current token, which is not {@code null} unless the type is primitive.
+     */
+    private String readExpression(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "readBoolean(p, ctxt, boolean.class)";
+            case INT:
+                return "readInt(p, ctxt, int.class)";
+            case LONG:
+                return "readLong(p, ctxt, long.class)";
+            case DOUBLE:
+                return "readDouble(p, ctxt, double.class)";
+            case DECLARED:
+            case TYPEVAR:
+                break;
+            default:
+                return fallbackExpression(type);
+        }
+        final String name = types().erasure(type).toString();
+        switch (name) {
+            case "java.lang.String":
+                return "readString(p, ctxt)";
+            case "java.lang.Boolean":
+                return "readBoolean(p, ctxt, Boolean.class)";
+            case "java.lang.Integer":
+                return "readInt(p, ctxt, Integer.class)";
+            case "java.lang.Long":
+                return "readLong(p, ctxt, Long.class)";
+            case "java.lang.Double":
+                return "readDouble(p, ctxt, Double.class)";
+            case "java.time.Instant":
+                return "readInstant(p, ctxt)";
+            case "java.util.List":
+                final List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+                final String element = arguments.size() == 1 ? readerOf(arguments.get(0)) : null;
+                if (element != null) {
+                    return "token == JsonToken.START_ARRAY ? readList(p, ctxt, " + element + ") : "
+                           + fallbackExpression(type);
+                }
+                return fallbackExpression(type);
+            default:
+                final Model model = readableModelOf(type);
+                return model != null ? model.method + "(p, ctxt)" : fallbackExpression(type);
+        }
+    }
+
+    private String readerOf(final TypeMirror element) {
+        if (element.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        if ("java.lang.String".equals(element.toString())) {
+            return "ModelReaderSupport::readString";
+        }
+        final Model model = readableModelOf(element);
+        return model != null ? GENERATED_CLASS + "::" + model.method : null;
+    }
+
+    private String fallbackExpression(final TypeMirror type) {
+        final TypeMirror erased = types().erasure(type);
+        if (type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty()) {
+            return "ctxt.<" + type + ">readValue(p, ctxt.getTypeFactory().constructType(new TypeReference<"
+                   + type + ">() {}))";
+        }
+        return "ctxt.readValue(p, " + erased + ".class)";
+    }
+
+    private enum ModelKind {
+        ENUM,
+        POLYMORPHIC,
+        /**
+         * Bound through {@code @JsonDeserialize(builder)}, created by the static {@code builder()} of Lombok.
+         */
+        BUILDER,
+        /**
+         * Created by a public {@code @JsonCreator} constructor.
+         */
+        CREATOR
+    }
+
+    private static final class Model {
+        final TypeElement type;
+        final ModelKind kind;
+        final List<Property> properties = new ArrayList<>();
+        final Map<String, String> constants = new LinkedHashMap<>();
+        final Map<String, TypeElement> subtypes = new LinkedHashMap<>();
+        String method;
+        String builder;
+        String typeProperty;
+        boolean visible;
+        TypeElement defaultImpl;
+
+        Model(final TypeElement type, final ModelKind kind) {
+            this.type = type;
+            this.kind = kind;
+        }
+    }
+
+    private static final class Property {
+        final String name;
+        /**
+         * The builder method, or the local variable of the constructor argument.
+         */
+        final String target;
+        final TypeMirror type;
+        final DeclaredType deserializer;
+
+        Property(final String name, final String target, final TypeMirror type,
+                 final DeclaredType deserializer) {
+            this.name = name;
+            this.target = target;
+            this.type = type;
+            this.deserializer = deserializer;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates {@code com.linecorp.bot.model.objectmapper.ModelSubtypes}, the subtypes of every model type
+ * annotated with {@code @JsonSubTypes} by type ID.
+ *
+ * <p>The table is built from source at compile time, so looking up subtypes needs neither annotation
+ * scanning nor reflection at runtime.
+ */
+@SupportedAnnotationTypes(Annotations.JSON_SUB_TYPES)
+public class ModelSubtypesProcessor extends AbstractProcessor {
+    private static final String GENERATED_PACKAGE = "com.linecorp.bot.model.objectmapper";
+    private static final String GENERATED_CLASS = "ModelSubtypes";
+
+    private final List<BaseType> baseTypes = new ArrayList<>();
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement) {
+                    baseTypes.add(baseTypeOf((TypeElement) element));
+                }
+            }
+        }
+        if (!generated && !baseTypes.isEmpty()) {
+            generated = true;
+            baseTypes.sort(Comparator.comparing(baseType -> baseType.name));
+            try {
+                generate();
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Kind.ERROR,
+                                                         "Can't generate " + GENERATED_CLASS + ": " + e);
+            }
+        }
+        return false;
+    }
+
+    private BaseType baseTypeOf(final TypeElement element) {
+        final BaseType baseType = new BaseType(element.getQualifiedName().toString());
+        Annotations.subtypesOf(processingEnv.getElementUtils(), element).forEach(
+                (typeId, type) -> baseType.subtypes.add(new String[] { typeId, Annotations.nameOf(type) }));
+        return baseType;
+    }
+
+    private void generate() throws IOException {
+        final String qualifiedName = GENERATED_PACKAGE + '.' + GENERATED_CLASS;
+        final Element[] originatingElements =
+                baseTypes.stream()
+                         .map(baseType -> processingEnv.getElementUtils().getTypeElement(baseType.name))
+                         .toArray(Element[]::new);
+        final JavaFileObject file =
+                processingEnv.getFiler().createSourceFile(qualifiedName, originatingElements);
+        try (Writer writer = file.openWriter();
+             PrintWriter out = new PrintWriter(writer)) {
+            out.println("package " + GENERATED_PACKAGE + ';');
+            out.println();
+            out.println("import java.util.Collections;");
+            out.println("import java.util.LinkedHashMap;");
+            out.println("import java.util.Map;");
+            out.println("import java.util.Set;");
+            out.println();
+            out.println("/**");
+            out.println(" * Subtypes of polymorphic model types by type ID.");
+            out.println(" *");
+            out.println(" * <p>Generated from {@code @JsonSubTypes} at compile time. Do not edit.");
+            out.println(" */");
+            out.println("public final class " + GENERATED_CLASS + " {");
+            out.println("    private static final Map<Class<?>, Map<String, Class<?>>> SUBTYPES;");
+            out.println();
+            out.println("    static {");
+            out.println("        final Map<Class<?>, Map<String, Class<?>>> subtypes = new LinkedHashMap<>();");
+            for (BaseType baseType : baseTypes) {
+                out.println("        subtypes.put(" + baseType.name + ".class, ids("
+                            + (baseType.subtypes.isEmpty() ? "));" : ""));
+                for (int i = 0; i < baseType.subtypes.size(); i++) {
+                    final String[] subtype = baseType.subtypes.get(i);
+                    out.println("                \"" + subtype[0] + "\", " + subtype[1] + ".class"
+                                + (i < baseType.subtypes.size() - 1 ? "," : "));"));
+                }
+            }
+            out.println("        SUBTYPES = Collections.unmodifiableMap(subtypes);");
+            out.println("    }");
+            out.println();
+            out.println("    private " + GENERATED_CLASS + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    /**");
+            out.println("     * Types annotated with {@code @JsonSubTypes}.");
+            out.println("     */");
+            out.println("    public static Set<Class<?>> baseTypes() {");
+            out.println("        return SUBTYPES.keySet();");
+            out.println("    }");
+            out.println();
+            out.println("    /**");
+            out.println("     * Subtypes of the base type by type ID. Empty if the type is not a base type.");
+            out.println("     */");
+            out.println("    public static Map<String, Class<?>> subtypesOf(Class<?> baseType) {");
+            out.println("        return SUBTYPES.getOrDefault(baseType, Collections.emptyMap());");
+            out.println("    }");
+            out.println();
+            out.println("    private static Map<String, Class<?>> ids(Object... idsAndClasses) {");
+            out.println("        final Map<String, Class<?>> ids = new LinkedHashMap<>();");
+            out.println("        for (int i = 0; i < idsAndClasses.length; i += 2) {");
+            out.println("            ids.put((String) idsAndClasses[i], (Class<?>) idsAndClasses[i + 1]);");
+            out.println("        }");
+            out.println("        return Collections.unmodifiableMap(ids);");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private static final class BaseType {
+        final String name;
+        final List<String[]> subtypes = new ArrayList<>();
+
+        BaseType(final String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates the GraalVM native-image reflection configuration of line-bot-model.
+ *
+ * <p>Jackson binds model classes, their Lombok builders and enums by reflection, so every type of the
+ * {@code com.linecorp.bot.model} packages is registered with all of its constructors, methods and fields.
+ * Nested types are resolved after the last round, when Lombok has added the builder classes.
+ */
+@SupportedAnnotationTypes("*")
+public class NativeImageConfigProcessor extends AbstractProcessor {
+    private static final String MODEL_PACKAGE = "com.linecorp.bot.model.";
+    static final String REFLECT_CONFIG =
+            "META-INF/native-image/com.linecorp.bot/line-bot-model/reflect-config.json";
+
+    private final Set<String> rootTypes = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) {
+                final String name = ((TypeElement) element).getQualifiedName().toString();
+                if (name.startsWith(MODEL_PACKAGE)) {
+                    rootTypes.add(name);
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !rootTypes.isEmpty()) {
+            try {
+                generate();
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Kind.ERROR,
+                                                         "Can't generate " + REFLECT_CONFIG + ": " + e);
+            }
+        }
+        return false;
+    }
+
+    private void generate() throws IOException {
+        final Set<String> binaryNames = new TreeSet<>();
+        for (String rootType : rootTypes) {
+            addWithNestedTypes(processingEnv.getElementUtils().getTypeElement(rootType), binaryNames);
+        }
+        final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                                                                        REFLECT_CONFIG);
+        try (Writer writer = file.openWriter();
+             PrintWriter out = new PrintWriter(writer)) {
+            final List<String> entries = new ArrayList<>();
+            for (String binaryName : binaryNames) {
+                entries.add("  {\n"
+                            + "    \"name\": \"" + binaryName + "\",\n"
+                            + "    \"allDeclaredConstructors\": true,\n"
+                            + "    \"allDeclaredMethods\": true,\n"
+                            + "    \"allDeclaredFields\": true\n"
+                            + "  }");
+            }
+            out.println('[');
+            out.println(String.join(",\n", entries));
+            out.println(']');
+        }
+    }
+
+    private void addWithNestedTypes(final TypeElement type, final Set<String> binaryNames) {
+        if (type == null) {
+            return;
+        }
+        binaryNames.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed instanceof TypeElement) {
+                addWithNestedTypes((TypeElement) enclosed, binaryNames);
+            }
+        }
+    }
+}
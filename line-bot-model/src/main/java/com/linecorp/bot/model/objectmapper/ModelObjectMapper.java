@@ -25,6 +25,15 @@ import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class ModelObjectMapper {
+    /**
+     * System property to make {@link #createNewObjectMapper()} return
+     * {@linkplain #createNewAcceleratedObjectMapper() accelerated mappers}.
+     */
+    public static final String ACCELERATED_PROPERTY = "line.bot.model.acceleratedObjectMapper";
+
+    private static final String AFTERBURNER_MODULE =
+            "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
             .enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE)
@@ -34,7 +43,52 @@ public class ModelObjectMapper {
             .registerModule(new JavaTimeModule())
             .configure(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS, false);
 
+    /**
+     * Create a new mapper configured for the models.
+     *
+     * <p>Returns {@link #createNewAcceleratedObjectMapper()} if the system property
+     * {@value #ACCELERATED_PROPERTY} is {@code true}, so that the clients and the webhook parser of this SDK
+     * use it as well.
+     */
     public ObjectMapper createNewObjectMapper() {
+        if (Boolean.getBoolean(ACCELERATED_PROPERTY)) {
+            return createNewAcceleratedObjectMapper();
+        }
         return OBJECT_MAPPER.copy();
     }
+
+    /**
+     * Create a new mapper using bytecode generated accessors instead of reflection, whose serializers and
+     * deserializers of all {@link ModelSubtypes} are resolved before the first use.
+     *
+     * <p>Requires {@code com.fasterxml.jackson.module:jackson-module-afterburner} on the classpath.
+     *
+     * @throws IllegalStateException if Afterburner is not available.
+     */
+    public ObjectMapper createNewAcceleratedObjectMapper() {
+        if (!isAfterburnerAvailable()) {
+            throw new IllegalStateException("jackson-module-afterburner is required for accelerated mapper");
+        }
+        final ObjectMapper objectMapper = AfterburnerSupport.registerModules(OBJECT_MAPPER.copy());
+        for (Class<?> baseType : ModelSubtypes.baseTypes()) {
+            warmUp(objectMapper, baseType);
+            ModelSubtypes.subtypesOf(baseType).values().forEach(type -> warmUp(objectMapper, type));
+        }
+        return objectMapper;
+    }
+
+    private static boolean isAfterburnerAvailable() {
+        try {
+            Class.forName(AFTERBURNER_MODULE, false, ModelObjectMapper.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static void warmUp(final ObjectMapper objectMapper, final Class<?> type) {
+        // Readers and writers resolve and cache their root (de)serializer eagerly.
+        objectMapper.readerFor(type);
+        objectMapper.writerFor(type);
+    }
 }
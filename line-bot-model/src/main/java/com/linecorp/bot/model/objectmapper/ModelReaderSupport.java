@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model.objectmapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Reads values for {@link ModelDeserializers}.
+ *
+ * <p>Tokens expected by the model are read from the parser directly. Others, e.g. a number given as a string,
+ * are left to the deserializers of the context, so they are coerced or rejected the same as by Jackson.
+ */
+final class ModelReaderSupport {
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(JsonParser p, DeserializationContext ctxt) throws IOException;
+    }
+
+    /**
+     * Deserializer of a type read by a generated reader.
+     */
+    static final class Deserializer<T> extends StdDeserializer<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Reader<T> reader;
+
+        Deserializer(final Class<T> type, final Reader<T> reader) {
+            super(type);
+            this.reader = reader;
+        }
+
+        @Override
+        public T deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            return reader.read(p, ctxt);
+        }
+
+        @Override
+        public Object deserializeWithType(final JsonParser p, final DeserializationContext ctxt,
+                                          final TypeDeserializer typeDeserializer) throws IOException {
+            // The readers of polymorphic types resolve their subtypes themselves.
+            return reader.read(p, ctxt);
+        }
+    }
+
+    static String readString(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        return ctxt.readValue(p, String.class);
+    }
+
+    static Boolean readBoolean(final JsonParser p, final DeserializationContext ctxt,
+                               final Class<Boolean> type) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_TRUE) {
+            return true;
+        }
+        if (p.getCurrentToken() == JsonToken.VALUE_FALSE) {
+            return false;
+        }
+        return ctxt.readValue(p, type);
+    }
+
+    static Integer readInt(final JsonParser p, final DeserializationContext ctxt,
+                           final Class<Integer> type) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        return ctxt.readValue(p, type);
+    }
+
+    static Long readLong(final JsonParser p, final DeserializationContext ctxt,
+                         final Class<Long> type) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        return ctxt.readValue(p, type);
+    }
+
+    static Double readDouble(final JsonParser p, final DeserializationContext ctxt,
+                             final Class<Double> type) throws IOException {
+        if (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT
+            || p.getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+            return p.getDoubleValue();
+        }
+        return ctxt.readValue(p, type);
+    }
+
+    static Instant readInstant(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+        // Same as JavaTimeModule reading numbers as milliseconds.
+        if (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT
+            && !ctxt.isEnabled(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)) {
+            return Instant.ofEpochMilli(p.getLongValue());
+        }
+        return ctxt.readValue(p, Instant.class);
+    }
+
+    /**
+     * Read the array at the current token.
+     */
+    static <T> List<T> readList(final JsonParser p, final DeserializationContext ctxt,
+                                final Reader<T> element) throws IOException {
+        final List<T> list = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            list.add(p.getCurrentToken() == JsonToken.VALUE_NULL ? null : element.read(p, ctxt));
+        }
+        return list;
+    }
+
+    /**
+     * Buffer for the fields of a polymorphic object preceding its type ID.
+     */
+    static TokenBuffer startBuffer(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+        final TokenBuffer buffer = new TokenBuffer(p, ctxt);
+        buffer.writeStartObject();
+        return buffer;
+    }
+
+    /**
+     * The buffered fields, and the type ID if the type property is given, followed by the rest of the object.
+     *
+     * @param buffer buffered fields, or {@code null} if the type ID is the first field.
+     */
+    static JsonParser typed(final JsonParser p, final DeserializationContext ctxt, final TokenBuffer buffer,
+                            final String typeProperty, final String typeId) throws IOException {
+        TokenBuffer fields = buffer;
+        if (typeProperty != null) {
+            if (fields == null) {
+                fields = startBuffer(p, ctxt);
+            }
+            fields.writeFieldName(typeProperty);
+            fields.writeString(typeId);
+        }
+        if (fields == null) {
+            return p;
+        }
+        return JsonParserSequence.createFlattened(false, replay(fields, p), p);
+    }
+
+    /**
+     * The buffered fields of an object without type ID, whose end has been read.
+     */
+    static JsonParser untyped(final JsonParser p, final DeserializationContext ctxt, final TokenBuffer buffer)
+            throws IOException {
+        final TokenBuffer fields = buffer != null ? buffer : startBuffer(p, ctxt);
+        fields.writeEndObject();
+        return replay(fields, p);
+    }
+
+    private static JsonParser replay(final TokenBuffer fields, final JsonParser p) throws IOException {
+        final JsonParser parser = fields.asParser(p);
+        // Readers of fields start after the start of the object.
+        parser.nextToken();
+        return parser;
+    }
+
+    private ModelReaderSupport() {
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model.objectmapper;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.Modifier;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.deser.ValueInstantiator;
+import com.fasterxml.jackson.databind.deser.ValueInstantiators;
+import com.fasterxml.jackson.databind.deser.std.StdValueInstantiator;
+import com.fasterxml.jackson.databind.introspect.AnnotatedWithParams;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Keeps non-public default creators, e.g. constructors of Lombok generated builders, reflective.
+ *
+ * <p>Afterburner replaces creators of plain {@link StdValueInstantiator}s with generated classes. They are
+ * defined in another class loader on Java 9 or later, so calling a package-private constructor fails with
+ * {@link IllegalAccessError}. Afterburner leaves subclasses of {@link StdValueInstantiator} alone.
+ */
+class NonPublicCreatorModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    NonPublicCreatorModule() {
+        super(NonPublicCreatorModule.class.getSimpleName());
+    }
+
+    @Override
+    public void setupModule(final SetupContext context) {
+        super.setupModule(context);
+        context.addValueInstantiators(new ValueInstantiators.Base() {
+            @Override
+            public ValueInstantiator findValueInstantiator(final DeserializationConfig config,
+                                                           final BeanDescription beanDesc,
+                                                           final ValueInstantiator defaultInstantiator) {
+                if (defaultInstantiator.getClass() == StdValueInstantiator.class
+                    && hasNonPublicDefaultCreator(defaultInstantiator)) {
+                    return new ReflectiveValueInstantiator((StdValueInstantiator) defaultInstantiator);
+                }
+                return defaultInstantiator;
+            }
+        });
+    }
+
+    private static boolean hasNonPublicDefaultCreator(final ValueInstantiator instantiator) {
+        final AnnotatedWithParams creator = instantiator.getDefaultCreator();
+        if (creator == null) {
+            return false;
+        }
+        final Member member = creator.getMember();
+        return !Modifier.isPublic(member.getModifiers())
+               || !Modifier.isPublic(member.getDeclaringClass().getModifiers());
+    }
+
+    private static final class ReflectiveValueInstantiator extends StdValueInstantiator {
+        private static final long serialVersionUID = 1L;
+
+        ReflectiveValueInstantiator(final StdValueInstantiator src) {
+            super(src);
+        }
+    }
+}
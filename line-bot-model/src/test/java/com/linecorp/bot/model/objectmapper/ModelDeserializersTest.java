@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model.objectmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+
+import com.linecorp.bot.model.event.CallbackRequest;
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.UnknownEvent;
+import com.linecorp.bot.model.event.source.GroupSource;
+
+public class ModelDeserializersTest {
+    private static final ObjectMapper JACKSON = ModelObjectMapper.createNewObjectMapper();
+    private static final ObjectMapper GENERATED =
+            ModelObjectMapper.createNewObjectMapper().registerModule(ModelDeserializers.module());
+
+    @Test
+    public void sameAsJacksonTest() throws Exception {
+        final Path callbacks = Paths.get(getClass().getClassLoader().getResource("callback").toURI());
+        final List<Path> resources;
+        try (Stream<Path> files = Files.list(callbacks)) {
+            resources = files.sorted().collect(Collectors.toList());
+        }
+
+        for (Path resource : resources) {
+            final byte[] json = Files.readAllBytes(resource);
+
+            // Do
+            final CallbackRequest actual = GENERATED.readValue(json, CallbackRequest.class);
+
+            // Verify
+            assertThat(actual).as(resource.toString())
+                              .isEqualTo(JACKSON.readValue(json, CallbackRequest.class));
+            assertThat(actual.getEvents()).as(resource.toString()).isNotEmpty();
+        }
+    }
+
+    @Test
+    public void typeIdAfterOtherFieldsTest() throws Exception {
+        final String json = "{'mode':'active','source':{'userId':'U1','groupId':'G1','type':'group'},"
+                            + "'unknown':{'type':'x'},'type':'leave','timestamp':1}";
+
+        // Do
+        final Event event = read(GENERATED, json, Event.class);
+
+        // Verify
+        assertThat(event).isEqualTo(read(JACKSON, json, Event.class));
+        assertThat(event.getSource()).isEqualTo(GroupSource.builder().userId("U1").groupId("G1").build());
+    }
+
+    @Test
+    public void unknownOrMissingTypeIdTest() throws Exception {
+        for (String json : new String[] {
+                "{'timestamp':2,'type':'new','source':{}}",
+                "{'type':'new'}",
+                "{'mode':'standby','source':{'type':'new'}}",
+                "{}" }) {
+            // Do
+            final Event event = read(GENERATED, json, Event.class);
+
+            // Verify
+            assertThat(event).as(json)
+                             .isInstanceOf(UnknownEvent.class)
+                             .isEqualTo(read(JACKSON, json, Event.class));
+        }
+        assertThat(((UnknownEvent) read(GENERATED, "{'timestamp':2,'type':'new'}", Event.class)).getType())
+                .isEqualTo("new");
+    }
+
+    @Test
+    public void coercedValuesTest() throws Exception {
+        final String json = "{'type':'message','timestamp':'1970-01-01T00:00:00.001Z','mode':'unknown mode',"
+                            + "'message':{'type':'file','id':1,'fileSize':'12'},'replyToken':null,"
+                            + "'source':null}";
+
+        // Do, Verify
+        assertThat(read(GENERATED, json, Event.class)).isEqualTo(read(JACKSON, json, Event.class));
+    }
+
+    @Test
+    public void unexpectedTokenTest() {
+        assertThatThrownBy(() -> read(GENERATED, "{'type':'follow','source':'user'}", Event.class))
+                .isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> read(JACKSON, "{'type':'follow','source':'user'}", Event.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @Test
+    public void failOnUnknownPropertiesTest() {
+        final ObjectMapper generated = GENERATED.copy()
+                                                .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        // Do, Verify
+        assertThatThrownBy(() -> read(generated, "{'type':'follow','unknown':1}", Event.class))
+                .isInstanceOf(UnrecognizedPropertyException.class);
+    }
+
+    private static <T> T read(ObjectMapper objectMapper, String json, Class<T> type) throws IOException {
+        return objectMapper.readValue(json.replace('\'', '"'), type);
+    }
+}
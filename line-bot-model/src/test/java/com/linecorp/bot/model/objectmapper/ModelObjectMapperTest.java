@@ -17,11 +17,24 @@
 package com.linecorp.bot.model.objectmapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+
+import com.linecorp.bot.model.event.CallbackRequest;
 
 public class ModelObjectMapperTest {
     @Test
@@ -42,4 +55,49 @@ public class ModelObjectMapperTest {
         assertThat(first.getPropertyNamingStrategy())
                 .isNotEqualTo(second.getPropertyNamingStrategy());
     }
+
+    @Test
+    public void acceleratedObjectMapperTest() throws Exception {
+        final ObjectMapper reflective = ModelObjectMapper.createNewObjectMapper();
+
+        // Do
+        final ObjectMapper accelerated = ModelObjectMapper.createNewAcceleratedObjectMapper();
+
+        // Verify
+        assertThat(accelerated.getRegisteredModuleIds()).contains(new AfterburnerModule().getTypeId());
+        for (String resource : new String[] { "callback/line-things-scenario-result.json",
+                                              "callback/beacon_with_dm.json" }) {
+            final CallbackRequest expected = reflective.readValue(open(resource), CallbackRequest.class);
+            final CallbackRequest actual = accelerated.readValue(open(resource), CallbackRequest.class);
+            assertThat(actual).isEqualTo(expected);
+            assertThat(accelerated.writeValueAsString(actual))
+                    .isEqualTo(reflective.writeValueAsString(expected));
+        }
+    }
+
+    @Test
+    public void withoutAfterburnerTest() throws Exception {
+        // Classes of the model and Jackson, but not Afterburner.
+        final URL[] urls = Stream.of(ModelObjectMapper.class, ObjectMapper.class, JsonParser.class,
+                                     JsonTypeInfo.class, JavaTimeModule.class, ParameterNamesModule.class)
+                                 .map(clazz -> clazz.getProtectionDomain().getCodeSource().getLocation())
+                                 .distinct()
+                                 .toArray(URL[]::new);
+        try (URLClassLoader classLoader =
+                     new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent())) {
+            final Class<?> target = classLoader.loadClass(ModelObjectMapper.class.getName());
+
+            // Do
+            final Object objectMapper = target.getMethod("createNewObjectMapper").invoke(null);
+
+            // Verify
+            assertThat(objectMapper.getClass().getName()).isEqualTo(ObjectMapper.class.getName());
+            assertThatThrownBy(() -> target.getMethod("createNewAcceleratedObjectMapper").invoke(null))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static InputStream open(String resource) {
+        return ModelObjectMapperTest.class.getClassLoader().getResourceAsStream(resource);
+    }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.model.objectmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+
+import com.linecorp.bot.model.event.FollowEvent;
+
+public class ModelSubtypesTest {
+    @Test
+    public void subtypesMatchAnnotationsTest() {
+        for (Class<?> baseType : ModelSubtypes.baseTypes()) {
+            // Verify
+            assertThat(ModelSubtypes.subtypesOf(baseType).values())
+                    .as(baseType.getName())
+                    .containsExactlyInAnyOrder(subtypesOfAnnotation(baseType));
+        }
+        assertThat(ModelSubtypes.subtypesOf(FollowEvent.class)).isEmpty();
+    }
+
+    private static Class<?>[] subtypesOfAnnotation(final Class<?> baseType) {
+        final JsonSubTypes.Type[] types = baseType.getAnnotation(JsonSubTypes.class).value();
+        final Class<?>[] subtypes = new Class<?>[types.length];
+        for (int i = 0; i < types.length; i++) {
+            subtypes[i] = types[i].value();
+        }
+        return subtypes;
+    }
+}
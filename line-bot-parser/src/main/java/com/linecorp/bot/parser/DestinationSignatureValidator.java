@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import lombok.NonNull;
+
+/**
+ * {@link SignatureValidator} of webhooks of many channels.
+ *
+ * <p>Each webhook is validated by the validator of the channel it's sent to, looked up by the
+ * {@code destination} property of the request body. Requests to unknown destinations are invalid.
+ */
+public class DestinationSignatureValidator implements SignatureValidator {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    private final Function<String, ? extends SignatureValidator> validatorResolver;
+    private final boolean validatesBytesOnly;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param validatorResolver Returns the validator of the destination, i.e. the user ID of the bot, or
+     *                          {@code null} if the destination is unknown.
+     */
+    public DestinationSignatureValidator(
+            @NonNull Function<String, ? extends SignatureValidator> validatorResolver) {
+        this.validatorResolver = validatorResolver;
+        validatesBytesOnly = LineSignatureValidator.overridesValidateSignature(
+                getClass(), DestinationSignatureValidator.class);
+    }
+
+    @Override
+    public boolean validateSignature(@NonNull byte[] content, @NonNull String headerSignature) {
+        final String destination = readDestination(content);
+        if (destination == null) {
+            return false;
+        }
+        final SignatureValidator validator = validatorResolver.apply(destination);
+        return validator != null && validator.validateSignature(content, headerSignature);
+    }
+
+    /**
+     * Read the body up to the {@code destination} property, then sign it with the validator of the
+     * destination while it's read. Validators without streaming support get the whole body at the end.
+     *
+     * <p>LINE sends {@code destination} first, so usually only the first chunk of the body is buffered.
+     * Returns {@code null} if a subclass overrides {@link #validateSignature(byte[], String)}.
+     *
+     * @throws WebhookParseException The destination is missing or unknown. The rest of the body is not read.
+     */
+    @Override
+    public SigningInputStream signing(@NonNull InputStream content) throws IOException, WebhookParseException {
+        if (validatesBytesOnly) {
+            return null;
+        }
+        final ByteArrayOutputStream prefix = new ByteArrayOutputStream();
+        final String destination = readDestination(content, prefix);
+        final SignatureValidator validator = destination != null ? validatorResolver.apply(destination) : null;
+        if (validator == null) {
+            // Never read the body of a request no channel can have signed.
+            throw new WebhookParseException("Invalid API signature");
+        }
+        final InputStream body = new SequenceInputStream(new ByteArrayInputStream(prefix.toByteArray()),
+                                                         content);
+        final SigningInputStream signing = validator.signing(body);
+        return signing != null ? signing : new BufferingInputStream(body, validator);
+    }
+
+    /**
+     * Read the top level {@code destination} property without binding the rest of the body.
+     *
+     * @return {@code null} if it's absent or the body is not a JSON object.
+     */
+    static String readDestination(byte[] content) {
+        try {
+            return readDestination(new ByteArrayInputStream(content), new ByteArrayOutputStream());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Read the stream until the top level {@code destination} property is found, copying the bytes read
+     * into {@code prefix}.
+     *
+     * @return {@code null} if it's absent or the body is not a JSON object.
+     */
+    private static String readDestination(InputStream content, ByteArrayOutputStream prefix)
+            throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createNonBlockingByteArrayParser()) {
+            final ByteArrayFeeder feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            final byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int depth = 0;
+            boolean destinationField = false;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.NOT_AVAILABLE) {
+                    final int read = content.read(buffer);
+                    if (read == -1) {
+                        feeder.endOfInput();
+                    } else {
+                        prefix.write(buffer, 0, read);
+                        feeder.feedInput(buffer, 0, read);
+                    }
+                } else if (depth == 1 && token == JsonToken.FIELD_NAME) {
+                    destinationField = "destination".equals(parser.getCurrentName());
+                } else if (depth == 1 && destinationField) {
+                    return token == JsonToken.VALUE_STRING ? parser.getText() : null;
+                } else if (token.isStructStart()) {
+                    if (depth == 0 && token != JsonToken.START_OBJECT) {
+                        return null;
+                    }
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                } else if (depth == 0) {
+                    return null;
+                }
+            }
+            return null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Keeps the whole body for {@link SignatureValidator#validateSignature(byte[], String)}.
+     */
+    private static final class BufferingInputStream extends SigningInputStream {
+        private final SignatureValidator validator;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        BufferingInputStream(final InputStream in, final SignatureValidator validator) {
+            super(in);
+            this.validator = validator;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = in.read(b, off, len);
+            if (read > 0) {
+                body.write(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean validateSignature(final String headerSignature) throws IOException {
+            final byte[] buffer = new byte[READ_BUFFER_SIZE];
+            while (read(buffer, 0, buffer.length) != -1) {
+                // Drain trailing bytes.
+            }
+            return validator.validateSignature(body.toByteArray(), headerSignature);
+        }
+    }
+}
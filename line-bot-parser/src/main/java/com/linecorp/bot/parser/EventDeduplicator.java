@@ -0,0 +1,194 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import static java.util.stream.Collectors.toList;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.MessageEvent;
+import com.linecorp.bot.model.event.ReplyEvent;
+import com.linecorp.bot.model.event.UnknownEvent;
+import com.linecorp.bot.model.event.message.MessageContent;
+import com.linecorp.bot.model.event.source.Source;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drops events delivered more than once, e.g. webhooks redelivered after a timeout.
+ *
+ * <p>An event is identified by {@link #keyOf(Event)}, and its key is kept in {@link EventKeyStore} for the
+ * retention. Keys are recorded before handlers run, so a redelivery of an event whose handler failed is also
+ * dropped, unless the event is {@linkplain #forget(Event) forgotten}.
+ *
+ * <pre>{@code
+ * EventDeduplicator deduplicator = EventDeduplicator.inMemory(Duration.ofMinutes(10));
+ *
+ * List<Event> events = deduplicator.removeDuplicates(callbackRequest.getEvents());
+ * }</pre>
+ */
+@Slf4j
+public final class EventDeduplicator {
+    private final EventKeyStore store;
+    private final Duration retention;
+    private final Function<Event, String> keyFunction;
+    private final Clock clock;
+
+    public EventDeduplicator(@NonNull EventKeyStore store, @NonNull Duration retention) {
+        this(store, retention, EventDeduplicator::keyOf);
+    }
+
+    /**
+     * Create an instance identifying events by the function.
+     *
+     * @param keyFunction Returns the key of the event, or {@code null} if the event can't be identified.
+     */
+    public EventDeduplicator(@NonNull EventKeyStore store, @NonNull Duration retention,
+                             @NonNull Function<Event, String> keyFunction) {
+        this(store, retention, keyFunction, Clock.systemUTC());
+    }
+
+    EventDeduplicator(final EventKeyStore store, final Duration retention,
+                      final Function<Event, String> keyFunction, final Clock clock) {
+        this.store = store;
+        this.retention = retention;
+        this.keyFunction = keyFunction;
+        this.clock = clock;
+    }
+
+    /**
+     * Create an instance keeping keys in {@link InMemoryEventKeyStore}.
+     */
+    public static EventDeduplicator inMemory(@NonNull Duration retention) {
+        return new EventDeduplicator(new InMemoryEventKeyStore(), retention);
+    }
+
+    /**
+     * Returns {@code true} if the event was seen within the retention. Otherwise records it as seen.
+     *
+     * <p>Events which can't be identified are never duplicates.
+     */
+    public boolean isDuplicate(final Event event) {
+        return isDuplicate(null, event);
+    }
+
+    /**
+     * Returns {@code true} if the event was seen by the destination within the retention. Otherwise records
+     * it as seen.
+     *
+     * <p>Events are identified per destination, because bots in the same group receive the same events.
+     *
+     * @param destination User ID of the bot which received the event. {@code null} if unknown.
+     */
+    public boolean isDuplicate(final String destination, final Event event) {
+        final String key = keyOf(destination, event);
+        if (key == null) {
+            return false;
+        }
+        return !store.putIfAbsent(key, clock.instant().plus(retention));
+    }
+
+    /**
+     * Forget the event, so that its redelivery is not a duplicate. Use this when the webhook is not
+     * acknowledged after all, e.g. responding with an error.
+     */
+    public void forget(final Event event) {
+        forget(null, event);
+    }
+
+    /**
+     * Forget the event received by the destination.
+     *
+     * @see #forget(Event)
+     */
+    public void forget(final String destination, final Event event) {
+        final String key = keyOf(destination, event);
+        if (key != null) {
+            store.remove(key);
+        }
+    }
+
+    /**
+     * Returns the events which are not duplicates, in the same order.
+     */
+    public List<Event> removeDuplicates(final List<Event> events) {
+        return removeDuplicates(null, events);
+    }
+
+    /**
+     * Returns the events received by the destination which are not duplicates, in the same order.
+     *
+     * @see #isDuplicate(String, Event)
+     */
+    public List<Event> removeDuplicates(final String destination, final List<Event> events) {
+        return events.stream()
+                     .filter(event -> {
+                         if (isDuplicate(destination, event)) {
+                             log.info("Dropped duplicate event: {}", keyOf(destination, event));
+                             return false;
+                         }
+                         return true;
+                     })
+                     .collect(toList());
+    }
+
+    private String keyOf(final String destination, final Event event) {
+        final String key = keyFunction.apply(event);
+        if (key == null || destination == null) {
+            return key;
+        }
+        return destination + ':' + key;
+    }
+
+    /**
+     * Default identity of events.
+     *
+     * <ul>
+     * <li>{@link MessageEvent}: the message ID.</li>
+     * <li>Other {@link ReplyEvent}: the reply token.</li>
+     * <li>Others: the type, source and timestamp of the event.</li>
+     * </ul>
+     *
+     * <p>Returns {@code null} for {@link UnknownEvent}.
+     */
+    public static String keyOf(final Event event) {
+        if (event instanceof MessageEvent) {
+            final MessageContent message = ((MessageEvent<?>) event).getMessage();
+            if (message != null && message.getId() != null) {
+                return "message:" + message.getId();
+            }
+        }
+        if (event instanceof ReplyEvent) {
+            final String replyToken = ((ReplyEvent) event).getReplyToken();
+            if (replyToken != null) {
+                return "reply:" + replyToken;
+            }
+        }
+        if (event instanceof UnknownEvent || event.getTimestamp() == null) {
+            return null;
+        }
+        final Source source = event.getSource();
+        return event.getClass().getSimpleName() + ':'
+               + (source != null ? source.getSenderId() + ':' + source.getUserId() : "") + ':'
+               + event.getTimestamp().toEpochMilli();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import java.time.Instant;
+
+/**
+ * Keys of recently seen events for {@link EventDeduplicator}.
+ *
+ * <p>{@link InMemoryEventKeyStore} is used by default. Implement this interface to keep keys in a local
+ * persistent store, so that duplicates are detected across restarts.
+ */
+public interface EventKeyStore {
+    /**
+     * Store the key unless it's stored and not expired yet.
+     *
+     * @return {@code true} if the key is stored, i.e. it's seen for the first time.
+     */
+    boolean putIfAbsent(String key, Instant expiresAt);
+
+    /**
+     * Remove the key, so that the event is processed again on redelivery.
+     */
+    void remove(String key);
+}
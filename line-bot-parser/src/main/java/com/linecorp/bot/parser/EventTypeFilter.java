@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.MessageEvent;
+import com.linecorp.bot.model.event.UnknownEvent;
+import com.linecorp.bot.model.event.message.MessageContent;
+import com.linecorp.bot.model.event.message.UnknownMessageContent;
+import com.linecorp.bot.model.objectmapper.ModelSubtypes;
+
+import lombok.ToString;
+
+/**
+ * Types of events bound by {@link WebhookParser}. Events of other types are skipped without being bound.
+ *
+ * <pre>{@code
+ * EventTypeFilter filter = EventTypeFilter.of(singletonList(FollowEvent.class),
+ *                                             singletonList(TextMessageContent.class));
+ *
+ * WebhookParser parser = new WebhookParser(signatureValidator, filter);
+ * }</pre>
+ */
+@ToString
+public final class EventTypeFilter {
+    private static final Map<String, Class<?>> EVENT_TYPES = ModelSubtypes.subtypesOf(Event.class);
+    private static final Map<String, Class<?>> MESSAGE_TYPES = ModelSubtypes.subtypesOf(MessageContent.class);
+
+    static final String MESSAGE_EVENT_TYPE = typeIdOf(EVENT_TYPES, MessageEvent.class);
+
+    private final Set<String> eventTypes;
+    private final boolean unknownEventTypes;
+    private final Set<String> messageTypes;
+    private final boolean unknownMessageTypes;
+
+    private EventTypeFilter(final Set<String> eventTypes, final boolean unknownEventTypes,
+                            final Set<String> messageTypes, final boolean unknownMessageTypes) {
+        this.eventTypes = Collections.unmodifiableSet(eventTypes);
+        this.unknownEventTypes = unknownEventTypes;
+        this.messageTypes = Collections.unmodifiableSet(messageTypes);
+        this.unknownMessageTypes = unknownMessageTypes;
+    }
+
+    /**
+     * Create a filter accepting events which are instances of one of {@code events}, and {@link MessageEvent}s
+     * whose message is an instance of one of {@code messages}. Interfaces like
+     * {@link com.linecorp.bot.model.event.ReplyEvent} are allowed.
+     *
+     * <p>Including {@link Event} or {@link UnknownEvent} accepts event types unknown to this SDK. Including
+     * {@link MessageEvent} accepts all messages.
+     */
+    public static EventTypeFilter of(final Collection<? extends Class<?>> events,
+                                     final Collection<? extends Class<?>> messages) {
+        final Set<String> eventTypes = new HashSet<>();
+        boolean unknownEventTypes = false;
+        final Set<String> messageTypes = new HashSet<>();
+        boolean unknownMessageTypes = false;
+        for (Class<?> event : events) {
+            eventTypes.addAll(typesAssignableTo(EVENT_TYPES, event));
+            unknownEventTypes |= event.isAssignableFrom(UnknownEvent.class);
+            if (event.isAssignableFrom(MessageEvent.class)) {
+                messageTypes.addAll(MESSAGE_TYPES.keySet());
+                unknownMessageTypes = true;
+            }
+        }
+        for (Class<?> message : messages) {
+            eventTypes.add(MESSAGE_EVENT_TYPE);
+            messageTypes.addAll(typesAssignableTo(MESSAGE_TYPES, message));
+            unknownMessageTypes |= message.isAssignableFrom(UnknownMessageContent.class);
+        }
+        return new EventTypeFilter(eventTypes, unknownEventTypes, messageTypes, unknownMessageTypes);
+    }
+
+    /**
+     * Whether events of the {@code type} are bound. {@code null} for events without type.
+     */
+    boolean acceptsEventType(final String type) {
+        return type != null && EVENT_TYPES.containsKey(type) ? eventTypes.contains(type) : unknownEventTypes;
+    }
+
+    /**
+     * Whether {@link MessageEvent}s with messages of the {@code type} are bound.
+     */
+    boolean acceptsMessageType(final String type) {
+        return type != null && MESSAGE_TYPES.containsKey(type) ? messageTypes.contains(type)
+                                                               : unknownMessageTypes;
+    }
+
+    /**
+     * Whether all {@link MessageEvent}s are bound, so that their message type needn't be looked up.
+     */
+    boolean acceptsAllMessageTypes() {
+        return unknownMessageTypes && messageTypes.size() == MESSAGE_TYPES.size();
+    }
+
+    private static Set<String> typesAssignableTo(final Map<String, Class<?>> types, final Class<?> clazz) {
+        final Set<String> assignable = new HashSet<>();
+        types.forEach((name, type) -> {
+            if (clazz.isAssignableFrom(type)) {
+                assignable.add(name);
+            }
+        });
+        return assignable;
+    }
+
+    private static String typeIdOf(final Map<String, Class<?>> types, final Class<?> clazz) {
+        return types.entrySet().stream()
+                    .filter(entry -> entry.getValue() == clazz)
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No type ID of " + clazz));
+    }
+}
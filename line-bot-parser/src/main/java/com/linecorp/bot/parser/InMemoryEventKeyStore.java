@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link EventKeyStore} on heap, striped by key to reduce lock contention.
+ *
+ * <p>Expired keys are dropped on insertion. Beyond the maximum size, the oldest keys are dropped even if they
+ * haven't expired yet.
+ */
+public final class InMemoryEventKeyStore implements EventKeyStore {
+    private static final int STRIPES = 16;
+    private static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Clock clock;
+
+    public InMemoryEventKeyStore() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public InMemoryEventKeyStore(final int maximumSize) {
+        this(maximumSize, Clock.systemUTC());
+    }
+
+    InMemoryEventKeyStore(final int maximumSize, final Clock clock) {
+        this.clock = clock;
+        final int maximumSizePerStripe = Math.max(1, maximumSize / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maximumSizePerStripe);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(final String key, final Instant expiresAt) {
+        final Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            final Instant now = clock.instant();
+            stripe.removeExpired(now);
+            if (stripe.containsKey(key)) {
+                return false;
+            }
+            stripe.put(key, expiresAt);
+            return true;
+        }
+    }
+
+    @Override
+    public void remove(final String key) {
+        final Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    private Stripe stripeOf(final String key) {
+        return stripes[(key.hashCode() & Integer.MAX_VALUE) % STRIPES];
+    }
+
+    /**
+     * Keys in insertion order, which is also the order of expiry as long as the retention doesn't change.
+     */
+    private static final class Stripe extends LinkedHashMap<String, Instant> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        Stripe(final int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        void removeExpired(final Instant now) {
+            final Iterator<Instant> expiries = values().iterator();
+            while (expiries.hasNext() && !expiries.next().isAfter(now)) {
+                expiries.remove();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Instant> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
@@ -16,28 +16,57 @@
 
 package com.linecorp.bot.parser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Base64;
 
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 
 import lombok.NonNull;
 
 /**
  * This class validates value of the `X-LINE-Signature` header.
+ *
+ * <p>Each thread keeps one set of buffers and the initialized {@link Mac} of the validator it used last,
+ * shared by all instances. Validation of a {@code byte[]} or {@link ByteBuffer} body allocates nothing
+ * while a thread keeps using the same validator; switching to another one copies its {@link Mac}.
+ * Instances are thread safe.
  */
 public class LineSignatureValidator implements SignatureValidator {
     private static final String HASH_ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 32;
+    // Base64 of 32 bytes: 43 characters and one padding.
+    private static final int ENCODED_SIGNATURE_LENGTH = 44;
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final byte[] BASE64_VALUES = new byte[128];
+    private static final ThreadLocal<State> STATES = ThreadLocal.withInitial(State::new);
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
     private final SecretKeySpec secretKeySpec;
+    private final Mac prototype;
+    private final boolean validatesBytesOnly;
 
     /**
      * Create new instance with channel secret.
      */
     public LineSignatureValidator(byte[] channelSecret) {
         secretKeySpec = new SecretKeySpec(channelSecret, HASH_ALGORITHM);
+        prototype = newMac();
+        validatesBytesOnly = overridesValidateSignature(getClass(), LineSignatureValidator.class);
     }
 
     /**
@@ -49,9 +78,67 @@ public class LineSignatureValidator implements SignatureValidator {
      */
     @Override
     public boolean validateSignature(@NonNull byte[] content, @NonNull String headerSignature) {
-        final byte[] signature = generateSignature(content);
-        final byte[] decodeHeaderSignature = Base64.getDecoder().decode(headerSignature);
-        return MessageDigest.isEqual(decodeHeaderSignature, signature);
+        final State state = acquire();
+        state.mac.update(content);
+        return matches(state, headerSignature);
+    }
+
+    /**
+     * Validate signature of the remaining bytes of the buffer. The position of the buffer is not changed.
+     *
+     * @param content Body of the http request.
+     * @param headerSignature Signature value from `X-LINE-Signature` HTTP header
+     * @return True if headerSignature matches signature of the content. False otherwise.
+     */
+    public boolean validateSignature(@NonNull ByteBuffer content, @NonNull String headerSignature) {
+        final State state = acquire();
+        final int position = content.position();
+        try {
+            state.mac.update(content);
+        } finally {
+            content.position(position);
+        }
+        return matches(state, headerSignature);
+    }
+
+    /**
+     * Validate signature of the stream, read to its end. The stream is not closed.
+     *
+     * @param content Body of the http request.
+     * @param headerSignature Signature value from `X-LINE-Signature` HTTP header
+     * @return True if headerSignature matches signature of the content. False otherwise.
+     * @throws IOException if reading the stream fails.
+     */
+    public boolean validateSignature(@NonNull InputStream content, @NonNull String headerSignature)
+            throws IOException {
+        final State state = acquire();
+        final byte[] buffer = state.readBuffer();
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            state.mac.update(buffer, 0, read);
+        }
+        return matches(state, headerSignature);
+    }
+
+    /**
+     * Wrap the stream so that every byte read through it is signed. The returned stream must be used on the
+     * calling thread only.
+     *
+     * <p>Returns {@code null} if a subclass overrides {@link #validateSignature(byte[], String)}, so that
+     * its validation is not bypassed.
+     */
+    @Override
+    public SigningInputStream signing(final InputStream content) {
+        if (validatesBytesOnly) {
+            return null;
+        }
+        final State state = acquire();
+        final Mac mac = state.mac;
+        // The stream borrows the Mac until it is validated, so a validation nested on this thread, even by
+        // this validator, copies the prototype instead of resetting it.
+        state.owner = null;
+        state.mac = null;
+        return new MacInputStream(this, content, state, mac);
     }
 
     /**
@@ -61,10 +148,88 @@ public class LineSignatureValidator implements SignatureValidator {
      * @return generated signature value.
      */
     public byte[] generateSignature(@NonNull byte[] content) {
+        return acquire().mac.doFinal(content);
+    }
+
+    /**
+     * State of the current thread, holding the {@link Mac} of this validator. The {@link Mac} may hold input
+     * of an aborted call, so it is reset; this is a no-op when already reset.
+     */
+    private State acquire() {
+        final State state = STATES.get();
+        if (state.owner == this) {
+            state.mac.reset();
+        } else {
+            state.owner = this;
+            state.mac = copyOf(prototype);
+        }
+        return state;
+    }
+
+    private static boolean matches(final State state, final String headerSignature) {
+        return matches(state, state.mac, headerSignature);
+    }
+
+    private static boolean matches(final State state, final Mac mac, final String headerSignature) {
+        try {
+            mac.doFinal(state.signature, 0);
+        } catch (ShortBufferException e) {
+            // The buffer is exactly as long as HmacSHA256 output.
+            throw new IllegalStateException(e);
+        }
+        if (!decode(headerSignature, state.headerSignature)) {
+            // Not a canonical signature; let the JDK decoder report malformed input.
+            return MessageDigest.isEqual(Base64.getDecoder().decode(headerSignature), state.signature);
+        }
+        return MessageDigest.isEqual(state.headerSignature, state.signature);
+    }
+
+    /**
+     * Decode a 44 character Base64 signature into {@code dst}.
+     *
+     * @return false if {@code src} is not a Base64 encoded 32 byte value.
+     */
+    private static boolean decode(final String src, final byte[] dst) {
+        if (src.length() != ENCODED_SIGNATURE_LENGTH || src.charAt(ENCODED_SIGNATURE_LENGTH - 1) != '=') {
+            return false;
+        }
+        int bits = 0;
+        int bitCount = 0;
+        int index = 0;
+        for (int i = 0; i < ENCODED_SIGNATURE_LENGTH - 1; i++) {
+            final char c = src.charAt(i);
+            final int value = c < BASE64_VALUES.length ? BASE64_VALUES[c] : -1;
+            if (value < 0) {
+                return false;
+            }
+            bits = bits << 6 | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[index++] = (byte) (bits >> bitCount);
+            }
+        }
+        return index == SIGNATURE_LENGTH;
+    }
+
+    /**
+     * Returns {@code true} if a subclass of the base class overrides
+     * {@link #validateSignature(byte[], String)}, whose validation streaming would bypass.
+     */
+    static boolean overridesValidateSignature(final Class<?> clazz, final Class<?> baseClass) {
+        try {
+            return clazz.getMethod("validateSignature", byte[].class, String.class).getDeclaringClass()
+                   != baseClass;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Mac newMac() {
         try {
             final Mac mac = Mac.getInstance(HASH_ALGORITHM);
             mac.init(secretKeySpec);
-            return mac.doFinal(content);
+            return mac;
         } catch (NoSuchAlgorithmException | InvalidKeyException e) {
             // "HmacSHA256" is always supported in Java 8 platform.
             //   (see https://docs.oracle.com/javase/8/docs/api/javax/crypto/Mac.html)
@@ -74,4 +239,77 @@ public class LineSignatureValidator implements SignatureValidator {
         }
     }
 
+    /**
+     * Copy the initialized {@link Mac}, which skips the provider lookup and the key schedule.
+     */
+    private Mac copyOf(final Mac prototype) {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac();
+        }
+    }
+
+    private static final class MacInputStream extends SigningInputStream {
+        private final LineSignatureValidator validator;
+        private final State state;
+        // Borrowed from the state, which holds no Mac until another validation or validateSignature().
+        private final Mac mac;
+
+        MacInputStream(final LineSignatureValidator validator, final InputStream in, final State state,
+                       final Mac mac) {
+            super(in);
+            this.validator = validator;
+            this.state = state;
+            this.mac = mac;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b != -1) {
+                mac.update((byte) b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = in.read(b, off, len);
+            if (read > 0) {
+                mac.update(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean validateSignature(final String headerSignature) throws IOException {
+            final byte[] buffer = state.readBuffer();
+            while (read(buffer, 0, buffer.length) != -1) {
+                // Drain trailing bytes, e.g. whitespace after the JSON document.
+            }
+            final boolean matches = matches(state, mac, headerSignature);
+            if (state.owner == null) {
+                // Nothing used the state meanwhile; give the Mac, reset by doFinal(), back.
+                state.owner = validator;
+                state.mac = mac;
+            }
+            return matches;
+        }
+    }
+
+    private static final class State {
+        final byte[] signature = new byte[SIGNATURE_LENGTH];
+        final byte[] headerSignature = new byte[SIGNATURE_LENGTH];
+        LineSignatureValidator owner;
+        Mac mac;
+        private byte[] readBuffer;
+
+        byte[] readBuffer() {
+            if (readBuffer == null) {
+                readBuffer = new byte[READ_BUFFER_SIZE];
+            }
+            return readBuffer;
+        }
+    }
 }
@@ -16,6 +16,23 @@
 
 package com.linecorp.bot.parser;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 public interface SignatureValidator {
     boolean validateSignature(byte[] content, String headerSignature);
+
+    /**
+     * Wrap the request body so that its signature is computed while {@link WebhookParser} reads it.
+     *
+     * <p>Returns {@code null} without reading the body by default, and {@link WebhookParser} reads the whole
+     * body and calls {@link #validateSignature(byte[], String)} before parsing it.
+     *
+     * @param content Body of the http request.
+     * @return {@code null} if this validator needs the whole body.
+     * @throws WebhookParseException The request is known to be invalid before the rest of the body is read.
+     */
+    default SigningInputStream signing(InputStream content) throws IOException, WebhookParseException {
+        return null;
+    }
 }
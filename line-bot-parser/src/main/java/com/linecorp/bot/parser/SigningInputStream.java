@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream computing the signature of the bytes read through it, so that {@link WebhookParser} validates a
+ * webhook while parsing it.
+ *
+ * <p>Instances are used on one thread only.
+ *
+ * @see SignatureValidator#signing(InputStream)
+ */
+public abstract class SigningInputStream extends FilterInputStream {
+    private byte[] skipBuffer;
+
+    protected SigningInputStream(final InputStream in) {
+        super(in);
+    }
+
+    /**
+     * Read the rest of the stream and validate the signature of all bytes read.
+     *
+     * @param headerSignature Signature value from `X-LINE-Signature` HTTP header
+     * @return True if headerSignature matches signature of the content. False otherwise.
+     */
+    public abstract boolean validateSignature(String headerSignature) throws IOException;
+
+    @Override
+    public abstract int read(byte[] b, int off, int len) throws IOException;
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        // Skipped bytes must be signed too.
+        if (skipBuffer == null) {
+            skipBuffer = new byte[1024];
+        }
+        long skipped = 0;
+        while (skipped < n) {
+            final int read = read(skipBuffer, 0, (int) Math.min(n - skipped, skipBuffer.length));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(final int readlimit) {
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
@@ -16,12 +16,26 @@
 
 package com.linecorp.bot.parser;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import com.linecorp.bot.model.event.CallbackRequest;
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.objectmapper.ModelDeserializers;
 import com.linecorp.bot.model.objectmapper.ModelObjectMapper;
 
 import lombok.NonNull;
@@ -31,8 +45,14 @@ import lombok.extern.slf4j.Slf4j;
 public class WebhookParser {
     public static final String SIGNATURE_HEADER_NAME = "X-Line-Signature";
 
-    private final ObjectMapper objectMapper = ModelObjectMapper.createNewObjectMapper();
+    // Shared by all instances; readers are immutable and resolve their deserializers only once. Events are
+    // read by the readers generated at compile time instead of reflective Jackson deserializers.
+    private static final ObjectMapper objectMapper =
+            ModelObjectMapper.createNewObjectMapper().registerModule(ModelDeserializers.module());
+    private static final ObjectReader callbackRequestReader = objectMapper.readerFor(CallbackRequest.class);
+    private static final ObjectReader eventReader = objectMapper.readerFor(Event.class);
     private final SignatureValidator signatureValidator;
+    private final Supplier<EventTypeFilter> eventTypeFilter;
 
     /**
      * Creates a new instance.
@@ -40,7 +60,34 @@ public class WebhookParser {
      * @param signatureValidator LINE messaging API's signature validator
      */
     public WebhookParser(@NonNull SignatureValidator signatureValidator) {
+        this(signatureValidator, () -> null);
+    }
+
+    /**
+     * Creates a new instance binding only events accepted by the filter.
+     *
+     * <p>The type of each event is read first, and the rest of a rejected event is skipped without being
+     * bound. Rejected events are not included in {@link CallbackRequest#getEvents()}.
+     *
+     * @param signatureValidator LINE messaging API's signature validator
+     * @param eventTypeFilter Types of events to bind.
+     */
+    public WebhookParser(@NonNull SignatureValidator signatureValidator,
+                         @NonNull EventTypeFilter eventTypeFilter) {
+        this(signatureValidator, () -> eventTypeFilter);
+    }
+
+    /**
+     * Creates a new instance binding only events accepted by the filter at the time of parsing.
+     *
+     * @param signatureValidator LINE messaging API's signature validator
+     * @param eventTypeFilter Supplies types of events to bind, or {@code null} to bind all events.
+     * @see #WebhookParser(SignatureValidator, EventTypeFilter)
+     */
+    public WebhookParser(@NonNull SignatureValidator signatureValidator,
+                         @NonNull Supplier<EventTypeFilter> eventTypeFilter) {
         this.signatureValidator = signatureValidator;
+        this.eventTypeFilter = eventTypeFilter;
     }
 
     /**
@@ -53,9 +100,7 @@ public class WebhookParser {
      */
     public CallbackRequest handle(String signature, byte[] payload) throws IOException, WebhookParseException {
         // validate signature
-        if (signature == null || signature.isEmpty()) {
-            throw new WebhookParseException("Missing 'X-Line-Signature' header");
-        }
+        checkSignaturePresent(signature);
 
         if (log.isDebugEnabled()) {
             log.debug("got: {}", new String(payload, StandardCharsets.UTF_8));
@@ -65,10 +110,185 @@ public class WebhookParser {
             throw new WebhookParseException("Invalid API signature");
         }
 
-        final CallbackRequest callbackRequest = objectMapper.readValue(payload, CallbackRequest.class);
+        final CallbackRequest callbackRequest;
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            callbackRequest = read(parser);
+        }
+        return checkContent(callbackRequest);
+    }
+
+    /**
+     * Parses a request while reading it.
+     *
+     * <p>With a validator supporting {@link SignatureValidator#signing(InputStream)}, e.g.
+     * {@link LineSignatureValidator}, the body is signed and parsed in one pass without being copied into a
+     * byte array. The parsed result is returned only if the signature matches at the end of the stream.
+     * Other validators, and debug logging of the payload, need the whole body in memory.
+     *
+     * @param signature X-Line-Signature header.
+     * @param payload Request body. Read to its end, not closed.
+     * @return Parsed result.
+     * @throws WebhookParseException There's an error around signature.
+     */
+    public CallbackRequest handle(String signature, InputStream payload)
+            throws IOException, WebhookParseException {
+        checkSignaturePresent(signature);
+
+        final SigningInputStream signing = log.isDebugEnabled() ? null : signatureValidator.signing(payload);
+        if (signing == null) {
+            return handle(signature, toByteArray(payload));
+        }
+
+        final CallbackRequest callbackRequest;
+        try (JsonParser parser = objectMapper.getFactory().createParser(signing)) {
+            // The stream is drained for the signature after parsing, so it must stay open.
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            callbackRequest = read(parser);
+        } catch (IOException | RuntimeException e) {
+            // Never tell unsigned requests why their content is invalid.
+            if (!signing.validateSignature(signature)) {
+                throw new WebhookParseException("Invalid API signature");
+            }
+            throw e;
+        }
+        if (!signing.validateSignature(signature)) {
+            throw new WebhookParseException("Invalid API signature");
+        }
+        return checkContent(callbackRequest);
+    }
+
+    /**
+     * Parses a request while reading it.
+     *
+     * @param signature X-Line-Signature header.
+     * @param payload Request body. Read to its end, not closed.
+     * @return Parsed result.
+     * @throws WebhookParseException There's an error around signature.
+     * @see #handle(String, InputStream)
+     */
+    public CallbackRequest handle(String signature, ReadableByteChannel payload)
+            throws IOException, WebhookParseException {
+        // Closing the adapter would close the channel; leave it to the caller.
+        return handle(signature, Channels.newInputStream(payload));
+    }
+
+    private CallbackRequest read(JsonParser parser) throws IOException {
+        final EventTypeFilter filter = eventTypeFilter.get();
+        if (filter == null) {
+            return callbackRequestReader.readValue(parser);
+        }
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        final CallbackRequest.CallbackRequestBuilder callbackRequest = CallbackRequest.builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if ("destination".equals(name)) {
+                callbackRequest.destination(value == JsonToken.VALUE_NULL ? null : parser.getText());
+            } else if ("events".equals(name) && value == JsonToken.START_ARRAY) {
+                callbackRequest.events(readEvents(parser, filter));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return callbackRequest.build();
+    }
+
+    private List<Event> readEvents(JsonParser parser, EventTypeFilter filter) throws IOException {
+        final List<Event> events = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Unexpected token in events: " + token);
+            }
+            final Event event = readEvent(parser, filter);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Buffer the event until its type is known. Returns {@code null} if the event is skipped.
+     */
+    private Event readEvent(JsonParser parser, EventTypeFilter filter) throws IOException {
+        final TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.writeStartObject();
+        String type = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if (type == null && "type".equals(name) && value == JsonToken.VALUE_STRING) {
+                type = parser.getText();
+                if (!filter.acceptsEventType(type)) {
+                    skipRemainingFields(parser);
+                    return null;
+                }
+            }
+            buffer.writeFieldName(name);
+            buffer.copyCurrentStructure(parser);
+        }
+        buffer.writeEndObject();
+        if (type == null && !filter.acceptsEventType(null)) {
+            return null;
+        }
+        if (EventTypeFilter.MESSAGE_EVENT_TYPE.equals(type) && !filter.acceptsAllMessageTypes()
+            && !filter.acceptsMessageType(messageTypeOf(buffer))) {
+            return null;
+        }
+        return eventReader.readValue(buffer.asParser());
+    }
+
+    private static void skipRemainingFields(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    private static String messageTypeOf(TokenBuffer event) throws IOException {
+        final JsonParser parser = event.asParser();
+        parser.nextToken();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT && "message".equals(name)) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String field = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.VALUE_STRING && "type".equals(field)) {
+                        return parser.getText();
+                    }
+                    parser.skipChildren();
+                }
+                return null;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private static void checkSignaturePresent(String signature) throws WebhookParseException {
+        if (signature == null || signature.isEmpty()) {
+            throw new WebhookParseException("Missing 'X-Line-Signature' header");
+        }
+    }
+
+    private static CallbackRequest checkContent(CallbackRequest callbackRequest)
+            throws WebhookParseException {
         if (callbackRequest == null || callbackRequest.getEvents() == null) {
             throw new WebhookParseException("Invalid content");
         }
         return callbackRequest;
     }
+
+    private static byte[] toByteArray(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
 }
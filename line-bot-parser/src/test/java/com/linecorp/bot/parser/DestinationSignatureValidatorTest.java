@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Bytes;
+
+public class DestinationSignatureValidatorTest {
+    private final LineSignatureValidator channel1 =
+            new LineSignatureValidator("SECRET1".getBytes(StandardCharsets.US_ASCII));
+    private final LineSignatureValidator channel2 =
+            new LineSignatureValidator("SECRET2".getBytes(StandardCharsets.US_ASCII));
+    private final DestinationSignatureValidator target;
+
+    public DestinationSignatureValidatorTest() {
+        final Map<String, SignatureValidator> validators = new HashMap<>();
+        validators.put("U1", channel1);
+        validators.put("U2", channel2);
+        target = new DestinationSignatureValidator(validators::get);
+    }
+
+    @Test
+    public void validateByDestinationTest() {
+        final byte[] content = body("{\"events\":[{\"type\":\"follow\"}],\"destination\":\"U2\"}");
+
+        // Do & Verify
+        assertThat(target.validateSignature(content, sign(channel2, content))).isTrue();
+        assertThat(target.validateSignature(content, sign(channel1, content))).isFalse();
+    }
+
+    @Test
+    public void unknownDestinationTest() {
+        final byte[] content = body("{\"destination\":\"U3\",\"events\":[]}");
+
+        // Do & Verify
+        assertThat(target.validateSignature(content, sign(channel1, content))).isFalse();
+    }
+
+    @Test
+    public void signingByDestinationTest() throws Exception {
+        final byte[] content = body("{\"events\":[{\"type\":\"follow\"}],\"destination\":\"U2\"}");
+        // Signed beforehand; signing streams share the Mac of the thread.
+        final String signature1 = sign(channel1, content);
+        final String signature2 = sign(channel2, content);
+
+        // Do
+        final SigningInputStream signing = target.signing(new ByteArrayInputStream(content));
+
+        // Verify: bytes read while looking up the destination are read again
+        assertThat(ByteStreams.toByteArray(signing)).isEqualTo(content);
+        assertThat(signing.validateSignature(signature2)).isTrue();
+        assertThat(target.signing(new ByteArrayInputStream(content)).validateSignature(signature1)).isFalse();
+    }
+
+    @Test
+    public void signingWithoutValidatorTest() {
+        for (String prefix : new String[] { "{\"destination\":\"U3\",", "{\"destination\":1,", "[" }) {
+            final byte[] rest = new byte[64 * 1024];
+            final ByteArrayInputStream content =
+                    new ByteArrayInputStream(Bytes.concat(body(prefix + "\"events\":[\""), rest));
+
+            // Do & Verify: fails before the rest of the body is read
+            assertThatThrownBy(() -> target.signing(content))
+                    .isInstanceOf(WebhookParseException.class)
+                    .hasMessage("Invalid API signature");
+            assertThat(content.available()).as(prefix).isGreaterThanOrEqualTo(rest.length - 1024);
+        }
+        assertThatThrownBy(() -> target.signing(new ByteArrayInputStream(body("{\"events\":[]}"))))
+                .isInstanceOf(WebhookParseException.class);
+    }
+
+    @Test
+    public void signingWithValidatorOfBytesTest() throws Exception {
+        final byte[] content = body("{\"destination\":\"U1\",\"events\":[]}");
+        final DestinationSignatureValidator target = new DestinationSignatureValidator(
+                destination -> (bytes, signature) -> Arrays.equals(bytes, content) && "OK".equals(signature));
+
+        // Do
+        final SigningInputStream signing = target.signing(new ByteArrayInputStream(content));
+
+        // Verify
+        assertThat(signing.validateSignature("OK")).isTrue();
+    }
+
+    @Test
+    public void readDestinationTest() {
+        assertThat(DestinationSignatureValidator.readDestination(body("{\"destination\":\"U1\"}")))
+                .isEqualTo("U1");
+        assertThat(DestinationSignatureValidator.readDestination(body("{\"events\":[]}"))).isNull();
+        assertThat(DestinationSignatureValidator.readDestination(body("{\"destination\":{}}"))).isNull();
+        assertThat(DestinationSignatureValidator.readDestination(body("[]"))).isNull();
+        assertThat(DestinationSignatureValidator.readDestination(body("{broken"))).isNull();
+    }
+
+    private static byte[] body(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sign(LineSignatureValidator validator, byte[] content) {
+        return Base64.getEncoder().encodeToString(validator.generateSignature(content));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.parser;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.MemberLeftEvent;
+import com.linecorp.bot.model.event.MessageEvent;
+import com.linecorp.bot.model.event.UnfollowEvent;
+import com.linecorp.bot.model.event.UnknownEvent;
+import com.linecorp.bot.model.event.message.TextMessageContent;
+import com.linecorp.bot.model.event.source.GroupSource;
+import com.linecorp.bot.model.event.source.UserSource;
+
+public class EventDeduplicatorTest {
+    private static final Instant NOW = Instant.parse("2021-01-01T00:00:00Z");
+
+    @Test
+    public void redeliveredMessageIsDuplicateTest() {
+        final EventDeduplicator target = newDeduplicator(Clock.fixed(NOW, ZoneOffset.UTC));
+        final Event event = message("M1", "R1");
+
+        // Do & Verify: redelivery has a new reply token but the same message
+        assertThat(target.isDuplicate(event)).isFalse();
+        assertThat(target.isDuplicate(message("M1", "R2"))).isTrue();
+        assertThat(target.isDuplicate(message("M2", "R3"))).isFalse();
+    }
+
+    @Test
+    public void removeDuplicatesTest() {
+        final EventDeduplicator target = newDeduplicator(Clock.fixed(NOW, ZoneOffset.UTC));
+        final Event unfollow1 = UnfollowEvent.builder().source(user("U1")).timestamp(NOW).build();
+        final Event unfollow2 = UnfollowEvent.builder().source(user("U2")).timestamp(NOW).build();
+        final Event unknown = UnknownEvent.builder().type("unknown").timestamp(NOW).build();
+
+        // Do
+        assertThat(target.removeDuplicates(asList(unfollow1, unknown, unfollow1, unfollow2, unknown)))
+                // Verify
+                .containsExactly(unfollow1, unknown, unfollow2, unknown);
+    }
+
+    @Test
+    public void sameEventOfAnotherDestinationIsNotDuplicateTest() {
+        final EventDeduplicator target = newDeduplicator(Clock.fixed(NOW, ZoneOffset.UTC));
+        final Event memberLeft = MemberLeftEvent.builder().source(group("G1")).timestamp(NOW).build();
+
+        // Do: two bots in the same group receive the same events
+        assertThat(target.removeDuplicates("BOT1", asList(message("M1", "R1"), memberLeft)))
+                // Verify
+                .hasSize(2);
+        assertThat(target.removeDuplicates("BOT2", asList(message("M1", "R2"), memberLeft))).hasSize(2);
+        assertThat(target.removeDuplicates("BOT1", asList(message("M1", "R3"), memberLeft))).isEmpty();
+
+        // Do
+        target.forget("BOT2", memberLeft);
+
+        // Verify
+        assertThat(target.isDuplicate("BOT1", memberLeft)).isTrue();
+        assertThat(target.isDuplicate("BOT2", memberLeft)).isFalse();
+    }
+
+    @Test
+    public void expiredKeyIsNotDuplicateTest() {
+        final MutableClock clock = new MutableClock();
+        final EventDeduplicator target = newDeduplicator(clock);
+
+        // Do
+        target.isDuplicate(message("M1", "R1"));
+        clock.instant = NOW.plus(Duration.ofMinutes(10));
+
+        // Verify
+        assertThat(target.isDuplicate(message("M1", "R1"))).isFalse();
+    }
+
+    @Test
+    public void forgetTest() {
+        final EventDeduplicator target = newDeduplicator(Clock.fixed(NOW, ZoneOffset.UTC));
+        target.isDuplicate(message("M1", "R1"));
+
+        // Do
+        target.forget(message("M1", "R1"));
+
+        // Verify
+        assertThat(target.isDuplicate(message("M1", "R1"))).isFalse();
+    }
+
+    private static EventDeduplicator newDeduplicator(Clock clock) {
+        return new EventDeduplicator(new InMemoryEventKeyStore(100, clock), Duration.ofMinutes(10),
+                                     EventDeduplicator::keyOf, clock);
+    }
+
+    private static UserSource user(String userId) {
+        return UserSource.builder().userId(userId).build();
+    }
+
+    private static GroupSource group(String groupId) {
+        return GroupSource.builder().groupId(groupId).build();
+    }
+
+    private static Event message(String messageId, String replyToken) {
+        return MessageEvent.builder()
+                           .replyToken(replyToken)
+                           .source(user("U1"))
+                           .message(TextMessageContent.builder().id(messageId).text("hello").build())
+                           .timestamp(NOW)
+                           .build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant = NOW;
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -17,14 +17,21 @@
 package com.linecorp.bot.parser;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 import org.springframework.util.Base64Utils;
 
 public class LineSignatureValidatorTest {
     private static final String channelSecret = "SECRET";
+    private static final String SIGNATURE = "3q8QXTAGaey18yL8FWTqdVlbMr6hcuNvM4tefa0o9nA=";
 
     @Test
     public void validateSignature() throws Exception {
@@ -55,4 +62,102 @@ public class LineSignatureValidatorTest {
                 .isEqualTo("3q8QXTAGaey18yL8FWTqdVlbMr6hcuNvM4tefa0o9nA=");
     }
 
+    @Test
+    public void validateSignatureMalformedHeader() throws Exception {
+        LineSignatureValidator lineSignatureValidator = new LineSignatureValidator(
+                channelSecret.getBytes(StandardCharsets.UTF_8));
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(lineSignatureValidator.validateSignature(body, SIGNATURE.replace('3', '4')))
+                .isFalse();
+        assertThatThrownBy(() -> lineSignatureValidator.validateSignature(body, "3q8QXTAGaey18yL8!"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Mac is reusable after failure.
+        assertThat(lineSignatureValidator.validateSignature(body, SIGNATURE)).isTrue();
+    }
+
+    @Test
+    public void validateSignatureByteBuffer() throws Exception {
+        LineSignatureValidator lineSignatureValidator = new LineSignatureValidator(
+                channelSecret.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer body = ByteBuffer.wrap("xx{}".getBytes(StandardCharsets.UTF_8));
+        body.position(2);
+
+        assertThat(lineSignatureValidator.validateSignature(body, SIGNATURE)).isTrue();
+        assertThat(body.position()).isEqualTo(2);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(2);
+        direct.put("{}".getBytes(StandardCharsets.UTF_8)).flip();
+        assertThat(lineSignatureValidator.validateSignature(direct, SIGNATURE)).isTrue();
+    }
+
+    @Test
+    public void validateSignatureInputStream() throws Exception {
+        LineSignatureValidator lineSignatureValidator = new LineSignatureValidator(
+                channelSecret.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(lineSignatureValidator.validateSignature(
+                new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)), SIGNATURE)).isTrue();
+        assertThat(lineSignatureValidator.validateSignature(
+                new ByteArrayInputStream("{ }".getBytes(StandardCharsets.UTF_8)), SIGNATURE)).isFalse();
+    }
+
+    @Test
+    public void validateSignatureConcurrently() throws Exception {
+        LineSignatureValidator lineSignatureValidator = new LineSignatureValidator(
+                channelSecret.getBytes(StandardCharsets.UTF_8));
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        assertThat(lineSignatureValidator.validateSignature(body, SIGNATURE)).isTrue();
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(futures).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void validateSignatureOfManyChannels() throws Exception {
+        LineSignatureValidator lineSignatureValidator = new LineSignatureValidator(
+                channelSecret.getBytes(StandardCharsets.UTF_8));
+        LineSignatureValidator otherValidator = new LineSignatureValidator(
+                "OTHER".getBytes(StandardCharsets.UTF_8));
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        String otherSignature = Base64Utils.encodeToString(otherValidator.generateSignature(body));
+
+        SigningInputStream stream = lineSignatureValidator.signing(new ByteArrayInputStream(body));
+        for (int i = 0; i < 3; i++) {
+            assertThat(otherValidator.validateSignature(body, otherSignature)).isTrue();
+            assertThat(otherValidator.validateSignature(body, SIGNATURE)).isFalse();
+            assertThat(lineSignatureValidator.validateSignature(body, SIGNATURE)).isTrue();
+        }
+
+        // A stream keeps its Mac while the thread uses other channels.
+        assertThat(stream.read()).isEqualTo('{');
+        assertThat(otherValidator.validateSignature(body, otherSignature)).isTrue();
+        assertThat(stream.validateSignature(SIGNATURE)).isTrue();
+    }
+
+    @Test
+    public void validateSignatureNestedInStream() throws Exception {
+        LineSignatureValidator lineSignatureValidator = new LineSignatureValidator(
+                channelSecret.getBytes(StandardCharsets.UTF_8));
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+
+        SigningInputStream stream = lineSignatureValidator.signing(new ByteArrayInputStream(body));
+        assertThat(stream.read()).isEqualTo('{');
+
+        // The same validator on the same thread doesn't reset the Mac of the stream.
+        assertThat(lineSignatureValidator.validateSignature(body, SIGNATURE)).isTrue();
+        assertThat(stream.validateSignature(SIGNATURE)).isTrue();
+        assertThat(lineSignatureValidator.validateSignature(body, SIGNATURE)).isTrue();
+    }
 }
@@ -16,13 +16,19 @@
 
 package com.linecorp.bot.parser;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 
 import org.junit.Before;
@@ -36,6 +42,7 @@ import com.google.common.io.ByteStreams;
 
 import com.linecorp.bot.model.event.CallbackRequest;
 import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.FollowEvent;
 import com.linecorp.bot.model.event.MessageEvent;
 import com.linecorp.bot.model.event.message.TextMessageContent;
 
@@ -110,4 +117,119 @@ public class WebhookParserTest {
         assertThat(messageEvent.getTimestamp()).isEqualTo(
                 Instant.parse("2016-05-07T13:57:59.859Z"));
     }
+
+    @Test
+    public void testCallRequestStreamFallback() throws Exception {
+        final byte[] payload = ByteStreams.toByteArray(
+                getClass().getClassLoader().getResourceAsStream("callback-request.json"));
+
+        when(signatureValidator.validateSignature(payload, "SSSSIGNATURE")).thenReturn(true);
+
+        final CallbackRequest callbackRequest =
+                parser.handle("SSSSIGNATURE", new ByteArrayInputStream(payload));
+
+        assertThat(callbackRequest.getEvents()).hasSize(2);
+    }
+
+    @Test
+    public void testCallRequestStream() throws Exception {
+        final LineSignatureValidator validator =
+                new LineSignatureValidator("SECRET".getBytes(StandardCharsets.UTF_8));
+        final WebhookParser target = new WebhookParser(validator);
+        // Trailing bytes after the JSON document are signed too.
+        final byte[] payload = (new String(ByteStreams.toByteArray(
+                getClass().getClassLoader().getResourceAsStream("callback-request.json")),
+                                           StandardCharsets.UTF_8) + "\n\n").getBytes(StandardCharsets.UTF_8);
+        final String signature = Base64.getEncoder().encodeToString(validator.generateSignature(payload));
+
+        final CallbackRequest callbackRequest = target.handle(signature, new ByteArrayInputStream(payload));
+        final CallbackRequest fromChannel = target.handle(
+                signature, Channels.newChannel(new ByteArrayInputStream(payload)));
+
+        assertThat(callbackRequest.getEvents()).hasSize(2);
+        assertThat(fromChannel).isEqualTo(callbackRequest);
+        assertThatThrownBy(() -> target.handle(signature, new ByteArrayInputStream(
+                "{\"events\":[]}".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(WebhookParseException.class)
+                .hasMessage("Invalid API signature");
+    }
+
+    @Test
+    public void testMalformedRequestStream() {
+        final LineSignatureValidator validator =
+                new LineSignatureValidator("SECRET".getBytes(StandardCharsets.UTF_8));
+        final WebhookParser target = new WebhookParser(validator);
+        final byte[] payload = "{\"events\":".getBytes(StandardCharsets.UTF_8);
+        final String signature = Base64.getEncoder().encodeToString(validator.generateSignature(payload));
+
+        assertThatThrownBy(() -> target.handle(signature, new ByteArrayInputStream(payload)))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> target.handle("3q8QXTAGaey18yL8FWTqdVlbMr6hcuNvM4tefa0o9nA=",
+                                               new ByteArrayInputStream(payload)))
+                .isInstanceOf(WebhookParseException.class)
+                .hasMessage("Invalid API signature");
+    }
+
+    @Test
+    public void testEventTypeFilter() throws Exception {
+        final LineSignatureValidator validator =
+                new LineSignatureValidator("SECRET".getBytes(StandardCharsets.UTF_8));
+        final byte[] payload = ByteStreams.toByteArray(
+                getClass().getClassLoader().getResourceAsStream("callback-request.json"));
+        final String signature = Base64.getEncoder().encodeToString(validator.generateSignature(payload));
+
+        // Do
+        final CallbackRequest follows =
+                new WebhookParser(validator, EventTypeFilter.of(singletonList(FollowEvent.class), emptyList()))
+                        .handle(signature, new ByteArrayInputStream(payload));
+        final CallbackRequest texts =
+                new WebhookParser(validator, EventTypeFilter.of(emptyList(),
+                                                                singletonList(TextMessageContent.class)))
+                        .handle(signature, payload);
+
+        // Verify
+        assertThat(follows.getDestination()).isEqualTo("U00000000000000000000000000000000");
+        assertThat(follows.getEvents()).hasSize(1).allMatch(FollowEvent.class::isInstance);
+        assertThat(texts.getEvents()).hasSize(1).allMatch(MessageEvent.class::isInstance);
+    }
+
+    @Test
+    public void testEventTypeFilterByMessageType() throws Exception {
+        final WebhookParser target = new WebhookParser(
+                signatureValidator, EventTypeFilter.of(emptyList(), singletonList(TextMessageContent.class)));
+        // Type is not always the first field.
+        final byte[] payload = ("{\"events\":["
+                                + "{\"message\":{\"type\":\"image\",\"id\":\"1\"},\"type\":\"message\"},"
+                                + "{\"message\":{\"id\":\"2\",\"type\":\"text\"},\"type\":\"message\"},"
+                                + "{\"type\":\"things\",\"things\":{\"result\":{\"actionResults\":[]}}},"
+                                + "{\"type\":\"unknown\"}]}").getBytes(StandardCharsets.UTF_8);
+        when(signatureValidator.validateSignature(payload, "SSSSIGNATURE")).thenReturn(true);
+
+        // Do
+        final List<Event> events = parser.handle("SSSSIGNATURE", payload).getEvents();
+        final List<Event> filtered = target.handle("SSSSIGNATURE", payload).getEvents();
+
+        // Verify
+        assertThat(events).hasSize(4);
+        assertThat(filtered).hasSize(1);
+        assertThat(((MessageEvent<?>) filtered.get(0)).getMessage().getId()).isEqualTo("2");
+    }
+
+    @Test
+    public void testCallRequestStreamWithOverriddenValidator() throws Exception {
+        final byte[] payload = ByteStreams.toByteArray(
+                getClass().getClassLoader().getResourceAsStream("callback-request.json"));
+        final WebhookParser target = new WebhookParser(
+                new LineSignatureValidator("SECRET".getBytes(StandardCharsets.UTF_8)) {
+                    @Override
+                    public boolean validateSignature(byte[] content, String headerSignature) {
+                        return "SSSSIGNATURE".equals(headerSignature);
+                    }
+                });
+
+        final CallbackRequest callbackRequest =
+                target.handle("SSSSIGNATURE", new ByteArrayInputStream(payload));
+
+        assertThat(callbackRequest.getEvents()).hasSize(2);
+    }
 }
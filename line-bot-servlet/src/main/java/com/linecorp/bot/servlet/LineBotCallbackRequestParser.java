@@ -20,8 +20,6 @@ import java.io.IOException;
 
 import javax.servlet.http.HttpServletRequest;
 
-import com.google.common.io.ByteStreams;
-
 import com.linecorp.bot.model.event.CallbackRequest;
 import com.linecorp.bot.parser.LineSignatureValidator;
 import com.linecorp.bot.parser.WebhookParseException;
@@ -60,9 +58,8 @@ public class LineBotCallbackRequestParser {
     public CallbackRequest handle(HttpServletRequest req) throws LineBotCallbackException, IOException {
         // validate signature
         final String signature = req.getHeader(WebhookParser.SIGNATURE_HEADER_NAME);
-        final byte[] json = ByteStreams.toByteArray(req.getInputStream());
         try {
-            return parser.handle(signature, json);
+            return parser.handle(signature, req.getInputStream());
         } catch (WebhookParseException e) {
             throw new LineBotCallbackException(e.getMessage(), e);
         }
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.doReturn;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 
 import org.junit.Before;
@@ -116,4 +117,19 @@ public class LineBotCallbackRequestParserTest {
         assertThat(followedUserId).isEqualTo("u206d25c2ea6bd87c17655609a1c37cb8");
         assertThat(messageEvent.getTimestamp()).isEqualTo(Instant.parse("2016-05-07T13:57:59.859Z"));
     }
+
+    @Test
+    public void testMalformedContentWithInvalidSignature() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Line-Signature", sign("{}".getBytes(StandardCharsets.UTF_8)));
+        request.setContent("{\"events\":".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> lineBotCallbackRequestParser.handle(request))
+                .isInstanceOf(LineBotCallbackException.class)
+                .hasMessage("Invalid API signature");
+    }
+
+    private String sign(byte[] content) {
+        return Base64.getEncoder().encodeToString(lineSignatureValidator.generateSignature(content));
+    }
 }
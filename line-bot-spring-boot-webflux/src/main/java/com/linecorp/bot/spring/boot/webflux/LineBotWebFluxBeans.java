@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.webflux;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.codec.CodecProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.parser.LineSignatureValidator;
+import com.linecorp.bot.parser.SignatureValidator;
+import com.linecorp.bot.parser.WebhookParser;
+import com.linecorp.bot.spring.boot.LineBotProperties;
+import com.linecorp.bot.spring.boot.support.LineChannelRegistry;
+import com.linecorp.bot.spring.boot.webflux.support.LineBotMessagesArgumentResolver;
+import com.linecorp.bot.spring.boot.webflux.support.ReactiveLineMessageHandlerSupport;
+
+@Component
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class LineBotWebFluxBeans {
+    @Autowired
+    private LineBotProperties lineBotProperties;
+
+    /**
+     * Expose {@link LineSignatureValidator} as {@link Bean}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public LineSignatureValidator lineSignatureValidator() {
+        return new LineSignatureValidator(
+                lineBotProperties.getChannelSecret().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Expose {@link ReactiveWebhookParser} as {@link Bean}.
+     *
+     * <p>The body size is limited by {@code spring.codec.max-in-memory-size} if set.
+     *
+     * <p>If {@link LineChannelRegistry} has channels, webhooks are validated by the channel of their
+     * destination, and by {@link #lineSignatureValidator()} for other destinations.
+     *
+     * <p>If {@code line.bot.handler.skip-unmapped-events} is {@code true}, events without a handler of
+     * {@link ReactiveLineMessageHandlerSupport} are skipped without being bound.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveWebhookParser reactiveWebhookParser(
+            LineSignatureValidator lineSignatureValidator,
+            ObjectProvider<CodecProperties> codecProperties,
+            ObjectProvider<LineChannelRegistry> lineChannelRegistry,
+            ObjectProvider<ReactiveLineMessageHandlerSupport> lineMessageHandlerSupport) {
+        final CodecProperties properties = codecProperties.getIfAvailable();
+        final DataSize maxInMemorySize = properties != null ? properties.getMaxInMemorySize() : null;
+        final LineChannelRegistry registry = lineChannelRegistry.getIfAvailable();
+        final SignatureValidator signatureValidator =
+                registry == null || registry.getChannels().isEmpty()
+                ? lineSignatureValidator : registry.signatureValidator(lineSignatureValidator);
+        final WebhookParser webhookParser;
+        if (!lineBotProperties.getHandler().isSkipUnmappedEvents()) {
+            webhookParser = new WebhookParser(signatureValidator);
+        } else {
+            // Handlers are collected on context refresh, after this bean is created.
+            webhookParser = new WebhookParser(signatureValidator, () -> {
+                final ReactiveLineMessageHandlerSupport support = lineMessageHandlerSupport.getIfAvailable();
+                return support != null ? support.getEventTypeFilter() : null;
+            });
+        }
+        return new ReactiveWebhookParser(
+                webhookParser,
+                maxInMemorySize != null ? (int) maxInMemorySize.toBytes()
+                                        : ReactiveWebhookParser.DEFAULT_MAX_IN_MEMORY_SIZE);
+    }
+
+    /**
+     * Expose {@link ReactiveLineMessagingClient} as {@link Bean}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveLineMessagingClient reactiveLineMessagingClient(
+            LineMessagingClient lineMessagingClient) {
+        return new ReactiveLineMessagingClient(lineMessagingClient);
+    }
+
+    /**
+     * Expose {@link LineBotMessagesArgumentResolver} as {@link Bean}.
+     */
+    @Bean
+    public LineBotMessagesArgumentResolver lineBotMessagesArgumentResolver(
+            ReactiveWebhookParser reactiveWebhookParser) {
+        return new LineBotMessagesArgumentResolver(reactiveWebhookParser);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.webflux;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.model.Broadcast;
+import com.linecorp.bot.model.Multicast;
+import com.linecorp.bot.model.Narrowcast;
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.ReplyMessage;
+import com.linecorp.bot.model.profile.UserProfileResponse;
+import com.linecorp.bot.model.response.BotApiResponse;
+
+import lombok.NonNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactor adapter over {@link LineMessagingClient}.
+ *
+ * <p>Every {@link Mono} is lazy: the request is sent on subscription, and again on each re-subscription,
+ * e.g. by {@link Mono#retry()}. Signals are emitted on HTTP client threads, never on the caller's thread.
+ *
+ * <pre>{@code
+ * reactiveClient.call(client -> client.getBotInfo())
+ *               .map(BotInfoResponse::getDisplayName)
+ *               .subscribe(log::info);
+ * }</pre>
+ */
+public class ReactiveLineMessagingClient {
+    private final LineMessagingClient client;
+
+    public ReactiveLineMessagingClient(@NonNull LineMessagingClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Adapt any {@link LineMessagingClient} method.
+     */
+    public <T> Mono<T> call(final Function<? super LineMessagingClient, CompletableFuture<T>> call) {
+        return Mono.defer(() -> Mono.fromFuture(call.apply(client)));
+    }
+
+    /**
+     * Calls {@link LineMessagingClient#replyMessage(ReplyMessage)}.
+     */
+    public Mono<BotApiResponse> replyMessage(final ReplyMessage replyMessage) {
+        return call(client -> client.replyMessage(replyMessage));
+    }
+
+    /**
+     * Calls {@link LineMessagingClient#pushMessage(PushMessage)}.
+     */
+    public Mono<BotApiResponse> pushMessage(final PushMessage pushMessage) {
+        return call(client -> client.pushMessage(pushMessage));
+    }
+
+    /**
+     * Calls {@link LineMessagingClient#multicast(Multicast)}.
+     */
+    public Mono<BotApiResponse> multicast(final Multicast multicast) {
+        return call(client -> client.multicast(multicast));
+    }
+
+    /**
+     * Calls {@link LineMessagingClient#broadcast(Broadcast)}.
+     */
+    public Mono<BotApiResponse> broadcast(final Broadcast broadcast) {
+        return call(client -> client.broadcast(broadcast));
+    }
+
+    /**
+     * Calls {@link LineMessagingClient#narrowcast(Narrowcast)}.
+     */
+    public Mono<BotApiResponse> narrowcast(final Narrowcast narrowcast) {
+        return call(client -> client.narrowcast(narrowcast));
+    }
+
+    /**
+     * Calls {@link LineMessagingClient#getProfile(String)}.
+     */
+    public Mono<UserProfileResponse> getProfile(final String userId) {
+        return call(client -> client.getProfile(userId));
+    }
+
+    /**
+     * Calls {@link LineMessagingClient#getGroupMemberProfile(String, String)}.
+     */
+    public Mono<UserProfileResponse> getGroupMemberProfile(final String groupId, final String userId) {
+        return call(client -> client.getGroupMemberProfile(groupId, userId));
+    }
+
+    /**
+     * Calls {@link LineMessagingClient#getRoomMemberProfile(String, String)}.
+     */
+    public Mono<UserProfileResponse> getRoomMemberProfile(final String roomId, final String userId) {
+        return call(client -> client.getRoomMemberProfile(roomId, userId));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.webflux;
+
+import java.io.IOException;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import com.linecorp.bot.model.event.CallbackRequest;
+import com.linecorp.bot.parser.LineSignatureValidator;
+import com.linecorp.bot.parser.WebhookParseException;
+import com.linecorp.bot.parser.WebhookParser;
+
+import lombok.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link WebhookParser}.
+ *
+ * <p>The body is collected as it arrives without blocking a thread, then parsed by {@link WebhookParser}
+ * from the collected buffers in place. A body larger than {@code maxInMemorySize} is rejected before it is
+ * fully read.
+ */
+public class ReactiveWebhookParser {
+    /**
+     * Default limit of the body size, the same as the default of Spring WebFlux codecs.
+     */
+    public static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+
+    private final WebhookParser webhookParser;
+    private final int maxInMemorySize;
+
+    /**
+     * Creates a new instance accepting bodies up to {@value #DEFAULT_MAX_IN_MEMORY_SIZE} bytes.
+     *
+     * @param signatureValidator LINE messaging API's signature validator
+     */
+    public ReactiveWebhookParser(@NonNull LineSignatureValidator signatureValidator) {
+        this(signatureValidator, DEFAULT_MAX_IN_MEMORY_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param signatureValidator LINE messaging API's signature validator
+     * @param maxInMemorySize Maximum size of the body in bytes, or {@code -1} for no limit.
+     */
+    public ReactiveWebhookParser(@NonNull LineSignatureValidator signatureValidator, int maxInMemorySize) {
+        this(new WebhookParser(signatureValidator), maxInMemorySize);
+    }
+
+    /**
+     * Creates a new instance parsing bodies by the {@link WebhookParser}, e.g. one validating webhooks by
+     * the channel of their destination or skipping unmapped events.
+     *
+     * @param webhookParser Parser of collected bodies.
+     * @param maxInMemorySize Maximum size of the body in bytes, or {@code -1} for no limit.
+     */
+    public ReactiveWebhookParser(@NonNull WebhookParser webhookParser, int maxInMemorySize) {
+        this.webhookParser = webhookParser;
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    /**
+     * Parses a request.
+     *
+     * @param signature X-Line-Signature header.
+     * @param body Request body.
+     * @return Parsed result. Fails with {@link WebhookParseException} if there's an error around signature,
+     *         or if the body is larger than {@code maxInMemorySize}.
+     */
+    public Mono<CallbackRequest> handle(String signature, Flux<DataBuffer> body) {
+        if (signature == null || signature.isEmpty()) {
+            return Mono.error(new WebhookParseException("Missing 'X-Line-Signature' header"));
+        }
+        return DataBufferUtils.join(body, maxInMemorySize)
+                              .onErrorMap(DataBufferLimitException.class,
+                                          e -> new WebhookParseException("Content too large"))
+                              .flatMap(buffer -> {
+                                  try {
+                                      return Mono.just(
+                                              webhookParser.handle(signature, buffer.asInputStream()));
+                                  } catch (IOException | WebhookParseException e) {
+                                      return Mono.error(e);
+                                  } finally {
+                                      DataBufferUtils.release(buffer);
+                                  }
+                              })
+                              .switchIfEmpty(parseEmpty(signature));
+    }
+
+    private Mono<CallbackRequest> parseEmpty(String signature) {
+        return Mono.fromCallable(() -> webhookParser.handle(signature, new byte[0]))
+                   // The signature is validated before parsing.
+                   .onErrorMap(IOException.class, e -> new WebhookParseException("Invalid content"));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.webflux.support;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.linecorp.bot.parser.WebhookParseException;
+import com.linecorp.bot.parser.WebhookParser;
+import com.linecorp.bot.spring.boot.annotation.LineBotMessages;
+import com.linecorp.bot.spring.boot.support.LineBotServerArgumentProcessor;
+import com.linecorp.bot.spring.boot.webflux.ReactiveWebhookParser;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves {@link LineBotMessages} arguments of WebFlux handler methods from the webhook request.
+ *
+ * <p>Requests with a missing or invalid signature are answered with 400 Bad Request. The destination of the
+ * webhook is exposed as the exchange attribute {@link LineBotServerArgumentProcessor#DESTINATION_ATTRIBUTE}.
+ */
+@Slf4j
+public class LineBotMessagesArgumentResolver implements HandlerMethodArgumentResolver {
+    private final ReactiveWebhookParser webhookParser;
+
+    public LineBotMessagesArgumentResolver(final ReactiveWebhookParser webhookParser) {
+        this.webhookParser = webhookParser;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(LineBotMessages.class);
+    }
+
+    @Override
+    public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext,
+                                        ServerWebExchange exchange) {
+        final ServerHttpRequest request = exchange.getRequest();
+        final String signature = request.getHeaders().getFirst(WebhookParser.SIGNATURE_HEADER_NAME);
+        return webhookParser.handle(signature, request.getBody())
+                            .<Object>map(callbackRequest -> {
+                                if (callbackRequest.getDestination() != null) {
+                                    exchange.getAttributes().put(
+                                            LineBotServerArgumentProcessor.DESTINATION_ATTRIBUTE,
+                                            callbackRequest.getDestination());
+                                }
+                                return callbackRequest.getEvents();
+                            })
+                            .onErrorMap(WebhookParseException.class, e -> {
+                                log.info("LINE Bot callback exception: {}", e.getMessage());
+                                return new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+                            });
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.webflux.support;
+
+import static java.util.Collections.singletonList;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.ReplyMessage;
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.ReplyEvent;
+import com.linecorp.bot.model.message.Message;
+import com.linecorp.bot.parser.EventDeduplicator;
+import com.linecorp.bot.spring.boot.annotation.EventMapping;
+import com.linecorp.bot.spring.boot.annotation.LineBotMessages;
+import com.linecorp.bot.spring.boot.annotation.LineMessageHandler;
+import com.linecorp.bot.spring.boot.support.AbstractLineMessageHandlerSupport;
+import com.linecorp.bot.spring.boot.support.LineBotServerArgumentProcessor;
+import com.linecorp.bot.spring.boot.support.LineChannel;
+import com.linecorp.bot.spring.boot.support.LineChannelRegistry;
+import com.linecorp.bot.spring.boot.webflux.ReactiveLineMessagingClient;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive dispatcher for LINE Message Event Handling.
+ *
+ * <p>Methods annotated with {@link EventMapping} in {@link LineMessageHandler} beans are called on the event
+ * loop, so they must not block. They may return a {@link Message}, a {@link List} of them, or any reactive
+ * type known to {@link ReactiveAdapterRegistry}, e.g. {@link Mono} or {@link Flux} of {@link Message}. The
+ * messages are sent as a reply to the event. Messages beyond the limit of one reply are pushed to the source
+ * of the event after the reply succeeded.
+ *
+ * <p>The webhook is answered as soon as the handlers of all events are called; replies are sent in the
+ * background. Events are dispatched to the handlers of their destination (see
+ * {@link LineMessageHandler#destination()}) and replied by the client of the destination's channel in
+ * {@link LineChannelRegistry}, if registered.
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(name = "line.bot.handler.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveLineMessageHandlerSupport extends AbstractLineMessageHandlerSupport {
+    /**
+     * Max number of messages in one {@link ReplyMessage} or {@link PushMessage}.
+     */
+    private static final int MAX_MESSAGES = 5;
+
+    private final ReactiveLineMessagingClient lineMessagingClient;
+    private final ReactiveAdapterRegistry adapterRegistry = ReactiveAdapterRegistry.getSharedInstance();
+
+    private EventDeduplicator eventDeduplicator;
+
+    private LineChannelRegistry lineChannelRegistry;
+
+    @Autowired
+    public ReactiveLineMessageHandlerSupport(final ReactiveLineMessagingClient lineMessagingClient,
+                                             final ConfigurableApplicationContext applicationContext) {
+        super(applicationContext);
+        this.lineMessagingClient = lineMessagingClient;
+    }
+
+    /**
+     * Drop events seen before, e.g. redelivered webhooks, without dispatching them.
+     */
+    @Autowired(required = false)
+    public void setEventDeduplicator(final EventDeduplicator eventDeduplicator) {
+        this.eventDeduplicator = eventDeduplicator;
+    }
+
+    /**
+     * Reply to events of registered channels by their own clients.
+     */
+    @Autowired(required = false)
+    public void setLineChannelRegistry(final LineChannelRegistry lineChannelRegistry) {
+        this.lineChannelRegistry = lineChannelRegistry;
+    }
+
+    @PostMapping("${line.bot.handler.path:/callback}")
+    public Mono<Void> callback(@LineBotMessages List<Event> events, ServerWebExchange exchange) {
+        // Set by LineBotMessagesArgumentResolver while resolving the events.
+        final String destination = exchange.getAttribute(LineBotServerArgumentProcessor.DESTINATION_ATTRIBUTE);
+        return callback(events, destination);
+    }
+
+    /**
+     * Dispatch events of the destination.
+     *
+     * @param destination User ID of the bot the events are sent to, or {@code null} if unknown.
+     */
+    public Mono<Void> callback(List<Event> events, String destination) {
+        return Mono.fromRunnable(() -> {
+            final List<Event> accepted =
+                    eventDeduplicator != null ? eventDeduplicator.removeDuplicates(destination, events)
+                                              : events;
+            // Don't make LINE wait for replies; each reply completes on its own.
+            accepted.forEach(event -> dispatch(destination, event).subscribe());
+        });
+    }
+
+    /**
+     * Dispatch events of an unknown destination.
+     */
+    public Mono<Void> callback(List<Event> events) {
+        return callback(events, (String) null);
+    }
+
+    @VisibleForTesting
+    Mono<Void> dispatch(Event event) {
+        return dispatch(null, event);
+    }
+
+    /**
+     * Invoke the handler on subscription and reply by its return value.
+     */
+    @VisibleForTesting
+    Mono<Void> dispatch(String destination, Event event) {
+        return Mono.fromCallable(() -> invokeHandler(destination, event))
+                   .flatMap(this::toMessages)
+                   .filter(messages -> !messages.isEmpty())
+                   .flatMap(messages -> reply(clientOf(destination), event, messages))
+                   .doOnError(InvocationTargetException.class,
+                              e -> log.error("InvocationTargetException occurred.", e))
+                   .doOnError(e -> !(e instanceof InvocationTargetException),
+                              e -> log.error(e.getMessage(), e))
+                   .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<List<Message>> toMessages(final Object returnValue) {
+        if (returnValue instanceof Message) {
+            return Mono.just(singletonList((Message) returnValue));
+        }
+        if (returnValue instanceof List) {
+            return Mono.fromCallable(() -> checkListContents((List<?>) returnValue));
+        }
+        final ReactiveAdapter adapter = adapterRegistry.getAdapter(returnValue.getClass());
+        if (adapter == null) {
+            return Mono.empty();
+        }
+        if (adapter.isMultiValue()) {
+            return Flux.from(adapter.toPublisher(returnValue))
+                       .collectList()
+                       .flatMap(this::toMessages);
+        }
+        return Mono.from(adapter.toPublisher(returnValue))
+                   .flatMap(this::toMessages);
+    }
+
+    private ReactiveLineMessagingClient clientOf(final String destination) {
+        final LineChannel channel = lineChannelRegistry != null ? lineChannelRegistry.get(destination) : null;
+        return channel != null ? new ReactiveLineMessagingClient(channel.getLineMessagingClient())
+                               : lineMessagingClient;
+    }
+
+    private static Mono<Void> reply(final ReactiveLineMessagingClient client, final Event event,
+                                    final List<Message> messages) {
+        final ReplyEvent replyEvent = (ReplyEvent) event;
+        final int replied = Math.min(MAX_MESSAGES, messages.size());
+        final List<List<Message>> overflow =
+                Lists.partition(messages.subList(replied, messages.size()), MAX_MESSAGES);
+        return client
+                .replyMessage(new ReplyMessage(replyEvent.getReplyToken(), messages.subList(0, replied)))
+                .doOnNext(response -> log.debug("Reply message success. response = {}", response))
+                .thenMany(Flux.fromIterable(overflow))
+                .concatMap(chunk -> client.pushMessage(
+                        new PushMessage(event.getSource().getSenderId(), chunk)))
+                .doOnNext(response -> log.debug("Push overflowed message success. response = {}", response))
+                .then();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Message> checkListContents(final List<?> list) {
+        for (int i = 0; i < list.size(); ++i) {
+            final Object item = list.get(i);
+            if (!(item instanceof Message)) {
+                throw new IllegalArgumentException(
+                        "List contains not Message type object. index = " + i + ", item = " + item);
+            }
+        }
+        return (List<Message>) list;
+    }
+}
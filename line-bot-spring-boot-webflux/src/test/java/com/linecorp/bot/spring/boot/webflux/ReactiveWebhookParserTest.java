@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.webflux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.junit.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.google.common.io.ByteStreams;
+
+import com.linecorp.bot.model.event.CallbackRequest;
+import com.linecorp.bot.parser.LineSignatureValidator;
+import com.linecorp.bot.parser.WebhookParseException;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class ReactiveWebhookParserTest {
+    private final LineSignatureValidator signatureValidator =
+            new LineSignatureValidator("SECRET".getBytes(StandardCharsets.US_ASCII));
+    private final ReactiveWebhookParser target = new ReactiveWebhookParser(signatureValidator);
+    private final DefaultDataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
+
+    @Test
+    public void missingHeaderTest() {
+        // Do
+        StepVerifier.create(target.handle(null, toBody("{}".getBytes(StandardCharsets.UTF_8))))
+                    // Verify
+                    .expectErrorSatisfies(e -> assertThat(e)
+                            .isInstanceOf(WebhookParseException.class)
+                            .hasMessage("Missing 'X-Line-Signature' header"))
+                    .verify();
+    }
+
+    @Test
+    public void invalidSignatureTest() {
+        // Do
+        StepVerifier.create(target.handle("SSSSIGNATURE", toBody("{}".getBytes(StandardCharsets.UTF_8))))
+                    // Verify
+                    .expectErrorSatisfies(e -> assertThat(e)
+                            .isInstanceOf(WebhookParseException.class)
+                            .hasMessage("Invalid API signature"))
+                    .verify();
+    }
+
+    @Test
+    public void emptyBodyTest() {
+        final String signature = sign(new byte[0]);
+
+        // Do
+        StepVerifier.create(target.handle(signature, Flux.empty()))
+                    // Verify
+                    .expectErrorSatisfies(e -> assertThat(e)
+                            .isInstanceOf(WebhookParseException.class)
+                            .hasMessage("Invalid content"))
+                    .verify();
+    }
+
+    @Test
+    public void callbackRequestTest() throws Exception {
+        final byte[] json;
+        try (InputStream resource = getClass().getClassLoader().getResourceAsStream("callback-request.json")) {
+            json = ByteStreams.toByteArray(resource);
+        }
+
+        // Do
+        StepVerifier.create(target.handle(sign(json), toBody(json)))
+                    // Verify
+                    .assertNext(callbackRequest -> assertThat(callbackRequest)
+                            .extracting(CallbackRequest::getEvents)
+                            .asList()
+                            .hasSize(2))
+                    .verifyComplete();
+    }
+
+    @Test
+    public void contentTooLargeTest() {
+        final ReactiveWebhookParser target = new ReactiveWebhookParser(signatureValidator, 8);
+        final byte[] json = "{\"events\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        // Do
+        StepVerifier.create(target.handle(sign(json), toBody(json)))
+                    // Verify
+                    .expectErrorSatisfies(e -> assertThat(e)
+                            .isInstanceOf(WebhookParseException.class)
+                            .hasMessage("Content too large"))
+                    .verify();
+    }
+
+    private String sign(byte[] content) {
+        return Base64.getEncoder().encodeToString(signatureValidator.generateSignature(content));
+    }
+
+    /**
+     * Splits content into two buffers as the body of a request may arrive in chunks.
+     */
+    private Flux<DataBuffer> toBody(byte[] content) {
+        final int half = content.length / 2;
+        return Flux.just(Arrays.copyOfRange(content, 0, half),
+                         Arrays.copyOfRange(content, half, content.length))
+                   .map(dataBufferFactory::wrap);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.webflux.support;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.model.PushMessage;
+import com.linecorp.bot.model.ReplyMessage;
+import com.linecorp.bot.model.event.MessageEvent;
+import com.linecorp.bot.model.event.UnfollowEvent;
+import com.linecorp.bot.model.event.message.TextMessageContent;
+import com.linecorp.bot.model.event.source.UserSource;
+import com.linecorp.bot.model.message.TextMessage;
+import com.linecorp.bot.model.response.BotApiResponse;
+import com.linecorp.bot.parser.LineSignatureValidator;
+import com.linecorp.bot.spring.boot.annotation.EventMapping;
+import com.linecorp.bot.spring.boot.annotation.LineMessageHandler;
+import com.linecorp.bot.spring.boot.support.LineChannel;
+import com.linecorp.bot.spring.boot.support.LineChannelRegistry;
+import com.linecorp.bot.spring.boot.webflux.ReactiveLineMessagingClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class ReactiveLineMessageHandlerSupportTest {
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private ConfigurableApplicationContext applicationContext;
+
+    @Mock
+    private LineMessagingClient lineMessagingClient;
+
+    private ReactiveLineMessageHandlerSupport target;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        when(applicationContext.getBeansWithAnnotation(LineMessageHandler.class))
+                .thenReturn(singletonMap("bean", new ReactiveHandler()));
+        when(lineMessagingClient.replyMessage(any()))
+                .thenReturn(completedFuture(new BotApiResponse("requestId", "ok", null)));
+
+        target = new ReactiveLineMessageHandlerSupport(
+                new ReactiveLineMessagingClient(lineMessagingClient), applicationContext);
+        final ArgumentCaptor<ApplicationListener<ApplicationEvent>> listener =
+                ArgumentCaptor.forClass(ApplicationListener.class);
+        verify(applicationContext).addApplicationListener(listener.capture());
+        listener.getValue().onApplicationEvent(new ContextRefreshedEvent(applicationContext));
+    }
+
+    @Test
+    public void replyByMonoTest() {
+        // Do
+        StepVerifier.create(target.callback(singletonList(createTextMessage("mono"))))
+                    .verifyComplete();
+
+        // Verify
+        verify(lineMessagingClient).replyMessage(
+                new ReplyMessage("replyToken", singletonList(new TextMessage("mono"))));
+    }
+
+    @Test
+    public void replyByFluxTest() {
+        // Do
+        StepVerifier.create(target.callback(singletonList(createTextMessage("flux"))))
+                    .verifyComplete();
+
+        // Verify
+        verify(lineMessagingClient).replyMessage(
+                new ReplyMessage("replyToken", Arrays.asList(new TextMessage("1"), new TextMessage("2"))));
+    }
+
+    @Test
+    public void overflowToPushTest() {
+        when(lineMessagingClient.pushMessage(any()))
+                .thenReturn(completedFuture(new BotApiResponse("requestId", "ok", null)));
+
+        // Do
+        StepVerifier.create(target.callback(singletonList(createTextMessage("overflow"))))
+                    .verifyComplete();
+
+        // Verify
+        verify(lineMessagingClient).replyMessage(
+                new ReplyMessage("replyToken", Collections.nCopies(5, new TextMessage("overflow"))));
+        verify(lineMessagingClient).pushMessage(
+                new PushMessage("userId", Collections.nCopies(2, new TextMessage("overflow"))));
+    }
+
+    @Test
+    public void handlerErrorDoesNotFailCallbackTest() {
+        final UnfollowEvent unfollowEvent =
+                UnfollowEvent.builder().source(UserSource.builder().userId("userId").build()).build();
+
+        // Do
+        StepVerifier.create(target.callback(Arrays.asList(unfollowEvent, createTextMessage("mono"))))
+                    .verifyComplete();
+
+        // Verify
+        verify(lineMessagingClient).replyMessage(
+                new ReplyMessage("replyToken", singletonList(new TextMessage("mono"))));
+    }
+
+    @Test
+    public void noReplyForEmptyTest() {
+        // Do
+        StepVerifier.create(target.callback(singletonList(createTextMessage("empty"))))
+                    .verifyComplete();
+
+        // Verify
+        verify(lineMessagingClient, never()).replyMessage(any());
+    }
+
+    @Test
+    public void respondBeforeReplyCompletesTest() {
+        final CompletableFuture<BotApiResponse> reply = new CompletableFuture<>();
+        when(lineMessagingClient.replyMessage(any())).thenReturn(reply);
+
+        // Do
+        StepVerifier.create(target.callback(singletonList(createTextMessage("mono"))))
+                    .verifyComplete();
+
+        // Verify
+        verify(lineMessagingClient).replyMessage(
+                new ReplyMessage("replyToken", singletonList(new TextMessage("mono"))));
+        assertThat(reply).isNotDone();
+    }
+
+    @Test
+    public void replyByClientOfDestinationTest() {
+        final LineMessagingClient channelClient = mock(LineMessagingClient.class);
+        when(channelClient.replyMessage(any()))
+                .thenReturn(completedFuture(new BotApiResponse("requestId", "ok", null)));
+        final LineChannelRegistry registry = mock(LineChannelRegistry.class);
+        when(registry.get("destination"))
+                .thenReturn(new LineChannel("destination", mock(LineSignatureValidator.class), channelClient));
+        target.setLineChannelRegistry(registry);
+
+        // Do
+        StepVerifier.create(target.callback(singletonList(createTextMessage("mono")), "destination"))
+                    .verifyComplete();
+
+        // Verify
+        verify(channelClient).replyMessage(
+                new ReplyMessage("replyToken", singletonList(new TextMessage("mono"))));
+        verify(lineMessagingClient, never()).replyMessage(any());
+    }
+
+    private static MessageEvent<TextMessageContent> createTextMessage(final String text) {
+        return MessageEvent.<TextMessageContent>builder()
+                .replyToken("replyToken")
+                .source(UserSource.builder()
+                                  .userId("userId")
+                                  .build())
+                .message(TextMessageContent.builder()
+                                           .id("id")
+                                           .text(text)
+                                           .build())
+                .timestamp(Instant.parse("2016-11-19T00:00:00.000Z"))
+                .build();
+    }
+
+    @LineMessageHandler
+    static class ReactiveHandler {
+        @EventMapping
+        public Object handleText(MessageEvent<TextMessageContent> event) {
+            switch (event.getMessage().getText()) {
+                case "mono":
+                    return Mono.just(new TextMessage("mono"));
+                case "flux":
+                    return Flux.just(new TextMessage("1"), new TextMessage("2"));
+                case "overflow":
+                    return Flux.range(0, 7).map(i -> new TextMessage("overflow"));
+                default:
+                    return Mono.empty();
+            }
+        }
+
+        @EventMapping
+        public Mono<TextMessage> handleUnfollow(UnfollowEvent event) {
+            return Mono.error(new IllegalStateException("unfollow"));
+        }
+    }
+}
@@ -16,20 +16,40 @@
 
 package com.linecorp.bot.spring.boot;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 
+import com.linecorp.bot.client.CachingLineMessagingClient;
 import com.linecorp.bot.client.ChannelManagementSyncClient;
 import com.linecorp.bot.client.ChannelTokenSupplier;
+import com.linecorp.bot.client.EndpointRateLimiter;
 import com.linecorp.bot.client.FixedChannelTokenSupplier;
 import com.linecorp.bot.client.LineBlobClient;
+import com.linecorp.bot.client.LineChannelClientFactory;
 import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.client.LineTransport;
 import com.linecorp.bot.client.ManageAudienceBlobClient;
 import com.linecorp.bot.client.ManageAudienceClient;
+import com.linecorp.bot.parser.EventDeduplicator;
+import com.linecorp.bot.parser.EventKeyStore;
+import com.linecorp.bot.parser.InMemoryEventKeyStore;
+import com.linecorp.bot.spring.boot.support.EventDispatchExecutor;
+import com.linecorp.bot.spring.boot.support.LineChannelRegistry;
 import com.linecorp.bot.spring.boot.support.LineMessageHandlerSupport;
 
 /**
@@ -57,21 +77,88 @@ public class LineBotAutoConfiguration {
         return FixedChannelTokenSupplier.of(channelToken);
     }
 
+    /**
+     * Expose {@link LineTransport} as {@link Bean}, shared by all clients defined here.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public LineTransport lineTransport() {
+        final LineBotProperties.Transport transport = lineBotProperties.getTransport();
+        return LineTransport
+                .builder()
+                .maxIdleConnections(transport.getMaxIdleConnections())
+                .keepAliveDuration(transport.getKeepAliveDuration())
+                .maxRequests(transport.getMaxRequests())
+                .maxRequestsPerHost(transport.getMaxRequestsPerHost())
+                .build();
+    }
+
     /**
      * Expose {@link LineMessagingClient} as {@link Bean}.
+     *
+     * <p>Calls are governed by {@link EndpointRateLimiter} if it's defined as {@link Bean}. Profiles are cached
+     * by {@link CachingLineMessagingClient} if {@code line.bot.profile-cache.enabled} is {@code true}.
      */
     @Bean
     @ConditionalOnMissingBean
     public LineMessagingClient lineMessagingClient(
-            final ChannelTokenSupplier channelTokenSupplier) {
-        return LineMessagingClient
+            final ChannelTokenSupplier channelTokenSupplier,
+            final LineTransport lineTransport,
+            final ObjectProvider<EndpointRateLimiter> rateLimiter) {
+        final LineMessagingClient client = LineMessagingClient
                 .builder(channelTokenSupplier)
                 .apiEndPoint(lineBotProperties.getApiEndPoint())
                 .blobEndPoint(lineBotProperties.getBlobEndPoint())
                 .connectTimeout(lineBotProperties.getConnectTimeout())
                 .readTimeout(lineBotProperties.getReadTimeout())
                 .writeTimeout(lineBotProperties.getWriteTimeout())
+                .wireLogLevel(lineBotProperties.getWireLogLevel())
+                .wireLogMaxBodyBytes(lineBotProperties.getWireLogMaxBodyBytes())
+                .transport(lineTransport)
+                .rateLimiter(rateLimiter.getIfAvailable())
                 .build();
+
+        final LineBotProperties.ProfileCache profileCache = lineBotProperties.getProfileCache();
+        if (!profileCache.isEnabled()) {
+            return client;
+        }
+        return CachingLineMessagingClient.builder(client)
+                                         .maximumSize(profileCache.getMaximumSize())
+                                         .ttl(Duration.ofMillis(profileCache.getTtl()))
+                                         .build();
+    }
+
+    /**
+     * Expose {@link LineChannelRegistry} as {@link Bean} with the channels of {@code line.bot.channels},
+     * if any.
+     *
+     * <p>All channels share one {@link LineChannelClientFactory} on {@link LineTransport}. Their clients are
+     * not governed by {@link EndpointRateLimiter}, since rate limits apply per channel; to limit them, define
+     * {@link LineChannelRegistry} as {@link Bean} and register channels by
+     * {@link LineChannelRegistry#register(String, String, ChannelTokenSupplier, EndpointRateLimiter)}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @Conditional(ChannelsConfiguredCondition.class)
+    public LineChannelRegistry lineChannelRegistry(final LineTransport lineTransport) {
+        final LineChannelClientFactory clientFactory =
+                LineChannelClientFactory
+                        .builder()
+                        .apiEndPoint(lineBotProperties.getApiEndPoint())
+                        .blobEndPoint(lineBotProperties.getBlobEndPoint())
+                        .connectTimeout(lineBotProperties.getConnectTimeout())
+                        .readTimeout(lineBotProperties.getReadTimeout())
+                        .writeTimeout(lineBotProperties.getWriteTimeout())
+                        .wireLogLevel(lineBotProperties.getWireLogLevel())
+                        .wireLogMaxBodyBytes(lineBotProperties.getWireLogMaxBodyBytes())
+                        .transport(lineTransport)
+                        .buildChannelClientFactory();
+        final LineChannelRegistry registry = new LineChannelRegistry(clientFactory);
+        for (LineBotProperties.Channel channel : lineBotProperties.getChannels()) {
+            registry.register(channel.getDestination(), channel.getChannelSecret(),
+                              FixedChannelTokenSupplier.of(channel.getChannelToken()));
+        }
+        return registry;
     }
 
     /**
@@ -80,13 +167,17 @@ public class LineBotAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public LineBlobClient lineBlobClient(
-            final ChannelTokenSupplier channelTokenSupplier) {
+            final ChannelTokenSupplier channelTokenSupplier,
+            final LineTransport lineTransport) {
         return LineBlobClient
                 .builder(channelTokenSupplier)
                 .apiEndPoint(lineBotProperties.getBlobEndPoint())
                 .connectTimeout(lineBotProperties.getConnectTimeout())
                 .readTimeout(lineBotProperties.getReadTimeout())
                 .writeTimeout(lineBotProperties.getWriteTimeout())
+                .wireLogLevel(lineBotProperties.getWireLogLevel())
+                .wireLogMaxBodyBytes(lineBotProperties.getWireLogMaxBodyBytes())
+                .transport(lineTransport)
                 .build();
     }
 
@@ -96,8 +187,12 @@ public class LineBotAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public ChannelManagementSyncClient channelManagementClient(
-            final ChannelTokenSupplier channelTokenSupplier) {
+            final ChannelTokenSupplier channelTokenSupplier,
+            final LineTransport lineTransport) {
         return ChannelManagementSyncClient.builder(channelTokenSupplier)
+                                          .wireLogLevel(lineBotProperties.getWireLogLevel())
+                                          .wireLogMaxBodyBytes(lineBotProperties.getWireLogMaxBodyBytes())
+                                          .transport(lineTransport)
                                           .build();
     }
 
@@ -107,7 +202,8 @@ public class LineBotAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public ManageAudienceBlobClient manageAudienceBlobClient(
-            final ChannelTokenSupplier channelTokenSupplier) {
+            final ChannelTokenSupplier channelTokenSupplier,
+            final LineTransport lineTransport) {
         return ManageAudienceBlobClient
                 .builder()
                 .channelTokenSupplier(channelTokenSupplier)
@@ -115,6 +211,9 @@ public class LineBotAutoConfiguration {
                 .connectTimeout(lineBotProperties.getConnectTimeout())
                 .readTimeout(lineBotProperties.getReadTimeout())
                 .writeTimeout(lineBotProperties.getWriteTimeout())
+                .wireLogLevel(lineBotProperties.getWireLogLevel())
+                .wireLogMaxBodyBytes(lineBotProperties.getWireLogMaxBodyBytes())
+                .transport(lineTransport)
                 .build();
     }
 
@@ -124,7 +223,8 @@ public class LineBotAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     public ManageAudienceClient manageAudienceClient(
-            final ChannelTokenSupplier channelTokenSupplier) {
+            final ChannelTokenSupplier channelTokenSupplier,
+            final LineTransport lineTransport) {
         return ManageAudienceClient
                 .builder()
                 .channelTokenSupplier(channelTokenSupplier)
@@ -132,6 +232,58 @@ public class LineBotAutoConfiguration {
                 .connectTimeout(lineBotProperties.getConnectTimeout())
                 .readTimeout(lineBotProperties.getReadTimeout())
                 .writeTimeout(lineBotProperties.getWriteTimeout())
+                .wireLogLevel(lineBotProperties.getWireLogLevel())
+                .wireLogMaxBodyBytes(lineBotProperties.getWireLogMaxBodyBytes())
+                .transport(lineTransport)
                 .build();
     }
+
+    /**
+     * Expose {@link EventDispatchExecutor} as {@link Bean}
+     * when {@code line.bot.handler.dispatch-mode} is {@code async}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "line.bot.handler.dispatch-mode", havingValue = "async")
+    public EventDispatchExecutor eventDispatchExecutor() {
+        final LineBotProperties.Async async = lineBotProperties.getHandler().getAsync();
+        return new EventDispatchExecutor(
+                EventDispatchExecutor.newExecutorService(async.getThreads(), async.isVirtualThreads()),
+                async.getMaxPendingEvents(),
+                async.getSubmitTimeout(),
+                async.isOrderedBySource());
+    }
+
+    /**
+     * Expose {@link EventDeduplicator} as {@link Bean}
+     * when {@code line.bot.handler.deduplication.enabled} is {@code true}.
+     *
+     * <p>Keys are kept in {@link EventKeyStore} bean if any, or in {@link InMemoryEventKeyStore}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "line.bot.handler.deduplication.enabled", havingValue = "true")
+    public EventDeduplicator eventDeduplicator(final ObjectProvider<EventKeyStore> eventKeyStore) {
+        final LineBotProperties.Deduplication deduplication = lineBotProperties.getHandler().getDeduplication();
+        return new EventDeduplicator(
+                eventKeyStore.getIfAvailable(() -> new InMemoryEventKeyStore(deduplication.getMaximumSize())),
+                Duration.ofMillis(deduplication.getRetention()));
+    }
+
+    /**
+     * Matches if {@code line.bot.channels} has at least one channel.
+     */
+    static class ChannelsConfiguredCondition extends SpringBootCondition {
+        @Override
+        public ConditionOutcome getMatchOutcome(final ConditionContext context,
+                                                final AnnotatedTypeMetadata metadata) {
+            final boolean configured =
+                    Binder.get(context.getEnvironment())
+                          .bind("line.bot.channels", Bindable.listOf(LineBotProperties.Channel.class))
+                          .map(channels -> !channels.isEmpty())
+                          .orElse(false);
+            return configured ? ConditionOutcome.match("line.bot.channels is configured")
+                              : ConditionOutcome.noMatch("line.bot.channels is empty");
+        }
+    }
 }
@@ -17,6 +17,8 @@
 package com.linecorp.bot.spring.boot;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -24,10 +26,18 @@ import javax.validation.constraints.NotNull;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import com.linecorp.bot.client.CachingLineMessagingClient;
 import com.linecorp.bot.client.LineClientConstants;
+import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.client.LineTransport;
+import com.linecorp.bot.client.WireLogLevel;
+import com.linecorp.bot.parser.EventDeduplicator;
+import com.linecorp.bot.parser.InMemoryEventKeyStore;
 import com.linecorp.bot.spring.boot.BotPropertiesValidator.ValidBotProperties;
 import com.linecorp.bot.spring.boot.annotation.EventMapping;
 import com.linecorp.bot.spring.boot.annotation.LineMessageHandler;
+import com.linecorp.bot.spring.boot.support.EventDispatchExecutor;
+import com.linecorp.bot.spring.boot.support.LineChannelRegistry;
 
 import lombok.Data;
 
@@ -74,11 +84,37 @@ public class LineBotProperties {
      */
     private @Valid @NotNull long writeTimeout = LineClientConstants.DEFAULT_WRITE_TIMEOUT_MILLIS;
 
+    /**
+     * Level of wire logging to the {@code com.linecorp.bot.client.wire} logger.
+     */
+    private @Valid @NotNull WireLogLevel wireLogLevel = WireLogLevel.BODY;
+
+    /**
+     * Maximum size of a request or response body written to the wire log in bytes.
+     */
+    private @Valid @NotNull long wireLogMaxBodyBytes = LineClientConstants.DEFAULT_WIRE_LOG_MAX_BODY_BYTES;
+
     /**
      * Configuration for {@link LineMessageHandler} and {@link EventMapping}.
      */
     private @Valid @NotNull Handler handler = new Handler();
 
+    /**
+     * Configuration for {@link LineTransport} shared by all clients.
+     */
+    private @Valid @NotNull Transport transport = new Transport();
+
+    /**
+     * Configuration for {@link CachingLineMessagingClient}.
+     */
+    private @Valid @NotNull ProfileCache profileCache = new ProfileCache();
+
+    /**
+     * Additional channels served by this application, registered to {@link LineChannelRegistry}.
+     * Their clients are not rate limited.
+     */
+    private @Valid @NotNull List<Channel> channels = new ArrayList<>();
+
     @Data
     public static class Handler {
         /**
@@ -93,6 +129,159 @@ public class LineBotProperties {
          */
         @NotNull
         URI path = URI.create("/callback");
+
+        /**
+         * How events are dispatched to {@link EventMapping} methods.
+         *
+         * <p>Default: {@link DispatchMode#SYNC}
+         */
+        @NotNull
+        DispatchMode dispatchMode = DispatchMode.SYNC;
+
+        /**
+         * Configuration for {@link DispatchMode#ASYNC}.
+         */
+        @Valid
+        @NotNull
+        Async async = new Async();
+
+        /**
+         * Configuration to drop redelivered events before dispatch.
+         */
+        @Valid
+        @NotNull
+        Deduplication deduplication = new Deduplication();
+
+        /**
+         * Skip binding events which no {@link EventMapping} method handles. Such events are not dispatched.
+         *
+         * <p>Default: {@code false}
+         */
+        boolean skipUnmappedEvents;
+    }
+
+    public enum DispatchMode {
+        /**
+         * Run handlers on the request thread, then respond to the webhook.
+         */
+        SYNC,
+
+        /**
+         * Respond to the webhook right away and run handlers on {@link EventDispatchExecutor}.
+         */
+        ASYNC,
+    }
+
+    @Data
+    public static class Async {
+        /**
+         * Number of dispatcher threads.
+         */
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+
+        /**
+         * Use a virtual thread per event instead of {@link #threads} on Java 21 or later.
+         */
+        boolean virtualThreads;
+
+        /**
+         * Maximum number of events queued or running.
+         */
+        int maxPendingEvents = 1000;
+
+        /**
+         * Time to wait for room in the queue before responding to the webhook with 503 in milliseconds.
+         */
+        long submitTimeout = 1000;
+
+        /**
+         * Run events of the same user, group or room one by one in arrival order.
+         */
+        boolean orderedBySource = true;
+    }
+
+    @Data
+    public static class Deduplication {
+        /**
+         * Drop events seen before by {@link EventDeduplicator}.
+         *
+         * <p>Default: {@code false}
+         */
+        boolean enabled;
+
+        /**
+         * How long keys of seen events are kept in milliseconds.
+         */
+        long retention = 600_000;
+
+        /**
+         * Maximum number of keys kept by the default {@link InMemoryEventKeyStore}.
+         */
+        int maximumSize = 100_000;
+    }
+
+    @Data
+    public static class Transport {
+        /**
+         * Maximum number of idle connections kept in the pool.
+         */
+        int maxIdleConnections = LineClientConstants.DEFAULT_MAX_IDLE_CONNECTIONS;
+
+        /**
+         * Time to keep an idle connection alive in milliseconds.
+         */
+        long keepAliveDuration = LineClientConstants.DEFAULT_KEEP_ALIVE_DURATION_MILLIS;
+
+        /**
+         * Maximum number of concurrent requests over all hosts.
+         */
+        int maxRequests = LineClientConstants.DEFAULT_MAX_REQUESTS;
+
+        /**
+         * Maximum number of concurrent requests per host.
+         */
+        int maxRequestsPerHost = LineClientConstants.DEFAULT_MAX_REQUESTS_PER_HOST;
+    }
+
+    @Data
+    public static class ProfileCache {
+        /**
+         * Cache profiles of {@link LineMessagingClient} by {@link CachingLineMessagingClient}.
+         *
+         * <p>Default: {@code false}
+         */
+        boolean enabled;
+
+        /**
+         * Maximum number of cached profiles.
+         */
+        int maximumSize = LineClientConstants.DEFAULT_PROFILE_CACHE_MAXIMUM_SIZE;
+
+        /**
+         * How long a profile is cached in milliseconds.
+         */
+        long ttl = LineClientConstants.DEFAULT_PROFILE_CACHE_TTL_MILLIS;
+    }
+
+    @Data
+    public static class Channel {
+        /**
+         * User ID of the bot, given as {@code destination} of webhooks.
+         */
+        @NotNull
+        String destination;
+
+        /**
+         * Channel access token.
+         */
+        @NotNull
+        String channelToken;
+
+        /**
+         * Channel secret.
+         */
+        @NotNull
+        String channelSecret;
     }
 
     public enum ChannelTokenSupplyMode {
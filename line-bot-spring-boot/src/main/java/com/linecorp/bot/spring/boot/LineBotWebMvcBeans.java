@@ -18,19 +18,24 @@ package com.linecorp.bot.spring.boot;
 
 import java.nio.charset.StandardCharsets;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.stereotype.Component;
 
 import com.linecorp.bot.parser.LineSignatureValidator;
+import com.linecorp.bot.parser.SignatureValidator;
 import com.linecorp.bot.parser.WebhookParser;
 import com.linecorp.bot.spring.boot.interceptor.LineBotServerInterceptor;
 import com.linecorp.bot.spring.boot.support.LineBotServerArgumentProcessor;
+import com.linecorp.bot.spring.boot.support.LineChannelRegistry;
+import com.linecorp.bot.spring.boot.support.LineMessageHandlerSupport;
 
 @Component
-@ConditionalOnWebApplication
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @Import({ LineBotServerInterceptor.class, LineBotServerArgumentProcessor.class })
 public class LineBotWebMvcBeans {
     @Autowired
@@ -47,10 +52,29 @@ public class LineBotWebMvcBeans {
 
     /**
      * Expose {@link WebhookParser} as {@link Bean}.
+     *
+     * <p>If {@link LineChannelRegistry} has channels, webhooks are validated by the channel of their
+     * destination, and by {@link #lineSignatureValidator()} for other destinations.
+     *
+     * <p>If {@code line.bot.handler.skip-unmapped-events} is {@code true}, events without a handler of
+     * {@link LineMessageHandlerSupport} are skipped without being bound.
      */
     @Bean
     public WebhookParser lineBotCallbackRequestParser(
-            LineSignatureValidator lineSignatureValidator) {
-        return new WebhookParser(lineSignatureValidator);
+            LineSignatureValidator lineSignatureValidator,
+            ObjectProvider<LineChannelRegistry> lineChannelRegistry,
+            ObjectProvider<LineMessageHandlerSupport> lineMessageHandlerSupport) {
+        final LineChannelRegistry registry = lineChannelRegistry.getIfAvailable();
+        final SignatureValidator signatureValidator =
+                registry == null || registry.getChannels().isEmpty()
+                ? lineSignatureValidator : registry.signatureValidator(lineSignatureValidator);
+        if (!lineBotProperties.getHandler().isSkipUnmappedEvents()) {
+            return new WebhookParser(signatureValidator);
+        }
+        // Handlers are collected on context refresh, after this bean is created.
+        return new WebhookParser(signatureValidator, () -> {
+            final LineMessageHandlerSupport support = lineMessageHandlerSupport.getIfAvailable();
+            return support != null ? support.getEventTypeFilter() : null;
+        });
     }
 }
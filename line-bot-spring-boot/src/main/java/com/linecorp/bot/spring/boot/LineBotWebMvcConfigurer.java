@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
@@ -31,7 +32,7 @@ import com.linecorp.bot.spring.boot.support.LineBotServerArgumentProcessor;
 
 @Configuration
 @Import(LineBotWebMvcBeans.class)
-@ConditionalOnWebApplication
+@ConditionalOnWebApplication(type = Type.SERVLET)
 public class LineBotWebMvcConfigurer implements WebMvcConfigurer {
     @Autowired
     private LineBotServerInterceptor lineBotServerInterceptor;
@@ -32,4 +32,11 @@ import org.springframework.stereotype.Component;
 @Target(ElementType.TYPE)
 @Component
 @Retention(RetentionPolicy.RUNTIME)
-public @interface LineMessageHandler {}
+public @interface LineMessageHandler {
+    /**
+     * Destinations, i.e. user IDs of bots, of which this class handles events. Empty for all destinations.
+     *
+     * @see com.linecorp.bot.spring.boot.support.LineChannelRegistry
+     */
+    String[] destination() default {};
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2016 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.support;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.MessageEvent;
+import com.linecorp.bot.model.event.ReplyEvent;
+import com.linecorp.bot.model.event.message.MessageContent;
+import com.linecorp.bot.parser.EventTypeFilter;
+import com.linecorp.bot.parser.WebhookParser;
+import com.linecorp.bot.spring.boot.annotation.EventMapping;
+import com.linecorp.bot.spring.boot.annotation.LineMessageHandler;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects {@link EventMapping} methods of {@link LineMessageHandler} beans and routes events to them.
+ *
+ * <p>Shared by the servlet {@link LineMessageHandlerSupport} and reactive implementations, which only differ
+ * in how events are received and how return values are replied.
+ */
+@Slf4j
+public abstract class AbstractLineMessageHandlerSupport {
+    private static final Comparator<HandlerMethod> HANDLER_METHOD_PRIORITY_COMPARATOR =
+            Comparator.comparing(HandlerMethod::getPriority).reversed();
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Event.class);
+    private final ConfigurableApplicationContext applicationContext;
+
+    volatile List<HandlerMethod> eventConsumerList;
+
+    private volatile RoutingTable routingTable = new RoutingTable(Collections.emptyList());
+
+    /**
+     * Routing tables per destination, or {@code null} if no handler is restricted to destinations.
+     */
+    private volatile ConcurrentMap<String, RoutingTable> destinationRoutingTables;
+
+    private volatile EventTypeFilter eventTypeFilter;
+
+    protected AbstractLineMessageHandlerSupport(final ConfigurableApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+
+        applicationContext.addApplicationListener(event -> {
+            if (event instanceof ContextRefreshedEvent) {
+                refresh();
+            }
+        });
+    }
+
+    @VisibleForTesting
+    void refresh() {
+        final Map<String, Object> handlerBeanMap =
+                applicationContext.getBeansWithAnnotation(LineMessageHandler.class);
+
+        final List<HandlerMethod> collect = handlerBeanMap
+                .values().stream()
+                .flatMap((Object bean) -> {
+                    final Method[] uniqueDeclaredMethods =
+                            ReflectionUtils.getUniqueDeclaredMethods(bean.getClass());
+
+                    return Arrays.stream(uniqueDeclaredMethods)
+                                 .map(method -> getMethodHandlerMethodFunction(bean, method))
+                                 .filter(Objects::nonNull);
+                })
+                .sorted(HANDLER_METHOD_PRIORITY_COMPARATOR)
+                .collect(Collectors.toList());
+
+        log.info("Registered LINE Messaging API event handler: count = {}", collect.size());
+        collect.forEach(item -> log.info("Mapped \"{}\" onto {}",
+                                         item.getSupportType(), item.getHandler().toGenericString()));
+
+        eventConsumerList = collect;
+        if (collect.stream().allMatch(handlerMethod -> handlerMethod.getDestinations().isEmpty())) {
+            routingTable = new RoutingTable(collect);
+            destinationRoutingTables = null;
+        } else {
+            routingTable = new RoutingTable(handlersOf(collect, null));
+            destinationRoutingTables = new ConcurrentHashMap<>();
+        }
+        eventTypeFilter = createEventTypeFilter(collect);
+    }
+
+    private EventTypeFilter createEventTypeFilter(final List<HandlerMethod> handlers) {
+        final List<Class<?>> events = new ArrayList<>(requiredEventTypes());
+        final List<Class<?>> messages = new ArrayList<>();
+        for (HandlerMethod handlerMethod : handlers) {
+            final EventPredicate predicate = (EventPredicate) handlerMethod.getSupportType();
+            if (predicate.messageContentType != null) {
+                messages.add(predicate.messageContentType);
+            } else {
+                events.add(predicate.supportEvent);
+            }
+        }
+        return EventTypeFilter.of(events, messages);
+    }
+
+    /**
+     * Types of events mapped by {@link EventMapping} methods, for {@link WebhookParser} to skip other events.
+     * Returns {@code null} until handlers are collected.
+     */
+    public EventTypeFilter getEventTypeFilter() {
+        return eventTypeFilter;
+    }
+
+    /**
+     * Types of events needed besides {@link EventMapping} methods, e.g. to update state on them.
+     */
+    protected Collection<Class<?>> requiredEventTypes() {
+        return Collections.emptyList();
+    }
+
+    private static List<HandlerMethod> handlersOf(final List<HandlerMethod> handlers,
+                                                  final String destination) {
+        return handlers.stream()
+                       .filter(handlerMethod -> handlerMethod.getDestinations().isEmpty()
+                                                || handlerMethod.getDestinations().contains(destination))
+                       .collect(Collectors.toList());
+    }
+
+    private HandlerMethod getMethodHandlerMethodFunction(Object consumer, Method method) {
+        final EventMapping mapping = AnnotatedElementUtils.getMergedAnnotation(method, EventMapping.class);
+        if (mapping == null) {
+            return null;
+        }
+
+        Preconditions.checkState(method.getParameterCount() == 1,
+                                 "Number of parameter should be 1. But {}",
+                                 (Object[]) method.getParameterTypes());
+        // TODO: Support more than 1 argument. Like MVC's argument resolver?
+
+        final Type type = method.getGenericParameterTypes()[0];
+
+        final Predicate<Event> predicate = new EventPredicate(type);
+        final LineMessageHandler handler =
+                AnnotatedElementUtils.findMergedAnnotation(consumer.getClass(), LineMessageHandler.class);
+        final Set<String> destinations = handler != null ? new HashSet<>(Arrays.asList(handler.destination()))
+                                                         : Collections.emptySet();
+        return new HandlerMethod(predicate, consumer, method, getPriority(mapping, type),
+                                 createInvoker(consumer, method), destinations);
+    }
+
+    /**
+     * Bind the method to the bean as {@code (Event) -> Object}. Void methods return {@code null}.
+     */
+    private static MethodHandle createInvoker(final Object consumer, final Method method) {
+        // Handler classes need not be public.
+        ReflectionUtils.makeAccessible(method);
+        try {
+            return MethodHandles.lookup().unreflect(method).bindTo(consumer).asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't access " + method.toGenericString(), e);
+        }
+    }
+
+    private int getPriority(final EventMapping mapping, final Type type) {
+        if (mapping.priority() != EventMapping.DEFAULT_PRIORITY_VALUE) {
+            return mapping.priority();
+        }
+
+        if (type == Event.class) {
+            return EventMapping.DEFAULT_PRIORITY_FOR_EVENT_IFACE;
+        }
+
+        if (type instanceof Class) {
+            return ((Class<?>) type).isInterface()
+                   ? EventMapping.DEFAULT_PRIORITY_FOR_IFACE
+                   : EventMapping.DEFAULT_PRIORITY_FOR_CLASS;
+        }
+
+        if (type instanceof ParameterizedType) {
+            return EventMapping.DEFAULT_PRIORITY_FOR_PARAMETRIZED_TYPE;
+        }
+
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Invoke the handler method for the event.
+     *
+     * @return Return value of the handler method. {@code null} for void methods.
+     * @throws UnsupportedOperationException if no handler supports the event.
+     * @throws InvocationTargetException if the handler method throws.
+     */
+    protected final Object invokeHandler(final Event event) throws InvocationTargetException {
+        return invokeHandler(null, event);
+    }
+
+    /**
+     * Invoke the handler method of the destination for the event.
+     *
+     * @param destination User ID of the bot the event is sent to, or {@code null} if unknown.
+     * @see LineMessageHandler#destination()
+     */
+    protected final Object invokeHandler(final String destination, final Event event)
+            throws InvocationTargetException {
+        final HandlerMethod handlerMethod = routingTable(destination)
+                .route(event)
+                .orElseThrow(() -> new UnsupportedOperationException("Unsupported event type. " + event));
+        try {
+            return handlerMethod.getInvoker().invokeExact(event);
+        } catch (Throwable t) {
+            // Same as Method.invoke() used to report.
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private RoutingTable routingTable(final String destination) {
+        final ConcurrentMap<String, RoutingTable> tables = destinationRoutingTables;
+        if (tables == null || destination == null) {
+            return routingTable;
+        }
+        final RoutingTable table = tables.get(destination);
+        if (table != null) {
+            return table;
+        }
+        // Bounded by the number of channels; destinations are verified by the signature beforehand.
+        return tables.computeIfAbsent(destination,
+                                      unused -> new RoutingTable(handlersOf(eventConsumerList, destination)));
+    }
+
+    @Value
+    static class HandlerMethod {
+        Predicate<Event> supportType;
+        Object object;
+        Method handler;
+        int priority;
+        MethodHandle invoker;
+        /**
+         * Destinations of {@link LineMessageHandler#destination()}. Empty for all destinations.
+         */
+        Set<String> destinations;
+    }
+
+    /**
+     * Handler of each concrete event type, resolved on first use.
+     *
+     * <p>{@link EventPredicate} depends only on the event class and, for {@link MessageEvent}, the message
+     * content class, so the first matching handler is the same for all events of those types.
+     */
+    private static final class RoutingTable {
+        private final List<HandlerMethod> handlers;
+        private final ConcurrentMap<Class<?>, Optional<HandlerMethod>> eventRoutes =
+                new ConcurrentHashMap<>();
+        // MessageEvent is final; keyed by message content class.
+        private final ConcurrentMap<Class<?>, Optional<HandlerMethod>> messageRoutes =
+                new ConcurrentHashMap<>();
+
+        RoutingTable(final List<HandlerMethod> handlers) {
+            this.handlers = handlers;
+        }
+
+        Optional<HandlerMethod> route(final Event event) {
+            if (event instanceof MessageEvent) {
+                final MessageContent message = ((MessageEvent<?>) event).getMessage();
+                if (message != null) {
+                    return route(messageRoutes, message.getClass(), event);
+                }
+            }
+            return route(eventRoutes, event.getClass(), event);
+        }
+
+        private Optional<HandlerMethod> route(final ConcurrentMap<Class<?>, Optional<HandlerMethod>> routes,
+                                              final Class<?> key, final Event event) {
+            // get() first; computeIfAbsent() locks the bin even when present on Java 8.
+            final Optional<HandlerMethod> route = routes.get(key);
+            if (route != null) {
+                return route;
+            }
+            return routes.computeIfAbsent(key, unused -> handlers
+                    .stream()
+                    .filter(consumer -> consumer.getSupportType().test(event))
+                    .findFirst());
+        }
+    }
+
+    private static class EventPredicate implements Predicate<Event> {
+        private final Class<?> supportEvent;
+        private final Class<? extends MessageContent> messageContentType;
+
+        @SuppressWarnings("unchecked")
+        EventPredicate(final Type mapping) {
+            if (mapping == ReplyEvent.class) {
+                supportEvent = ReplyEvent.class;
+                messageContentType = null;
+            } else if (mapping instanceof Class) {
+                Preconditions.checkState(Event.class.isAssignableFrom((Class<?>) mapping),
+                                         "Handler argument type should BE-A Event. But {}",
+                                         mapping.getClass());
+                supportEvent = (Class<? extends Event>) mapping;
+                messageContentType = null;
+            } else {
+                final ParameterizedType parameterizedType = (ParameterizedType) mapping;
+                supportEvent = (Class<? extends Event>) parameterizedType.getRawType();
+                messageContentType =
+                        (Class<? extends MessageContent>)
+                                ((ParameterizedType) mapping).getActualTypeArguments()[0];
+            }
+        }
+
+        @Override
+        public boolean test(final Event event) {
+            return supportEvent.isAssignableFrom(event.getClass())
+                   && (messageContentType == null
+                       || event instanceof MessageEvent
+                          && filterByType(messageContentType, ((MessageEvent<?>) event).getMessage()));
+        }
+
+        private static boolean filterByType(final Class<?> clazz, final Object content) {
+            return clazz.isAssignableFrom(content.getClass());
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+
+            sb.append('[');
+            if (messageContentType != null) {
+                sb.append(MessageEvent.class.getSimpleName())
+                  .append('<')
+                  .append(messageContentType.getSimpleName())
+                  .append('>');
+            } else {
+                sb.append(supportEvent.getSimpleName());
+            }
+            sb.append(']');
+
+            return sb.toString();
+        }
+    }
+}
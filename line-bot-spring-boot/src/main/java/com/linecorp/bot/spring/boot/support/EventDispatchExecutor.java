@@ -0,0 +1,252 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.support;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.source.Source;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dispatches webhook events on background threads, so that the webhook is acknowledged before the
+ * handlers run.
+ *
+ * <p>At most {@code maxPendingEvents} events are queued or running. A batch waits for room up to
+ * {@code submitTimeoutMillis}, then is rejected as a whole with {@link RejectedExecutionException}; LINE
+ * redelivers it if webhook redelivery is enabled. A batch larger than the limit is accepted when nothing is
+ * pending. On shutdown, the events after the first one the executor rejects are dropped.
+ *
+ * <p>When ordered by source, events of the same {@link Source#getSenderId() sender} run one by one in
+ * arrival order, and events of different senders run in parallel.
+ */
+@Slf4j
+public class EventDispatchExecutor implements AutoCloseable {
+    private static final long AWAIT_TERMINATION_SECONDS = 30;
+
+    private final ExecutorService executor;
+    private final int maxPendingEvents;
+    private final long submitTimeoutNanos;
+    private final boolean orderedBySource;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private int pendingEvents;
+
+    // Tasks waiting for the running task of the same sender. Present while a task of the sender runs.
+    private final Map<String, Queue<Runnable>> senderQueues = new HashMap<>();
+
+    /**
+     * Create a new instance.
+     *
+     * @param executor Runs the handlers. Shut down by {@link #close()}.
+     * @param maxPendingEvents Maximum number of events queued or running.
+     * @param submitTimeoutMillis Maximum time to wait for room for a batch.
+     * @param orderedBySource Whether events of the same sender run in order.
+     */
+    public EventDispatchExecutor(final ExecutorService executor, final int maxPendingEvents,
+                                 final long submitTimeoutMillis, final boolean orderedBySource) {
+        if (maxPendingEvents <= 0) {
+            throw new IllegalArgumentException("maxPendingEvents must be positive: " + maxPendingEvents);
+        }
+        this.executor = executor;
+        this.maxPendingEvents = maxPendingEvents;
+        this.submitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(submitTimeoutMillis);
+        this.orderedBySource = orderedBySource;
+    }
+
+    /**
+     * Create an {@link ExecutorService} to run handlers.
+     *
+     * @param threads Number of platform threads. Ignored for virtual threads.
+     * @param virtualThreads Use a virtual thread per event if the JDK supports them (Java 21 or later).
+     *         Falls back to platform threads otherwise.
+     */
+    public static ExecutorService newExecutorService(final int threads, final boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                                                        .invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are not available on Java {}. Using {} platform threads.",
+                         System.getProperty("java.version"), threads);
+            }
+        }
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadFactory threadFactory =
+                r -> new Thread(r, "line-bot-event-dispatcher-" + count.incrementAndGet());
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Queue the events to be dispatched by {@code dispatcher}.
+     *
+     * @return Number of leading events queued. Less than the size of {@code events} only if the executor shut
+     *         down meanwhile; the rest are not dispatched.
+     * @throws RejectedExecutionException if there's no room for the events in time.
+     */
+    public int submit(final List<? extends Event> events, final Consumer<? super Event> dispatcher) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        acquire(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            final Event event = events.get(i);
+            final Runnable task = () -> {
+                try {
+                    dispatcher.accept(event);
+                } finally {
+                    release();
+                }
+            };
+            try {
+                execute(senderKey(event), task);
+            } catch (RejectedExecutionException e) {
+                // Only on shutdown; the rest of the batch is dropped.
+                log.warn("Dropped {} of {} events: {}", events.size() - i, events.size(), e.getMessage());
+                for (int j = i; j < events.size(); j++) {
+                    release();
+                }
+                return i;
+            }
+        }
+        return events.size();
+    }
+
+    /**
+     * Number of events queued or running.
+     */
+    public int getPendingEvents() {
+        lock.lock();
+        try {
+            return pendingEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting events and wait up to 30 seconds for the pending ones.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(AWAIT_TERMINATION_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("{} events are still being dispatched after {} seconds.",
+                         getPendingEvents(), AWAIT_TERMINATION_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String senderKey(final Event event) {
+        final Source source = event.getSource();
+        return orderedBySource && source != null ? source.getSenderId() : null;
+    }
+
+    private void acquire(final int permits) {
+        lock.lock();
+        try {
+            long remainingNanos = submitTimeoutNanos;
+            while (pendingEvents > 0 && pendingEvents + permits > maxPendingEvents) {
+                if (remainingNanos <= 0) {
+                    throw new RejectedExecutionException(
+                            "Too many pending events: " + pendingEvents + " + " + permits);
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            pendingEvents += permits;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            pendingEvents--;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void execute(final String key, final Runnable task) {
+        if (key == null) {
+            executor.execute(task);
+            return;
+        }
+        synchronized (senderQueues) {
+            final Queue<Runnable> queue = senderQueues.get(key);
+            if (queue != null) {
+                queue.add(task);
+                return;
+            }
+            senderQueues.put(key, new ArrayDeque<>());
+        }
+        try {
+            executor.execute(() -> runInOrder(key, task));
+        } catch (RejectedExecutionException e) {
+            synchronized (senderQueues) {
+                senderQueues.remove(key);
+            }
+            throw e;
+        }
+    }
+
+    private void runInOrder(final String key, final Runnable task) {
+        try {
+            task.run();
+        } finally {
+            final Runnable next;
+            synchronized (senderQueues) {
+                next = senderQueues.get(key).poll();
+                if (next == null) {
+                    senderQueues.remove(key);
+                }
+            }
+            if (next != null) {
+                try {
+                    // Yield the thread to other senders between events.
+                    executor.execute(() -> runInOrder(key, next));
+                } catch (RejectedExecutionException e) {
+                    // Shutting down; finish the events already accepted.
+                    runInOrder(key, next);
+                }
+            }
+        }
+    }
+}
@@ -33,6 +33,11 @@ import com.linecorp.bot.spring.boot.annotation.LineBotMessages;
 public class LineBotServerArgumentProcessor implements HandlerMethodArgumentResolver {
     private static final String PROPERTY_NAME = "com.linecorp.bot.spring.callbackRequest";
 
+    /**
+     * Request attribute of the destination of the webhook, i.e. the user ID of the bot.
+     */
+    public static final String DESTINATION_ATTRIBUTE = "com.linecorp.bot.spring.destination";
+
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
         return parameter.hasParameterAnnotation(LineBotMessages.class);
@@ -47,5 +52,6 @@ public class LineBotServerArgumentProcessor implements HandlerMethodArgumentReso
 
     public static void setValue(HttpServletRequest request, CallbackRequest callbackRequest) {
         request.setAttribute(PROPERTY_NAME, callbackRequest.getEvents());
+        request.setAttribute(DESTINATION_ATTRIBUTE, callbackRequest.getDestination());
     }
 }
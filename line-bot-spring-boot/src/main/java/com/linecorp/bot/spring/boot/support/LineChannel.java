@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.support;
+
+import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.parser.LineSignatureValidator;
+
+import lombok.Value;
+
+/**
+ * Channel registered to {@link LineChannelRegistry}.
+ */
+@Value
+public class LineChannel {
+    /**
+     * User ID of the bot, i.e. {@code destination} of webhooks sent to the channel.
+     */
+    String destination;
+
+    /**
+     * Validator of webhooks sent to the channel.
+     */
+    LineSignatureValidator signatureValidator;
+
+    /**
+     * Client of the channel, sharing the HTTP client of all channels.
+     */
+    LineMessagingClient lineMessagingClient;
+}
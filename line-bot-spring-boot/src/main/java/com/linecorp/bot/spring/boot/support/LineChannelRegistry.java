@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.linecorp.bot.client.ChannelTokenSupplier;
+import com.linecorp.bot.client.EndpointRateLimiter;
+import com.linecorp.bot.client.LineChannelClientFactory;
+import com.linecorp.bot.parser.DestinationSignatureValidator;
+import com.linecorp.bot.parser.LineSignatureValidator;
+import com.linecorp.bot.parser.SignatureValidator;
+import com.linecorp.bot.spring.boot.annotation.LineMessageHandler;
+
+import lombok.NonNull;
+
+/**
+ * Channels served by this application in addition to the one of {@code line.bot.channel-token}.
+ *
+ * <p>Webhooks are validated by the channel secret of their {@code destination}, dispatched to the handlers
+ * of the destination (see {@link LineMessageHandler#destination()}) and replied by the client of the
+ * channel. All channels share one HTTP client, so a channel costs only its secret and token.
+ *
+ * <p>Channels can be registered and unregistered at runtime. Routing webhooks by destination is enabled
+ * when at least one channel is registered at startup, e.g. by {@code line.bot.channels}. The bean is
+ * auto-configured only if {@code line.bot.channels} is set; define it yourself to register channels
+ * otherwise.
+ */
+public class LineChannelRegistry {
+    private final LineChannelClientFactory clientFactory;
+    private final ConcurrentMap<String, LineChannel> channels = new ConcurrentHashMap<>();
+
+    public LineChannelRegistry(@NonNull LineChannelClientFactory clientFactory) {
+        this.clientFactory = clientFactory;
+    }
+
+    /**
+     * Register the channel, replacing the one of the same destination.
+     *
+     * @param destination User ID of the bot.
+     */
+    public LineChannel register(@NonNull String destination, @NonNull String channelSecret,
+                                @NonNull ChannelTokenSupplier channelTokenSupplier) {
+        return register(destination, channelSecret, channelTokenSupplier, null);
+    }
+
+    /**
+     * Register the channel whose client is governed by the rate limiter, replacing the one of the same
+     * destination. Rate limits apply per channel, so don't share a rate limiter between channels.
+     *
+     * @param destination User ID of the bot.
+     * @param rateLimiter Rate limiter of the channel, or {@code null} to not limit it.
+     */
+    public LineChannel register(@NonNull String destination, @NonNull String channelSecret,
+                                @NonNull ChannelTokenSupplier channelTokenSupplier,
+                                EndpointRateLimiter rateLimiter) {
+        final LineChannel channel = new LineChannel(
+                destination,
+                new LineSignatureValidator(channelSecret.getBytes(StandardCharsets.US_ASCII)),
+                clientFactory.forChannel(channelTokenSupplier, rateLimiter));
+        channels.put(destination, channel);
+        return channel;
+    }
+
+    /**
+     * Unregister the channel. Returns {@code null} if it's not registered.
+     */
+    public LineChannel unregister(@NonNull String destination) {
+        return channels.remove(destination);
+    }
+
+    /**
+     * Returns the channel of the destination, or {@code null} if it's not registered.
+     */
+    public LineChannel get(String destination) {
+        return destination != null ? channels.get(destination) : null;
+    }
+
+    /**
+     * All registered channels.
+     */
+    public Collection<LineChannel> getChannels() {
+        return Collections.unmodifiableCollection(channels.values());
+    }
+
+    /**
+     * {@link SignatureValidator} validating each webhook by the channel of its destination.
+     *
+     * @param fallback Validator of webhooks to destinations not registered.
+     */
+    public SignatureValidator signatureValidator(final SignatureValidator fallback) {
+        return new DestinationSignatureValidator(destination -> {
+            final LineChannel channel = channels.get(destination);
+            return channel != null ? channel.getSignatureValidator() : fallback;
+        });
+    }
+}
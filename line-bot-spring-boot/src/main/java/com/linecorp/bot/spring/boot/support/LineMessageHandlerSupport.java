@@ -17,39 +17,37 @@
 package com.linecorp.bot.spring.boot.support;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Import;
-import org.springframework.context.event.ContextRefreshedEvent;
-import org.springframework.core.annotation.AnnotatedElementUtils;
-import org.springframework.util.ReflectionUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Preconditions;
 
+import com.linecorp.bot.client.CachingLineMessagingClient;
+import com.linecorp.bot.client.LineMessagingClient;
 import com.linecorp.bot.model.event.Event;
-import com.linecorp.bot.model.event.MessageEvent;
-import com.linecorp.bot.model.event.ReplyEvent;
-import com.linecorp.bot.model.event.message.MessageContent;
+import com.linecorp.bot.model.event.LeaveEvent;
+import com.linecorp.bot.model.event.MemberLeftEvent;
+import com.linecorp.bot.model.event.UnfollowEvent;
+import com.linecorp.bot.parser.EventDeduplicator;
 import com.linecorp.bot.spring.boot.annotation.EventMapping;
 import com.linecorp.bot.spring.boot.annotation.LineBotMessages;
 import com.linecorp.bot.spring.boot.annotation.LineMessageHandler;
 
-import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -67,114 +65,123 @@ import lombok.extern.slf4j.Slf4j;
  * <li>Class annotated with {@link LineMessageHandler}</li>
  * <li>Method annotated with {@link EventMapping}.</li>
  * </ul>
+ *
+ * <p>Handlers run on the request thread, or on {@link EventDispatchExecutor} if it's defined as bean.
  */
 @Slf4j
 @RestController
 @Import(ReplyByReturnValueConsumer.Factory.class)
 @ConditionalOnProperty(name = "line.bot.handler.enabled", havingValue = "true", matchIfMissing = true)
-public class LineMessageHandlerSupport {
-    private static final Comparator<HandlerMethod> HANDLER_METHOD_PRIORITY_COMPARATOR =
-            Comparator.comparing(HandlerMethod::getPriority).reversed();
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class LineMessageHandlerSupport extends AbstractLineMessageHandlerSupport {
     private final ReplyByReturnValueConsumer.Factory returnValueConsumerFactory;
-    private final ConfigurableApplicationContext applicationContext;
 
-    volatile List<HandlerMethod> eventConsumerList;
+    private EventDispatchExecutor eventDispatchExecutor;
+
+    private CachingLineMessagingClient profileCache;
+
+    private EventDeduplicator eventDeduplicator;
 
     @Autowired
     public LineMessageHandlerSupport(
             final ReplyByReturnValueConsumer.Factory returnValueConsumerFactory,
             final ConfigurableApplicationContext applicationContext) {
+        super(applicationContext);
         this.returnValueConsumerFactory = returnValueConsumerFactory;
-        this.applicationContext = applicationContext;
-
-        applicationContext.addApplicationListener(event -> {
-            if (event instanceof ContextRefreshedEvent) {
-                refresh();
-            }
-        });
     }
 
-    @VisibleForTesting
-    void refresh() {
-        final Map<String, Object> handlerBeanMap =
-                applicationContext.getBeansWithAnnotation(LineMessageHandler.class);
-
-        final List<HandlerMethod> collect = handlerBeanMap
-                .values().stream()
-                .flatMap((Object bean) -> {
-                    final Method[] uniqueDeclaredMethods =
-                            ReflectionUtils.getUniqueDeclaredMethods(bean.getClass());
-
-                    return Arrays.stream(uniqueDeclaredMethods)
-                                 .map(method -> getMethodHandlerMethodFunction(bean, method))
-                                 .filter(Objects::nonNull);
-                })
-                .sorted(HANDLER_METHOD_PRIORITY_COMPARATOR)
-                .collect(Collectors.toList());
-
-        log.info("Registered LINE Messaging API event handler: count = {}", collect.size());
-        collect.forEach(item -> log.info("Mapped \"{}\" onto {}",
-                                         item.getSupportType(), item.getHandler().toGenericString()));
-
-        eventConsumerList = collect;
+    /**
+     * Dispatch events on the executor and respond to the webhook without waiting for handlers.
+     */
+    @Autowired(required = false)
+    public void setEventDispatchExecutor(final EventDispatchExecutor eventDispatchExecutor) {
+        this.eventDispatchExecutor = eventDispatchExecutor;
     }
 
-    private HandlerMethod getMethodHandlerMethodFunction(Object consumer, Method method) {
-        final EventMapping mapping = AnnotatedElementUtils.getMergedAnnotation(method, EventMapping.class);
-        if (mapping == null) {
-            return null;
-        }
-
-        Preconditions.checkState(method.getParameterCount() == 1,
-                                 "Number of parameter should be 1. But {}",
-                                 (Object[]) method.getParameterTypes());
-        // TODO: Support more than 1 argument. Like MVC's argument resolver?
-
-        final Type type = method.getGenericParameterTypes()[0];
-
-        final Predicate<Event> predicate = new EventPredicate(type);
-        return new HandlerMethod(predicate, consumer, method, getPriority(mapping, type));
+    /**
+     * Invalidate cached profiles by events before dispatching them, if the client is
+     * {@link CachingLineMessagingClient}.
+     */
+    @Autowired(required = false)
+    public void setLineMessagingClient(final LineMessagingClient lineMessagingClient) {
+        profileCache = lineMessagingClient instanceof CachingLineMessagingClient
+                       ? (CachingLineMessagingClient) lineMessagingClient : null;
     }
 
-    private int getPriority(final EventMapping mapping, final Type type) {
-        if (mapping.priority() != EventMapping.DEFAULT_PRIORITY_VALUE) {
-            return mapping.priority();
-        }
+    /**
+     * Drop events seen before, e.g. redelivered webhooks, without dispatching them.
+     */
+    @Autowired(required = false)
+    public void setEventDeduplicator(final EventDeduplicator eventDeduplicator) {
+        this.eventDeduplicator = eventDeduplicator;
+    }
 
-        if (type == Event.class) {
-            return EventMapping.DEFAULT_PRIORITY_FOR_EVENT_IFACE;
+    @PostMapping("${line.bot.handler.path:/callback}")
+    public void callback(@LineBotMessages List<Event> events,
+                         @RequestAttribute(name = LineBotServerArgumentProcessor.DESTINATION_ATTRIBUTE,
+                                           required = false) String destination) {
+        final List<Event> accepted =
+                eventDeduplicator != null ? eventDeduplicator.removeDuplicates(destination, events)
+                                          : events;
+        if (eventDispatchExecutor == null) {
+            accepted.forEach(event -> dispatch(destination, event));
+            return;
         }
-
-        if (type instanceof Class) {
-            return ((Class<?>) type).isInterface()
-                   ? EventMapping.DEFAULT_PRIORITY_FOR_IFACE
-                   : EventMapping.DEFAULT_PRIORITY_FOR_CLASS;
+        final int submitted;
+        try {
+            submitted = eventDispatchExecutor.submit(accepted, event -> dispatch(destination, event));
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejected {} events: {}", accepted.size(), e.getMessage());
+            throw unavailable(destination, accepted, e);
         }
-
-        if (type instanceof ParameterizedType) {
-            return EventMapping.DEFAULT_PRIORITY_FOR_PARAMETRIZED_TYPE;
+        if (submitted < accepted.size()) {
+            throw unavailable(destination, accepted.subList(submitted, accepted.size()),
+                              new RejectedExecutionException("Event dispatch executor is shut down"));
         }
+    }
 
-        throw new IllegalStateException();
+    /**
+     * Dispatch events of an unknown destination.
+     */
+    public void callback(List<Event> events) {
+        callback(events, null);
     }
 
-    @Value
-    static class HandlerMethod {
-        Predicate<Event> supportType;
-        Object object;
-        Method handler;
-        int priority;
+    /**
+     * LINE redelivers the whole webhook on error response. Forget only the events not dispatched, so that
+     * the dispatched ones are dropped as duplicates.
+     */
+    private ResponseStatusException unavailable(final String destination, final List<Event> rejected,
+                                                final RejectedExecutionException e) {
+        if (eventDeduplicator != null) {
+            rejected.forEach(event -> eventDeduplicator.forget(destination, event));
+        }
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
     }
 
-    @PostMapping("${line.bot.handler.path:/callback}")
-    public void callback(@LineBotMessages List<Event> events) {
-        events.forEach(this::dispatch);
+    /**
+     * Events invalidating cached profiles are needed even if no handler maps them.
+     */
+    @Override
+    protected Collection<Class<?>> requiredEventTypes() {
+        if (profileCache == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(UnfollowEvent.class, MemberLeftEvent.class, LeaveEvent.class);
     }
 
     @VisibleForTesting
     void dispatch(Event event) {
+        dispatch(null, event);
+    }
+
+    @VisibleForTesting
+    void dispatch(String destination, Event event) {
+        if (profileCache != null) {
+            profileCache.invalidate(event);
+        }
         try {
-            dispatchInternal(event);
+            dispatchInternal(destination, event);
         } catch (InvocationTargetException e) {
             log.error("InvocationTargetException occurred.", e);
         } catch (Error | Exception e) {
@@ -182,76 +189,16 @@ public class LineMessageHandlerSupport {
         }
     }
 
-    private void dispatchInternal(final Event event) throws Exception {
-        final HandlerMethod handlerMethod = eventConsumerList
-                .stream()
-                .filter(consumer -> consumer.getSupportType().test(event))
-                .findFirst()
-                .orElseThrow(() -> new UnsupportedOperationException("Unsupported event type. " + event));
-        final Object returnValue = handlerMethod.getHandler().invoke(handlerMethod.getObject(), event);
+    private void dispatchInternal(final String destination, final Event event) throws Exception {
+        final Object returnValue = invokeHandler(destination, event);
 
-        handleReturnValue(event, returnValue);
+        handleReturnValue(destination, event, returnValue);
     }
 
-    private void handleReturnValue(final Event event, final Object returnValue) {
+    private void handleReturnValue(final String destination, final Event event, final Object returnValue) {
         if (returnValue != null) {
-            returnValueConsumerFactory.createForEvent(event)
+            returnValueConsumerFactory.createForEvent(destination, event)
                                       .accept(returnValue);
         }
     }
-
-    private static class EventPredicate implements Predicate<Event> {
-        private final Class<?> supportEvent;
-        private final Class<? extends MessageContent> messageContentType;
-
-        @SuppressWarnings("unchecked")
-        EventPredicate(final Type mapping) {
-            if (mapping == ReplyEvent.class) {
-                supportEvent = ReplyEvent.class;
-                messageContentType = null;
-            } else if (mapping instanceof Class) {
-                Preconditions.checkState(Event.class.isAssignableFrom((Class<?>) mapping),
-                                         "Handler argument type should BE-A Event. But {}",
-                                         mapping.getClass());
-                supportEvent = (Class<? extends Event>) mapping;
-                messageContentType = null;
-            } else {
-                final ParameterizedType parameterizedType = (ParameterizedType) mapping;
-                supportEvent = (Class<? extends Event>) parameterizedType.getRawType();
-                messageContentType =
-                        (Class<? extends MessageContent>)
-                                ((ParameterizedType) mapping).getActualTypeArguments()[0];
-            }
-        }
-
-        @Override
-        public boolean test(final Event event) {
-            return supportEvent.isAssignableFrom(event.getClass())
-                   && (messageContentType == null
-                       || event instanceof MessageEvent
-                          && filterByType(messageContentType, ((MessageEvent<?>) event).getMessage()));
-        }
-
-        private static boolean filterByType(final Class<?> clazz, final Object content) {
-            return clazz.isAssignableFrom(content.getClass());
-        }
-
-        @Override
-        public String toString() {
-            final StringBuilder sb = new StringBuilder();
-
-            sb.append('[');
-            if (messageContentType != null) {
-                sb.append(MessageEvent.class.getSimpleName())
-                  .append('<')
-                  .append(messageContentType.getSimpleName())
-                  .append('>');
-            } else {
-                sb.append(supportEvent.getSimpleName());
-            }
-            sb.append(']');
-
-            return sb.toString();
-        }
-    }
 }
@@ -16,19 +16,26 @@
 
 package com.linecorp.bot.spring.boot.support;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 
 import com.linecorp.bot.client.LineMessagingClient;
+import com.linecorp.bot.model.PushMessage;
 import com.linecorp.bot.model.ReplyMessage;
 import com.linecorp.bot.model.event.Event;
 import com.linecorp.bot.model.event.ReplyEvent;
@@ -43,26 +50,52 @@ import lombok.extern.slf4j.Slf4j;
  *
  * <p>Basically, message contents are from return value of handler method.
  *
- * @see LineMessageHandlerSupport#handleReturnValue(Event, Object)
+ * <p>All messages produced for the event are coalesced into one {@link ReplyMessage}. A return value may be
+ * a {@link Message}, a {@link List} or a {@link CompletionStage}, and a list may in turn contain messages,
+ * lists or completion stages, e.g. a message to send right away followed by a future of a follow-up. The
+ * reply is sent once all of them are complete. Messages beyond {@value #MAX_MESSAGES}, the limit of one
+ * reply, are sent by {@link PushMessage} to the source of the event after the reply succeeded.
+ *
+ * @see LineMessageHandlerSupport
  */
 @Slf4j
 @Builder
 class ReplyByReturnValueConsumer implements Consumer<Object> {
+    /**
+     * Max number of messages in one {@link ReplyMessage} or {@link PushMessage}.
+     */
+    static final int MAX_MESSAGES = 5;
+
     private final LineMessagingClient lineMessagingClient;
     private final Event originalEvent;
 
     @Component
     static class Factory {
         private final LineMessagingClient lineMessagingClient;
+        private final LineChannelRegistry lineChannelRegistry;
 
         @Autowired
-        Factory(final LineMessagingClient lineMessagingClient) {
+        Factory(final LineMessagingClient lineMessagingClient,
+                final ObjectProvider<LineChannelRegistry> lineChannelRegistry) {
             this.lineMessagingClient = lineMessagingClient;
+            this.lineChannelRegistry = lineChannelRegistry != null ? lineChannelRegistry.getIfAvailable()
+                                                                   : null;
         }
 
         ReplyByReturnValueConsumer createForEvent(final Event event) {
+            return createForEvent(null, event);
+        }
+
+        /**
+         * Create a consumer replying by the client of the destination's channel, or the default client if the
+         * destination is not registered to {@link LineChannelRegistry}.
+         */
+        ReplyByReturnValueConsumer createForEvent(final String destination, final Event event) {
+            final LineChannel channel = lineChannelRegistry != null ? lineChannelRegistry.get(destination)
+                                                                    : null;
             return builder()
-                    .lineMessagingClient(lineMessagingClient)
+                    .lineMessagingClient(channel != null ? channel.getLineMessagingClient()
+                                                         : lineMessagingClient)
                     .originalEvent(event)
                     .build();
         }
@@ -70,46 +103,102 @@ class ReplyByReturnValueConsumer implements Consumer<Object> {
 
     @Override
     public void accept(final Object returnValue) {
-        if (returnValue instanceof CompletableFuture) {
-            // accept when future complete.
-            ((CompletableFuture<?>) returnValue)
-                    .whenComplete(this::whenComplete);
-        } else {
+        final CompletableFuture<List<Message>> messages = collect(returnValue);
+        if (messages.isDone()) {
             // accept immediately.
-            acceptResult(returnValue);
+            send(messages.join());
+        } else {
+            // accept when all futures complete.
+            messages.thenAccept(this::send);
         }
     }
 
-    private void whenComplete(final Object futureResult, final Throwable throwable) {
-        if (throwable != null) {
-            log.error("Method return value waited but exception occurred in CompletedFuture", throwable);
-            return;
+    /**
+     * Flattens the return value into messages, in order. Futures are waited without blocking; a failed one is
+     * logged and contributes no message.
+     */
+    private CompletableFuture<List<Message>> collect(final Object returnValue) {
+        if (returnValue instanceof CompletionStage) {
+            return ((CompletionStage<?>) returnValue)
+                    .thenCompose(this::collect)
+                    .toCompletableFuture()
+                    .exceptionally(this::whenFailed);
         }
-
-        acceptResult(futureResult);
-    }
-
-    private void acceptResult(final Object returnValue) {
         if (returnValue instanceof Message) {
-            reply(singletonList((Message) returnValue));
-        } else if (returnValue instanceof List) {
+            return completedFuture(singletonList((Message) returnValue));
+        }
+        if (returnValue instanceof List) {
             final List<?> returnValueAsList = (List<?>) returnValue;
-
-            if (returnValueAsList.isEmpty()) {
-                return;
+            if (returnValueAsList.stream().noneMatch(ReplyByReturnValueConsumer::isStaged)) {
+                return completedFuture(checkListContents(returnValueAsList));
             }
 
-            reply(checkListContents(returnValueAsList));
+            final List<CompletableFuture<List<Message>>> elements = new ArrayList<>();
+            for (int i = 0; i < returnValueAsList.size(); ++i) {
+                final Object item = returnValueAsList.get(i);
+                elements.add(isStaged(item) ? collect(item)
+                                            : completedFuture(singletonList(checkItem(returnValueAsList, i))));
+            }
+            return CompletableFuture
+                    .allOf(elements.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> {
+                        final List<Message> messages = new ArrayList<>();
+                        elements.forEach(element -> messages.addAll(element.join()));
+                        return messages;
+                    });
         }
+        return completedFuture(emptyList());
+    }
+
+    private static boolean isStaged(final Object item) {
+        return item instanceof CompletionStage || item instanceof List;
     }
 
-    private void reply(final List<Message> messages) {
+    private List<Message> whenFailed(final Throwable throwable) {
+        log.error("Method return value waited but exception occurred in CompletedFuture", throwable);
+        return emptyList();
+    }
+
+    private void send(final List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
         final ReplyEvent replyEvent = (ReplyEvent) originalEvent;
-        lineMessagingClient.replyMessage(new ReplyMessage(replyEvent.getReplyToken(), messages))
-                           .whenComplete(this::logging);
+        final CompletableFuture<BotApiResponse> replied = lineMessagingClient.replyMessage(
+                new ReplyMessage(replyEvent.getReplyToken(),
+                                 messages.subList(0, Math.min(MAX_MESSAGES, messages.size()))));
+        replied.whenComplete(this::logging);
+        if (messages.size() > MAX_MESSAGES) {
+            replied.thenRun(() -> push(messages.subList(MAX_MESSAGES, messages.size())));
+        }
         // DO NOT BLOCK HERE, otherwise, next message processing will be BLOCKED.
     }
 
+    /**
+     * Pushes overflowed messages in order, stopping at the first failure.
+     */
+    private void push(final List<Message> messages) {
+        final String to = originalEvent.getSource() != null ? originalEvent.getSource().getSenderId() : null;
+        if (to == null) {
+            log.warn("Cannot push {} overflowed messages without source. event = {}",
+                     messages.size(), originalEvent);
+            return;
+        }
+
+        CompletableFuture<BotApiResponse> pushed = completedFuture(null);
+        for (List<Message> chunk : Lists.partition(messages, MAX_MESSAGES)) {
+            pushed = pushed.thenCompose(ignored -> lineMessagingClient.pushMessage(new PushMessage(to, chunk)));
+        }
+        pushed.whenComplete((botApiResponse, throwable) -> {
+            if (throwable == null) {
+                log.debug("Push overflowed message success. response = {}", botApiResponse);
+            } else {
+                log.warn("Push overflowed message failed: {}", throwable.getMessage(), throwable);
+            }
+        });
+    }
+
     private void logging(final BotApiResponse botApiResponse, final Throwable throwable) {
         if (throwable == null) {
             log.debug("Reply message success. response = {}", botApiResponse);
@@ -122,13 +211,18 @@ class ReplyByReturnValueConsumer implements Consumer<Object> {
     @VisibleForTesting
     static List<Message> checkListContents(final List<?> list) {
         for (int i = 0; i < list.size(); ++i) {
-            final Object item = list.get(i);
-            Preconditions.checkNotNull(item, "item is null. index = {} in {}", i, list);
-            Preconditions.checkArgument(item instanceof Message,
-                                        "List contains not Message type object. type = {}",
-                                        item.getClass());
+            checkItem(list, i);
         }
 
         return (List<Message>) list;
     }
+
+    private static Message checkItem(final List<?> list, final int i) {
+        final Object item = list.get(i);
+        Preconditions.checkNotNull(item, "item is null. index = {} in {}", i, list);
+        Preconditions.checkArgument(item instanceof Message,
+                                    "List contains not Message type object. type = {}",
+                                    item.getClass());
+        return (Message) item;
+    }
 }
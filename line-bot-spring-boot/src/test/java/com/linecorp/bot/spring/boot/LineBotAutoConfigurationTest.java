@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import com.linecorp.bot.spring.boot.LineBotAutoConfiguration.ChannelsConfiguredCondition;
+
+public class LineBotAutoConfigurationTest {
+    private final ApplicationContextRunner contextRunner =
+            new ApplicationContextRunner().withUserConfiguration(ChannelsConfiguration.class);
+
+    @Test
+    public void channelsNotConfiguredTest() {
+        // Do
+        contextRunner.run(context -> {
+            // Verify
+            assertThat(context).doesNotHaveBean("channels");
+        });
+    }
+
+    @Test
+    public void channelsConfiguredTest() {
+        // Do
+        contextRunner.withPropertyValues("line.bot.channels[0].destination=U0",
+                                         "line.bot.channels[0].channel-token=TOKEN",
+                                         "line.bot.channels[0].channel-secret=SECRET")
+                     .run(context -> {
+                         // Verify
+                         assertThat(context).hasBean("channels");
+                     });
+    }
+
+    @Configuration
+    static class ChannelsConfiguration {
+        @Bean
+        @Conditional(ChannelsConfiguredCondition.class)
+        String channels() {
+            return "channels";
+        }
+    }
+}
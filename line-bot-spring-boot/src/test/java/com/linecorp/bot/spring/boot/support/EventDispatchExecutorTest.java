@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.bot.spring.boot.support;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.linecorp.bot.model.event.Event;
+import com.linecorp.bot.model.event.MessageEvent;
+import com.linecorp.bot.model.event.message.TextMessageContent;
+import com.linecorp.bot.model.event.source.UserSource;
+
+public class EventDispatchExecutorTest {
+    private EventDispatchExecutor target;
+
+    @After
+    public void tearDown() {
+        target.close();
+    }
+
+    @Test
+    public void orderedBySourceTest() throws Exception {
+        target = new EventDispatchExecutor(EventDispatchExecutor.newExecutorService(4, false),
+                                           100, 1000, true);
+        final List<String> handled = new CopyOnWriteArrayList<>();
+        final CountDownLatch otherSenderStarted = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(6);
+
+        // Do
+        target.submit(asList(event("A", "1"), event("A", "2"), event("B", "1"),
+                             event("A", "3"), event("A", "4"), event("A", "5")), event -> {
+            final String text = ((TextMessageContent) ((MessageEvent<?>) event).getMessage()).getText();
+            if ("A1".equals(text)) {
+                // Blocks sender A until sender B runs in parallel.
+                try {
+                    otherSenderStarted.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            handled.add(text);
+            if ("B1".equals(text)) {
+                otherSenderStarted.countDown();
+            }
+            done.countDown();
+        });
+
+        // Verify
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handled).first().isEqualTo("B1");
+        assertThat(handled).filteredOn(text -> text.startsWith("A"))
+                           .containsExactly("A1", "A2", "A3", "A4", "A5");
+    }
+
+    @Test
+    public void rejectWhenFullTest() throws Exception {
+        target = new EventDispatchExecutor(EventDispatchExecutor.newExecutorService(2, false),
+                                           2, 50, true);
+        final CountDownLatch release = new CountDownLatch(1);
+        target.submit(asList(event("A", "1"), event("B", "1")), event -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Do & Verify
+        assertThatThrownBy(() -> target.submit(singletonList(event("C", "1")), event -> {
+        })).isInstanceOf(RejectedExecutionException.class);
+        assertThat(target.getPendingEvents()).isEqualTo(2);
+
+        release.countDown();
+        final CountDownLatch done = new CountDownLatch(1);
+        target.submit(singletonList(event("C", "1")), event -> done.countDown());
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void dropRestOfBatchOnShutdownTest() {
+        final ExecutorService executor = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).doThrow(new RejectedExecutionException("shut down")).when(executor).execute(any());
+        target = new EventDispatchExecutor(executor, 10, 0, false);
+        final List<Event> handled = new ArrayList<>();
+        final List<Event> events = asList(event("A", "1"), event("B", "1"), event("C", "1"));
+
+        // Do
+        final int submitted = target.submit(events, handled::add);
+
+        // Verify
+        assertThat(submitted).isEqualTo(1);
+        assertThat(handled).containsExactly(events.get(0));
+        assertThat(target.getPendingEvents()).isZero();
+    }
+
+    @Test
+    public void acceptLargeBatchWhenIdleTest() throws Exception {
+        target = new EventDispatchExecutor(EventDispatchExecutor.newExecutorService(1, false),
+                                           1, 0, false);
+        final CountDownLatch done = new CountDownLatch(3);
+
+        // Do
+        target.submit(asList(event("A", "1"), event("A", "2"), event("A", "3")), event -> done.countDown());
+
+        // Verify
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void virtualThreadsFallbackTest() throws Exception {
+        target = new EventDispatchExecutor(EventDispatchExecutor.newExecutorService(1, true),
+                                           1, 0, false);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        // Do
+        target.submit(singletonList(event("A", "1")), event -> done.countDown());
+
+        // Verify: runs on virtual threads on Java 21 or later, platform threads otherwise.
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static Event event(final String userId, final String seq) {
+        return MessageEvent.<TextMessageContent>builder()
+                .replyToken("replyToken")
+                .source(UserSource.builder().userId(userId).build())
+                .message(TextMessageContent.builder().id("id").text(userId + seq).build())
+                .timestamp(Instant.parse("2016-11-19T00:00:00.000Z"))
+                .build();
+    }
+}
@@ -16,14 +16,26 @@
 
 package com.linecorp.bot.spring.boot.support;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Predicate;
 
 import org.junit.Before;
@@ -34,17 +46,26 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.google.common.collect.ImmutableMap;
 
+import com.linecorp.bot.client.CachingLineMessagingClient;
+import com.linecorp.bot.client.LineMessagingClient;
 import com.linecorp.bot.model.event.Event;
 import com.linecorp.bot.model.event.MessageEvent;
 import com.linecorp.bot.model.event.ReplyEvent;
+import com.linecorp.bot.model.event.UnfollowEvent;
+import com.linecorp.bot.model.event.message.StickerMessageContent;
 import com.linecorp.bot.model.event.message.TextMessageContent;
+import com.linecorp.bot.model.event.source.UserSource;
 import com.linecorp.bot.model.message.TextMessage;
+import com.linecorp.bot.parser.EventDeduplicator;
+import com.linecorp.bot.parser.WebhookParser;
 import com.linecorp.bot.spring.boot.annotation.EventMapping;
 import com.linecorp.bot.spring.boot.annotation.LineMessageHandler;
-import com.linecorp.bot.spring.boot.support.LineMessageHandlerSupport.HandlerMethod;
+import com.linecorp.bot.spring.boot.support.AbstractLineMessageHandlerSupport.HandlerMethod;
 import com.linecorp.bot.spring.boot.test.EventTestUtil;
 
 import lombok.AllArgsConstructor;
@@ -67,7 +88,7 @@ public class LineMessageHandlerSupportTest {
 
     @Before
     public void setUp() {
-        when(replyByReturnValueConsumerFactory.createForEvent(any()))
+        when(replyByReturnValueConsumerFactory.createForEvent(any(), any()))
                 .thenReturn(replyByReturnValueConsumer);
     }
 
@@ -127,10 +148,158 @@ public class LineMessageHandlerSupportTest {
         target.dispatch(event);
 
         // Verify
-        verify(replyByReturnValueConsumerFactory).createForEvent(event);
+        verify(replyByReturnValueConsumerFactory).createForEvent(null, event);
         verify(replyByReturnValueConsumer, times(1)).accept(new TextMessage("Message from Handler method"));
     }
 
+    @Test
+    public void routingTest() throws Exception {
+        final RoutingHandler handler = new RoutingHandler();
+        when(applicationContext.getBeansWithAnnotation(LineMessageHandler.class))
+                .thenReturn(singletonMap("bean", handler));
+        target.refresh();
+
+        // Do
+        target.dispatch(EventTestUtil.createTextMessage("text"));
+        target.dispatch(EventTestUtil.createTextMessage("text"));
+        target.dispatch(MessageEvent.builder()
+                                    .source(UserSource.builder().userId("userId").build())
+                                    .message(StickerMessageContent.builder().id("id").build())
+                                    .build());
+        target.dispatch(UnfollowEvent.builder().source(UserSource.builder().userId("userId").build()).build());
+
+        // Verify
+        assertThat(handler.handled).containsExactly("text", "text", "message", "event");
+    }
+
+    @Test
+    public void destinationRoutingTest() throws Exception {
+        final RoutingHandler handler = new RoutingHandler();
+        final ChannelHandler channelHandler = new ChannelHandler();
+        when(applicationContext.getBeansWithAnnotation(LineMessageHandler.class))
+                .thenReturn(ImmutableMap.of("bean", handler, "channel", channelHandler));
+        target.refresh();
+
+        // Do
+        target.dispatch("U1", EventTestUtil.createTextMessage("text"));
+        target.dispatch("U2", EventTestUtil.createTextMessage("text"));
+        target.dispatch(EventTestUtil.createTextMessage("text"));
+
+        // Verify
+        assertThat(channelHandler.handled).containsExactly("U1");
+        assertThat(handler.handled).containsExactly("text", "text");
+        verify(replyByReturnValueConsumerFactory).createForEvent("U1", EventTestUtil.createTextMessage("text"));
+    }
+
+    @Test
+    public void callbackAsyncTest() {
+        final MessageEvent event = EventTestUtil.createTextMessage("text");
+        final EventDispatchExecutor eventDispatchExecutor = mock(EventDispatchExecutor.class);
+        when(eventDispatchExecutor.submit(any(), any())).thenReturn(1);
+        target.setEventDispatchExecutor(eventDispatchExecutor);
+
+        // Do
+        target.callback(singletonList(event));
+
+        // Verify
+        verify(eventDispatchExecutor).submit(eq(singletonList(event)), any());
+        verify(replyByReturnValueConsumerFactory, never()).createForEvent(any(), any());
+
+        // Do when full
+        doThrow(new RejectedExecutionException("full")).when(eventDispatchExecutor).submit(any(), any());
+
+        // Verify
+        assertThatThrownBy(() -> target.callback(singletonList(event)))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatus())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void callbackPartiallySubmittedTest() {
+        final MessageEvent<TextMessageContent> first = textMessage("1");
+        final MessageEvent<TextMessageContent> second = textMessage("2");
+        final EventDispatchExecutor eventDispatchExecutor = mock(EventDispatchExecutor.class);
+        when(eventDispatchExecutor.submit(any(), any())).thenReturn(1);
+        target.setEventDispatchExecutor(eventDispatchExecutor);
+        target.setEventDeduplicator(EventDeduplicator.inMemory(Duration.ofMinutes(10)));
+
+        // Do: the executor shuts down after the first event
+        assertThatThrownBy(() -> target.callback(asList(first, second)))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatus())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        // Do: redelivery
+        target.callback(asList(first, second));
+
+        // Verify: only the event not dispatched is submitted again.
+        verify(eventDispatchExecutor).submit(eq(singletonList(second)), any());
+    }
+
+    @Test
+    public void callbackDeduplicationTest() throws Exception {
+        final RoutingHandler handler = new RoutingHandler();
+        when(applicationContext.getBeansWithAnnotation(LineMessageHandler.class))
+                .thenReturn(singletonMap("bean", handler));
+        target.refresh();
+        target.setEventDeduplicator(EventDeduplicator.inMemory(Duration.ofMinutes(10)));
+
+        // Do: redelivery of the same message
+        target.callback(asList(EventTestUtil.createTextMessage("text"),
+                               EventTestUtil.createTextMessage("text")));
+        target.callback(singletonList(EventTestUtil.createTextMessage("text")));
+
+        // Verify
+        assertThat(handler.handled).containsExactly("text");
+    }
+
+    @Test
+    public void eventTypeFilterTest() throws Exception {
+        when(applicationContext.getBeansWithAnnotation(LineMessageHandler.class))
+                .thenReturn(singletonMap("channel", new ChannelHandler()));
+        final byte[] payload = ("{\"events\":[{\"type\":\"follow\"},{\"type\":\"unfollow\"},"
+                                + "{\"type\":\"message\",\"message\":{\"type\":\"text\",\"id\":\"1\"}}]}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        // Do
+        target.refresh();
+        final List<Event> events = new WebhookParser((content, signature) -> true, target.getEventTypeFilter())
+                .handle("signature", payload).getEvents();
+
+        // Verify
+        assertThat(events).hasSize(1).allMatch(MessageEvent.class::isInstance);
+
+        // Do: Unfollow events are needed to invalidate cached profiles
+        target.setLineMessagingClient(
+                CachingLineMessagingClient.builder(mock(LineMessagingClient.class)).build());
+        target.refresh();
+
+        // Verify
+        assertThat(new WebhookParser((content, signature) -> true, target.getEventTypeFilter())
+                           .handle("signature", payload).getEvents())
+                .hasSize(2);
+    }
+
+    private static MessageEvent<TextMessageContent> textMessage(final String id) {
+        return MessageEvent.<TextMessageContent>builder()
+                           .replyToken("replyToken" + id)
+                           .source(UserSource.builder().userId("userId").build())
+                           .message(TextMessageContent.builder().id(id).text("text").build())
+                           .build();
+    }
+
+    @LineMessageHandler(destination = "U1")
+    public static class ChannelHandler {
+        final List<String> handled = new ArrayList<>();
+
+        @EventMapping(priority = 1000)
+        public String textForChannel(MessageEvent<TextMessageContent> event) {
+            handled.add("U1");
+            return "reply";
+        }
+    }
+
     @LineMessageHandler
     public static class MessageHandler {
         @EventMapping
@@ -149,6 +318,26 @@ public class LineMessageHandlerSupportTest {
         }
     }
 
+    @LineMessageHandler
+    static class RoutingHandler {
+        final List<String> handled = new ArrayList<>();
+
+        @EventMapping
+        void text(MessageEvent<TextMessageContent> event) {
+            handled.add("text");
+        }
+
+        @EventMapping
+        void message(MessageEvent event) {
+            handled.add("message");
+        }
+
+        @EventMapping
+        void event(Event event) {
+            handled.add("event");
+        }
+    }
+
     @LineMessageHandler
     @AllArgsConstructor
     public static class ReplyHandler {
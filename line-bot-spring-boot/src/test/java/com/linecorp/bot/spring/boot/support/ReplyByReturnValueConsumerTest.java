@@ -22,17 +22,24 @@ import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.only;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
@@ -40,8 +47,10 @@ import org.mockito.junit.MockitoRule;
 
 import com.linecorp.bot.client.LineMessagingClient;
 import com.linecorp.bot.client.exception.GeneralLineMessagingException;
+import com.linecorp.bot.model.PushMessage;
 import com.linecorp.bot.model.ReplyMessage;
 import com.linecorp.bot.model.event.MessageEvent;
+import com.linecorp.bot.model.message.Message;
 import com.linecorp.bot.model.message.TextMessage;
 import com.linecorp.bot.model.response.BotApiResponse;
 import com.linecorp.bot.spring.boot.test.EventTestUtil;
@@ -153,6 +162,75 @@ public class ReplyByReturnValueConsumerTest {
                 .contains("EXCEPTION HAPPEN!");
     }
 
+    @Test
+    public void coalesceStagedMessagesTest() throws Exception {
+        final CompletableFuture<TextMessage> followUp = new CompletableFuture<>();
+
+        // Do
+        target.accept(Arrays.asList(new TextMessage("1"), followUp));
+
+        // Verify
+        verify(lineMessagingClient, never()).replyMessage(any());
+
+        // Do
+        followUp.complete(new TextMessage("2"));
+
+        // Verify
+        verify(lineMessagingClient, only())
+                .replyMessage(new ReplyMessage(EVENT.getReplyToken(),
+                                               Arrays.asList(new TextMessage("1"), new TextMessage("2"))));
+    }
+
+    @Test
+    public void coalesceSkipsFailedStageTest() throws Exception {
+        final CompletableFuture<TextMessage> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new GeneralLineMessagingException("EXCEPTION HAPPEN!", null, null));
+
+        // Do
+        target.accept(Arrays.asList(failed, completedFuture(singletonList(new TextMessage("2")))));
+
+        // Verify
+        verify(lineMessagingClient, only())
+                .replyMessage(new ReplyMessage(EVENT.getReplyToken(),
+                                               singletonList(new TextMessage("2"))));
+    }
+
+    @Test
+    public void overflowToPushTest() throws Exception {
+        when(lineMessagingClient.pushMessage(any()))
+                .thenReturn(completedFuture(new BotApiResponse("", " success", null)));
+        final List<Message> messages = IntStream.rangeClosed(1, 12)
+                                                .mapToObj(i -> new TextMessage(String.valueOf(i)))
+                                                .collect(Collectors.toList());
+
+        // Do
+        target.accept(messages);
+
+        // Verify
+        final InOrder inOrder = inOrder(lineMessagingClient);
+        inOrder.verify(lineMessagingClient)
+               .replyMessage(new ReplyMessage(EVENT.getReplyToken(), messages.subList(0, 5)));
+        inOrder.verify(lineMessagingClient)
+               .pushMessage(new PushMessage("userId", messages.subList(5, 10)));
+        inOrder.verify(lineMessagingClient)
+               .pushMessage(new PushMessage("userId", messages.subList(10, 12)));
+    }
+
+    @Test
+    public void noOverflowPushWhenReplyFailedTest() throws Exception {
+        reset(lineMessagingClient);
+        when(lineMessagingClient.replyMessage(any()))
+                .thenReturn(new CompletableFuture<BotApiResponse>() {{
+                    completeExceptionally(new GeneralLineMessagingException("EXCEPTION HAPPEN!", null, null));
+                }});
+
+        // Do
+        target.accept(Collections.nCopies(6, new TextMessage("text")));
+
+        // Verify
+        verify(lineMessagingClient, never()).pushMessage(any());
+    }
+
     // Internal method test.
     @Test
     public void checkListContentsNullTest() throws Exception {